@@ -0,0 +1,170 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.avro;
+
+import com.google.common.collect.MapMaker;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.DataCodec;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.codec.DataEncodingException;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.util.FastByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Encoder;
+
+
+/**
+ * {@link DataCodec} for the Avro binary format, which writes and reads {@link DataMap}s with
+ * {@link DataTranslator#dataMapToAvroBinary(DataMap, RecordDataSchema, Schema, Encoder)} and
+ * {@link DataTranslator#avroBinaryToDataMap(org.apache.avro.io.Decoder, RecordDataSchema, Schema)},
+ * without building {@link org.apache.avro.generic.GenericRecord}s.
+ *
+ * <p>The Avro binary format does not describe the data, so the codec needs the schema of the maps. The methods
+ * that take a {@link RecordDataSchema} use it, and the other methods use the schema the codec is created with.
+ * The Avro schemas are translated from the {@link RecordDataSchema}s by {@link SchemaTranslator} once, and are
+ * cached as long as the {@link RecordDataSchema}s are reachable. Lists have no schema and are not supported.</p>
+ *
+ * <p>The codec can be used as the codec of a Rest.li content type, for resources whose values are of the
+ * schema of the codec.</p>
+ */
+public class AvroBinaryDataCodec implements DataCodec
+{
+  // Keyed by identity, as the equality of schemas is structural.
+  private static final ConcurrentMap<RecordDataSchema, Schema> AVRO_SCHEMAS = new MapMaker().weakKeys().makeMap();
+  private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+  private final RecordDataSchema _schema;
+  private final AvroAdapter _avroAdapter = AvroAdapterFinder.getAvroAdapter();
+
+  /**
+   * @param schema provides the schema of the maps written and read by the methods that do not take a schema.
+   */
+  public AvroBinaryDataCodec(RecordDataSchema schema)
+  {
+    _schema = schema;
+  }
+
+  /**
+   * Return the Avro schema translated from the given schema by {@link SchemaTranslator#dataToAvroSchema(com.linkedin.data.schema.DataSchema)}.
+   *
+   * @param schema provides the {@link RecordDataSchema} to translate.
+   * @return the cached Avro {@link Schema}.
+   */
+  public static Schema getAvroSchema(RecordDataSchema schema)
+  {
+    Schema avroSchema = AVRO_SCHEMAS.get(schema);
+    if (avroSchema == null)
+    {
+      avroSchema = SchemaTranslator.dataToAvroSchema(schema);
+      Schema existing = AVRO_SCHEMAS.putIfAbsent(schema, avroSchema);
+      if (existing != null)
+      {
+        avroSchema = existing;
+      }
+    }
+    return avroSchema;
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map) throws IOException
+  {
+    return mapToBytes(map, _schema);
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map, RecordDataSchema schema) throws IOException
+  {
+    FastByteArrayOutputStream out = new FastByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+    writeMap(map, schema, out);
+    return out.toByteArray();
+  }
+
+  @Override
+  public void writeMap(DataMap map, OutputStream out) throws IOException
+  {
+    writeMap(map, _schema, out);
+  }
+
+  @Override
+  public void writeMap(DataMap map, RecordDataSchema schema, OutputStream out) throws IOException
+  {
+    Encoder encoder = _avroAdapter.createBinaryEncoder(out);
+    DataTranslator.dataMapToAvroBinary(map, schema, getAvroSchema(schema), encoder);
+    encoder.flush();
+  }
+
+  @Override
+  public DataMap bytesToMap(byte[] input) throws IOException
+  {
+    return bytesToMap(input, _schema);
+  }
+
+  @Override
+  public DataMap bytesToMap(byte[] input, RecordDataSchema schema) throws IOException
+  {
+    return DataTranslator.avroBinaryToDataMap(_avroAdapter.createBinaryDecoder(input), schema, getAvroSchema(schema));
+  }
+
+  @Override
+  public DataMap readMap(InputStream in) throws IOException
+  {
+    return readMap(in, _schema);
+  }
+
+  @Override
+  public DataMap readMap(InputStream in, RecordDataSchema schema) throws IOException
+  {
+    // AvroAdapter only creates binary decoders of byte arrays.
+    FastByteArrayOutputStream out = new FastByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+    byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+    int read;
+    while ((read = in.read(buffer)) >= 0)
+    {
+      out.write(buffer, 0, read);
+    }
+    return bytesToMap(out.toByteArray(), schema);
+  }
+
+  @Override
+  public byte[] listToBytes(DataList list) throws IOException
+  {
+    throw new DataEncodingException("Lists cannot be encoded in the Avro binary format without a schema");
+  }
+
+  @Override
+  public void writeList(DataList list, OutputStream out) throws IOException
+  {
+    throw new DataEncodingException("Lists cannot be encoded in the Avro binary format without a schema");
+  }
+
+  @Override
+  public DataList bytesToList(byte[] input) throws IOException
+  {
+    throw new DataDecodingException("Lists cannot be decoded from the Avro binary format without a schema");
+  }
+
+  @Override
+  public DataList readList(InputStream in) throws IOException
+  {
+    throw new DataDecodingException("Lists cannot be decoded from the Avro binary format without a schema");
+  }
+}
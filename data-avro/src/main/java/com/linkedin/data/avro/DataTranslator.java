@@ -31,6 +31,7 @@ import com.linkedin.data.schema.FixedDataSchema;
 import com.linkedin.data.schema.MapDataSchema;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.schema.UnionDataSchema;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.AbstractMap;
 import java.util.ArrayDeque;
@@ -43,8 +44,12 @@ import java.util.Map;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericArray;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 import org.apache.avro.util.Utf8;
 
 
@@ -126,6 +131,77 @@ public class DataTranslator implements DataTranslatorContext
     }
   }
 
+  /**
+   * Write the given {@link DataMap} conforming to the provided {@link RecordDataSchema} in the Avro binary format
+   * of the provided Avro {@link Schema}.
+   *
+   * <p>
+   * The result is the same as translating the {@link DataMap} with {@link #dataMapToGenericRecord(DataMap, RecordDataSchema, Schema)}
+   * and writing the {@link GenericRecord} with a {@link GenericDatumWriter}, except for the order of map entries,
+   * but the values are written as they are translated, without building a {@link GenericRecord}.
+   * Values of schemas with an {@link AvroOverride} are still translated to Avro generic values by their
+   * {@link CustomDataTranslator}.
+   *
+   * <p>
+   * The provided Avro {@link Schema} should be generated from the provided {@link RecordDataSchema}
+   * using {@link SchemaTranslator}. The encoder may have been partially written to if translation fails.
+   *
+   * @param map provides the {@link DataMap} to translate.
+   * @param dataSchema provides the {@link RecordDataSchema} for the {@link DataMap}.
+   * @param avroSchema provides the Avro {@link Schema} to write.
+   * @param encoder provides the {@link Encoder} to write to, which is not flushed.
+   * @throws DataTranslationException if there are errors that prevent translation.
+   * @throws IOException if the encoder fails to write.
+   */
+  public static void dataMapToAvroBinary(DataMap map, RecordDataSchema dataSchema, Schema avroSchema, Encoder encoder) throws IOException
+  {
+    DataMapToAvroBinaryTranslator translator = new DataMapToAvroBinaryTranslator(encoder);
+    try
+    {
+      translator.translate(map, dataSchema, avroSchema);
+      translator.checkMessageListForErrorsAndThrowDataTranslationException();
+    }
+    catch (RuntimeException e)
+    {
+      throw translator.dataTranslationException(e);
+    }
+  }
+
+  /**
+   * Read a {@link DataMap} conforming to the provided {@link RecordDataSchema} from the Avro binary format
+   * of the provided Avro {@link Schema}.
+   *
+   * <p>
+   * The result is the same as reading a {@link GenericRecord} with a {@link GenericDatumReader} and translating it
+   * with {@link #genericRecordToDataMap(GenericRecord, RecordDataSchema, Schema)}, but the values are translated
+   * as they are read, without building a {@link GenericRecord}.
+   *
+   * <p>
+   * The provided Avro {@link Schema} should be generated from the provided {@link RecordDataSchema}
+   * using {@link SchemaTranslator}, and be the one the data was written with.
+   *
+   * @param decoder provides the {@link Decoder} to read from.
+   * @param dataSchema provides the {@link RecordDataSchema} to translate to.
+   * @param avroSchema provides the Avro {@link Schema} to read.
+   * @return a translated {@link DataMap}.
+   * @throws DataTranslationException if there are errors that prevent translation.
+   * @throws IOException if the decoder fails to read.
+   */
+  public static DataMap avroBinaryToDataMap(Decoder decoder, RecordDataSchema dataSchema, Schema avroSchema) throws IOException
+  {
+    AvroBinaryToDataTranslator translator = new AvroBinaryToDataTranslator(decoder);
+    try
+    {
+      DataMap dataMap = (DataMap) translator.translate(dataSchema, avroSchema);
+      translator.checkMessageListForErrorsAndThrowDataTranslationException();
+      return dataMap;
+    }
+    catch (RuntimeException e)
+    {
+      throw translator.dataTranslationException(e);
+    }
+  }
+
   private static final GenericData _genericData = GenericData.get();
 
   protected final Deque<Object> _path = new ArrayDeque<Object>();
@@ -365,33 +441,8 @@ public class DataTranslator implements DataTranslatorContext
     {
       int index = _genericData.resolveUnion(avroSchema, value);
       Schema memberAvroSchema = avroSchema.getTypes().get(index);
-      String key;
-      switch (memberAvroSchema.getType())
-      {
-        case ENUM:
-        case FIXED:
-        case RECORD:
-          key = memberAvroSchema.getFullName();
-          break;
-        default:
-          key = memberAvroSchema.getType().toString().toLowerCase();
-      }
-      DataSchema memberDataSchema = unionDataSchema.getTypeByMemberKey(key);
-      if (memberDataSchema == null)
-      {
-        for (UnionDataSchema.Member member : unionDataSchema.getMembers())
-        {
-          AvroOverride avroOverride = getAvroOverride(member.getType());
-          if (avroOverride != null)
-          {
-            if (avroOverride.getAvroSchemaFullName().equals(key))
-            {
-              memberDataSchema = member.getType();
-              break;
-            }
-          }
-        }
-      }
+      String key = unionMemberName(memberAvroSchema);
+      DataSchema memberDataSchema = findUnionMemberDataSchema(unionDataSchema, key);
       if (memberDataSchema == null)
       {
         appendMessage("cannot find %1$s in union %2$s for value %3$s", key, unionDataSchema, value);
@@ -696,6 +747,557 @@ public class DataTranslator implements DataTranslatorContext
     }
   }
 
+  /**
+   * Writes Pegasus data to an {@link Encoder} the way {@link DataMapToGenericRecordTranslator} translates it,
+   * in the order a {@link GenericDatumWriter} writes the translated values.
+   */
+  private static class DataMapToAvroBinaryTranslator extends DataTranslator
+  {
+    private final Encoder _encoder;
+
+    private DataMapToAvroBinaryTranslator(Encoder encoder)
+    {
+      _encoder = encoder;
+    }
+
+    private void translate(Object value, DataSchema dataSchema, Schema avroSchema) throws IOException
+    {
+      AvroOverride avroOverride = getAvroOverride(dataSchema);
+      if (avroOverride != null)
+      {
+        Object avroValue = avroOverride.getCustomDataTranslator().dataToAvroGeneric(this, value, dataSchema, avroSchema);
+        if (avroValue != CustomDataTranslator.AVRO_BAD_RESULT || avroSchema.getType() == Schema.Type.NULL)
+        {
+          new GenericDatumWriter<Object>(avroSchema).write(avroValue, _encoder);
+        }
+        return;
+      }
+
+      DataSchema dereferencedDataSchema = dataSchema.getDereferencedDataSchema();
+      DataSchema.Type type = dereferencedDataSchema.getType();
+      switch (type)
+      {
+        case NULL:
+          if (value != Data.NULL)
+          {
+            appendMessage("value must be null for null schema");
+            break;
+          }
+          _encoder.writeNull();
+          break;
+        case BOOLEAN:
+          _encoder.writeBoolean((Boolean) value);
+          break;
+        case INT:
+          _encoder.writeInt(((Number) value).intValue());
+          break;
+        case LONG:
+          _encoder.writeLong(((Number) value).longValue());
+          break;
+        case FLOAT:
+          _encoder.writeFloat(((Number) value).floatValue());
+          break;
+        case DOUBLE:
+          _encoder.writeDouble(((Number) value).doubleValue());
+          break;
+        case STRING:
+          _encoder.writeString((String) value);
+          break;
+        case BYTES:
+          _encoder.writeBytes(translateBytes(value));
+          break;
+        case ENUM:
+          String enumValue = value.toString();
+          EnumDataSchema enumDataSchema = (EnumDataSchema) dereferencedDataSchema;
+          if (enumDataSchema.getSymbols().contains(enumValue) == false)
+          {
+            appendMessage("enum value %1$s not one of %2$s", enumValue, enumDataSchema.getSymbols());
+            break;
+          }
+          _encoder.writeEnum(avroSchema.getEnumOrdinal(enumValue));
+          break;
+        case FIXED:
+          byte[] bytes = translateBytes(value);
+          FixedDataSchema fixedDataSchema = (FixedDataSchema) dereferencedDataSchema;
+          if (fixedDataSchema.getSize() != bytes.length)
+          {
+            appendMessage("ByteString size %1$d != FixedDataSchema size %2$d",
+                          bytes.length,
+                          fixedDataSchema.getSize());
+            break;
+          }
+          _encoder.writeFixed(bytes);
+          break;
+        case MAP:
+          DataMap map = (DataMap) value;
+          DataSchema valueDataSchema = ((MapDataSchema) dereferencedDataSchema).getValues();
+          Schema valueAvroSchema = avroSchema.getValueType();
+          _encoder.writeMapStart();
+          _encoder.setItemCount(map.size());
+          for (Map.Entry<String, Object> entry : map.entrySet())
+          {
+            String key = entry.getKey();
+            _encoder.startItem();
+            _encoder.writeString(key);
+            _path.addLast(key);
+            translate(entry.getValue(), valueDataSchema, valueAvroSchema);
+            _path.removeLast();
+          }
+          _encoder.writeMapEnd();
+          break;
+        case ARRAY:
+          DataList list = (DataList) value;
+          DataSchema elementDataSchema = ((ArrayDataSchema) dereferencedDataSchema).getItems();
+          Schema elementAvroSchema = avroSchema.getElementType();
+          _encoder.writeArrayStart();
+          _encoder.setItemCount(list.size());
+          for (int i = 0; i < list.size(); i++)
+          {
+            _encoder.startItem();
+            _path.addLast(i);
+            translate(list.get(i), elementDataSchema, elementAvroSchema);
+            _path.removeLast();
+          }
+          _encoder.writeArrayEnd();
+          break;
+        case RECORD:
+          translateRecord((DataMap) value, (RecordDataSchema) dereferencedDataSchema, avroSchema);
+          break;
+        case UNION:
+          UnionDataSchema unionDataSchema = (UnionDataSchema) dereferencedDataSchema;
+
+          String key;
+          Object memberValue;
+          if (value == Data.NULL)
+          {
+            key = DataSchemaConstants.NULL_TYPE;
+            memberValue = Data.NULL;
+          }
+          else
+          {
+            map = (DataMap) value;
+            Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+            key = entry.getKey();
+            memberValue = entry.getValue();
+          }
+
+          if (unionDataSchema.areMembersAliased())
+          {
+            translatePegasusUnionWithAliasesToAvroRecord(key, memberValue, unionDataSchema, avroSchema);
+          }
+          else
+          {
+            DataSchema memberDataSchema = unionDataSchema.getTypeByMemberKey(key);
+            int index = findUnionMemberIndex(memberDataSchema, avroSchema);
+            if (index < 0)
+            {
+              break;
+            }
+            Schema memberAvroSchema = avroSchema.getTypes().get(index);
+            _encoder.writeIndex(index);
+            _path.addLast(unionMemberName(memberAvroSchema));
+            translate(memberValue, memberDataSchema, memberAvroSchema);
+            _path.removeLast();
+          }
+          break;
+        default:
+          appendMessage("schema type unknown %1$s", dereferencedDataSchema.getType());
+          break;
+      }
+    }
+
+    private void translateRecord(DataMap map, RecordDataSchema recordDataSchema, Schema avroSchema) throws IOException
+    {
+      // Avro fields without a Pegasus field would be null in the GenericRecord, which GenericDatumWriter rejects.
+      for (Schema.Field avroField : avroSchema.getFields())
+      {
+        String fieldName = avroField.name();
+        _path.addLast(fieldName);
+        RecordDataSchema.Field field = recordDataSchema.getField(fieldName);
+        if (field == null)
+        {
+          appendMessage("cannot find field %1$s in record %2$s", fieldName, recordDataSchema.getFullName());
+          _path.removeLast();
+          continue;
+        }
+        DataSchema fieldDataSchema = field.getType();
+        Schema fieldAvroSchema = avroField.schema();
+        Object fieldValue = map.get(fieldName);
+        if (field.getOptional())
+        {
+          if (fieldValue == null)
+          {
+            fieldValue = Data.NULL;
+            fieldDataSchema = DataSchemaConstants.NULL_DATA_SCHEMA;
+          }
+          if (fieldDataSchema.getDereferencedType() != DataSchema.Type.UNION)
+          {
+            int index = findUnionMemberIndex(fieldDataSchema, fieldAvroSchema);
+            if (index < 0)
+            {
+              _path.removeLast();
+              continue;
+            }
+            _encoder.writeIndex(index);
+            fieldAvroSchema = fieldAvroSchema.getTypes().get(index);
+          }
+        }
+        else if (fieldValue == null)
+        {
+          Object defaultValue = field.getDefault();
+          if (defaultValue != null)
+          {
+            fieldValue = defaultValue;
+          }
+          else
+          {
+            appendMessage("required field is absent");
+            _path.removeLast();
+            continue;
+          }
+        }
+        translate(fieldValue, fieldDataSchema, fieldAvroSchema);
+        _path.removeLast();
+      }
+    }
+
+    private void translatePegasusUnionWithAliasesToAvroRecord(String memberKey, Object memberValue, UnionDataSchema unionDataSchema, Schema avroSchema)
+      throws IOException
+    {
+      Schema recordAvroSchema = extractNonnullSchema(avroSchema);
+      if (recordAvroSchema == null)
+      {
+        return;
+      }
+
+      // Bail out if the pegasus union data has an invalid member key
+      DataSchema memberDataSchema = unionDataSchema.getTypeByMemberKey(memberKey);
+      if (memberDataSchema == null)
+      {
+        appendMessage("cannot find member key %1$s in union %2$s", memberKey, unionDataSchema);
+        return;
+      }
+      if (memberValue != Data.NULL && recordAvroSchema.getField(memberKey) == null)
+      {
+        appendMessage("cannot find field %1$s in record %2$s", memberKey, recordAvroSchema);
+        return;
+      }
+      if (recordAvroSchema.getField(DataSchemaConstants.DISCRIMINATOR_FIELD) == null)
+      {
+        appendMessage("cannot find field %1$s in record %2$s", DataSchemaConstants.DISCRIMINATOR_FIELD, recordAvroSchema);
+        return;
+      }
+
+      if (avroSchema.getType() == Schema.Type.UNION)
+      {
+        _encoder.writeIndex(avroSchema.getTypes().indexOf(recordAvroSchema));
+      }
+      for (Schema.Field avroField : recordAvroSchema.getFields())
+      {
+        String fieldName = avroField.name();
+        Schema fieldAvroSchema = avroField.schema();
+        _path.add(fieldName);
+        if (DataSchemaConstants.DISCRIMINATOR_FIELD.equals(fieldName))
+        {
+          _encoder.writeEnum(fieldAvroSchema.getEnumOrdinal(memberKey));
+        }
+        else if (memberValue != Data.NULL && fieldName.equals(memberKey))
+        {
+          Schema memberAvroSchema = extractNonnullSchema(fieldAvroSchema);
+          if (fieldAvroSchema.getType() == Schema.Type.UNION)
+          {
+            _encoder.writeIndex(fieldAvroSchema.getTypes().indexOf(memberAvroSchema));
+          }
+          translate(memberValue, memberDataSchema, memberAvroSchema);
+        }
+        else
+        {
+          // The fields of the other members are null.
+          int index = findUnionMemberIndex(DataSchemaConstants.NULL_DATA_SCHEMA, fieldAvroSchema);
+          if (index >= 0)
+          {
+            _encoder.writeIndex(index);
+            _encoder.writeNull();
+          }
+        }
+        _path.removeLast();
+      }
+    }
+  }
+
+  /**
+   * Reads Pegasus data from a {@link Decoder} the way {@link AvroGenericToDataTranslator} translates the values
+   * read by a {@link GenericDatumReader}.
+   */
+  private static class AvroBinaryToDataTranslator extends DataTranslator
+  {
+    private final static Object BAD_RESULT = CustomDataTranslator.DATA_BAD_RESULT;
+
+    private final Decoder _decoder;
+    // Reused by the decoder for every string and bytes value.
+    private Utf8 _utf8;
+    private ByteBuffer _byteBuffer;
+
+    private AvroBinaryToDataTranslator(Decoder decoder)
+    {
+      _decoder = decoder;
+    }
+
+    private Object translate(DataSchema dataSchema, Schema avroSchema) throws IOException
+    {
+      AvroOverride avroOverride = getAvroOverride(dataSchema);
+      if (avroOverride != null)
+      {
+        Object avroValue = new GenericDatumReader<Object>(avroSchema).read(null, _decoder);
+        return avroOverride.getCustomDataTranslator().avroGenericToData(this, avroValue, avroSchema, dataSchema);
+      }
+
+      DataSchema dereferencedDataSchema = dataSchema.getDereferencedDataSchema();
+      DataSchema.Type type = dereferencedDataSchema.getType();
+      Object result;
+      switch (type)
+      {
+        case NULL:
+          _decoder.readNull();
+          result = Data.NULL;
+          break;
+        case BOOLEAN:
+          result = _decoder.readBoolean();
+          break;
+        case INT:
+          result = _decoder.readInt();
+          break;
+        case LONG:
+          result = _decoder.readLong();
+          break;
+        case FLOAT:
+          result = _decoder.readFloat();
+          break;
+        case DOUBLE:
+          result = _decoder.readDouble();
+          break;
+        case STRING:
+          result = readString();
+          break;
+        case BYTES:
+          _byteBuffer = _decoder.readBytes(_byteBuffer);
+          result = ByteString.copy(_byteBuffer);
+          break;
+        case ENUM:
+          String enumValue = avroSchema.getEnumSymbols().get(_decoder.readEnum());
+          EnumDataSchema enumDataSchema = (EnumDataSchema) dereferencedDataSchema;
+          if (enumDataSchema.getSymbols().contains(enumValue) == false)
+          {
+            appendMessage("enum value %1$s not one of %2$s", enumValue, enumDataSchema.getSymbols());
+            result = BAD_RESULT;
+            break;
+          }
+          result = enumValue;
+          break;
+        case FIXED:
+          byte[] fixedBytes = new byte[avroSchema.getFixedSize()];
+          _decoder.readFixed(fixedBytes);
+          FixedDataSchema fixedDataSchema = (FixedDataSchema) dereferencedDataSchema;
+          if (fixedDataSchema.getSize() != fixedBytes.length)
+          {
+            appendMessage("GenericFixed size %1$d != FixedDataSchema size %2$d",
+                          fixedBytes.length,
+                          fixedDataSchema.getSize());
+            result = BAD_RESULT;
+            break;
+          }
+          result = ByteString.unsafeWrap(fixedBytes);
+          break;
+        case MAP:
+          DataSchema valueDataSchema = ((MapDataSchema) dereferencedDataSchema).getValues();
+          Schema valueAvroSchema = avroSchema.getValueType();
+          long count = _decoder.readMapStart();
+          DataMap dataMap = new DataMap((int) count);
+          for (; count != 0; count = _decoder.mapNext())
+          {
+            for (long i = 0; i < count; i++)
+            {
+              String key = readString();
+              _path.addLast(key);
+              Object entryValue = translate(valueDataSchema, valueAvroSchema);
+              _path.removeLast();
+              dataMap.put(key, entryValue);
+            }
+          }
+          result = dataMap;
+          break;
+        case ARRAY:
+          DataSchema elementDataSchema = ((ArrayDataSchema) dereferencedDataSchema).getItems();
+          Schema elementAvroSchema = avroSchema.getElementType();
+          count = _decoder.readArrayStart();
+          DataList dataList = new DataList((int) count);
+          for (; count != 0; count = _decoder.arrayNext())
+          {
+            for (long i = 0; i < count; i++)
+            {
+              _path.addLast(dataList.size());
+              Object entryValue = translate(elementDataSchema, elementAvroSchema);
+              _path.removeLast();
+              dataList.add(entryValue);
+            }
+          }
+          result = dataList;
+          break;
+        case RECORD:
+          result = translateRecord((RecordDataSchema) dereferencedDataSchema, avroSchema);
+          break;
+        case UNION:
+          UnionDataSchema unionDataSchema = (UnionDataSchema) dereferencedDataSchema;
+          if (unionDataSchema.areMembersAliased())
+          {
+            result = translateAvroRecordToPegasusUnionWithAliases(unionDataSchema, extractUnionMember(avroSchema));
+          }
+          else
+          {
+            result = translateUnionMember(unionDataSchema, avroSchema.getTypes().get(_decoder.readIndex()));
+          }
+          break;
+        default:
+          appendMessage("schema type unknown %1$s", dereferencedDataSchema.getType()) ;
+          result = BAD_RESULT;
+          break;
+      }
+      return result;
+    }
+
+    private DataMap translateRecord(RecordDataSchema recordDataSchema, Schema avroSchema) throws IOException
+    {
+      DataMap dataMap = new DataMap(avroSchema.getFields().size());
+      for (Schema.Field avroField : avroSchema.getFields())
+      {
+        String fieldName = avroField.name();
+        RecordDataSchema.Field field = recordDataSchema.getField(fieldName);
+        if (field == null)
+        {
+          skip(avroField.schema());
+          continue;
+        }
+        // Null values are not added to the DataMap, see AvroGenericToDataTranslator.
+        Schema fieldAvroSchema = extractUnionMember(avroField.schema());
+        if (fieldAvroSchema.getType() == Schema.Type.NULL)
+        {
+          _decoder.readNull();
+          continue;
+        }
+        DataSchema fieldDataSchema = field.getType();
+        _path.addLast(fieldName);
+        Object fieldValue;
+        if (avroField.schema().getType() == Schema.Type.UNION
+            && fieldDataSchema.getDereferencedType() == DataSchema.Type.UNION
+            && getAvroOverride(fieldDataSchema) == null)
+        {
+          // The index of the union member has been read already.
+          UnionDataSchema unionDataSchema = (UnionDataSchema) fieldDataSchema.getDereferencedDataSchema();
+          fieldValue = unionDataSchema.areMembersAliased()
+              ? translateAvroRecordToPegasusUnionWithAliases(unionDataSchema, fieldAvroSchema)
+              : translateUnionMember(unionDataSchema, fieldAvroSchema);
+        }
+        else
+        {
+          fieldValue = translate(fieldDataSchema, fieldAvroSchema);
+        }
+        dataMap.put(fieldName, fieldValue);
+        _path.removeLast();
+      }
+      return dataMap;
+    }
+
+    private Object translateUnionMember(UnionDataSchema unionDataSchema, Schema memberAvroSchema) throws IOException
+    {
+      String key = unionMemberName(memberAvroSchema);
+      DataSchema memberDataSchema = findUnionMemberDataSchema(unionDataSchema, key);
+      if (memberDataSchema == null)
+      {
+        appendMessage("cannot find %1$s in union %2$s", key, unionDataSchema);
+        skip(memberAvroSchema);
+        return BAD_RESULT;
+      }
+      if (memberAvroSchema.getType() == Schema.Type.NULL)
+      {
+        _decoder.readNull();
+        return Data.NULL;
+      }
+      String memberKey = memberDataSchema.getUnionMemberKey();
+      DataMap dataMap = new DataMap(1);
+      _path.addLast(memberKey);
+      dataMap.put(memberKey, translate(memberDataSchema, memberAvroSchema));
+      _path.removeLast();
+      return dataMap;
+    }
+
+    private Object translateAvroRecordToPegasusUnionWithAliases(UnionDataSchema unionDataSchema, Schema recordAvroSchema)
+      throws IOException
+    {
+      // The discriminator is the last field, so the members are read before it is known which one is set.
+      String fieldDiscriminator = null;
+      String memberKey = null;
+      Object memberValue = null;
+      for (Schema.Field avroField : recordAvroSchema.getFields())
+      {
+        String fieldName = avroField.name();
+        if (DataSchemaConstants.DISCRIMINATOR_FIELD.equals(fieldName))
+        {
+          fieldDiscriminator = avroField.schema().getEnumSymbols().get(_decoder.readEnum());
+          continue;
+        }
+        Schema fieldAvroSchema = extractUnionMember(avroField.schema());
+        DataSchema memberDataSchema = unionDataSchema.getTypeByMemberKey(fieldName);
+        if (fieldAvroSchema.getType() == Schema.Type.NULL || memberDataSchema == null)
+        {
+          skip(fieldAvroSchema);
+          continue;
+        }
+        _path.add(fieldName);
+        memberKey = fieldName;
+        memberValue = translate(memberDataSchema, fieldAvroSchema);
+        _path.removeLast();
+      }
+
+      if (fieldDiscriminator == null)
+      {
+        appendMessage("cannot find required field %1$s in record %2$s", DataSchemaConstants.DISCRIMINATOR_FIELD, recordAvroSchema);
+        return BAD_RESULT;
+      }
+      if (DataSchemaConstants.NULL_TYPE.equals(fieldDiscriminator))
+      {
+        return Data.NULL;
+      }
+      if (fieldDiscriminator.equals(memberKey) == false)
+      {
+        appendMessage("cannot find value of field %1$s in record %2$s", fieldDiscriminator, recordAvroSchema);
+        return BAD_RESULT;
+      }
+      DataMap result = new DataMap(1);
+      result.put(memberKey, memberValue);
+      return result;
+    }
+
+    /**
+     * Read the index of the member if the Avro schema is a union, and return the schema of the member,
+     * or return the Avro schema otherwise.
+     */
+    private Schema extractUnionMember(Schema avroSchema) throws IOException
+    {
+      return avroSchema.getType() == Schema.Type.UNION ? avroSchema.getTypes().get(_decoder.readIndex()) : avroSchema;
+    }
+
+    private String readString() throws IOException
+    {
+      _utf8 = _decoder.readString(_utf8);
+      return _utf8.toString();
+    }
+
+    private void skip(Schema avroSchema) throws IOException
+    {
+      new GenericDatumReader<Object>(avroSchema).read(null, _decoder);
+    }
+  }
+
   /**
    * Avro's optional fields are defined as an Union. This method can be used to extract the non-null type
    * embedded in the union. If the passed in avro schema is not a Union type, it is returned as is.
@@ -734,28 +1336,70 @@ public class DataTranslator implements DataTranslatorContext
   }
 
   protected Map.Entry<String, Schema> findUnionMember(DataSchema dataSchema, Schema avroSchema)
+  {
+    int index = findUnionMemberIndex(dataSchema, avroSchema);
+    if (index < 0)
+    {
+      return null;
+    }
+    Schema member = avroSchema.getTypes().get(index);
+    return new AbstractMap.SimpleEntry<String, Schema>(unionMemberName(member), member);
+  }
+
+  /**
+   * Same as {@link #findUnionMember(DataSchema, Schema)}, but returns the index of the member in the Avro union,
+   * or -1 if it cannot be found.
+   */
+  protected int findUnionMemberIndex(DataSchema dataSchema, Schema avroSchema)
   {
     AvroOverride avroOverride = getAvroOverride(dataSchema);
     String key = (avroOverride == null ? dataSchema.getUnionMemberKey() : avroOverride.getAvroSchemaFullName());
     List<Schema> members = avroSchema.getTypes();
-    for (Schema member : members)
+    for (int i = 0; i < members.size(); i++)
     {
-      String name;
-      switch (member.getType())
+      if (unionMemberName(members.get(i)).equals(key))
+        return i;
+    }
+    appendMessage("cannot find %1$s in union %2$s", key, avroSchema);
+    return -1;
+  }
+
+  /**
+   * Find the member of the Pegasus union translated to the Avro union member with the given name,
+   * or return null if there is none.
+   */
+  protected DataSchema findUnionMemberDataSchema(UnionDataSchema unionDataSchema, String avroMemberName)
+  {
+    DataSchema memberDataSchema = unionDataSchema.getTypeByMemberKey(avroMemberName);
+    if (memberDataSchema == null)
+    {
+      for (UnionDataSchema.Member member : unionDataSchema.getMembers())
       {
-        case ENUM:
-        case FIXED:
-        case RECORD:
-          name = member.getFullName();
-          break;
-        default:
-          name = member.getType().toString().toLowerCase();
+        AvroOverride avroOverride = getAvroOverride(member.getType());
+        if (avroOverride != null)
+        {
+          if (avroOverride.getAvroSchemaFullName().equals(avroMemberName))
+          {
+            memberDataSchema = member.getType();
+            break;
+          }
+        }
       }
-      if (name.equals(key))
-        return new AbstractMap.SimpleEntry<String, Schema>(name, member);
     }
-    appendMessage("cannot find %1$s in union %2$s", key, avroSchema);
-    return null;
+    return memberDataSchema;
+  }
+
+  private static String unionMemberName(Schema member)
+  {
+    switch (member.getType())
+    {
+      case ENUM:
+      case FIXED:
+      case RECORD:
+        return member.getFullName();
+      default:
+        return member.getType().toString().toLowerCase();
+    }
   }
 
   private static byte[] translateBytes(Object value)
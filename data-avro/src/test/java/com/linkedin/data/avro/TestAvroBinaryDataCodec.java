@@ -0,0 +1,163 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.avro;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.avro.util.AvroUtil;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.codec.DataEncodingException;
+import com.linkedin.data.schema.RecordDataSchema;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestAvroBinaryDataCodec
+{
+  private static final String SCHEMA =
+    "{ \"type\" : \"record\", \"name\" : \"Event\", \"namespace\" : \"com.linkedin.test\", \"fields\" : [ " +
+    "  { \"name\" : \"id\", \"type\" : \"long\" }, " +
+    "  { \"name\" : \"name\", \"type\" : \"string\" }, " +
+    "  { \"name\" : \"score\", \"type\" : \"double\", \"optional\" : true }, " +
+    "  { \"name\" : \"payload\", \"type\" : \"bytes\", \"optional\" : true }, " +
+    "  { \"name\" : \"kind\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Kind\", \"symbols\" : [ \"CLICK\", \"VIEW\" ] } }, " +
+    "  { \"name\" : \"hash\", \"type\" : { \"type\" : \"fixed\", \"name\" : \"Hash\", \"size\" : 4 }, \"optional\" : true }, " +
+    "  { \"name\" : \"tags\", \"type\" : { \"type\" : \"array\", \"items\" : \"string\" }, \"default\" : [] }, " +
+    "  { \"name\" : \"counts\", \"type\" : { \"type\" : \"map\", \"values\" : \"int\" }, \"optional\" : true }, " +
+    "  { \"name\" : \"value\", \"type\" : [ \"null\", \"int\", \"string\", " +
+    "    { \"type\" : \"record\", \"name\" : \"Nested\", \"fields\" : [ { \"name\" : \"flag\", \"type\" : \"boolean\" } ] } ] } " +
+    "] }";
+
+  private static final String[] INPUTS =
+  {
+    "{ \"id\" : 1, \"name\" : \"first\", \"kind\" : \"CLICK\", \"value\" : null }",
+    "{ \"id\" : 2, \"name\" : \"\\u00e9v\\u00e9nement\", \"score\" : 0.5, \"payload\" : \"\\u0000\\u00ff\", \"kind\" : \"VIEW\", " +
+      "\"hash\" : \"abcd\", \"tags\" : [ \"a\", \"b\" ], \"counts\" : { \"x\" : 1 }, \"value\" : { \"int\" : 3 } }",
+    "{ \"id\" : 3, \"name\" : \"third\", \"kind\" : \"VIEW\", \"tags\" : [], \"counts\" : {}, " +
+      "\"value\" : { \"com.linkedin.test.Nested\" : { \"flag\" : true } } }"
+  };
+
+  private RecordDataSchema _schema;
+
+  @BeforeClass
+  public void setUp() throws IOException
+  {
+    _schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+  }
+
+  @Test
+  public void testSameBytesAsGenericRecord() throws IOException
+  {
+    AvroBinaryDataCodec codec = new AvroBinaryDataCodec(_schema);
+    Schema avroSchema = AvroBinaryDataCodec.getAvroSchema(_schema);
+    for (String input : INPUTS)
+    {
+      DataMap dataMap = TestUtil.dataMapFromString(input);
+      GenericRecord avroRecord = DataTranslator.dataMapToGenericRecord(dataMap, _schema, avroSchema);
+      byte[] expected = AvroUtil.bytesFromGenericRecord(avroRecord);
+
+      byte[] bytes = codec.mapToBytes(dataMap);
+      assertEquals(bytes, expected);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      codec.writeMap(dataMap, out);
+      assertEquals(out.toByteArray(), expected);
+
+      DataMap expectedDataMap = DataTranslator.genericRecordToDataMap(avroRecord, _schema, avroSchema);
+      assertEquals(codec.bytesToMap(bytes), expectedDataMap);
+      assertEquals(codec.readMap(new ByteArrayInputStream(bytes)), expectedDataMap);
+    }
+  }
+
+  @Test
+  public void testSchemaArgument() throws IOException
+  {
+    RecordDataSchema otherSchema = (RecordDataSchema) TestUtil.dataSchemaFromString(
+      "{ \"type\" : \"record\", \"name\" : \"Other\", \"fields\" : [ { \"name\" : \"count\", \"type\" : \"int\" } ] }");
+    AvroBinaryDataCodec codec = new AvroBinaryDataCodec(_schema);
+    DataMap dataMap = new DataMap();
+    dataMap.put("count", 150);
+
+    byte[] bytes = codec.mapToBytes(dataMap, otherSchema);
+    assertEquals(bytes, new byte[] { (byte) 0xac, 0x02 });
+    assertEquals(codec.bytesToMap(bytes, otherSchema), dataMap);
+    assertEquals(codec.readMap(new ByteArrayInputStream(bytes), otherSchema), dataMap);
+  }
+
+  @Test
+  public void testAvroSchemaCache() throws IOException
+  {
+    Schema avroSchema = AvroBinaryDataCodec.getAvroSchema(_schema);
+    assertSame(AvroBinaryDataCodec.getAvroSchema(_schema), avroSchema);
+    assertEquals(avroSchema, SchemaTranslator.dataToAvroSchema(_schema));
+
+    // Schemas are cached by identity.
+    RecordDataSchema sameSchema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    assertNotSame(AvroBinaryDataCodec.getAvroSchema(sameSchema), avroSchema);
+  }
+
+  @Test
+  public void testTranslationError() throws IOException
+  {
+    AvroBinaryDataCodec codec = new AvroBinaryDataCodec(_schema);
+    DataMap dataMap = TestUtil.dataMapFromString("{ \"id\" : 1, \"kind\" : \"CLICK\", \"value\" : null }");
+    try
+    {
+      codec.mapToBytes(dataMap);
+      fail("Expected DataTranslationException");
+    }
+    catch (DataTranslationException e)
+    {
+      assertTrue(e.getMessage().contains("/name"), e.getMessage());
+      assertTrue(e.getMessage().contains("required field is absent"), e.getMessage());
+    }
+  }
+
+  @Test
+  public void testListsNotSupported() throws IOException
+  {
+    AvroBinaryDataCodec codec = new AvroBinaryDataCodec(_schema);
+    try
+    {
+      codec.listToBytes(new DataList());
+      fail("Expected DataEncodingException");
+    }
+    catch (DataEncodingException e)
+    {
+    }
+    try
+    {
+      codec.bytesToList(new byte[0]);
+      fail("Expected DataDecodingException");
+    }
+    catch (DataDecodingException e)
+    {
+    }
+  }
+}
@@ -25,6 +25,7 @@ import com.linkedin.data.schema.validation.RequiredMode;
 import com.linkedin.data.schema.validation.ValidateDataAgainstSchema;
 import com.linkedin.data.schema.validation.ValidationOptions;
 import com.linkedin.data.schema.validation.ValidationResult;
+import com.linkedin.util.FastByteArrayOutputStream;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -40,6 +41,8 @@ import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericArray;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -1114,6 +1117,27 @@ public class TestDataTranslator
         assertTrue(result.contains(expected));
       }
 
+      // translate from Pegasus directly to Avro binary
+      byte[] directBytes = null;
+      try
+      {
+        FastByteArrayOutputStream directOut = new FastByteArrayOutputStream();
+        Encoder encoder = AvroAdapterFinder.getAvroAdapter().createBinaryEncoder(directOut);
+        DataTranslator.dataMapToAvroBinary(dataMap, recordDataSchema, avroSchema, encoder);
+        encoder.flush();
+        directBytes = directOut.toByteArray();
+        assertTrue(avroRecord != null);
+      }
+      catch (DataTranslationException e)
+      {
+        assertTrue(avroRecord == null);
+        String directResult = TestUtil.stringFromException(e);
+        for (int i = start; i < row[col].length; i++)
+        {
+          assertTrue(directResult.contains(TestAvroUtil.namespaceProcessor(row[col][i])), directResult);
+        }
+      }
+
       if (avroRecord != null)
       {
         // translate from Avro back to Pegasus
@@ -1147,6 +1171,12 @@ public class TestDataTranslator
         {
           assertEquals(dataMapResult, fixedInputDataMap);
         }
+
+        // check that the direct translations read and write the same Avro binary data
+        GenericRecord avroRecordFromDirectBytes = AvroUtil.genericRecordFromBytes(directBytes, avroRecord.getSchema());
+        assertEquals(DataTranslator.genericRecordToDataMap(avroRecordFromDirectBytes, recordDataSchema, avroSchema), dataMapResult);
+        Decoder decoder = AvroAdapterFinder.getAvroAdapter().createBinaryDecoder(avroBytes);
+        assertEquals(DataTranslator.avroBinaryToDataMap(decoder, recordDataSchema, avroSchema), dataMapFromBinaryResult);
       }
     }
   }
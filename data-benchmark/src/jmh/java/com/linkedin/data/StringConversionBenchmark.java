@@ -0,0 +1,125 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data;
+
+import com.linkedin.data.codec.BufferChain;
+import java.nio.ByteOrder;
+import java.nio.charset.CharacterCodingException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the conversions of strings to and from Avro bytes by {@link Data} and {@link ByteString}, and their
+ * UTF-8 encoding by {@link BufferChain}, which PSON uses for keys and string values.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class StringConversionBenchmark
+{
+  public enum Text
+  {
+    SHORT_KEY("memberId"),
+    LONG_ASCII(repeat("The quick brown fox jumps over the lazy dog. ", 48)),
+    LONG_MIXED(repeat("D\u00e9j\u00e0 vu, na\u00efve fa\u00e7ade, \u00fcber cr\u00e8me br\u00fbl\u00e9e, \u65e5\u672c\u8a9e. ", 32));
+
+    private final String _value;
+
+    Text(String value)
+    {
+      _value = value;
+    }
+  }
+
+  @Param({"SHORT_KEY", "LONG_ASCII", "LONG_MIXED"})
+  public Text _text;
+
+  private String _string;
+  private byte[] _bytes;
+  private ByteString _byteString;
+
+  @Setup
+  public void setup()
+  {
+    // Avro strings only hold characters up to U+00FF, so the Avro conversions use the ISO-8859-1 subset.
+    StringBuilder builder = new StringBuilder(_text._value.length());
+    for (char c : _text._value.toCharArray())
+    {
+      if (c <= 0xff)
+      {
+        builder.append(c);
+      }
+    }
+    _string = builder.toString();
+    _bytes = Data.stringToBytes(_string, true);
+    _byteString = ByteString.copy(_bytes);
+  }
+
+  @Benchmark
+  public byte[] stringToBytes()
+  {
+    return Data.stringToBytes(_string, true);
+  }
+
+  @Benchmark
+  public String bytesToString()
+  {
+    return Data.bytesToString(_bytes);
+  }
+
+  @Benchmark
+  public ByteString copyAvroString()
+  {
+    return ByteString.copyAvroString(_string, true);
+  }
+
+  @Benchmark
+  public String asAvroString()
+  {
+    return _byteString.asAvroString();
+  }
+
+  @Benchmark
+  public BufferChain putUtf8CString() throws CharacterCodingException
+  {
+    return new BufferChain(ByteOrder.LITTLE_ENDIAN).putUtf8CString(_text._value);
+  }
+
+  private static String repeat(String string, int count)
+  {
+    StringBuilder builder = new StringBuilder(string.length() * count);
+    for (int i = 0; i < count; i++)
+    {
+      builder.append(string);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,140 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.SchemaParser;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the encoded size and the encoding and decoding times of JSON, Smile, PSON and PSON version 2
+ * for a batch response whose elements have a schema. The encoded sizes are printed during the setup.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CodecBenchmark
+{
+  private static final String SCHEMA =
+    "{ \"type\" : \"record\", \"name\" : \"Response\", \"namespace\" : \"com.linkedin.benchmark\", \"fields\" : [ " +
+    "  { \"name\" : \"elements\", \"type\" : { \"type\" : \"array\", \"items\" : " +
+    "    { \"type\" : \"record\", \"name\" : \"Member\", \"fields\" : [ " +
+    "      { \"name\" : \"memberId\", \"type\" : \"long\" }, " +
+    "      { \"name\" : \"firstName\", \"type\" : \"string\" }, " +
+    "      { \"name\" : \"lastName\", \"type\" : \"string\" }, " +
+    "      { \"name\" : \"emailAddress\", \"type\" : \"string\" }, " +
+    "      { \"name\" : \"positions\", \"type\" : { \"type\" : \"array\", \"items\" : " +
+    "        { \"type\" : \"record\", \"name\" : \"Position\", \"fields\" : [ " +
+    "          { \"name\" : \"title\", \"type\" : \"string\" }, " +
+    "          { \"name\" : \"companyName\", \"type\" : \"string\" }, " +
+    "          { \"name\" : \"startYear\", \"type\" : \"int\" } ] } } } ] } } } " +
+    "] }";
+
+  @Param({"json", "smile", "pson", "pson2"})
+  public String _codecName;
+
+  @Param({"1", "100"})
+  public int _elements;
+
+  private DataCodec _codec;
+  private DataMap _response;
+  private byte[] _bytes;
+
+  @Setup
+  public void setUp() throws IOException
+  {
+    SchemaParser parser = new SchemaParser();
+    parser.parse(SCHEMA);
+    if (parser.hasError())
+    {
+      throw new IllegalStateException(parser.errorMessage());
+    }
+    DataSchema schema = parser.topLevelDataSchemas().get(0);
+
+    switch (_codecName)
+    {
+      case "json":
+        _codec = new JacksonDataCodec();
+        break;
+      case "smile":
+        _codec = new JacksonSmileDataCodec();
+        break;
+      case "pson":
+        _codec = new PsonDataCodec();
+        break;
+      case "pson2":
+        _codec = new SchemaPsonDataCodec(schema);
+        break;
+      default:
+        throw new IllegalArgumentException(_codecName);
+    }
+
+    DataList elements = new DataList();
+    for (int i = 0; i < _elements; i++)
+    {
+      DataMap member = new DataMap();
+      member.put("memberId", 1000000L + i);
+      member.put("firstName", "first" + i);
+      member.put("lastName", "last" + i);
+      member.put("emailAddress", "member" + i + "@example.com");
+      DataList positions = new DataList();
+      for (int j = 0; j < 3; j++)
+      {
+        DataMap position = new DataMap();
+        position.put("title", "title" + j);
+        position.put("companyName", "company" + j);
+        position.put("startYear", 2000 + j);
+        positions.add(position);
+      }
+      member.put("positions", positions);
+      elements.add(member);
+    }
+    _response = new DataMap();
+    _response.put("elements", elements);
+    _bytes = _codec.mapToBytes(_response);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException
+  {
+    return _codec.mapToBytes(_response);
+  }
+
+  @Benchmark
+  public DataMap decode() throws IOException
+  {
+    return _codec.bytesToMap(_bytes);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Measures cloning a {@link CowMap} and a {@link CowList} shared by several threads, such as a cached template.
+ *
+ * A read-only source is cloned without acquiring a reference, while a mutable source is reference counted, which
+ * is how every clone was made before, so {@code _readOnly=false} is the baseline.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CowBenchmark
+{
+  private static final int SIZE = 16;
+
+  @Param({"true", "false"})
+  public boolean _readOnly;
+
+  private CowMap<String, Object> _map;
+  private CowList<Object> _list;
+
+  @Setup
+  public void setup()
+  {
+    _map = new CowMap<String, Object>();
+    _list = new CowList<Object>();
+    for (int i = 0; i < SIZE; i++)
+    {
+      _map.put("field" + i, i);
+      _list.add(i);
+    }
+    if (_readOnly)
+    {
+      _map.setReadOnly();
+      _list.setReadOnly();
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void cloneMap(Blackhole blackhole) throws CloneNotSupportedException
+  {
+    CowMap<String, Object> clone = _map.clone();
+    blackhole.consume(clone.get("field0"));
+    clone.invalidate();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void cloneList(Blackhole blackhole) throws CloneNotSupportedException
+  {
+    CowList<Object> clone = _list.clone();
+    blackhole.consume(clone.get(0));
+    clone.invalidate();
+  }
+
+  @Benchmark
+  public CowMap<String, Object> cloneMapAndPut() throws CloneNotSupportedException
+  {
+    CowMap<String, Object> clone = _map.clone();
+    clone.put("field0", SIZE);
+    return clone;
+  }
+
+  @Benchmark
+  public CowList<Object> cloneListAndAdd() throws CloneNotSupportedException
+  {
+    CowList<Object> clone = _list.clone();
+    clone.add(SIZE);
+    return clone;
+  }
+}
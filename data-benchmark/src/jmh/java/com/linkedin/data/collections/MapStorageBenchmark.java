@@ -0,0 +1,97 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Compares the {@link MapStorage} backends of {@link CheckedMap}.
+ *
+ * Keys are created once during setup, so the allocation reported by {@link #build} with
+ * {@code -prof gc} ({@code gc.alloc.rate.norm}) is the heap footprint of one populated map.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapStorageBenchmark
+{
+  @Param({"HASH_MAP", "COMPACT"})
+  public MapStorage _storage;
+
+  @Param({"4", "16", "64"})
+  public int _size;
+
+  private String[] _keys;
+  private Map<String, Object> _map;
+
+  @Setup
+  public void setup()
+  {
+    _keys = new String[_size];
+    for (int i = 0; i < _size; i++)
+    {
+      _keys[i] = "field" + i;
+    }
+    _map = build();
+  }
+
+  @Benchmark
+  public Map<String, Object> build()
+  {
+    CheckedMap<String, Object> map = new CheckedMap<String, Object>(_storage);
+    for (String key : _keys)
+    {
+      map.put(key, key);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public void get(Blackhole blackhole)
+  {
+    for (String key : _keys)
+    {
+      blackhole.consume(_map.get(key));
+    }
+  }
+
+  @Benchmark
+  public void iterate(Blackhole blackhole)
+  {
+    for (Map.Entry<String, Object> entry : _map.entrySet())
+    {
+      blackhole.consume(entry.getValue());
+    }
+  }
+}
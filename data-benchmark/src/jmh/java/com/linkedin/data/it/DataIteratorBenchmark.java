@@ -0,0 +1,112 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.element.DataElement;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares filtering every Data object of a batch response with the compiled traversals of {@link Builder},
+ * for a path pattern that selects one field of every element.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DataIteratorBenchmark
+{
+  @Param({"10000"})
+  public int _elements;
+
+  private DataMap _response;
+  private Predicate _predicate;
+
+  @Setup
+  public void setUp()
+  {
+    DataList elements = new DataList();
+    for (int i = 0; i < _elements; i++)
+    {
+      DataMap profile = new DataMap();
+      profile.put("firstName", "first" + i);
+      profile.put("lastName", "last" + i);
+      DataList positions = new DataList();
+      for (int j = 0; j < 5; j++)
+      {
+        DataMap position = new DataMap();
+        position.put("title", "title" + j);
+        position.put("company", "company" + j);
+        positions.add(position);
+      }
+      profile.put("positions", positions);
+
+      DataMap element = new DataMap();
+      element.put("id", i);
+      element.put("email", "member" + i + "@example.com");
+      element.put("profile", profile);
+      elements.add(element);
+    }
+    _response = new DataMap();
+    _response.put("elements", elements);
+    _predicate = Predicates.pathMatchesPattern("elements", Wildcard.ANY_ONE, "email");
+  }
+
+  @Benchmark
+  public int filterIterator()
+  {
+    return Counter.count(new FilterIterator(new ObjectIterator(_response, null, IterationOrder.PRE_ORDER), _predicate));
+  }
+
+  @Benchmark
+  public int compiledIterator()
+  {
+    return Builder.create(_response, null, IterationOrder.PRE_ORDER).filterBy(_predicate).count();
+  }
+
+  @Benchmark
+  public int parallelIterate()
+  {
+    final AtomicInteger count = new AtomicInteger();
+    Builder.create(_response, null, IterationOrder.PRE_ORDER).filterBy(_predicate).iterate(new Builder.Callback()
+    {
+      @Override
+      public void callback(DataElement element)
+      {
+        count.incrementAndGet();
+      }
+    }, ForkJoinPool.commonPool());
+    return count.get();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.validation;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.validator.DataSchemaAnnotationValidator;
+import com.linkedin.data.schema.validator.Validator;
+import com.linkedin.data.template.DataTemplateUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the validation of a valid record by {@link ValidateDataAgainstSchema} with its validation by a
+ * {@link ValidationPlan} compiled for the schema, with and without the validators declared in the schema.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ValidationBenchmark
+{
+  private static final String SCHEMA =
+      "{ \"type\" : \"record\", \"name\" : \"Profile\", \"fields\" : [\n" +
+      "  { \"name\" : \"id\", \"type\" : \"long\" },\n" +
+      "  { \"name\" : \"firstName\", \"type\" : \"string\", \"validate\" : { \"strlen\" : { \"min\" : 1, \"max\" : 64 } } },\n" +
+      "  { \"name\" : \"lastName\", \"type\" : \"string\", \"validate\" : { \"strlen\" : { \"min\" : 1, \"max\" : 64 } } },\n" +
+      "  { \"name\" : \"headline\", \"type\" : \"string\", \"optional\" : true },\n" +
+      "  { \"name\" : \"active\", \"type\" : \"boolean\" },\n" +
+      "  { \"name\" : \"score\", \"type\" : \"double\" },\n" +
+      "  { \"name\" : \"status\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Status\", \"symbols\" : [ \"ACTIVE\", \"CLOSED\" ] } },\n" +
+      "  { \"name\" : \"tags\", \"type\" : { \"type\" : \"array\", \"items\" : \"string\" } },\n" +
+      "  { \"name\" : \"counters\", \"type\" : { \"type\" : \"map\", \"values\" : \"int\" } },\n" +
+      "  { \"name\" : \"positions\", \"type\" : { \"type\" : \"array\", \"items\" : {\n" +
+      "    \"type\" : \"record\", \"name\" : \"Position\", \"fields\" : [\n" +
+      "      { \"name\" : \"title\", \"type\" : \"string\", \"validate\" : { \"strlen\" : { \"max\" : 128 } } },\n" +
+      "      { \"name\" : \"company\", \"type\" : \"string\" },\n" +
+      "      { \"name\" : \"start\", \"type\" : \"long\" },\n" +
+      "      { \"name\" : \"end\", \"type\" : \"long\", \"optional\" : true },\n" +
+      "      { \"name\" : \"location\", \"type\" : [ \"null\", \"string\" ] }\n" +
+      "    ] } } }\n" +
+      "] }";
+
+  private static final int NUM_POSITIONS = 20;
+
+  @Param({"false", "true"})
+  public boolean _validators;
+
+  private DataSchema _schema;
+  private ValidationOptions _options;
+  private Validator _validator;
+  private ValidationPlan _plan;
+  private DataMap _profile;
+
+  @Setup
+  public void setup()
+  {
+    _schema = DataTemplateUtil.parseSchema(SCHEMA);
+    _options = new ValidationOptions();
+    _validator = _validators ? new DataSchemaAnnotationValidator(_schema) : null;
+    _plan = ValidationPlan.compile(_schema, _options, _validator);
+
+    _profile = new DataMap();
+    _profile.put("id", 12345678901L);
+    _profile.put("firstName", "Ada");
+    _profile.put("lastName", "Lovelace");
+    _profile.put("headline", "Analyst of the Analytical Engine");
+    _profile.put("active", true);
+    _profile.put("score", 0.75);
+    _profile.put("status", "ACTIVE");
+    DataList tags = new DataList();
+    tags.add("mathematics");
+    tags.add("computing");
+    _profile.put("tags", tags);
+    DataMap counters = new DataMap();
+    counters.put("views", 42);
+    counters.put("connections", 500);
+    _profile.put("counters", counters);
+    DataList positions = new DataList();
+    for (int i = 0; i < NUM_POSITIONS; i++)
+    {
+      DataMap position = new DataMap();
+      position.put("title", "Position " + i);
+      position.put("company", "Company " + i);
+      position.put("start", 1000L * i);
+      DataMap location = new DataMap();
+      location.put("string", "London");
+      position.put("location", location);
+      positions.add(position);
+    }
+    _profile.put("positions", positions);
+
+    if (!_plan.validate(_profile).isValid())
+    {
+      throw new IllegalStateException("The benchmarked profile is not valid");
+    }
+  }
+
+  @Benchmark
+  public ValidationResult validateDataAgainstSchema()
+  {
+    return ValidateDataAgainstSchema.validate(_profile, _schema, _options, _validator);
+  }
+
+  @Benchmark
+  public ValidationResult validationPlan()
+  {
+    return _plan.validate(_profile);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares projecting an entity with {@link CopyFilter} and with a cached {@link ProjectionPlan}, for a positive
+ * mask like the ones sent by clients and for a negative mask. Also compares encoding the projected copy of the
+ * entity with encoding the entity with the plan as a {@link com.linkedin.data.DataProjection}.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark
+{
+  private static final JacksonDataCodec CODEC = new JacksonDataCodec();
+
+  @Param({"positive", "negative"})
+  public String _maskType;
+
+  @Param({"50"})
+  public int _fields;
+
+  private DataMap _entity;
+  private DataMap _mask;
+
+  @Setup
+  public void setUp()
+  {
+    _entity = new DataMap();
+    for (int i = 0; i < _fields; i++)
+    {
+      _entity.put("field" + i, "value" + i);
+    }
+    DataList positions = new DataList();
+    for (int i = 0; i < 10; i++)
+    {
+      DataMap position = new DataMap();
+      position.put("title", "title" + i);
+      position.put("companyName", "company" + i);
+      position.put("description", "description" + i);
+      positions.add(position);
+    }
+    _entity.put("positions", positions);
+
+    _mask = new DataMap();
+    DataMap positionMask = new DataMap();
+    DataMap itemMask = new DataMap();
+    if (_maskType.equals("positive"))
+    {
+      _mask.put("field1", FilterConstants.POSITIVE);
+      _mask.put("field2", FilterConstants.POSITIVE);
+      itemMask.put("title", FilterConstants.POSITIVE);
+    }
+    else
+    {
+      _mask.put("field1", FilterConstants.NEGATIVE);
+      itemMask.put("description", FilterConstants.NEGATIVE);
+    }
+    positionMask.put(FilterConstants.WILDCARD, itemMask);
+    _mask.put("positions", positionMask);
+  }
+
+  @Benchmark
+  public Object copyFilter()
+  {
+    return new CopyFilter().filter(_entity, _mask);
+  }
+
+  @Benchmark
+  public Object projectionPlan()
+  {
+    return ProjectionPlan.forMask(_mask).project(_entity);
+  }
+
+  @Benchmark
+  public byte[] encodeProjectedCopy() throws IOException
+  {
+    return CODEC.mapToBytes((DataMap) ProjectionPlan.forMask(_mask).project(_entity));
+  }
+
+  @Benchmark
+  public byte[] encodeWithProjection() throws IOException
+  {
+    return CODEC.mapToBytes(_entity, ProjectionPlan.forMask(_mask));
+  }
+}
@@ -0,0 +1,186 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.pegasus.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the generation of the data templates of a synthetic corpus of .pdl and .pdsc files by
+ * {@link PegasusDataTemplateGenerator}, with the sources generated together and in partitions.
+ * <p/>
+ * The corpus has the given number of records, in namespaces of 50 records. Each record refers to
+ * records of its namespace and of the first namespace, and declares an enum and a union inline.
+ */
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GeneratorBenchmark
+{
+  private static final int NAMESPACE_SIZE = 50;
+
+  @Param({"2000"})
+  public int _schemas;
+
+  @Param({"1", "4"})
+  public int _parallelism;
+
+  private Path _corpusDirectory;
+  private Path _targetDirectory;
+
+  @Setup(Level.Trial)
+  public void setUpCorpus() throws IOException
+  {
+    _corpusDirectory = Files.createTempDirectory("generatorBenchmarkCorpus");
+    for (int i = 0; i < _schemas; i++)
+    {
+      final int namespace = i / NAMESPACE_SIZE;
+      final Path directory = _corpusDirectory.resolve("com/linkedin/benchmark/ns" + namespace);
+      Files.createDirectories(directory);
+      if (i % 2 == 0)
+      {
+        Files.write(directory.resolve(name(i) + ".pdl"), pdl(i).getBytes(StandardCharsets.UTF_8));
+      }
+      else
+      {
+        Files.write(directory.resolve(name(i) + ".pdsc"), pdsc(i).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpTarget() throws IOException
+  {
+    if (_targetDirectory != null)
+    {
+      delete(_targetDirectory);
+    }
+    _targetDirectory = Files.createTempDirectory("generatorBenchmarkTarget");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException
+  {
+    delete(_corpusDirectory);
+    delete(_targetDirectory);
+  }
+
+  @Benchmark
+  public GeneratorResult generate() throws IOException
+  {
+    final String corpus = _corpusDirectory.toString();
+    return PegasusDataTemplateGenerator.run(corpus, null, null, true, _targetDirectory.toString(), new String[] { corpus }, _parallelism);
+  }
+
+  private static String name(int i)
+  {
+    return "Record" + i;
+  }
+
+  private static String fullName(int i)
+  {
+    return "com.linkedin.benchmark.ns" + (i / NAMESPACE_SIZE) + "." + name(i);
+  }
+
+  private static String pdl(int i)
+  {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("namespace com.linkedin.benchmark.ns").append(i / NAMESPACE_SIZE).append("\n\n");
+    sb.append("/**\n * Synthetic record ").append(i).append(".\n */\n");
+    sb.append("record ").append(name(i)).append(" {\n");
+    sb.append("  id: long\n");
+    sb.append("  name: string\n");
+    sb.append("  score: optional double\n");
+    sb.append("  tags: array[string] = []\n");
+    sb.append("  status: enum Status").append(i).append(" { ACTIVE, INACTIVE, DELETED }\n");
+    sb.append("  value: union[int, string, bytes]\n");
+    for (int reference : references(i))
+    {
+      sb.append("  ref").append(reference).append(": optional array[").append(fullName(reference)).append("]\n");
+    }
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  private static String pdsc(int i)
+  {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("{ \"type\" : \"record\", \"name\" : \"").append(name(i)).append("\", ");
+    sb.append("\"namespace\" : \"com.linkedin.benchmark.ns").append(i / NAMESPACE_SIZE).append("\", ");
+    sb.append("\"doc\" : \"Synthetic record ").append(i).append(".\", \"fields\" : [\n");
+    sb.append("  { \"name\" : \"id\", \"type\" : \"long\" },\n");
+    sb.append("  { \"name\" : \"name\", \"type\" : \"string\" },\n");
+    sb.append("  { \"name\" : \"score\", \"type\" : \"double\", \"optional\" : true },\n");
+    sb.append("  { \"name\" : \"tags\", \"type\" : { \"type\" : \"array\", \"items\" : \"string\" }, \"default\" : [] },\n");
+    sb.append("  { \"name\" : \"status\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Status").append(i);
+    sb.append("\", \"symbols\" : [ \"ACTIVE\", \"INACTIVE\", \"DELETED\" ] } },\n");
+    sb.append("  { \"name\" : \"value\", \"type\" : [ \"int\", \"string\", \"bytes\" ] }");
+    for (int reference : references(i))
+    {
+      sb.append(",\n  { \"name\" : \"ref").append(reference).append("\", \"type\" : { \"type\" : \"map\", \"values\" : \"");
+      sb.append(fullName(reference)).append("\" }, \"optional\" : true }");
+    }
+    sb.append("\n] }\n");
+    return sb.toString();
+  }
+
+  /**
+   * The previous record of the same namespace, in chains of five records, and the record with the same position in the
+   * first namespace, so that the references are acyclic and every namespace depends on the first one.
+   */
+  private static int[] references(int i)
+  {
+    final int position = i % NAMESPACE_SIZE;
+    final boolean chained = position % 5 != 0;
+    if (i < NAMESPACE_SIZE)
+    {
+      return chained ? new int[] { i - 1 } : new int[0];
+    }
+    return chained ? new int[] { i - 1, position } : new int[] { position };
+  }
+
+  private static void delete(Path directory) throws IOException
+  {
+    try (Stream<Path> paths = Files.walk(directory))
+    {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+}
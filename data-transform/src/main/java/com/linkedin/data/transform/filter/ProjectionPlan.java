@@ -0,0 +1,625 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
+import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.transform.DataComplexProcessor;
+import com.linkedin.data.transform.DataProcessingException;
+import com.linkedin.data.transform.Escaper;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.linkedin.data.transform.filter.FilterConstants.COUNT;
+import static com.linkedin.data.transform.filter.FilterConstants.NEGATIVE;
+import static com.linkedin.data.transform.filter.FilterConstants.POSITIVE;
+import static com.linkedin.data.transform.filter.FilterConstants.START;
+import static com.linkedin.data.transform.filter.FilterConstants.WILDCARD;
+import static com.linkedin.data.transform.filter.FilterUtil.getIntegerWithDefaultValue;
+
+
+/**
+ * A projection mask compiled into a plan that produces the same result as {@link CopyFilter}.
+ * <p>
+ *
+ * {@link CopyFilter} interprets the mask again for every Data object it filters. It computes the default mode of
+ * every mask node, escapes every field name of the data to look up its mask, and composes the masks with the
+ * wildcards of their parents. A plan does this once for each mask node, when the node is first used, and keeps
+ * for every field name of the mask what to do with its value. Projecting is then a single recursive pass that
+ * copies the selected fields.
+ * <p>
+ *
+ * Plans are immutable and are cached by mask in {@link #forMask(DataMap)}, so that the masks sent by clients
+ * for every request are only compiled once.
+ * <p>
+ *
+ * A plan is also a {@link DataProjection}, so that codecs can encode the projection of a Data object without
+ * copying it, see {@link com.linkedin.data.codec.DataCodec#mapToBytes(DataMap, DataProjection)}. The encoded
+ * projection is the same as the encoded result of {@link #project(Object)}, and the same errors are thrown while
+ * encoding.
+ */
+public final class ProjectionPlan implements DataProjection
+{
+  /**
+   * Upper bound on the number of cached plans. Clients usually send a few masks, but masks with different
+   * array ranges are different masks, so the least recently used plans are evicted instead of growing without bound.
+   */
+  static final int MAX_CACHED_PLANS = 1024;
+
+  @SuppressWarnings("serial")
+  private static final Map<DataMap, ProjectionPlan> _plans =
+      new LinkedHashMap<DataMap, ProjectionPlan>(16, 0.75f, true)
+      {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DataMap, ProjectionPlan> eldest)
+        {
+          return size() > MAX_CACHED_PLANS;
+        }
+      };
+
+  private static final DataList EMPTY_DATALIST = new DataList();
+  static
+  {
+    EMPTY_DATALIST.makeReadOnly();
+  }
+
+  /**
+   * Returns the plan of a projection mask, compiling and caching it on first use.
+   * <p>
+   *
+   * The cache is keyed by the content of the mask. Unless the mask and all of its descendants are read only, see
+   * {@link DataMap#makeReadOnly()}, a read only copy of the mask is cached, so the mask may be modified after this
+   * call.
+   *
+   * @param mask provides the projection mask, such as the {@link DataMap} of a
+   *             {@link com.linkedin.data.transform.filter.request.MaskTree}.
+   * @return the plan of the mask.
+   */
+  public static ProjectionPlan forMask(DataMap mask)
+  {
+    ProjectionPlan plan;
+    synchronized (_plans)
+    {
+      plan = _plans.get(mask);
+    }
+    if (plan == null)
+    {
+      DataMap key = readOnlyCopy(mask);
+      plan = new ProjectionPlan(key);
+      if (key.isMadeReadOnly())
+      {
+        synchronized (_plans)
+        {
+          ProjectionPlan existing = _plans.putIfAbsent(key, plan);
+          if (existing != null)
+          {
+            plan = existing;
+          }
+        }
+      }
+    }
+    return plan;
+  }
+
+  private static DataMap readOnlyCopy(DataMap mask)
+  {
+    if (mask.isMadeReadOnly())
+    {
+      return mask;
+    }
+    try
+    {
+      DataMap copy = mask.copy();
+      copy.makeReadOnly();
+      return copy;
+    }
+    catch (CloneNotSupportedException e)
+    {
+      // The mask is compiled but not cached.
+      return mask;
+    }
+  }
+
+  /**
+   * Projects a Data object. The result is the same as {@link CopyFilter#filter(Object, DataMap)} with the mask
+   * of this plan: the selected values are not copied, and the Data objects containing them are.
+   *
+   * @param data provides the {@link DataMap} or {@link DataList} to project.
+   * @return the projected {@link DataMap} or {@link DataList}.
+   * @throws RuntimeException if the mask is not valid for the data, like {@link CopyFilter}.
+   */
+  public Object project(Object data)
+  {
+    if (data == null)
+    {
+      throw new RuntimeException("Either data or operation is null");
+    }
+    else if (data.getClass() == DataMap.class)
+    {
+      return projectDataMap((DataMap) data);
+    }
+    else if (data.getClass() == DataList.class)
+    {
+      return projectDataList((DataList) data);
+    }
+    else
+    {
+      throw new RuntimeException(
+          String.format("Data type in instruction must be DataMap or DataList, but is: %1$s", data.getClass().getName()));
+    }
+  }
+
+  @Override
+  public DataProjection getFieldProjection(String name, Object value)
+  {
+    final Rule rule = _fields.get(name);
+    final Operation operation = (rule == null ? _otherFields : rule).forValue(value);
+    switch (operation._kind)
+    {
+      case Operation.SKIP:
+        return null;
+      case Operation.KEEP:
+        return DataProjection.ALL;
+      case Operation.PROJECT:
+        return operation.plan();
+      default:
+        throw operation.error(name, value);
+    }
+  }
+
+  @Override
+  public int getStart(DataList list)
+  {
+    checkDataList(list);
+    return _start;
+  }
+
+  @Override
+  public int getEnd(DataList list)
+  {
+    // The list was checked by getStart, which is called first.
+    if (_items._kind == Operation.SKIP || _count <= 0)
+    {
+      return _start;
+    }
+    return (int) Math.min((long) _start + _count, list.size());
+  }
+
+  @Override
+  public DataProjection getItemProjection(Object item)
+  {
+    return _items._kind == Operation.PROJECT ? _items.plan() : DataProjection.ALL;
+  }
+
+  /**
+   * @return the projection mask of this plan.
+   */
+  public DataMap getMask()
+  {
+    return _mask;
+  }
+
+  private DataMap projectDataMap(DataMap data)
+  {
+    final DataMap result;
+    if (_otherFields.isSkipped())
+    {
+      // Only the fields named in the mask may be selected, which are usually much fewer than the fields of the data.
+      result = new DataMap((int) (Math.min(_fields.size(), data.size()) / 0.75f) + 1);
+      for (Map.Entry<String, Rule> entry : _fields.entrySet())
+      {
+        final Object value = data.get(entry.getKey());
+        if (value != null)
+        {
+          put(result, entry.getKey(), value, entry.getValue());
+        }
+      }
+    }
+    else
+    {
+      result = new DataMap((int) (data.size() / 0.75f) + 1);
+      for (Map.Entry<String, Object> entry : data.entrySet())
+      {
+        final Rule rule = _fields.get(entry.getKey());
+        put(result, entry.getKey(), entry.getValue(), rule == null ? _otherFields : rule);
+      }
+    }
+    return result;
+  }
+
+  private static void put(DataMap result, String name, Object value, Rule rule)
+  {
+    final Operation operation = rule.forValue(value);
+    switch (operation._kind)
+    {
+      case Operation.SKIP:
+        break;
+      case Operation.KEEP:
+        CheckedUtil.putWithoutChecking(result, name, value);
+        break;
+      case Operation.PROJECT:
+        CheckedUtil.putWithoutChecking(result, name, operation.plan().project(value));
+        break;
+      default:
+        throw operation.error(name, value);
+    }
+  }
+
+  private DataList projectDataList(DataList data)
+  {
+    checkDataList(data);
+    final Operation operation = _items;
+    if (operation._kind == Operation.SKIP || _start >= data.size() || _count <= 0)
+    {
+      return EMPTY_DATALIST;
+    }
+
+    final int count = Math.min(_count, data.size() - _start);
+    final DataList result = new DataList(count);
+    if (operation._kind == Operation.KEEP)
+    {
+      for (int i = _start; i < _start + count; ++i)
+      {
+        CheckedUtil.addWithoutChecking(result, data.get(i));
+      }
+    }
+    else
+    {
+      final ProjectionPlan itemPlan = operation.plan();
+      for (int i = _start; i < _start + count; ++i)
+      {
+        CheckedUtil.addWithoutChecking(result, itemPlan.project(data.get(i)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Throws the errors of {@link CopyFilter} for lists: invalid ranges and wildcards, and complex wildcards
+   * applied to lists that have primitive items.
+   */
+  private void checkDataList(DataList data)
+  {
+    if (_listError != null)
+    {
+      throw new RuntimeException(_listError);
+    }
+
+    final Operation operation = _items;
+    if (operation._kind == Operation.FAIL)
+    {
+      throw operation.error(null, null);
+    }
+    if (operation._kind == Operation.PROJECT)
+    {
+      for (int i = 0; i < data.size(); ++i)
+      {
+        final Object item = data.get(i);
+        if (!(item instanceof DataComplex))
+        {
+          throw new RuntimeException(String.format(
+              "complex filter defined for array element, which is not an object nor an array, " +
+                  "but it is of type: %1$s, with value: %2$s", item.getClass().getName(), item));
+        }
+      }
+    }
+  }
+
+  private ProjectionPlan(DataMap mask)
+  {
+    _mask = mask;
+
+    final DefaultNodeModeCalculator calculator = new DefaultNodeModeCalculator();
+    final NodeMode defaultMode = calculator.getDefaultNodeMode(mask);
+    final Object rawWildcard = mask.get(WILDCARD);
+    final DataMap complexWildcard =
+        (rawWildcard != null && rawWildcard.getClass() == DataMap.class) ? (DataMap) rawWildcard : null;
+
+    // Fields that are not named in the mask.
+    if (defaultMode == NodeMode.HIDE_HIGH || areFieldsImplicitlyRemoved(calculator, defaultMode, complexWildcard))
+    {
+      _otherFields = Rule.SKIPPED;
+    }
+    else if (complexWildcard != null)
+    {
+      _otherFields = new Rule(new Operation(complexWildcard),
+                              needsRemoving(calculator, defaultMode, complexWildcard) ? Operation.SKIP_VALUE : Operation.KEEP_VALUE);
+    }
+    else
+    {
+      _otherFields = Rule.KEPT;
+    }
+
+    // Fields that are named in the mask. Mask keys that are not escaped field names, like $*, do not name a field.
+    _fields = new HashMap<String, Rule>();
+    Operation composedWildcard = null;
+    for (Map.Entry<String, Object> entry : mask.entrySet())
+    {
+      final String name = Escaper.unescape(entry.getKey());
+      if (!Escaper.escape(name).equals(entry.getKey()))
+      {
+        continue;
+      }
+
+      final Object fieldMask = entry.getValue();
+      final Rule rule;
+      if (fieldMask.getClass() != Integer.class && fieldMask.getClass() != DataMap.class)
+      {
+        rule = new Rule(Operation.fail(String.format(
+            "mask value for field %2$s should be of type Integer or DataMap, instead it is of type: %1$s, ", fieldMask, name)));
+      }
+      else if (fieldMask.getClass() == Integer.class && NodeMode.fromRepresentation((Integer) fieldMask) != null)
+      {
+        if (NodeMode.fromRepresentation((Integer) fieldMask) == NodeMode.HIDE_HIGH)
+        {
+          rule = Rule.SKIPPED;
+        }
+        else if (complexWildcard != null)
+        {
+          // The field was selected explicitly, and the values of complex fields are projected with the wildcard.
+          if (composedWildcard == null)
+          {
+            composedWildcard = compose(complexWildcard, wildcard(POSITIVE));
+          }
+          rule = new Rule(composedWildcard, Operation.KEEP_VALUE);
+        }
+        else
+        {
+          rule = Rule.KEPT;
+        }
+      }
+      else if (fieldMask.getClass() != DataMap.class
+          || (rawWildcard != null && !rawWildcard.equals(POSITIVE) && complexWildcard == null))
+      {
+        rule = new Rule(Operation.fail(String.format(
+            "mask value %1$s for field %2$s cannot be applied with wildcard %3$s", fieldMask, name, rawWildcard)));
+      }
+      else
+      {
+        final Operation effectiveMask;
+        if (rawWildcard == null)
+        {
+          effectiveMask = new Operation((DataMap) fieldMask);
+        }
+        else
+        {
+          effectiveMask = compose((DataMap) fieldMask, complexWildcard != null ? complexWildcard : wildcard(POSITIVE));
+        }
+
+        if (effectiveMask._kind == Operation.FAIL)
+        {
+          rule = new Rule(effectiveMask);
+        }
+        else if (needsRemoving(calculator, defaultMode, effectiveMask._mask))
+        {
+          rule = Rule.SKIPPED;
+        }
+        else
+        {
+          rule = new Rule(effectiveMask, Operation.failForValue("filter: " + fieldMask + " is complex, but data is of primitive value: "));
+        }
+      }
+      _fields.put(name, rule);
+    }
+
+    // Items of lists.
+    final Integer start = getIntegerWithDefaultValue(mask, START, 0);
+    final Integer count = getIntegerWithDefaultValue(mask, COUNT, Integer.MAX_VALUE);
+    if (start == null || start < 0)
+    {
+      _listError = String.format("value of %1$s must be positive integer but is equal to %2$d", START, start);
+    }
+    else if (count == null || count < 0)
+    {
+      _listError = String.format("value of %1$s must be positive integer but is equal to %2$d", COUNT, count);
+    }
+    else
+    {
+      _listError = null;
+    }
+    _start = start == null ? 0 : start;
+    _count = count == null ? 0 : count;
+
+    if (rawWildcard == null || rawWildcard.equals(POSITIVE))
+    {
+      _items = Operation.KEEP_VALUE;
+    }
+    else if (rawWildcard.equals(NEGATIVE))
+    {
+      _items = Operation.SKIP_VALUE;
+    }
+    else if (complexWildcard != null)
+    {
+      _items = new Operation(complexWildcard);
+    }
+    else
+    {
+      _items = Operation.fail(String.format(
+          "wildcard can be either 0, 1 or DataMap instance, but it is of type: %1$s, equal to: %2$s",
+          rawWildcard.getClass().getName(), rawWildcard));
+    }
+  }
+
+  /**
+   * Same as {@link AbstractFilter}: fields are removed by default if the default mode is hide_low and the
+   * wildcard does not select them.
+   */
+  private static boolean areFieldsImplicitlyRemoved(DefaultNodeModeCalculator calculator,
+                                                    NodeMode defaultMode,
+                                                    DataMap complexWildcard)
+  {
+    return defaultMode == NodeMode.HIDE_LOW
+        && (complexWildcard == null || calculator.getDefaultNodeMode(complexWildcard) != NodeMode.HIDE_LOW);
+  }
+
+  /**
+   * Same as {@link AbstractFilter}: a field is removed if all fields are removed, or if the default mode is hide_low
+   * and its effective mask does not select anything.
+   */
+  private static boolean needsRemoving(DefaultNodeModeCalculator calculator, NodeMode defaultMode, DataMap effectiveMask)
+  {
+    if (defaultMode == NodeMode.HIDE_HIGH)
+    {
+      return true;
+    }
+    if (defaultMode != NodeMode.HIDE_LOW)
+    {
+      return false;
+    }
+    final NodeMode maskMode = calculator.getDefaultNodeMode(effectiveMask);
+    return maskMode == NodeMode.SHOW_LOW || maskMode == NodeMode.HIDE_HIGH;
+  }
+
+  private static DataMap wildcard(Integer value)
+  {
+    final DataMap wildcardMap = new DataMap();
+    wildcardMap.put(WILDCARD, value);
+    return wildcardMap;
+  }
+
+  private static Operation compose(DataMap mask1, DataMap mask2)
+  {
+    try
+    {
+      final DataMap clone = mask1.copy();
+      new DataComplexProcessor(new MaskComposition(), mask2, clone).run(true);
+      clone.makeReadOnly();
+      return new Operation(clone);
+    }
+    catch (CloneNotSupportedException e)
+    {
+      return Operation.fail(String.format("could not clone mask: %1$s, exception: %2$s", mask1, e));
+    }
+    catch (DataProcessingException e)
+    {
+      return Operation.fail(String.format("error composing mask %1$s with %2$s, exception: %3$s", mask1, mask2, e));
+    }
+  }
+
+  /**
+   * What to do with the value of a field, depending on whether the value is complex.
+   */
+  private static final class Rule
+  {
+    static final Rule SKIPPED = new Rule(Operation.SKIP_VALUE);
+    static final Rule KEPT = new Rule(Operation.KEEP_VALUE);
+
+    private final Operation _complex;
+    private final Operation _primitive;
+
+    Rule(Operation operation)
+    {
+      this(operation, operation);
+    }
+
+    Rule(Operation complex, Operation primitive)
+    {
+      _complex = complex;
+      _primitive = primitive;
+    }
+
+    Operation forValue(Object value)
+    {
+      return value instanceof DataComplex ? _complex : _primitive;
+    }
+
+    boolean isSkipped()
+    {
+      return _complex._kind == Operation.SKIP && _primitive._kind == Operation.SKIP;
+    }
+  }
+
+  /**
+   * What to do with a value: skip it, keep it, project it with the plan of a mask, or fail.
+   */
+  private static final class Operation
+  {
+    static final int SKIP = 0;
+    static final int KEEP = 1;
+    static final int PROJECT = 2;
+    static final int FAIL = 3;
+
+    static final Operation SKIP_VALUE = new Operation(SKIP, null, null, false);
+    static final Operation KEEP_VALUE = new Operation(KEEP, null, null, false);
+
+    private final int _kind;
+    private final DataMap _mask;
+    private final String _error;
+    private final boolean _errorWithValue;
+    private volatile ProjectionPlan _plan;
+
+    Operation(DataMap mask)
+    {
+      this(PROJECT, mask, null, false);
+    }
+
+    private Operation(int kind, DataMap mask, String error, boolean errorWithValue)
+    {
+      _kind = kind;
+      _mask = mask;
+      _error = error;
+      _errorWithValue = errorWithValue;
+    }
+
+    static Operation fail(String error)
+    {
+      return new Operation(FAIL, null, error, false);
+    }
+
+    /**
+     * @param error provides the message of the error, which is followed by the value.
+     */
+    static Operation failForValue(String error)
+    {
+      return new Operation(FAIL, null, error, true);
+    }
+
+    /**
+     * Returns the plan of the mask, compiling it on first use. Compiling it more than once is harmless.
+     */
+    ProjectionPlan plan()
+    {
+      ProjectionPlan plan = _plan;
+      if (plan == null)
+      {
+        plan = new ProjectionPlan(_mask);
+        _plan = plan;
+      }
+      return plan;
+    }
+
+    RuntimeException error(String name, Object value)
+    {
+      final String message = _errorWithValue ? _error + value : _error;
+      return new RuntimeException(name == null ? message : name + ": " + message);
+    }
+  }
+
+  private final DataMap _mask;
+  private final Map<String, Rule> _fields;
+  private final Rule _otherFields;
+  private final String _listError;
+  private final int _start;
+  private final int _count;
+  private final Operation _items;
+}
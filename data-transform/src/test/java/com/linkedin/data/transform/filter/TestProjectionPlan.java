@@ -0,0 +1,290 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.ChunkedByteStringCollector;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BsonDataCodec;
+import com.linkedin.data.codec.DataCodec;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.codec.JacksonSmileDataCodec;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
+import com.linkedin.data.transform.DataProcessingException;
+import com.linkedin.entitystream.CollectingReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestProjectionPlan extends TestFilterOnData
+{
+  @Override
+  protected void genericFilterTest(DataMap data, DataMap filter, DataMap expected, String description) throws DataProcessingException
+  {
+    final String dataBefore = data.toString();
+    final Object projected = ProjectionPlan.forMask(filter).project(data);
+    assertEquals(projected, expected, "The following test failed: \n" + description  +
+        "\nData: " + dataBefore + "\nFilter: " + filter +
+        "\nExpected: " + expected + "\nActual result: " + projected);
+    assertEquals(data.toString(), dataBefore);
+    // Projecting again uses the cached plan and the nested plans compiled by the first projection.
+    assertEquals(ProjectionPlan.forMask(filter).project(data), expected);
+  }
+
+  @Test
+  public void testSameAsCopyFilter() throws IOException
+  {
+    DataMap data = dataMapFromString(
+        "{ \"a\" : 1, \"b\" : { \"a\" : \"x\", \"c\" : { \"d\" : 2 } }, \"$e\" : 3, " +
+        "  \"l\" : [ { \"a\" : 1, \"b\" : { \"c\" : 2 } }, { \"b\" : { \"d\" : 3 } }, { \"c\" : 4 } ], " +
+        "  \"c\" : { \"x\" : { \"a\" : 5 }, \"y\" : { \"b\" : 6, \"d\" : [ 1, 2 ] } } }");
+    Random random = new Random(11);
+    for (int i = 0; i < 2000; i++)
+    {
+      DataMap mask = randomMask(random, 3);
+      Object expected;
+      try
+      {
+        expected = new CopyFilter().filter(data, mask);
+      }
+      catch (RuntimeException e)
+      {
+        expected = RuntimeException.class;
+      }
+      Object actual;
+      try
+      {
+        actual = ProjectionPlan.forMask(mask).project(data);
+      }
+      catch (RuntimeException e)
+      {
+        actual = RuntimeException.class;
+      }
+      assertEquals(actual, expected, mask.toString());
+    }
+  }
+
+  @Test
+  public void testProjectedEncoding() throws Exception
+  {
+    DataMap data = dataMapFromString(
+        "{ \"a\" : 1, \"b\" : { \"a\" : \"x\", \"c\" : { \"d\" : 2 } }, \"$e\" : 3, " +
+        "  \"l\" : [ { \"a\" : 1, \"b\" : { \"c\" : 2 } }, { \"b\" : { \"d\" : 3 } }, { \"c\" : 4 } ], " +
+        "  \"c\" : { \"x\" : { \"a\" : 5 }, \"y\" : { \"b\" : 6, \"d\" : [ 1, 2 ] } } }");
+    List<DataCodec> codecs = Arrays.asList(
+        new JacksonDataCodec(),
+        new JacksonSmileDataCodec(),
+        new PsonDataCodec().setOptions(new PsonDataCodec.Options().setEncodeCollectionCount(true)),
+        new BsonDataCodec());
+    Random random = new Random(13);
+    for (int i = 0; i < 500; i++)
+    {
+      DataMap mask = randomMask(random, 3);
+      ProjectionPlan plan;
+      try
+      {
+        plan = ProjectionPlan.forMask(mask);
+      }
+      catch (RuntimeException e)
+      {
+        continue;
+      }
+      DataMap expected;
+      try
+      {
+        expected = (DataMap) plan.project(data);
+      }
+      catch (RuntimeException e)
+      {
+        expected = null;
+      }
+
+      for (DataCodec codec : codecs)
+      {
+        try
+        {
+          DataMap actual = codec.bytesToMap(codec.mapToBytes(data, plan));
+          assertEquals(actual, expected, codec + " " + mask);
+        }
+        catch (IOException | RuntimeException e)
+        {
+          assertEquals(null, expected, codec + " " + mask + " " + e);
+        }
+      }
+
+      try
+      {
+        CollectingReader<ByteString, ?, ChunkedByteStringCollector.Result> reader =
+            new CollectingReader<>(new ChunkedByteStringCollector());
+        new JacksonStreamDataCodec(16).encodeMap(data, plan).setReader(reader);
+        byte[] bytes = reader.getResult().toCompletableFuture().get().data;
+        assertEquals(new JacksonDataCodec().bytesToMap(bytes), expected, mask.toString());
+      }
+      catch (ExecutionException e)
+      {
+        assertEquals(null, expected, mask + " " + e);
+      }
+    }
+  }
+
+  private static DataMap randomMask(Random random, int depth)
+  {
+    final String[] keys = { "a", "b", "c", "d", "x", "y", "l", "$$e", "$*", "$*", "$start", "$count" };
+    DataMap mask = new DataMap();
+    int size = random.nextInt(4);
+    for (int i = 0; i < size; i++)
+    {
+      String key = keys[random.nextInt(keys.length)];
+      if (key.equals("$start") || key.equals("$count"))
+      {
+        mask.put(key, random.nextInt(4) - 1);
+      }
+      else if (depth > 0 && random.nextInt(3) == 0)
+      {
+        mask.put(key, randomMask(random, depth - 1));
+      }
+      else
+      {
+        mask.put(key, random.nextInt(5) == 0 ? 0 : 1);
+      }
+    }
+    return mask;
+  }
+
+  @Test
+  public void testCachedByMask() throws IOException
+  {
+    DataMap mask = dataMapFromString("{ \"a\" : 1, \"b\" : { \"$*\" : { \"c\" : 1 } } }");
+    ProjectionPlan plan = ProjectionPlan.forMask(mask);
+    assertSame(ProjectionPlan.forMask(dataMapFromString("{ \"b\" : { \"$*\" : { \"c\" : 1 } }, \"a\" : 1 }")), plan);
+    assertTrue(plan.getMask().isReadOnly());
+
+    // Modifying the mask does not modify the cached plan.
+    mask.put("d", 1);
+    assertNotSame(ProjectionPlan.forMask(mask), plan);
+    DataMap data = dataMapFromString("{ \"a\" : 1, \"d\" : 2, \"e\" : 3 }");
+    assertEquals(plan.project(data), dataMapFromString("{ \"a\" : 1 }"));
+    assertEquals(ProjectionPlan.forMask(mask).project(data), dataMapFromString("{ \"a\" : 1, \"d\" : 2 }"));
+  }
+
+  @Test
+  public void testCachedByReadOnlyCopy() throws IOException
+  {
+    // Only the top level of the mask is read only, so its nested masks may still be modified.
+    DataMap mask = dataMapFromString("{ \"b\" : { \"c\" : 1 } }");
+    mask.setReadOnly();
+    ProjectionPlan plan = ProjectionPlan.forMask(mask);
+    assertNotSame(plan.getMask(), mask);
+    assertTrue(plan.getMask().isMadeReadOnly());
+
+    mask.getDataMap("b").put("d", 1);
+    DataMap data = dataMapFromString("{ \"b\" : { \"c\" : 1, \"d\" : 2, \"e\" : 3 } }");
+    assertEquals(plan.project(data), dataMapFromString("{ \"b\" : { \"c\" : 1 } }"));
+    assertEquals(ProjectionPlan.forMask(mask).project(data), dataMapFromString("{ \"b\" : { \"c\" : 1, \"d\" : 2 } }"));
+  }
+
+  @Test
+  public void testLeastRecentlyUsedPlansAreEvicted()
+  {
+    DataMap hotMask = new DataMap();
+    hotMask.put("hot", 1);
+    ProjectionPlan hotPlan = ProjectionPlan.forMask(hotMask);
+
+    DataMap firstMask = new DataMap();
+    firstMask.put("field0", 1);
+    ProjectionPlan firstPlan = ProjectionPlan.forMask(firstMask);
+    for (int i = 1; i <= ProjectionPlan.MAX_CACHED_PLANS; i++)
+    {
+      DataMap mask = new DataMap();
+      mask.put("field" + i, 1);
+      ProjectionPlan.forMask(mask);
+      assertSame(ProjectionPlan.forMask(hotMask), hotPlan);
+    }
+    assertNotSame(ProjectionPlan.forMask(firstMask), firstPlan);
+  }
+
+  @Test
+  public void testSelectedValuesAreShared() throws IOException
+  {
+    DataMap data = dataMapFromString("{ \"a\" : { \"x\" : 1 }, \"b\" : [ { \"c\" : 1, \"d\" : 2 } ], \"e\" : 3 }");
+    DataMap projected = (DataMap) ProjectionPlan.forMask(dataMapFromString("{ \"a\" : 1, \"b\" : { \"$*\" : { \"c\" : 1 } } }"))
+        .project(data);
+    assertSame(projected.get("a"), data.get("a"));
+    assertNotSame(projected.get("b"), data.get("b"));
+    assertEquals(projected, dataMapFromString("{ \"a\" : { \"x\" : 1 }, \"b\" : [ { \"c\" : 1 } ] }"));
+  }
+
+  @Test
+  public void testInvalidMasks() throws IOException
+  {
+    String[][] tests =
+    {
+      { "{ \"a\" : 1 }", "{ \"a\" : { \"b\" : 1 } }" },
+      { "{ \"a\" : [ 1, 2 ] }", "{ \"a\" : { \"$*\" : { \"b\" : 1 } } }" },
+      { "{ \"a\" : [ 1, 2 ] }", "{ \"a\" : { \"$start\" : -1 } }" },
+      { "{ \"a\" : [ 1, 2 ] }", "{ \"a\" : { \"$*\" : 2 } }" },
+      { "{ \"a\" : { \"b\" : 1 } }", "{ \"$*\" : 0, \"a\" : { \"b\" : 1 } }" }
+    };
+    for (String[] test : tests)
+    {
+      DataMap data = dataMapFromString(test[0]);
+      DataMap mask = dataMapFromString(test[1]);
+      try
+      {
+        new CopyFilter().filter(data, mask);
+        fail("Expected CopyFilter to fail with " + test[1]);
+      }
+      catch (RuntimeException e)
+      {
+        // expected
+      }
+      try
+      {
+        ProjectionPlan.forMask(mask).project(data);
+        fail("Expected ProjectionPlan to fail with " + test[1]);
+      }
+      catch (RuntimeException e)
+      {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testProjectList() throws IOException
+  {
+    DataMap mask = dataMapFromString("{ \"$start\" : 1, \"$count\" : 2, \"$*\" : { \"a\" : 1 } }");
+    DataMap data = dataMapFromString("{ \"l\" : [ { \"a\" : 0, \"b\" : 0 }, { \"a\" : 1, \"b\" : 1 }, { \"a\" : 2 }, { \"a\" : 3 } ] }");
+    DataList list = data.getDataList("l");
+    assertEquals(ProjectionPlan.forMask(mask).project(list), new CopyFilter().filter(list, mask));
+    assertEquals(((DataList) ProjectionPlan.forMask(mask).project(list)).size(), 2);
+  }
+}
@@ -398,6 +398,11 @@ public final class ByteString
    */
   public String asAvroString()
   {
+    if (_byteArrays.getArraySize() == 1)
+    {
+      ByteArray byteArray = _byteArrays.get(0);
+      return Data.bytesToString(byteArray.getArray(), byteArray.getOffset(), byteArray.getLength());
+    }
     return new String(asAvroCharArray());
   }
 
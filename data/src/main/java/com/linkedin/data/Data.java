@@ -17,9 +17,11 @@
 package com.linkedin.data;
 
 
+import com.linkedin.data.collections.CheckedUtil;
 import com.linkedin.util.ArgumentUtil;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -113,6 +115,14 @@ public class Data
    */
   public static final Charset UTF_8_CHARSET = Charset.forName("UTF-8");
 
+  /**
+   * Strings at least this long are converted by {@link #stringToBytes(String, boolean)} and
+   * {@link #validStringAsBytes(String)} through a per-thread scratch array of {@link #SCRATCH_LENGTH} characters.
+   */
+  private static final int MIN_SCRATCH_STRING_LENGTH = 32;
+  private static final int SCRATCH_LENGTH = 1024;
+  private static final ThreadLocal<char[]> SCRATCH_CHARS = ThreadLocal.withInitial(() -> new char[SCRATCH_LENGTH]);
+
   /**
    * A map of all underlying types supported by Data objects.
    */
@@ -234,6 +244,19 @@ public class Data
      */
     void startMap(DataMap map) throws IOException;
 
+    /**
+     * Invoked when the start of a projected {@link DataMap} is traversed by
+     * {@link Data#traverse(Object, TraverseCallback, DataProjection)}.
+     * The default implementation invokes {@link #startMap(DataMap)}.
+     *
+     * @param map provides the {@link DataMap} to be traversed.
+     * @param size provides the number of entries of the map that are traversed.
+     */
+    default void startMap(DataMap map, int size) throws IOException
+    {
+      startMap(map);
+    }
+
     /**
      * Invoked when the key of {@link DataMap} entry is traversed.
      * This callback is invoked before the value callback.
@@ -262,6 +285,19 @@ public class Data
      */
     void startList(DataList list) throws IOException;
 
+    /**
+     * Invoked when the start of a projected {@link DataList} is traversed by
+     * {@link Data#traverse(Object, TraverseCallback, DataProjection)}.
+     * The default implementation invokes {@link #startList(DataList)}.
+     *
+     * @param list provides the {@link DataList} to be traversed.
+     * @param size provides the number of items of the list that are traversed.
+     */
+    default void startList(DataList list, int size) throws IOException
+    {
+      startList(list);
+    }
+
     /**
      * Invoked to provide the index of the next {@link DataList} entry.
      * This callback is invoked before the value callback.
@@ -359,6 +395,130 @@ public class Data
     callback.illegalValue(obj);
   }
 
+  /**
+   * Traverse the parts of an object selected by a {@link DataProjection} and invoke the callback object with
+   * parse events, as if the projected copy of the object returned by {@link #project(Object, DataProjection)}
+   * was traversed.
+   * <p>
+   *
+   * The start of non-empty {@link DataMap}s and {@link DataList}s is provided by
+   * {@link TraverseCallback#startMap(DataMap, int)} and {@link TraverseCallback#startList(DataList, int)},
+   * with the number of entries or items that are traversed. The indexes of the items of a list are the
+   * indexes in the projected list.
+   *
+   * @param obj object to parse
+   * @param callback to receive parse events.
+   * @param projection selects the parts of the object to traverse, {@link DataProjection#ALL} or null selects
+   *                   the whole object.
+   */
+  public static void traverse(Object obj, TraverseCallback callback, DataProjection projection) throws IOException
+  {
+    if (projection == null || projection == DataProjection.ALL)
+    {
+      traverse(obj, callback);
+    }
+    else if (obj instanceof DataMap)
+    {
+      DataMap map = (DataMap) obj;
+      int size = 0;
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        if (projection.getFieldProjection(entry.getKey(), entry.getValue()) != null)
+        {
+          size++;
+        }
+      }
+      if (size == 0)
+      {
+        callback.emptyMap();
+        return;
+      }
+
+      callback.startMap(map, size);
+      for (Map.Entry<String, Object> entry : callback.orderMap(map))
+      {
+        DataProjection fieldProjection = projection.getFieldProjection(entry.getKey(), entry.getValue());
+        if (fieldProjection != null)
+        {
+          callback.key(entry.getKey());
+          traverse(entry.getValue(), callback, fieldProjection);
+        }
+      }
+      callback.endMap();
+    }
+    else if (obj instanceof DataList)
+    {
+      DataList list = (DataList) obj;
+      int start = projection.getStart(list);
+      int end = Math.min(projection.getEnd(list), list.size());
+      if (start >= end)
+      {
+        callback.emptyList();
+        return;
+      }
+
+      callback.startList(list, end - start);
+      for (int index = start; index < end; index++)
+      {
+        Object item = list.get(index);
+        callback.index(index - start);
+        traverse(item, callback, projection.getItemProjection(item));
+      }
+      callback.endList();
+    }
+    else
+    {
+      traverse(obj, callback);
+    }
+  }
+
+  /**
+   * Returns a copy of the parts of an object selected by a {@link DataProjection}. Selected values whose
+   * projection is {@link DataProjection#ALL} are not copied.
+   *
+   * @param obj provides the object to project.
+   * @param projection selects the parts of the object, {@link DataProjection#ALL} or null selects the whole object.
+   * @return the projected object, which is the object itself if the whole object is selected.
+   */
+  public static Object project(Object obj, DataProjection projection)
+  {
+    if (projection == null || projection == DataProjection.ALL)
+    {
+      return obj;
+    }
+    else if (obj instanceof DataMap)
+    {
+      DataMap map = (DataMap) obj;
+      DataMap result = new DataMap();
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        DataProjection fieldProjection = projection.getFieldProjection(entry.getKey(), entry.getValue());
+        if (fieldProjection != null)
+        {
+          CheckedUtil.putWithoutChecking(result, entry.getKey(), project(entry.getValue(), fieldProjection));
+        }
+      }
+      return result;
+    }
+    else if (obj instanceof DataList)
+    {
+      DataList list = (DataList) obj;
+      int start = projection.getStart(list);
+      int end = Math.min(projection.getEnd(list), list.size());
+      DataList result = new DataList(Math.max(end - start, 0));
+      for (int index = start; index < end; index++)
+      {
+        Object item = list.get(index);
+        CheckedUtil.addWithoutChecking(result, project(item, projection.getItemProjection(item)));
+      }
+      return result;
+    }
+    else
+    {
+      return obj;
+    }
+  }
+
   /**
    * Dump Data object with the given name and prefix to the given string builder.
    *
@@ -825,7 +985,9 @@ public class Data
    */
   public static String bytesToString(byte[] input, int offset, int length)
   {
-    return new String(bytesToCharArray(input, offset, length));
+    ArgumentUtil.checkBounds(input.length, offset, length);
+    // ISO-8859-1 maps each byte to the character with the same value, and is decoded without an intermediate array.
+    return new String(input, offset, length, StandardCharsets.ISO_8859_1);
   }
 
   /**
@@ -868,9 +1030,11 @@ public class Data
     ArgumentUtil.checkBounds(input.length, offset, length);
     ArgumentUtil.checkBounds(dest.length, destOffset, length);
 
-    for (int i = 0; i < length; i++)
+    // A loop over both arrays with a single index is vectorized by the JIT compiler.
+    int shift = destOffset - offset;
+    for (int i = offset; i < offset + length; i++)
     {
-      dest[destOffset++] = (char) (((char) input[i + offset]) & 0x00ff);
+      dest[i + shift] = (char) (input[i] & 0xff);
     }
   }
 
@@ -906,18 +1070,37 @@ public class Data
    */
   public static byte[] stringToBytes(String input, boolean validate)
   {
-    char orChar = 0;
     int length = input.length();
     byte[] bytes = new byte[length];
-    for (int i = 0; i < length; ++i)
+    if (length < MIN_SCRATCH_STRING_LENGTH)
     {
-      char c = input.charAt(i);
-      orChar |=  c;
-      bytes[i] = (byte) (c & 0x00ff);
+      char orChar = 0;
+      for (int i = 0; i < length; ++i)
+      {
+        char c = input.charAt(i);
+        orChar |= c;
+        bytes[i] = (byte) c;
+      }
+      return validate && (orChar & 0xff00) != 0 ? null : bytes;
     }
-    if (validate && (orChar & 0xff00) != 0)
+
+    // Longer strings are copied to a scratch array in chunks, which are converted by loops over arrays
+    // that the JIT compiler vectorizes.
+    char[] chars = SCRATCH_CHARS.get();
+    for (int start = 0; start < length; start += chars.length)
     {
-      return null;
+      int count = Math.min(chars.length, length - start);
+      input.getChars(start, start + count, chars, 0);
+      int orChar = 0;
+      for (int i = 0; i < count; i++)
+      {
+        orChar |= chars[i];
+        bytes[start + i] = (byte) chars[i];
+      }
+      if (validate && (orChar & 0xff00) != 0)
+      {
+        return null;
+      }
     }
     return bytes;
   }
@@ -931,14 +1114,33 @@ public class Data
    */
   public static boolean validStringAsBytes(String input)
   {
-    char orChar = 0;
     int length = input.length();
-    for (int i = 0; i < length; ++i)
+    if (length < MIN_SCRATCH_STRING_LENGTH)
     {
-      char c = input.charAt(i);
-      orChar |=  c;
+      char orChar = 0;
+      for (int i = 0; i < length; ++i)
+      {
+        orChar |= input.charAt(i);
+      }
+      return ((orChar & 0xff00) == 0);
+    }
+
+    char[] chars = SCRATCH_CHARS.get();
+    for (int start = 0; start < length; start += chars.length)
+    {
+      int count = Math.min(chars.length, length - start);
+      input.getChars(start, start + count, chars, 0);
+      int orChar = 0;
+      for (int i = 0; i < count; i++)
+      {
+        orChar |= chars[i];
+      }
+      if ((orChar & 0xff00) != 0)
+      {
+        return false;
+      }
     }
-    return ((orChar & 0xff00) == 0);
+    return true;
   }
 
   /**
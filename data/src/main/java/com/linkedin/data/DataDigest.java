@@ -0,0 +1,163 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data;
+
+
+import java.util.Map;
+
+
+/**
+ * Computes the 64-bit structural digest of Data objects, see {@link DataMap#digest()} and {@link DataList#digest()}.
+ *
+ * Objects that are equal have the same digest, and objects with different digests are not equal. The digest of a
+ * map does not depend on the order of its entries, while the digest of a list depends on the order of its items.
+ * Scalars of different classes, such as {@link Integer} 1 and {@link Long} 1, have different digests, as they are
+ * not equal either.
+ */
+class DataDigest
+{
+  private static final long PRIME = 0x100000001b3L;
+  private static final long GOLDEN = 0x9e3779b97f4a7c15L;
+
+  private static final long NULL_TAG = 1;
+  private static final long BOOLEAN_TAG = 2;
+  private static final long INTEGER_TAG = 3;
+  private static final long LONG_TAG = 4;
+  private static final long FLOAT_TAG = 5;
+  private static final long DOUBLE_TAG = 6;
+  private static final long STRING_TAG = 7;
+  private static final long BYTES_TAG = 8;
+  private static final long MAP_TAG = 9;
+  private static final long LIST_TAG = 10;
+  private static final long OTHER_TAG = 11;
+
+  private DataDigest()
+  {
+  }
+
+  /**
+   * Returns the digest of a Data object, using the memoized digests of the read-only complex objects.
+   */
+  static long digest(Object value)
+  {
+    if (value instanceof DataMap)
+    {
+      return ((DataMap) value).digest();
+    }
+    if (value instanceof DataList)
+    {
+      return ((DataList) value).digest();
+    }
+    if (value instanceof String)
+    {
+      return digestString((String) value);
+    }
+    if (value instanceof Integer)
+    {
+      return mix(INTEGER_TAG * GOLDEN + (Integer) value);
+    }
+    if (value instanceof Long)
+    {
+      return mix(LONG_TAG * GOLDEN + (Long) value);
+    }
+    if (value instanceof Boolean)
+    {
+      return mix(BOOLEAN_TAG * GOLDEN + ((Boolean) value ? 1 : 0));
+    }
+    // Float.equals and Double.equals compare the bits.
+    if (value instanceof Float)
+    {
+      return mix(FLOAT_TAG * GOLDEN + Float.floatToIntBits((Float) value));
+    }
+    if (value instanceof Double)
+    {
+      return mix(DOUBLE_TAG * GOLDEN + Double.doubleToLongBits((Double) value));
+    }
+    if (value instanceof ByteString)
+    {
+      return digestBytes((ByteString) value);
+    }
+    if (value == Data.NULL)
+    {
+      return mix(NULL_TAG);
+    }
+    return mix(OTHER_TAG * GOLDEN + value.hashCode());
+  }
+
+  /**
+   * Computes the digest of a map, which is the sum of the digests of its entries.
+   */
+  static long digestMap(DataMap map)
+  {
+    long sum = 0;
+    for (Map.Entry<String, Object> entry : map.entrySet())
+    {
+      sum += mix(digestString(entry.getKey()) + GOLDEN * digest(entry.getValue()));
+    }
+    return mix(MAP_TAG * GOLDEN + sum + map.size());
+  }
+
+  /**
+   * Computes the digest of a list, which depends on the order of its items.
+   */
+  static long digestList(DataList list)
+  {
+    long hash = LIST_TAG;
+    for (Object item : list)
+    {
+      hash = hash * PRIME + digest(item);
+    }
+    return mix(hash + list.size());
+  }
+
+  private static long digestString(String string)
+  {
+    long hash = STRING_TAG;
+    for (int i = 0; i < string.length(); i++)
+    {
+      hash = (hash ^ string.charAt(i)) * PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long digestBytes(ByteString bytes)
+  {
+    long hash = BYTES_TAG;
+    // Reading a compound ByteString one segment at a time avoids a lookup of the segment for each byte.
+    for (ByteString segment : bytes.decompose())
+    {
+      for (int i = 0; i < segment.length(); i++)
+      {
+        hash = (hash ^ (segment.getByte(i) & 0xff)) * PRIME;
+      }
+    }
+    return mix(hash);
+  }
+
+  /**
+   * The finalizer of MurmurHash3, which spreads every input bit over the output.
+   */
+  private static long mix(long h)
+  {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb3fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
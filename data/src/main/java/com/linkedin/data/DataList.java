@@ -97,6 +97,8 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     o._instrumented = false;
     o._accessList = null;
     o._dataComplexHashCode = DataComplexHashCode.nextHashCode();
+    o._hashCode = 0;
+    o._digest = 0;
 
     return o;
   }
@@ -219,6 +221,82 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     }
   }
 
+  /**
+   * Returns the hash code of this list, which is computed once if this list has been made read-only.
+   *
+   * @return the hash code of this list.
+   * @see #makeReadOnly()
+   */
+  @Override
+  public int hashCode()
+  {
+    if (!_madeReadOnly)
+    {
+      return super.hashCode();
+    }
+    // Like String, a hash code of 0 is recomputed.
+    int hashCode = _hashCode;
+    if (hashCode == 0)
+    {
+      hashCode = super.hashCode();
+      _hashCode = hashCode;
+    }
+    return hashCode;
+  }
+
+  /**
+   * Compares this list with the specified object for equality.
+   *
+   * If both are read-only {@link DataList}s whose hash codes have been computed and differ,
+   * they are not equal and their contents are not compared.
+   *
+   * @param object provides the object to be compared with this list.
+   * @return true if the specified object is equal to this list.
+   */
+  @Override
+  public boolean equals(Object object)
+  {
+    if (object == this)
+    {
+      return true;
+    }
+    if (_hashCode != 0 && object instanceof DataList)
+    {
+      int otherHashCode = ((DataList) object)._hashCode;
+      if (otherHashCode != 0 && otherHashCode != _hashCode)
+      {
+        return false;
+      }
+    }
+    return super.equals(object);
+  }
+
+  /**
+   * Returns a 64-bit digest of the structure and values of this list.
+   *
+   * Equal objects have the same digest, so different digests tell that objects are not equal without
+   * comparing them, and the digest may be used to find candidate duplicates. Objects with the same digest
+   * are very likely but not guaranteed to be equal, so they must still be compared with {@link #equals}.
+   * The digest is computed once if this list has been made read-only, and on each call otherwise.
+   *
+   * @return the digest of this list.
+   * @see #makeReadOnly()
+   */
+  public long digest()
+  {
+    if (!_madeReadOnly)
+    {
+      return DataDigest.digestList(this);
+    }
+    long digest = _digest;
+    if (digest == 0)
+    {
+      digest = DataDigest.digestList(this);
+      _digest = digest;
+    }
+    return digest;
+  }
+
   @Override
   public int dataComplexHashCode()
   {
@@ -270,4 +348,7 @@ public final class DataList extends CheckedList<Object> implements DataComplex
   private boolean _instrumented = false;
   private ArrayList<Integer> _accessList;
   private int _dataComplexHashCode = DataComplexHashCode.nextHashCode();
+  // Memoized once made read-only, 0 if not computed yet. The digest is volatile so that its 64 bits are written at once.
+  private int _hashCode;
+  private volatile long _digest;
 }
@@ -18,6 +18,7 @@ package com.linkedin.data;
 
 import com.linkedin.data.collections.CheckedMap;
 import com.linkedin.data.collections.CommonMap;
+import com.linkedin.data.collections.LazyMap;
 import com.linkedin.data.collections.MapChecker;
 import java.util.HashMap;
 import java.util.Map;
@@ -111,6 +112,19 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     super(initialCapacity, loadFactor, _checker);
   }
 
+  /**
+   * Constructs a {@link DataMap} backed by the specified {@link LazyMap}, whose values
+   * are decoded when they are first read.
+   *
+   * Unlike {@link #DataMap(Map)}, the entries are neither copied nor checked.
+   *
+   * @param map provides the underlying map of the new {@link DataMap}.
+   */
+  public DataMap(LazyMap<String, Object> map)
+  {
+    super(map, _checker);
+  }
+
   @Override
   public DataMap clone() throws CloneNotSupportedException
   {
@@ -119,6 +133,8 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     o._instrumented = false;
     o._accessMap = null;
     o._dataComplexHashCode = DataComplexHashCode.nextHashCode();
+    o._hashCode = 0;
+    o._digest = 0;
 
     return o;
   }
@@ -388,6 +404,82 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     }
   }
 
+  /**
+   * Returns the hash code of this map, which is computed once if this map has been made read-only.
+   *
+   * @return the hash code of this map.
+   * @see #makeReadOnly()
+   */
+  @Override
+  public int hashCode()
+  {
+    if (!_madeReadOnly)
+    {
+      return super.hashCode();
+    }
+    // Like String, a hash code of 0 is recomputed.
+    int hashCode = _hashCode;
+    if (hashCode == 0)
+    {
+      hashCode = super.hashCode();
+      _hashCode = hashCode;
+    }
+    return hashCode;
+  }
+
+  /**
+   * Compares this map with the specified object for equality.
+   *
+   * If both are read-only {@link DataMap}s whose hash codes have been computed and differ,
+   * they are not equal and their contents are not compared.
+   *
+   * @param object provides the object to be compared with this map.
+   * @return true if the specified object is equal to this map.
+   */
+  @Override
+  public boolean equals(Object object)
+  {
+    if (object == this)
+    {
+      return true;
+    }
+    if (_hashCode != 0 && object instanceof DataMap)
+    {
+      int otherHashCode = ((DataMap) object)._hashCode;
+      if (otherHashCode != 0 && otherHashCode != _hashCode)
+      {
+        return false;
+      }
+    }
+    return super.equals(object);
+  }
+
+  /**
+   * Returns a 64-bit digest of the structure and values of this map.
+   *
+   * Equal objects have the same digest, so different digests tell that objects are not equal without
+   * comparing them, and the digest may be used to find candidate duplicates. Objects with the same digest
+   * are very likely but not guaranteed to be equal, so they must still be compared with {@link #equals}.
+   * The digest is computed once if this map has been made read-only, and on each call otherwise.
+   *
+   * @return the digest of this map.
+   * @see #makeReadOnly()
+   */
+  public long digest()
+  {
+    if (!_madeReadOnly)
+    {
+      return DataDigest.digestMap(this);
+    }
+    long digest = _digest;
+    if (digest == 0)
+    {
+      digest = DataDigest.digestMap(this);
+      _digest = digest;
+    }
+    return digest;
+  }
+
   @Override
   public int dataComplexHashCode()
   {
@@ -432,4 +524,7 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
   private boolean _instrumented = false;
   private Map<String, Integer> _accessMap;
   private int _dataComplexHashCode = DataComplexHashCode.nextHashCode();
+  // Memoized once made read-only, 0 if not computed yet. The digest is volatile so that its 64 bits are written at once.
+  private int _hashCode;
+  private volatile long _digest;
 }
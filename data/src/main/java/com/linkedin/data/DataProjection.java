@@ -0,0 +1,101 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data;
+
+
+/**
+ * Selects the parts of a complex Data object that are traversed by
+ * {@link Data#traverse(Object, Data.TraverseCallback, DataProjection)}, so that codecs can encode a projection of
+ * a Data object without copying it.
+ * <p>
+ *
+ * A projection selects fields of a {@link DataMap} and a range of items of a {@link DataList}, and provides the
+ * projections of the selected values. Projections are usually compiled from projection masks, see
+ * {@code com.linkedin.data.transform.filter.ProjectionPlan}.
+ * <p>
+ *
+ * Implementations may throw a {@link RuntimeException} if the projection cannot be applied to the Data object.
+ */
+public interface DataProjection
+{
+  /**
+   * The projection that selects the whole Data object.
+   */
+  DataProjection ALL = new DataProjection()
+  {
+    @Override
+    public DataProjection getFieldProjection(String name, Object value)
+    {
+      return this;
+    }
+
+    @Override
+    public int getStart(DataList list)
+    {
+      return 0;
+    }
+
+    @Override
+    public int getEnd(DataList list)
+    {
+      return list.size();
+    }
+
+    @Override
+    public DataProjection getItemProjection(Object item)
+    {
+      return this;
+    }
+
+    @Override
+    public String toString()
+    {
+      return "ALL";
+    }
+  };
+
+  /**
+   * Returns the projection of the value of a field of a {@link DataMap}.
+   *
+   * @param name provides the name of the field.
+   * @param value provides the value of the field.
+   * @return the projection of the value, {@link #ALL} if the whole value is selected, or null if the field is not
+   *         selected.
+   */
+  DataProjection getFieldProjection(String name, Object value);
+
+  /**
+   * @param list provides the {@link DataList}.
+   * @return the index of the first selected item of the list.
+   */
+  int getStart(DataList list);
+
+  /**
+   * @param list provides the {@link DataList}.
+   * @return the index after the last selected item of the list, the list is projected to an empty list if it is not
+   *         greater than {@link #getStart(DataList)}.
+   */
+  int getEnd(DataList list);
+
+  /**
+   * Returns the projection of a selected item of a {@link DataList}.
+   *
+   * @param item provides the item.
+   * @return the projection of the item, or {@link #ALL} if the whole item is selected.
+   */
+  DataProjection getItemProjection(Object item);
+}
@@ -19,6 +19,7 @@ package com.linkedin.data.codec;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.linkedin.data.ByteString;
@@ -26,7 +27,9 @@ import com.linkedin.data.Data;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.util.FastByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
@@ -79,12 +82,38 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     return out.toByteArray();
   }
 
+  @Override
+  public byte[] mapToBytes(DataMap map, RecordDataSchema schema) throws IOException
+  {
+    FastByteArrayOutputStream out = new FastByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+    writeRecord(map, JacksonRecordPlan.forSchema(schema), createJsonGenerator(out));
+    return out.toByteArray();
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map, DataProjection projection) throws IOException
+  {
+    if (projection == null || projection == DataProjection.ALL)
+    {
+      return mapToBytes(map);
+    }
+    FastByteArrayOutputStream out = new FastByteArrayOutputStream(DEFAULT_BUFFER_SIZE);
+    writeObject(map, projection, createJsonGenerator(out));
+    return out.toByteArray();
+  }
+
   @Override
   public DataMap bytesToMap(byte[] input) throws IOException
   {
     return parse(_factory.createParser(input), DataMap.class);
   }
 
+  @Override
+  public DataMap bytesToMap(byte[] input, RecordDataSchema schema) throws IOException
+  {
+    return parseRecord(_factory.createParser(input), JacksonRecordPlan.forSchema(schema));
+  }
+
   @Override
   public DataList bytesToList(byte[] input) throws IOException
   {
@@ -97,6 +126,23 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     writeObject(map, createJsonGenerator(out));
   }
 
+  @Override
+  public void writeMap(DataMap map, RecordDataSchema schema, OutputStream out) throws IOException
+  {
+    writeRecord(map, JacksonRecordPlan.forSchema(schema), createJsonGenerator(out));
+  }
+
+  @Override
+  public void writeMap(DataMap map, DataProjection projection, OutputStream out) throws IOException
+  {
+    if (projection == null || projection == DataProjection.ALL)
+    {
+      writeMap(map, out);
+      return;
+    }
+    writeObject(map, projection, createJsonGenerator(out));
+  }
+
   @Override
   public void writeList(DataList list, OutputStream out) throws IOException
   {
@@ -131,17 +177,52 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     }
   }
 
+  /**
+   * Writes the parts of an object selected by a {@link DataProjection}, without copying the object.
+   */
+  protected void writeObject(Object object, DataProjection projection, JsonGenerator generator) throws IOException
+  {
+    try
+    {
+      Data.traverse(object, createTraverseCallback(generator), projection);
+      generator.flush();
+    }
+    finally
+    {
+      closeQuietly(generator);
+    }
+  }
+
   protected Data.TraverseCallback createTraverseCallback(JsonGenerator generator)
   {
     return new JacksonTraverseCallback(generator);
   }
 
+  private void writeRecord(DataMap map, JacksonRecordPlan plan, JsonGenerator generator) throws IOException
+  {
+    try
+    {
+      new RecordWriter(generator, createTraverseCallback(generator)).writeRecord(map, plan);
+      generator.flush();
+    }
+    finally
+    {
+      closeQuietly(generator);
+    }
+  }
+
   @Override
   public DataMap readMap(InputStream in) throws IOException
   {
     return parse(_factory.createParser(in), DataMap.class);
   }
 
+  @Override
+  public DataMap readMap(InputStream in, RecordDataSchema schema) throws IOException
+  {
+    return parseRecord(_factory.createParser(in), JacksonRecordPlan.forSchema(schema));
+  }
+
   @Override
   public DataList readList(InputStream in) throws IOException
   {
@@ -164,6 +245,42 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     }
   }
 
+  private DataMap parseRecord(JsonParser jsonParser, JacksonRecordPlan plan) throws IOException
+  {
+    try
+    {
+      return new Parser().parseRecord(jsonParser, plan);
+    }
+    finally
+    {
+      closeQuietly(jsonParser);
+    }
+  }
+
+  /**
+   * Parses the input into a {@link DataMap} backed by a {@link LazyJsonMap}, or returns null if the input has to be
+   * parsed eagerly instead, such as when it has comments or duplicate keys.
+   */
+  DataMap parseLazy(byte[] input) throws IOException
+  {
+    JsonParser jsonParser = _factory.createParser(input);
+    // Comments would be copied along with the raw values.
+    jsonParser.disable(JsonParser.Feature.ALLOW_COMMENTS);
+    try
+    {
+      LazyJsonMap map = new LazyJsonMap(this, input);
+      return new Parser().parseLazy(jsonParser, map) ? new DataMap(map) : null;
+    }
+    catch (JsonParseException e)
+    {
+      return null;
+    }
+    finally
+    {
+      closeQuietly(jsonParser);
+    }
+  }
+
   /**
    * Uses the link {@JsonParser} and parses its contents into a list of Data objects.
    *
@@ -339,6 +456,110 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     }
   }
 
+  /**
+   * Writes a {@link DataMap} using a {@link JacksonRecordPlan}. Fields declared by the schema are written in
+   * schema order using their pre-encoded names, and all other values are written by the generic
+   * {@link Data#traverse(Object, Data.TraverseCallback)} walk.
+   */
+  private static class RecordWriter
+  {
+    private final JsonGenerator _generator;
+    private final Data.TraverseCallback _callback;
+
+    RecordWriter(JsonGenerator generator, Data.TraverseCallback callback)
+    {
+      _generator = generator;
+      _callback = callback;
+    }
+
+    void writeRecord(DataMap map, JacksonRecordPlan plan) throws IOException
+    {
+      _generator.writeStartObject();
+      int written = 0;
+      for (int i = 0; i < plan.size(); i++)
+      {
+        Object value = map.get(plan.name(i));
+        if (value != null)
+        {
+          _generator.writeFieldName(plan.token(i));
+          writeField(value, plan, i);
+          written++;
+        }
+      }
+
+      if (written < map.size())
+      {
+        // Fields not declared by the schema.
+        for (Map.Entry<String, Object> entry : map.entrySet())
+        {
+          if (plan.indexOf(entry.getKey()) < 0)
+          {
+            _generator.writeFieldName(entry.getKey());
+            Data.traverse(entry.getValue(), _callback);
+          }
+        }
+      }
+      _generator.writeEndObject();
+    }
+
+    private void writeField(Object value, JacksonRecordPlan plan, int index) throws IOException
+    {
+      switch (plan.kind(index))
+      {
+        case JacksonRecordPlan.KIND_RECORD:
+          if (value instanceof DataMap)
+          {
+            writeRecord((DataMap) value, plan.child(index));
+            return;
+          }
+          break;
+        case JacksonRecordPlan.KIND_ARRAY_OF_RECORD:
+          if (value instanceof DataList)
+          {
+            JacksonRecordPlan child = plan.child(index);
+            DataList list = (DataList) value;
+            _generator.writeStartArray();
+            for (int i = 0; i < list.size(); i++)
+            {
+              writeElement(list.get(i), child);
+            }
+            _generator.writeEndArray();
+            return;
+          }
+          break;
+        case JacksonRecordPlan.KIND_MAP_OF_RECORD:
+          if (value instanceof DataMap)
+          {
+            JacksonRecordPlan child = plan.child(index);
+            _generator.writeStartObject();
+            for (Map.Entry<String, Object> entry : ((DataMap) value).entrySet())
+            {
+              _generator.writeFieldName(entry.getKey());
+              writeElement(entry.getValue(), child);
+            }
+            _generator.writeEndObject();
+            return;
+          }
+          break;
+        default:
+          break;
+      }
+      Data.traverse(value, _callback);
+    }
+
+    private void writeElement(Object value, JacksonRecordPlan plan) throws IOException
+    {
+      if (value instanceof DataMap)
+      {
+        writeRecord((DataMap) value, plan);
+      }
+      else
+      {
+        Data.traverse(value, _callback);
+      }
+    }
+  }
+
   private static class Parser
   {
     private StringBuilder _errorBuilder = null;
@@ -346,6 +567,7 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     private boolean _debug = false;
     private Deque<Object> _nameStack = null;
     private Map<Object, DataLocation> _locationMap = null;
+    private final FieldNameTable _fieldNames = FieldNameTable.getDefault();
 
     Parser()
     {
@@ -449,6 +671,66 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
       return result;
     }
 
+    DataMap parseRecord(JsonParser parser, JacksonRecordPlan plan) throws IOException
+    {
+      _errorBuilder = null;
+      _parser = parser;
+      if (!JsonToken.START_OBJECT.equals(_parser.nextToken()))
+      {
+        throw new DataDecodingException("Object must start with start object token.");
+      }
+
+      final DataMap map = new DataMap();
+      parseRecord(map, plan);
+      if (_errorBuilder != null)
+      {
+        map.addError(_errorBuilder.toString());
+      }
+      return map;
+    }
+
+    /**
+     * Parses the entries of the root object into the lazy map. Scalar values are decoded, while objects and arrays
+     * are skipped and only their location in the input is recorded. Returns false if the input has to be parsed
+     * eagerly instead, so that errors are reported the same way.
+     */
+    boolean parseLazy(JsonParser parser, LazyJsonMap map) throws IOException
+    {
+      _errorBuilder = null;
+      _parser = parser;
+      if (!JsonToken.START_OBJECT.equals(_parser.nextToken()))
+      {
+        throw new DataDecodingException("Object must start with start object token.");
+      }
+
+      while (_parser.nextToken() != JsonToken.END_OBJECT)
+      {
+        String key = _fieldNames.canonicalize(_parser.getCurrentName());
+        if (map.containsKey(key))
+        {
+          return false;
+        }
+        JsonToken token = _parser.nextToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)
+        {
+          int start = (int) _parser.getTokenLocation().getByteOffset();
+          _parser.skipChildren();
+          int end = (int) _parser.getTokenLocation().getByteOffset() + 1;
+          map.putRaw(key, start, end - start);
+        }
+        else
+        {
+          Object value = parsePrimitive(token);
+          if (value == null)
+          {
+            return false;
+          }
+          map.put(key, value);
+        }
+      }
+      return _errorBuilder == null;
+    }
+
     private DataLocation currentDataLocation()
     {
       return _locationMap == null ? null : new Location(_parser.getTokenLocation());
@@ -574,7 +856,7 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     {
       while (_parser.nextToken() != JsonToken.END_OBJECT)
       {
-        String key = _parser.getCurrentName();
+        String key = _fieldNames.canonicalize(_parser.getCurrentName());
         if (_debug)
         {
           _nameStack.addLast(key);
@@ -588,6 +870,128 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
       }
     }
 
+    /**
+     * Parses the fields of a record using a {@link JacksonRecordPlan}. The parser is asked to match the field
+     * that follows the last matched field in schema order, which succeeds without allocating a key
+     * {@link String} when the input was written in schema order. Otherwise the name is read as usual and,
+     * if the schema declares it, replaced by the schema's copy.
+     */
+    private void parseRecord(DataMap map, JacksonRecordPlan plan) throws IOException
+    {
+      int expected = 0;
+      while (true)
+      {
+        String key;
+        int index;
+        if (expected < plan.size() && _parser.nextFieldName(plan.token(expected)))
+        {
+          index = expected;
+          key = plan.name(index);
+        }
+        else
+        {
+          if (expected >= plan.size())
+          {
+            _parser.nextToken();
+          }
+          if (_parser.getCurrentToken() == JsonToken.END_OBJECT)
+          {
+            break;
+          }
+          key = _parser.getCurrentName();
+          index = plan.indexOf(key);
+          if (index >= 0)
+          {
+            // Keep the schema's copy of the name so that decoded maps share their keys.
+            key = plan.name(index);
+          }
+          else
+          {
+            key = _fieldNames.canonicalize(key);
+          }
+        }
+
+        JsonToken token = _parser.nextToken();
+        if (index < 0)
+        {
+          parse(null, map, key, token);
+          continue;
+        }
+
+        expected = index + 1;
+        switch (plan.kind(index))
+        {
+          case JacksonRecordPlan.KIND_RECORD:
+            if (token == JsonToken.START_OBJECT)
+            {
+              DataMap childMap = new DataMap();
+              updateParent(null, map, key, childMap);
+              parseRecord(childMap, plan.child(index));
+              continue;
+            }
+            break;
+          case JacksonRecordPlan.KIND_ARRAY_OF_RECORD:
+            if (token == JsonToken.START_ARRAY)
+            {
+              DataList childList = new DataList();
+              updateParent(null, map, key, childList);
+              parseRecordList(childList, plan.child(index));
+              continue;
+            }
+            break;
+          case JacksonRecordPlan.KIND_MAP_OF_RECORD:
+            if (token == JsonToken.START_OBJECT)
+            {
+              DataMap childMap = new DataMap();
+              updateParent(null, map, key, childMap);
+              parseRecordMap(childMap, plan.child(index));
+              continue;
+            }
+            break;
+          default:
+            break;
+        }
+        parse(null, map, key, token);
+      }
+    }
+
+    private void parseRecordList(DataList list, JacksonRecordPlan plan) throws IOException
+    {
+      JsonToken token;
+      while ((token = _parser.nextToken()) != JsonToken.END_ARRAY)
+      {
+        if (token == JsonToken.START_OBJECT)
+        {
+          DataMap childMap = new DataMap();
+          updateParent(list, null, null, childMap);
+          parseRecord(childMap, plan);
+        }
+        else
+        {
+          parse(list, null, null, token);
+        }
+      }
+    }
+
+    private void parseRecordMap(DataMap map, JacksonRecordPlan plan) throws IOException
+    {
+      while (_parser.nextToken() != JsonToken.END_OBJECT)
+      {
+        String key = _parser.getCurrentName();
+        JsonToken token = _parser.nextToken();
+        if (token == JsonToken.START_OBJECT)
+        {
+          DataMap childMap = new DataMap();
+          updateParent(null, map, key, childMap);
+          parseRecord(childMap, plan);
+        }
+        else
+        {
+          parse(null, map, key, token);
+        }
+      }
+    }
+
     private void parseDataList(DataList list) throws IOException
     {
       JsonToken token;
@@ -629,7 +1033,7 @@ public abstract class AbstractJacksonDataCodec implements DataCodec
     }
   }
 
-  private static void closeQuietly(Closeable closeable)
+  static void closeQuietly(Closeable closeable)
   {
     if (closeable != null)
     {
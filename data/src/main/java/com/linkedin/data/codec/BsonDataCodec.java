@@ -22,6 +22,7 @@ import com.linkedin.data.Data;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.collections.CheckedUtil;
 
 import java.io.IOException;
@@ -66,6 +67,11 @@ public class BsonDataCodec implements DataCodec
   }
 
   protected byte[] complexToBytes(DataComplex complex) throws IOException
+  {
+    return complexToBytes(complex, null);
+  }
+
+  protected byte[] complexToBytes(DataComplex complex, DataProjection projection) throws IOException
   {
     try
     {
@@ -73,7 +79,7 @@ public class BsonDataCodec implements DataCodec
         (_bufferSize == null) ?
         new BsonTraverseCallback() :
         new BsonTraverseCallback(_bufferSize);
-      Data.traverse(complex, callback);
+      Data.traverse(complex, callback, projection);
       byte[] bytes = callback.toBytes();
       return bytes;
     }
@@ -91,6 +97,12 @@ public class BsonDataCodec implements DataCodec
     return complexToBytes(map);
   }
 
+  @Override
+  public byte[] mapToBytes(DataMap map, DataProjection projection) throws IOException
+  {
+    return complexToBytes(map, projection);
+  }
+
   @Override
   public byte[] listToBytes(DataList list) throws IOException
   {
@@ -129,6 +141,11 @@ public class BsonDataCodec implements DataCodec
   }
 
   protected void writeComplex(DataComplex complex, OutputStream out) throws IOException
+  {
+    writeComplex(complex, null, out);
+  }
+
+  protected void writeComplex(DataComplex complex, DataProjection projection, OutputStream out) throws IOException
   {
     try
     {
@@ -136,7 +153,7 @@ public class BsonDataCodec implements DataCodec
           (_bufferSize == null) ?
               new BsonTraverseCallback() :
               new BsonTraverseCallback(_bufferSize);
-      Data.traverse(complex, callback);
+      Data.traverse(complex, callback, projection);
       callback.writeToOutputStream(out);
     }
     catch (RuntimeException exc)
@@ -153,6 +170,12 @@ public class BsonDataCodec implements DataCodec
     writeComplex(map, out);
   }
 
+  @Override
+  public void writeMap(DataMap map, DataProjection projection, OutputStream out) throws IOException
+  {
+    writeComplex(map, projection, out);
+  }
+
   @Override
   public void writeList(DataList list, OutputStream out) throws IOException
   {
@@ -192,29 +215,29 @@ public class BsonDataCodec implements DataCodec
     return readComplex(in, DataList.class);
   }
 
-  static final byte ZERO_BYTE = 0;
-  static final byte ONE_BYTE = 1;
-
-  static final byte BSON_DOUBLE = 1;
-  static final byte BSON_STRING = 2;
-  static final byte BSON_EMBEDDED_DOCUMENT = 3;
-  static final byte BSON_ARRAY = 4;
-  static final byte BSON_BINARY = 5;
-  static final byte BSON_DEPRECATED = 6;
-  static final byte BSON_OBJECTID = 7;
-  static final byte BSON_BOOLEAN = 8;
-  static final byte BSON_UTC_DATETIME = 9;
-  static final byte BSON_NULL = 10;
-  static final byte BSON_REGEX = 11;
-  static final byte BSON_DBPOINTER_DEPRECATED = 12;
-  static final byte BSON_JAVASCRIPT_CODE = 13;
-  static final byte BSON_SYMBOL = 14;
-  static final byte BSON_JAVASCRIPT_CODE_WITH_SCOPE = 15;
-  static final byte BSON_32BIT_INTEGER = 16;
-  static final byte BSON_TIMESTAMP = 17;
-  static final byte BSON_64BIT_INTEGER = 18;
-  static final byte BSON_MINKEY = -1;
-  static final byte BSON_MAXKEY = 127;
+  public static final byte ZERO_BYTE = 0;
+  public static final byte ONE_BYTE = 1;
+
+  public static final byte BSON_DOUBLE = 1;
+  public static final byte BSON_STRING = 2;
+  public static final byte BSON_EMBEDDED_DOCUMENT = 3;
+  public static final byte BSON_ARRAY = 4;
+  public static final byte BSON_BINARY = 5;
+  public static final byte BSON_DEPRECATED = 6;
+  public static final byte BSON_OBJECTID = 7;
+  public static final byte BSON_BOOLEAN = 8;
+  public static final byte BSON_UTC_DATETIME = 9;
+  public static final byte BSON_NULL = 10;
+  public static final byte BSON_REGEX = 11;
+  public static final byte BSON_DBPOINTER_DEPRECATED = 12;
+  public static final byte BSON_JAVASCRIPT_CODE = 13;
+  public static final byte BSON_SYMBOL = 14;
+  public static final byte BSON_JAVASCRIPT_CODE_WITH_SCOPE = 15;
+  public static final byte BSON_32BIT_INTEGER = 16;
+  public static final byte BSON_TIMESTAMP = 17;
+  public static final byte BSON_64BIT_INTEGER = 18;
+  public static final byte BSON_MINKEY = -1;
+  public static final byte BSON_MAXKEY = 127;
 
   protected static class BsonTraverseCallback implements Data.TraverseCallback
   {
@@ -436,6 +459,10 @@ public class BsonDataCodec implements DataCodec
       while (bsonType != ZERO_BYTE)
       {
         name = _buffer.getUtf8CString();
+        if (map != null)
+        {
+          name = _fieldNames.canonicalize(name);
+        }
         Object o = null;
         boolean valid = true;
         switch (bsonType)
@@ -572,5 +599,6 @@ public class BsonDataCodec implements DataCodec
     }
 
     private final BufferChain _buffer;
+    private final FieldNameTable _fieldNames = FieldNameTable.getDefault();
   }
 }
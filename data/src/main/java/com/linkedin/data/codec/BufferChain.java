@@ -21,21 +21,19 @@ import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.io.Reader;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.CharBuffer;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 public class BufferChain
 {
@@ -73,10 +71,10 @@ public class BufferChain
   private ArrayList<ByteBuffer> _bufferList = new ArrayList<ByteBuffer>();
   private int _bufferSize;
   private ByteOrder _order;
-  private CharsetDecoder _decoder;
   private CharsetEncoder _encoder;
   private BufferChainInputStream _inputStream;
   private BufferChainOutputStream _outputStream;
+  private byte[] _scratch = new byte[DEFAULT_STRING_LENGTH];
 
   public static final class Position
   {
@@ -164,12 +162,35 @@ public class BufferChain
     initCoders();
   }
 
-  private BufferChain(ByteOrder order, ArrayList<ByteBuffer> byteBuffers, int bufferSize)
+  /**
+   * Construct a {@link BufferChain} with the specified byte order and the data of a {@link ByteString}.
+   *
+   * The {@link BufferChain} directly references the segments returned by {@link ByteString#decompose()},
+   * i.e. it does not copy the data, even if the {@link ByteString} is made of many chunks. Since the
+   * {@link ByteString} is immutable, the returned {@link BufferChain} can only be read from.
+   *
+   * @param order provides the byte order of the provided data.
+   * @param bytes provides the data of the new {@link BufferChain}.
+   */
+  public BufferChain(ByteOrder order, ByteString bytes)
   {
     _order = order;
-    _currentBuffer = byteBuffers.get(0);
+    for (ByteString segment : bytes.decompose())
+    {
+      if (!segment.isEmpty())
+      {
+        // Sliced so that positions start at zero, like those of the other buffers, which offset() relies on.
+        ByteBuffer buffer = segment.asByteBuffer().slice();
+        buffer.order(_order);
+        _bufferList.add(buffer);
+      }
+    }
+    if (_bufferList.isEmpty())
+    {
+      _bufferList.add(ByteBuffer.allocate(0).order(_order));
+    }
+    _currentBuffer = _bufferList.get(0);
     _currentIndex = 0;
-    _bufferList = byteBuffers;
     initCoders();
   }
 
@@ -546,38 +567,37 @@ public class BufferChain
    */
   public String getUtf8CString() throws IOException
   {
-    ArrayList<ByteBuffer> bufferList = null;
-    boolean foundZeroByte = false;
-    int numBytes = 0;
-
-    while (foundZeroByte == false && advanceBufferIfCurrentBufferHasNoRemaining())
+    if (advanceBufferIfCurrentBufferHasNoRemaining() == false)
     {
-      int position = _currentBuffer.position();
-      byte[] array = _currentBuffer.array();
-      int arrayOffset = _currentBuffer.arrayOffset();
-      int limit = _currentBuffer.limit();
-      int arrayLimit = arrayOffset + limit;
-      int arrayStart = arrayOffset + position;
-      int arrayIndex = arrayStart;
-      while (arrayIndex < arrayLimit && array[arrayIndex] != ZERO_BYTE)
-      {
-        arrayIndex++;
-      }
+      throw new BufferUnderflowException();
+    }
+    int terminator = indexOfZeroByte(_currentBuffer);
+    if (terminator >= 0)
+    {
+      // The string does not cross a buffer boundary, decode it in place.
+      String result = decodeUtf8(_currentBuffer, terminator - _currentBuffer.position());
+      _currentBuffer.get(); // terminal zero byte
+      return result;
+    }
 
-      foundZeroByte = (arrayIndex < arrayLimit);
-      int bytesInCurrentBuffer = arrayIndex - arrayStart;
+    // The string crosses buffer boundaries, only its bytes are copied.
+    int numBytes = 0;
+    do
+    {
+      terminator = indexOfZeroByte(_currentBuffer);
+      int bytesInCurrentBuffer = (terminator >= 0 ? terminator : _currentBuffer.limit()) - _currentBuffer.position();
+      byte[] bytes = scratch(numBytes + bytesInCurrentBuffer);
+      _currentBuffer.get(bytes, numBytes, bytesInCurrentBuffer);
       numBytes += bytesInCurrentBuffer;
-      if (foundZeroByte == false || numBytes != bytesInCurrentBuffer)
+      if (terminator >= 0)
       {
-        bufferList = accummulateByteBuffers(bufferList, bytesInCurrentBuffer);
+        _currentBuffer.get(); // terminal zero byte
+        return new String(bytes, 0, numBytes, _charset);
       }
     }
+    while (advanceBufferIfCurrentBufferHasNoRemaining());
 
-    if (foundZeroByte == false)
-    {
-      throw new BufferUnderflowException();
-    }
-    return bufferToUtf8CString(numBytes, bufferList);
+    throw new BufferUnderflowException();
   }
 
   /**
@@ -601,92 +621,136 @@ public class BufferChain
       }
       return "";
     }
-    ArrayList<ByteBuffer> bufferList = null;
-    int numBytes = 0;
 
-    int more = length - 1;
-    while (more > 0 && advanceBufferIfCurrentBufferHasNoRemaining())
+    int numBytes = length - 1;
+    String result;
+    if (advanceBufferIfCurrentBufferHasNoRemaining() && _currentBuffer.remaining() >= numBytes)
     {
-      int remaining = _currentBuffer.remaining();
-      int bytesInCurrentBuffer = Math.min(remaining, more);
-      more -= bytesInCurrentBuffer;
-
-      numBytes += bytesInCurrentBuffer;
-      if (length != bytesInCurrentBuffer)
+      // The string does not cross a buffer boundary, decode it in place.
+      result = decodeUtf8(_currentBuffer, numBytes);
+    }
+    else
+    {
+      // The string crosses buffer boundaries, only its bytes are copied.
+      byte[] bytes = scratch(numBytes);
+      if (read(bytes, 0, numBytes) != numBytes)
       {
-        bufferList = accummulateByteBuffers(bufferList, bytesInCurrentBuffer);
+        throw new BufferUnderflowException();
       }
+      result = new String(bytes, 0, numBytes, _charset);
     }
-    if (numBytes != length - 1)
+    advanceBufferIfCurrentBufferHasNoRemaining();
+    _currentBuffer.get(); // terminal zero byte
+    return result;
+  }
+
+  /**
+   * Skip the specified number of bytes.
+   *
+   * @param length provides the number of bytes to skip.
+   * @return {@code this}.
+   * @throws BufferUnderflowException if the buffer chain is exhausted.
+   */
+  public BufferChain skip(int length) throws BufferUnderflowException
+  {
+    int more = length;
+    while (more > 0 && advanceBufferIfCurrentBufferHasNoRemaining())
+    {
+      int skipped = Math.min(more, _currentBuffer.remaining());
+      _currentBuffer.position(_currentBuffer.position() + skipped);
+      more -= skipped;
+    }
+    if (more > 0)
     {
       throw new BufferUnderflowException();
     }
-    return bufferToUtf8CString(numBytes, bufferList);
+    return this;
   }
 
-  private ArrayList<ByteBuffer> accummulateByteBuffers(ArrayList<ByteBuffer> bufferList, int bytesInCurrentBuffer)
+  /**
+   * Skip the next null-terminated string without decoding it.
+   *
+   * @return {@code this}.
+   * @throws BufferUnderflowException if the buffer chain is exhausted.
+   */
+  public BufferChain skipUtf8CString() throws BufferUnderflowException
   {
-    byte[] array = _currentBuffer.array();
-    int position = _currentBuffer.position();
-    int arrayOffset = _currentBuffer.arrayOffset();
-    int arrayStart = arrayOffset + position;
-    int newPosition = position + bytesInCurrentBuffer;
-
-    ByteBuffer byteBuffer = ByteBuffer.wrap(array, arrayStart, bytesInCurrentBuffer);
-    byteBuffer.order(_order);
-    _currentBuffer.position(newPosition);
-    if (bufferList == null)
-      bufferList = new ArrayList<ByteBuffer>();
-    bufferList.add(byteBuffer);
-    return bufferList;
+    while (advanceBufferIfCurrentBufferHasNoRemaining())
+    {
+      int terminator = indexOfZeroByte(_currentBuffer);
+      if (terminator >= 0)
+      {
+        _currentBuffer.position(terminator + 1);
+        return this;
+      }
+      _currentBuffer.position(_currentBuffer.limit());
+    }
+    throw new BufferUnderflowException();
   }
 
-  private String bufferToUtf8CString(int numBytes, ArrayList<ByteBuffer> bufferList) throws IOException
+  /**
+   * Returns the index of the first zero byte between the position and the limit of the buffer, or -1.
+   */
+  private static int indexOfZeroByte(ByteBuffer buffer)
   {
-    String result;
-    if (numBytes == 0)
+    int limit = buffer.limit();
+    if (buffer.hasArray())
     {
-      result = "";
-    }
-    else if (bufferList == null)
-    {
-      _decoder.reset();
-      CharBuffer charBuffer = CharBuffer.allocate(numBytes); // char should be smaller than # of bytes in buffer.
-      int limit = _currentBuffer.limit();
-      _currentBuffer.limit(_currentBuffer.position() + numBytes);
-      checkCoderResult(_decoder.decode(_currentBuffer, charBuffer, true));
-      _currentBuffer.limit(limit);
-      _decoder.flush(charBuffer);
-      charBuffer.flip();
-      result = charBuffer.toString();
+      byte[] array = buffer.array();
+      int arrayOffset = buffer.arrayOffset();
+      for (int i = arrayOffset + buffer.position(); i < arrayOffset + limit; i++)
+      {
+        if (array[i] == ZERO_BYTE)
+        {
+          return i - arrayOffset;
+        }
+      }
     }
     else
     {
-      char[] charBuffer = new char[numBytes]; // char should be smaller than # of bytes in buffer.
-      BufferChain chain = new BufferChain(_order, bufferList, _bufferSize);
-      InputStream inputStream = chain.asInputStream();
-      Reader reader = new InputStreamReader(inputStream, _charset);
-      int offset = 0;
-      int remaining = numBytes;
-      int charactersRead;
-      while ((charactersRead = reader.read(charBuffer, offset, remaining)) > 0)
+      for (int i = buffer.position(); i < limit; i++)
       {
-        offset += charactersRead;
-        remaining -= charactersRead;
+        if (buffer.get(i) == ZERO_BYTE)
+        {
+          return i;
+        }
       }
-      result = new String(charBuffer, 0, offset);
     }
-    advanceBufferIfCurrentBufferHasNoRemaining();
-    _currentBuffer.get(); // terminal zero byte
-    return result;
+    return -1;
   }
 
-  private void checkCoderResult(CoderResult coderResult) throws IOException
+  /**
+   * Decodes the specified number of bytes starting at the position of the buffer, and advances the position
+   * past them.
+   */
+  private String decodeUtf8(ByteBuffer buffer, int numBytes) throws IOException
+  {
+    if (numBytes == 0)
+    {
+      return "";
+    }
+    int position = buffer.position();
+    if (buffer.hasArray())
+    {
+      buffer.position(position + numBytes);
+      return new String(buffer.array(), buffer.arrayOffset() + position, numBytes, _charset);
+    }
+    // Read-only buffers, e.g. the segments of a ByteString, do not expose their array.
+    byte[] bytes = scratch(numBytes);
+    buffer.get(bytes, 0, numBytes);
+    return new String(bytes, 0, numBytes, _charset);
+  }
+
+  /**
+   * Returns a reusable array of at least the specified length that preserves the content of the previous one.
+   */
+  private byte[] scratch(int length)
   {
-    if (coderResult != CoderResult.UNDERFLOW)
+    if (_scratch.length < length)
     {
-      throw new IllegalStateException("Unexpected character decoder error " + coderResult);
+      _scratch = Arrays.copyOf(_scratch, Math.max(_scratch.length * 2, length));
     }
+    return _scratch;
   }
 
   /*
@@ -913,9 +977,35 @@ public class BufferChain
    */
   public BufferChain putUtf8CString(String value) throws CharacterCodingException
   {
-    reserve(value.length() * 4);
+    int length = value.length();
+    reserve(length * 4);
+
+    // ASCII characters are their own UTF-8 encoding, so they are copied to the buffer until the first other one.
+    int ascii = 0;
+    if (_currentBuffer.hasArray())
+    {
+      byte[] array = _currentBuffer.array();
+      int offset = _currentBuffer.arrayOffset() + _currentBuffer.position();
+      while (ascii < length)
+      {
+        char c = value.charAt(ascii);
+        if (c >= 0x80)
+        {
+          break;
+        }
+        array[offset + ascii] = (byte) c;
+        ascii++;
+      }
+      _currentBuffer.position(_currentBuffer.position() + ascii);
+    }
+    if (ascii == length)
+    {
+      put(ZERO_BYTE);
+      return this;
+    }
+
     _encoder.reset();
-    CoderResult result = _encoder.encode(CharBuffer.wrap(value), _currentBuffer, true);
+    CoderResult result = _encoder.encode(CharBuffer.wrap(value, ascii, length), _currentBuffer, true);
     if (result.isError())
     {
       result.throwException();
@@ -1174,10 +1264,6 @@ public class BufferChain
 
   private void initCoders()
   {
-    _decoder = _charset.newDecoder();
-    _decoder.onMalformedInput(CodingErrorAction.REPLACE);
-    _decoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
-
     _encoder = _charset.newEncoder();
     _encoder.onMalformedInput(CodingErrorAction.REPLACE);
     _encoder.onUnmappableCharacter(CodingErrorAction.REPLACE);
@@ -1214,13 +1300,12 @@ public class BufferChain
     if (remaining < length)
     {
       // out.println("remaining(" + length + ") " + remaining);
+      // The value may span more than two buffers, e.g. when reading the chunks of a ByteString.
       byte[] bytes = new byte[length];
-      _currentBuffer.get(bytes, 0, remaining);
-      if (advanceBufferIfCurrentBufferHasNoRemaining() == false)
+      if (read(bytes, 0, length) < length)
       {
         throw new BufferUnderflowException();
       }
-      _currentBuffer.get(bytes, remaining, length - remaining);
       buffer = ByteBuffer.wrap(bytes);
       buffer.order(_order);
     }
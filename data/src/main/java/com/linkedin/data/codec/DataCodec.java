@@ -17,8 +17,12 @@
 package com.linkedin.data.codec;
 
 
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
+import com.linkedin.data.schema.RecordDataSchema;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -105,4 +109,182 @@ public interface DataCodec
    * @throws IOException if there is an error during de-serialization.
    */
   DataList readList(InputStream in) throws IOException;
+
+  /**
+   * Serialize a {@link DataMap} whose schema is known to a byte array.
+   *
+   * <p>Codecs may use the schema to specialize the encoding, for example by pre-encoding the field names
+   * declared by the schema. Fields not declared by the schema are still serialized. The default implementation
+   * ignores the schema and delegates to {@link #mapToBytes(DataMap)}.</p>
+   *
+   * @param map to serialize.
+   * @param schema provides the {@link RecordDataSchema} of the map.
+   * @return the output serialized from the {@link DataMap}.
+   * @throws IOException if there is a serialization error.
+   */
+  default byte[] mapToBytes(DataMap map, RecordDataSchema schema) throws IOException
+  {
+    return mapToBytes(map);
+  }
+
+  /**
+   * Writes a {@link DataMap} whose schema is known to the supplied {@link OutputStream}.
+   *
+   * <p>See {@link #mapToBytes(DataMap, RecordDataSchema)}. The default implementation ignores the schema and
+   * delegates to {@link #writeMap(DataMap, OutputStream)}.</p>
+   *
+   * @param map the map to write to {@code out}
+   * @param schema provides the {@link RecordDataSchema} of the map.
+   * @param out the {@link OutputStream} to write to
+   * @throws IOException if there is an error during serialization
+   */
+  default void writeMap(DataMap map, RecordDataSchema schema, OutputStream out) throws IOException
+  {
+    writeMap(map, out);
+  }
+
+  /**
+   * Serialize the parts of a {@link DataMap} selected by a {@link DataProjection} to a byte array.
+   *
+   * <p>The output is the same as the output of {@link #mapToBytes(DataMap)} for the projected copy of the map
+   * returned by {@link Data#project(Object, DataProjection)}. Codecs may skip the values that are not selected while
+   * serializing the map instead of copying it. The default implementation serializes the projected copy.</p>
+   *
+   * @param map to serialize.
+   * @param projection selects the parts of the map to serialize.
+   * @return the output serialized from the projected {@link DataMap}.
+   * @throws IOException if there is a serialization error.
+   */
+  default byte[] mapToBytes(DataMap map, DataProjection projection) throws IOException
+  {
+    return mapToBytes((DataMap) Data.project(map, projection));
+  }
+
+  /**
+   * Writes the parts of a {@link DataMap} selected by a {@link DataProjection} to the supplied {@link OutputStream}.
+   *
+   * <p>See {@link #mapToBytes(DataMap, DataProjection)}. The default implementation writes the projected copy of
+   * the map with {@link #writeMap(DataMap, OutputStream)}.</p>
+   *
+   * @param map the map to write to {@code out}
+   * @param projection selects the parts of the map to write.
+   * @param out the {@link OutputStream} to write to
+   * @throws IOException if there is an error during serialization
+   */
+  default void writeMap(DataMap map, DataProjection projection, OutputStream out) throws IOException
+  {
+    writeMap((DataMap) Data.project(map, projection), out);
+  }
+
+  /**
+   * De-serialize a byte array whose schema is known to a {@link DataMap}.
+   *
+   * <p>Codecs may use the schema to specialize the decoding. The result is the same as the one
+   * returned by {@link #bytesToMap(byte[])}, which the default implementation delegates to.</p>
+   *
+   * @param input to de-serialize.
+   * @param schema provides the {@link RecordDataSchema} of the serialized map.
+   * @return the {@link DataMap} de-serialized from the input.
+   * @throws IOException if there is a de-serialization error.
+   */
+  default DataMap bytesToMap(byte[] input, RecordDataSchema schema) throws IOException
+  {
+    return bytesToMap(input);
+  }
+
+  /**
+   * Returns a {@link DataMap} whose schema is known from data consumed from the given {@link InputStream}.
+   *
+   * <p>See {@link #bytesToMap(byte[], RecordDataSchema)}. The default implementation ignores the schema and
+   * delegates to {@link #readMap(InputStream)}.</p>
+   *
+   * @param in the {@link InputStream} from which to read.
+   * @param schema provides the {@link RecordDataSchema} of the serialized map.
+   * @return a {@link DataMap} representation of read from the {@link InputStream}.
+   * @throws IOException if there is an error during de-serialization.
+   */
+  default DataMap readMap(InputStream in, RecordDataSchema schema) throws IOException
+  {
+    return readMap(in);
+  }
+
+  /**
+   * Returns a {@link DataMap} from data in the given {@link ByteString}.
+   *
+   * <p>Codecs may decode the segments of the {@link ByteString} in place instead of reading them through
+   * an {@link InputStream}. The default implementation delegates to {@link #readMap(InputStream)}.</p>
+   *
+   * @param bytes the {@link ByteString} to de-serialize.
+   * @return a {@link DataMap} representation of the {@link ByteString}.
+   * @throws IOException if there is an error during de-serialization.
+   */
+  default DataMap readMap(ByteString bytes) throws IOException
+  {
+    return readMap(bytes.asInputStream());
+  }
+
+  /**
+   * Returns a {@link DataList} from data in the given {@link ByteString}.
+   *
+   * <p>See {@link #readMap(ByteString)}. The default implementation delegates to
+   * {@link #readList(InputStream)}.</p>
+   *
+   * @param bytes the {@link ByteString} to de-serialize.
+   * @return a {@link DataList} representation of the {@link ByteString}.
+   * @throws IOException if there is an error during de-serialization.
+   */
+  default DataList readList(ByteString bytes) throws IOException
+  {
+    return readList(bytes.asInputStream());
+  }
+
+  /**
+   * Returns a {@link DataMap} from data in the given {@link ByteString}, whose values may only be decoded when
+   * they are first read.
+   *
+   * <p>This suits callers that read few of the values, such as services that route a response based on some of
+   * its fields. Codecs that support it index the top-level keys up front and decode the top-level
+   * {@link com.linkedin.data.DataMap}s and {@link com.linkedin.data.DataList}s on demand. The returned map is not
+   * thread-safe until all its values have been decoded, which {@link DataMap#makeReadOnly()} does. Errors in values
+   * decoded on demand are thrown as {@link java.io.UncheckedIOException}. The default implementation delegates to
+   * {@link #readMap(ByteString)}.</p>
+   *
+   * @param bytes the {@link ByteString} to de-serialize. It must not be modified afterwards.
+   * @return a {@link DataMap} representation of the {@link ByteString}.
+   * @throws IOException if there is an error during de-serialization.
+   */
+  default DataMap readLazyMap(ByteString bytes) throws IOException
+  {
+    return readMap(bytes);
+  }
+
+  /**
+   * Serialize a {@link DataMap} to a {@link ByteString}.
+   *
+   * <p>Codecs may assemble the {@link ByteString} from several segments instead of a single byte array.
+   * The default implementation wraps the result of {@link #mapToBytes(DataMap)}.</p>
+   *
+   * @param map to serialize.
+   * @return the output serialized from the {@link DataMap}.
+   * @throws IOException if there is a serialization error.
+   */
+  default ByteString mapToByteString(DataMap map) throws IOException
+  {
+    return ByteString.unsafeWrap(mapToBytes(map));
+  }
+
+  /**
+   * Serialize a {@link DataList} to a {@link ByteString}.
+   *
+   * <p>See {@link #mapToByteString(DataMap)}. The default implementation wraps the result of
+   * {@link #listToBytes(DataList)}.</p>
+   *
+   * @param list to serialize.
+   * @return the output serialized from the {@link DataList}.
+   * @throws IOException if there is a serialization error.
+   */
+  default ByteString listToByteString(DataList list) throws IOException
+  {
+    return ByteString.unsafeWrap(listToBytes(list));
+  }
 }
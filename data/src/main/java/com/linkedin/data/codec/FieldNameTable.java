@@ -0,0 +1,241 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Table of canonical field name {@link String}s shared by the decoders.
+ *
+ * <p>The table is seeded with the field names of {@link RecordDataSchema}s, and decoders replace each map key
+ * they read with the seeded copy of that name, if any. Decoded maps then share one instance of each field name
+ * instead of retaining a copy per map, and lookups using the schema's own name match by identity.</p>
+ *
+ * <p>Only seeded names are stored, so keys that are not field names, such as the keys of map-typed fields,
+ * cannot grow the table. The number of names is bounded by the maximum size given at construction; names
+ * seeded after the table is full are ignored.</p>
+ */
+public final class FieldNameTable
+{
+  /**
+   * Default upper bound on the number of names held by the table returned by {@link #getDefault()}.
+   */
+  public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+  private static final FieldNameTable DEFAULT = new FieldNameTable(DEFAULT_MAX_SIZE);
+
+  // Since Java 9, strings whose characters are all Latin-1 store one byte per character, and have a coder field.
+  private static final boolean COMPACT_STRINGS = hasCoder();
+
+  private final int _maxSize;
+  private final ConcurrentMap<String, String> _names = new ConcurrentHashMap<>();
+  private final AtomicInteger _size = new AtomicInteger();
+  private final LongAdder _hits = new LongAdder();
+  private final LongAdder _misses = new LongAdder();
+  private final LongAdder _bytesSaved = new LongAdder();
+
+  /**
+   * Returns the table shared by the codecs in this package.
+   *
+   * @return the default {@link FieldNameTable}.
+   */
+  public static FieldNameTable getDefault()
+  {
+    return DEFAULT;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize provides the maximum number of names held by the table.
+   */
+  public FieldNameTable(int maxSize)
+  {
+    _maxSize = maxSize;
+  }
+
+  /**
+   * Adds the field names of the records reachable from the given schema, including records nested in arrays,
+   * maps, unions and typerefs, and the member keys of the unions reachable from it.
+   *
+   * @param schema provides the {@link DataSchema} to seed from.
+   */
+  public void seed(DataSchema schema)
+  {
+    Set<DataSchema> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<DataSchema> pending = new ArrayDeque<>();
+    pending.push(schema);
+    while (!pending.isEmpty())
+    {
+      DataSchema current = pending.pop().getDereferencedDataSchema();
+      if (!visited.add(current))
+      {
+        continue;
+      }
+      switch (current.getType())
+      {
+        case RECORD:
+          for (RecordDataSchema.Field field : ((RecordDataSchema) current).getFields())
+          {
+            add(field.getName());
+            pending.push(field.getType());
+          }
+          break;
+        case ARRAY:
+          pending.push(((ArrayDataSchema) current).getItems());
+          break;
+        case MAP:
+          pending.push(((MapDataSchema) current).getValues());
+          break;
+        case UNION:
+          for (UnionDataSchema.Member member : ((UnionDataSchema) current).getMembers())
+          {
+            // Union data is a single entry map keyed by the member key.
+            add(member.getUnionMemberKey());
+            pending.push(member.getType());
+          }
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Adds a single name to the table, unless the table already holds an equal name or is full.
+   *
+   * @param name provides the name to add.
+   */
+  public void add(String name)
+  {
+    if (_names.containsKey(name) || _size.get() >= _maxSize)
+    {
+      return;
+    }
+    if (_size.incrementAndGet() > _maxSize || _names.putIfAbsent(name, name) != null)
+    {
+      _size.decrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the canonical copy of the given name.
+   *
+   * @param name provides the name read by a decoder.
+   * @return the seeded copy of the name, or the name itself if it has not been seeded.
+   */
+  public String canonicalize(String name)
+  {
+    String canonical = _names.get(name);
+    if (canonical == null)
+    {
+      _misses.increment();
+      return name;
+    }
+    _hits.increment();
+    if (canonical != name)
+    {
+      _bytesSaved.add(retainedSize(name));
+    }
+    return canonical;
+  }
+
+  /**
+   * @return the number of names held by the table.
+   */
+  public int size()
+  {
+    return _names.size();
+  }
+
+  /**
+   * @return the number of names that were replaced by their canonical copy.
+   */
+  public long getHitCount()
+  {
+    return _hits.sum();
+  }
+
+  /**
+   * @return the number of names that were not found in the table.
+   */
+  public long getMissCount()
+  {
+    return _misses.sum();
+  }
+
+  /**
+   * Returns an estimate of the heap no longer retained by decoded data, which is the size of each name
+   * that was replaced by a different instance of its canonical copy.
+   *
+   * @return the estimated number of bytes saved.
+   */
+  public long getBytesSaved()
+  {
+    return _bytesSaved.sum();
+  }
+
+  /**
+   * Estimated size of a {@link String} and its value array on a 64-bit JVM with compressed references. The value
+   * uses one byte per character for Latin-1 names if the JVM has compact strings, which are enabled by default, and
+   * two bytes per character otherwise.
+   */
+  private static long retainedSize(String name)
+  {
+    final long valueSize = COMPACT_STRINGS && isLatin1(name) ? name.length() : 2L * name.length();
+    return 24 + ((16 + valueSize + 7) & ~7L);
+  }
+
+  private static boolean isLatin1(String name)
+  {
+    for (int i = 0; i < name.length(); i++)
+    {
+      if (name.charAt(i) > 0xFF)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasCoder()
+  {
+    try
+    {
+      String.class.getDeclaredField("coder");
+      return true;
+    }
+    catch (NoSuchFieldException | SecurityException e)
+    {
+      return false;
+    }
+  }
+}
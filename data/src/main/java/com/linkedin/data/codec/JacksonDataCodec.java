@@ -16,6 +16,8 @@
 
 package com.linkedin.data.codec;
 
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 
@@ -27,6 +29,7 @@ import java.io.Writer;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
@@ -45,6 +48,7 @@ public class JacksonDataCodec extends AbstractJacksonDataCodec implements TextDa
   protected boolean _allowComments;
   protected PrettyPrinter _prettyPrinter;
   protected JsonEncoding _jsonEncoding = JsonEncoding.UTF8;
+  private ParallelJacksonEncoder _parallelEncoder;
 
   public JacksonDataCodec()
   {
@@ -86,6 +90,95 @@ public class JacksonDataCodec extends AbstractJacksonDataCodec implements TextDa
     _prettyPrinter = prettyPrinter;
   }
 
+  /**
+   * Enables encoding large collections on multiple threads. When the root, or a value of the root map, is a
+   * {@link DataList} or a {@link DataMap} with at least the given number of items or entries, its items or entries
+   * are encoded in slices on the given pool, which pays off for payloads of several megabytes such as large
+   * GET_ALL, FINDER or BATCH_GET responses. Smaller payloads, and payloads encoded with a {@link PrettyPrinter},
+   * are encoded on the calling thread.
+   *
+   * @param pool provides the pool to encode slices on, or null to disable parallel encoding.
+   * @param threshold provides the minimum number of items or entries of a collection for it to be sliced.
+   */
+  public void setParallelEncoding(ForkJoinPool pool, int threshold)
+  {
+    _parallelEncoder = pool == null ? null : new ParallelJacksonEncoder(pool, threshold);
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map) throws IOException
+  {
+    ByteString bytes = encodeInParallel(map);
+    return bytes == null ? super.mapToBytes(map) : bytes.copyBytes();
+  }
+
+  @Override
+  public byte[] listToBytes(DataList list) throws IOException
+  {
+    ByteString bytes = encodeInParallel(list);
+    return bytes == null ? super.listToBytes(list) : bytes.copyBytes();
+  }
+
+  @Override
+  public ByteString mapToByteString(DataMap map) throws IOException
+  {
+    ByteString bytes = encodeInParallel(map);
+    return bytes == null ? ByteString.unsafeWrap(super.mapToBytes(map)) : bytes;
+  }
+
+  @Override
+  public ByteString listToByteString(DataList list) throws IOException
+  {
+    ByteString bytes = encodeInParallel(list);
+    return bytes == null ? ByteString.unsafeWrap(super.listToBytes(list)) : bytes;
+  }
+
+  /**
+   * Returns the encoded bytes, or null if the data is to be encoded on the calling thread.
+   */
+  private ByteString encodeInParallel(DataComplex complex) throws IOException
+  {
+    if (_parallelEncoder == null || _prettyPrinter != null || LazyJsonMap.unwrap(complex) != null)
+    {
+      return null;
+    }
+    return _parallelEncoder.encode(this, complex);
+  }
+
+  /**
+   * Only decodes the top-level objects and arrays when they are first read. When the returned map is written by
+   * a {@link JacksonDataCodec} without a {@link PrettyPrinter}, the objects and arrays that have not been read are
+   * copied from the input instead of being encoded, which lets proxies pass unread values through.
+   */
+  @Override
+  public DataMap readLazyMap(ByteString bytes) throws IOException
+  {
+    byte[] input = bytes.copyBytes();
+    DataMap map = parseLazy(input);
+    return map == null ? bytesToMap(input) : map;
+  }
+
+  @Override
+  protected void writeObject(Object object, JsonGenerator generator) throws IOException
+  {
+    LazyJsonMap lazyMap = _prettyPrinter == null ? LazyJsonMap.unwrap(object) : null;
+    if (lazyMap == null)
+    {
+      super.writeObject(object, generator);
+      return;
+    }
+
+    try
+    {
+      lazyMap.write((DataMap) object, createTraverseCallback(generator), generator);
+      generator.flush();
+    }
+    finally
+    {
+      closeQuietly(generator);
+    }
+  }
+
   @Override
   public String getStringEncoding()
   {
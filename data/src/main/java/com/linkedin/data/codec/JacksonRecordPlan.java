@@ -0,0 +1,193 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Schema-specialized encoding and decoding state for a {@link RecordDataSchema}, used by
+ * {@link AbstractJacksonDataCodec} when the schema of the data being encoded or decoded is known.
+ *
+ * <p>The field names of the record are pre-encoded as {@link SerializedString}s, so that generators copy
+ * their cached bytes instead of re-encoding each name, and parsers can match the expected next field name
+ * without allocating a new key {@link String}. Fields whose values are records, or arrays or maps of records,
+ * are linked to the plans of those records so the specialization applies to the whole entity.</p>
+ *
+ * <p>Plans are cached by schema identity and are safe to share across threads and codec instances. The only
+ * state written after construction is the lazily resolved child plans, and resolving them is idempotent.</p>
+ */
+final class JacksonRecordPlan
+{
+  static final byte KIND_OTHER = 0;
+  static final byte KIND_RECORD = 1;
+  static final byte KIND_ARRAY_OF_RECORD = 2;
+  static final byte KIND_MAP_OF_RECORD = 3;
+
+  /**
+   * Upper bound on the number of cached plans. Schemas of generated templates are long-lived, but schemas
+   * parsed at runtime may not be, so the cache is reset instead of growing without bound.
+   */
+  private static final int MAX_CACHED_PLANS = 4096;
+
+  /**
+   * Copy-on-write cache keyed by schema identity. {@link RecordDataSchema#hashCode()} walks the whole schema,
+   * which would cost more than the encoding work saved by the plan.
+   */
+  private static volatile Map<RecordDataSchema, JacksonRecordPlan> _plans = new IdentityHashMap<>();
+
+  private final String[] _names;
+  private final SerializedString[] _tokens;
+  private final byte[] _kinds;
+  private final RecordDataSchema[] _childSchemas;
+  private final JacksonRecordPlan[] _children;
+  private final Map<String, Integer> _indexes;
+
+  /**
+   * Returns the plan for the given {@link RecordDataSchema}, building and caching it on first use.
+   *
+   * @param schema provides the {@link RecordDataSchema}.
+   * @return the plan for the schema.
+   */
+  static JacksonRecordPlan forSchema(RecordDataSchema schema)
+  {
+    JacksonRecordPlan plan = _plans.get(schema);
+    if (plan == null)
+    {
+      synchronized (JacksonRecordPlan.class)
+      {
+        plan = _plans.get(schema);
+        if (plan == null)
+        {
+          Map<RecordDataSchema, JacksonRecordPlan> plans =
+              _plans.size() < MAX_CACHED_PLANS ? new IdentityHashMap<>(_plans) : new IdentityHashMap<>();
+          plan = new JacksonRecordPlan(schema);
+          plans.put(schema, plan);
+          _plans = plans;
+        }
+      }
+    }
+    return plan;
+  }
+
+  private JacksonRecordPlan(RecordDataSchema schema)
+  {
+    List<RecordDataSchema.Field> fields = schema.getFields();
+    int size = fields.size();
+    _names = new String[size];
+    _tokens = new SerializedString[size];
+    _kinds = new byte[size];
+    _childSchemas = new RecordDataSchema[size];
+    _children = new JacksonRecordPlan[size];
+    _indexes = new HashMap<>(size * 2);
+
+    for (int i = 0; i < size; i++)
+    {
+      RecordDataSchema.Field field = fields.get(i);
+      _names[i] = field.getName();
+      _tokens[i] = new SerializedString(field.getName());
+      _indexes.put(field.getName(), i);
+      FieldNameTable.getDefault().add(field.getName());
+      classify(i, field.getType().getDereferencedDataSchema());
+    }
+  }
+
+  private void classify(int index, DataSchema fieldSchema)
+  {
+    switch (fieldSchema.getType())
+    {
+      case RECORD:
+        _kinds[index] = KIND_RECORD;
+        _childSchemas[index] = (RecordDataSchema) fieldSchema;
+        break;
+      case ARRAY:
+        DataSchema items = ((ArrayDataSchema) fieldSchema).getItems().getDereferencedDataSchema();
+        if (items.getType() == DataSchema.Type.RECORD)
+        {
+          _kinds[index] = KIND_ARRAY_OF_RECORD;
+          _childSchemas[index] = (RecordDataSchema) items;
+        }
+        break;
+      case MAP:
+        DataSchema values = ((MapDataSchema) fieldSchema).getValues().getDereferencedDataSchema();
+        if (values.getType() == DataSchema.Type.RECORD)
+        {
+          _kinds[index] = KIND_MAP_OF_RECORD;
+          _childSchemas[index] = (RecordDataSchema) values;
+        }
+        break;
+      default:
+        _kinds[index] = KIND_OTHER;
+        break;
+    }
+  }
+
+  /**
+   * @return the number of fields declared by the record.
+   */
+  int size()
+  {
+    return _names.length;
+  }
+
+  String name(int index)
+  {
+    return _names[index];
+  }
+
+  SerializedString token(int index)
+  {
+    return _tokens[index];
+  }
+
+  byte kind(int index)
+  {
+    return _kinds[index];
+  }
+
+  /**
+   * Returns the index of the field with the given name, or -1 if the record does not declare such a field.
+   */
+  int indexOf(String name)
+  {
+    Integer index = _indexes.get(name);
+    return index == null ? -1 : index;
+  }
+
+  /**
+   * Returns the plan of the record contained by the field at the given index. Child plans are resolved lazily,
+   * which allows recursive schemas to be specialized.
+   */
+  JacksonRecordPlan child(int index)
+  {
+    JacksonRecordPlan child = _children[index];
+    if (child == null)
+    {
+      child = forSchema(_childSchemas[index]);
+      _children[index] = child;
+    }
+    return child;
+  }
+}
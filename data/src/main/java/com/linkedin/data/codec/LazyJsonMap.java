@@ -0,0 +1,240 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.LazyMap;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+
+/**
+ * Underlying map of a {@link DataMap} decoded lazily from JSON by {@link JacksonDataCodec#readLazyMap}.
+ *
+ * <p>The top-level scalar values are decoded up front, while the top-level objects and arrays are only located in
+ * the input and decoded when they are first read. {@link JacksonDataCodec} writes the objects and arrays that have
+ * not been read as their original bytes.</p>
+ */
+final class LazyJsonMap extends LazyMap<String, Object>
+{
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final AbstractJacksonDataCodec _codec;
+  private final byte[] _input;
+
+  LazyJsonMap(AbstractJacksonDataCodec codec, byte[] input)
+  {
+    super(INITIAL_CAPACITY);
+    _codec = codec;
+    _input = input;
+  }
+
+  /**
+   * Returns the {@link LazyJsonMap} underlying the object if it still has values to decode, or null otherwise.
+   */
+  static LazyJsonMap unwrap(Object object)
+  {
+    if (object instanceof DataMap)
+    {
+      LazyMap<String, Object> lazyMap = LazyMap.unwrap((DataMap) object);
+      if (lazyMap instanceof LazyJsonMap && lazyMap.hasPending())
+      {
+        return (LazyJsonMap) lazyMap;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds an object or array to be decoded from the given range of the input when first read.
+   */
+  void putRaw(String key, int offset, int length)
+  {
+    putPending(key, new RawValue(_input, offset, length));
+  }
+
+  @Override
+  protected Object resolve(String key, Object source)
+  {
+    RawValue raw = (RawValue) source;
+    try
+    {
+      JsonParser parser = _codec._factory.createParser(_input, raw._offset, raw._length);
+      return _input[raw._offset] == '{' ? _codec.parse(parser, DataMap.class) : _codec.parse(parser, DataList.class);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException("Cannot decode the value of \"" + key + "\"", e);
+    }
+  }
+
+  /**
+   * Writes the map with the callback, and the values that have not been decoded as their original bytes.
+   */
+  void write(DataMap map, Data.TraverseCallback callback, JsonGenerator generator) throws IOException
+  {
+    callback.startMap(map);
+    for (Map.Entry<String, Object> entry : callback.orderMap(map))
+    {
+      callback.key(entry.getKey());
+      Object source = getSource(entry.getKey());
+      if (source != null)
+      {
+        generator.writeRawValue((RawValue) source);
+      }
+      else
+      {
+        Data.traverse(entry.getValue(), callback);
+      }
+    }
+    callback.endMap();
+  }
+
+  /**
+   * The bytes of a JSON object or array, which {@link JsonGenerator#writeRawValue(SerializableString)} writes as is.
+   * The quoted forms, which escape the text as a JSON string, are delegated to a {@link SerializedString} of the text.
+   */
+  private static final class RawValue implements SerializableString
+  {
+    private final byte[] _bytes;
+    private final int _offset;
+    private final int _length;
+    private SerializedString _quoted;
+
+    RawValue(byte[] bytes, int offset, int length)
+    {
+      _bytes = bytes;
+      _offset = offset;
+      _length = length;
+    }
+
+    @Override
+    public String getValue()
+    {
+      return new String(_bytes, _offset, _length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int charLength()
+    {
+      return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars()
+    {
+      return quoted().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8()
+    {
+      return Arrays.copyOfRange(_bytes, _offset, _offset + _length);
+    }
+
+    @Override
+    public byte[] asQuotedUTF8()
+    {
+      return quoted().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset)
+    {
+      return quoted().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset)
+    {
+      return quoted().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset)
+    {
+      if (offset + _length > buffer.length)
+      {
+        return -1;
+      }
+      System.arraycopy(_bytes, _offset, buffer, offset, _length);
+      return _length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset)
+    {
+      String value = getValue();
+      if (offset + value.length() > buffer.length)
+      {
+        return -1;
+      }
+      value.getChars(0, value.length(), buffer, offset);
+      return value.length();
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException
+    {
+      return quoted().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException
+    {
+      out.write(_bytes, _offset, _length);
+      return _length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer)
+    {
+      return quoted().putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer)
+    {
+      if (_length > buffer.remaining())
+      {
+        return -1;
+      }
+      buffer.put(_bytes, _offset, _length);
+      return _length;
+    }
+
+    private SerializedString quoted()
+    {
+      if (_quoted == null)
+      {
+        _quoted = new SerializedString(getValue());
+      }
+      return _quoted;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.collections.LazyMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+
+
+/**
+ * Underlying map of a {@link com.linkedin.data.DataMap} decoded lazily from PSON by
+ * {@link PsonDataCodec#readLazyMap}.
+ *
+ * <p>Each top-level map or list that has not been read yet is kept as the slice of the input that encodes it.
+ * Since PSON refers to keys by the index they were defined at, the slices are decoded with the keys of the whole
+ * input, which makes them unsuitable to be written as is.</p>
+ */
+final class LazyPsonMap extends LazyMap<String, Object>
+{
+  private static final int INITIAL_CAPACITY = 16;
+
+  private String[] _keys;
+
+  LazyPsonMap()
+  {
+    super(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Adds a map or list to be decoded from the given slice of the input when first read.
+   */
+  void putRaw(String key, ByteString bytes)
+  {
+    putPending(key, bytes);
+  }
+
+  /**
+   * Sets the keys of the whole input, once they have all been read.
+   */
+  void setKeys(String[] keys)
+  {
+    _keys = keys;
+  }
+
+  @Override
+  protected Object resolve(String key, Object source)
+  {
+    try
+    {
+      return new PsonDataCodec.PsonParser(new BufferChain(ByteOrder.LITTLE_ENDIAN, (ByteString) source), _keys).parseValue();
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException("Cannot decode the value of \"" + key + "\"", e);
+    }
+    catch (RuntimeException e)
+    {
+      throw new UncheckedIOException("Cannot decode the value of \"" + key + "\"", new IOException("Unexpected RuntimeException", e));
+    }
+  }
+}
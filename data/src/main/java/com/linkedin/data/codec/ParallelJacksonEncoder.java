@@ -0,0 +1,324 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.util.FastByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+/**
+ * Encodes a large collection of a JSON payload in slices on a {@link ForkJoinPool}.
+ *
+ * <p>The sliced collection is either the root, when it is a {@link DataList} or a {@link DataMap}, or the largest
+ * {@link DataList} or {@link DataMap} value of the root map, such as the elements of a GET_ALL or FINDER response
+ * or the results of a BATCH_GET response. Each slice of its items or entries is encoded into its own
+ * {@link ByteString} while the calling thread encodes the rest of the payload, and the slices are then stitched
+ * between the brackets of the collection with {@link ByteString.Builder}, without copying them.</p>
+ *
+ * <p>This only works for formats without state shared across values, which is why it is limited to JSON.</p>
+ */
+final class ParallelJacksonEncoder
+{
+  // Splitting into more slices than threads balances the load when items have different sizes.
+  private static final int SLICES_PER_THREAD = 4;
+  private static final int MIN_SLICE_SIZE = 64;
+  private static final ByteString COMMA = ByteString.copy(new byte[] { ',' });
+
+  private final ForkJoinPool _pool;
+  private final int _threshold;
+
+  /**
+   * @param pool provides the pool the slices are encoded on.
+   * @param threshold provides the minimum number of items or entries of a collection for it to be sliced.
+   */
+  ParallelJacksonEncoder(ForkJoinPool pool, int threshold)
+  {
+    _pool = pool;
+    _threshold = threshold;
+  }
+
+  /**
+   * Encodes the root, or returns null if it has no collection large enough to be sliced.
+   */
+  ByteString encode(AbstractJacksonDataCodec codec, DataComplex root) throws IOException
+  {
+    DataComplex sliced = findSliced(root);
+    if (sliced == null)
+    {
+      return null;
+    }
+
+    SplicingOutputStream out = new SplicingOutputStream();
+    JsonGenerator generator = codec.createJsonGenerator(out);
+    List<ForkJoinTask<ByteString>> slices = null;
+    try
+    {
+      Data.TraverseCallback callback = codec.createTraverseCallback(generator);
+      slices = submitSlices(codec, callback, sliced);
+      if (sliced == root)
+      {
+        writeSliced(sliced, callback, generator, out, slices);
+      }
+      else
+      {
+        DataMap map = (DataMap) root;
+        callback.startMap(map);
+        for (Map.Entry<String, Object> entry : callback.orderMap(map))
+        {
+          callback.key(entry.getKey());
+          if (entry.getValue() == sliced)
+          {
+            writeSliced(sliced, callback, generator, out, slices);
+          }
+          else
+          {
+            Data.traverse(entry.getValue(), callback);
+          }
+        }
+        callback.endMap();
+      }
+      generator.flush();
+      slices = null;
+    }
+    finally
+    {
+      AbstractJacksonDataCodec.closeQuietly(generator);
+      if (slices != null)
+      {
+        for (ForkJoinTask<ByteString> slice : slices)
+        {
+          slice.cancel(false);
+        }
+      }
+    }
+    return out.build();
+  }
+
+  private DataComplex findSliced(DataComplex root)
+  {
+    DataComplex sliced = size(root) >= _threshold ? root : null;
+    if (root instanceof DataMap)
+    {
+      for (Object value : ((DataMap) root).values())
+      {
+        if (value instanceof DataComplex && size((DataComplex) value) >= Math.max(_threshold, size(sliced)))
+        {
+          sliced = (DataComplex) value;
+        }
+      }
+    }
+    return sliced;
+  }
+
+  private static int size(DataComplex complex)
+  {
+    if (complex == null)
+    {
+      return 0;
+    }
+    return complex instanceof DataMap ? ((DataMap) complex).size() : ((DataList) complex).size();
+  }
+
+  private List<ForkJoinTask<ByteString>> submitSlices(AbstractJacksonDataCodec codec,
+                                                      Data.TraverseCallback callback,
+                                                      DataComplex sliced)
+  {
+    List<?> items = sliced instanceof DataList
+        ? (DataList) sliced
+        : toList(callback.orderMap((DataMap) sliced));
+    int size = items.size();
+    int numSlices = Math.max(1, Math.min(_pool.getParallelism() * SLICES_PER_THREAD, size / MIN_SLICE_SIZE));
+    List<ForkJoinTask<ByteString>> slices = new ArrayList<>(numSlices);
+    for (int i = 0; i < numSlices; i++)
+    {
+      List<?> slice = items.subList((int) ((long) size * i / numSlices), (int) ((long) size * (i + 1) / numSlices));
+      slices.add(_pool.submit(() -> encodeSlice(codec, sliced, slice)));
+    }
+    return slices;
+  }
+
+  private static <T> List<T> toList(Iterable<T> iterable)
+  {
+    List<T> list = new ArrayList<>();
+    for (T item : iterable)
+    {
+      list.add(item);
+    }
+    return list;
+  }
+
+  /**
+   * Encodes the slice as a collection of the same type as the sliced one, and returns its content without the
+   * brackets.
+   */
+  @SuppressWarnings("unchecked")
+  private static ByteString encodeSlice(AbstractJacksonDataCodec codec, DataComplex sliced, List<?> slice)
+      throws IOException
+  {
+    FastByteArrayOutputStream out = new FastByteArrayOutputStream(AbstractJacksonDataCodec.DEFAULT_BUFFER_SIZE);
+    JsonGenerator generator = codec.createJsonGenerator(out);
+    try
+    {
+      Data.TraverseCallback callback = codec.createTraverseCallback(generator);
+      if (sliced instanceof DataList)
+      {
+        callback.startList((DataList) sliced);
+        for (Object item : slice)
+        {
+          Data.traverse(item, callback);
+        }
+        callback.endList();
+      }
+      else
+      {
+        callback.startMap((DataMap) sliced);
+        for (Map.Entry<String, Object> entry : (List<Map.Entry<String, Object>>) slice)
+        {
+          callback.key(entry.getKey());
+          Data.traverse(entry.getValue(), callback);
+        }
+        callback.endMap();
+      }
+      generator.flush();
+    }
+    finally
+    {
+      AbstractJacksonDataCodec.closeQuietly(generator);
+    }
+    byte[] bytes = out.toByteArray();
+    return ByteString.unsafeWrap(bytes, 1, bytes.length - 2);
+  }
+
+  /**
+   * Writes the brackets of the sliced collection with the generator, and the slices in between them.
+   */
+  private static void writeSliced(DataComplex sliced,
+                                  Data.TraverseCallback callback,
+                                  JsonGenerator generator,
+                                  SplicingOutputStream out,
+                                  List<ForkJoinTask<ByteString>> slices) throws IOException
+  {
+    if (sliced instanceof DataList)
+    {
+      callback.startList((DataList) sliced);
+    }
+    else
+    {
+      callback.startMap((DataMap) sliced);
+    }
+    generator.flush();
+
+    for (int i = 0; i < slices.size(); i++)
+    {
+      if (i > 0)
+      {
+        out.splice(COMMA);
+      }
+      out.splice(join(slices.get(i)));
+    }
+
+    // The generator has not seen any item, so it closes the collection without a separator.
+    if (sliced instanceof DataList)
+    {
+      callback.endList();
+    }
+    else
+    {
+      callback.endMap();
+    }
+  }
+
+  private static ByteString join(ForkJoinTask<ByteString> slice) throws IOException
+  {
+    try
+    {
+      return slice.get();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while encoding a slice");
+    }
+    catch (ExecutionException e)
+    {
+      if (e.getCause() instanceof IOException)
+      {
+        throw (IOException) e.getCause();
+      }
+      throw new DataEncodingException("Failed to encode a slice: " + e.getCause());
+    }
+  }
+
+  /**
+   * Collects the bytes written by the generator, and lets other {@link ByteString}s be inserted between them.
+   */
+  private static class SplicingOutputStream extends OutputStream
+  {
+    private final ByteString.Builder _builder = new ByteString.Builder();
+    private FastByteArrayOutputStream _current = new FastByteArrayOutputStream(AbstractJacksonDataCodec.DEFAULT_BUFFER_SIZE);
+
+    @Override
+    public void write(int b)
+    {
+      _current.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len)
+    {
+      _current.write(b, off, len);
+    }
+
+    /**
+     * Appends the bytes after those written so far. The generator must be flushed before.
+     */
+    void splice(ByteString bytes)
+    {
+      flushCurrent();
+      _builder.append(bytes);
+    }
+
+    ByteString build()
+    {
+      flushCurrent();
+      return _builder.build();
+    }
+
+    private void flushCurrent()
+    {
+      if (_current.size() > 0)
+      {
+        _builder.append(ByteString.unsafeWrap(_current.toByteArray()));
+        _current = new FastByteArrayOutputStream(AbstractJacksonDataCodec.DEFAULT_BUFFER_SIZE);
+      }
+    }
+  }
+}
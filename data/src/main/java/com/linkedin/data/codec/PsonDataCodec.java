@@ -26,6 +26,7 @@ import com.linkedin.data.Data;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.collections.CheckedUtil;
 
 import java.io.IOException;
@@ -64,6 +65,11 @@ public class PsonDataCodec implements DataCodec
 {
   private static final byte[] HEADER = { 0x23, 0x21, 0x50, 0x53, 0x4f, 0x4e, 0x31, 0x0a };  // #!PSON1\n
 
+  /**
+   * The header that starts every PSON encoded value.
+   */
+  public static final ByteString HEADER_BYTES = ByteString.copy(HEADER);
+
   private boolean _testMode;
   private Options _options = new Options();
 
@@ -161,18 +167,36 @@ public class PsonDataCodec implements DataCodec
     return _options;
   }
 
+  /**
+   * @return the dictionary of the keys that are encoded without being defined, or null to encode PSON version 1.
+   */
+  PsonKeyDictionary getKeyDictionary()
+  {
+    return null;
+  }
+
   private PsonSerializer serialize(DataComplex map) throws IOException
+  {
+    return serialize(map, null);
+  }
+
+  private PsonSerializer serialize(DataComplex map, DataProjection projection) throws IOException
   {
     PsonSerializer serializer = new PsonSerializer();
-    serializer.serialize(map);
+    serializer.serialize(map, projection);
     return serializer;
   }
 
   protected byte[] complexToBytes(DataComplex complex) throws IOException
+  {
+    return complexToBytes(complex, null);
+  }
+
+  protected byte[] complexToBytes(DataComplex complex, DataProjection projection) throws IOException
   {
     try
     {
-      byte[] bytes = serialize(complex).toBytes();
+      byte[] bytes = serialize(complex, projection).toBytes();
       return bytes;
     }
     catch (RuntimeException exc)
@@ -191,7 +215,7 @@ public class PsonDataCodec implements DataCodec
         (_testMode && _options.getBufferSize() != null) ?
           new BufferChain(ByteOrder.LITTLE_ENDIAN, input, _options.getBufferSize()) :
           new BufferChain(ByteOrder.LITTLE_ENDIAN, input);
-      PsonParser psonParser = new PsonParser(buffer);
+      PsonParser psonParser = new PsonParser(buffer, getKeyDictionary());
       return clazz.cast(psonParser.read());
     }
     catch (RuntimeException exc)
@@ -208,6 +232,12 @@ public class PsonDataCodec implements DataCodec
     return complexToBytes(map);
   }
 
+  @Override
+  public byte[] mapToBytes(DataMap map, DataProjection projection) throws IOException
+  {
+    return complexToBytes(map, projection);
+  }
+
   @Override
   public byte[] listToBytes(DataList list) throws IOException
   {
@@ -227,10 +257,15 @@ public class PsonDataCodec implements DataCodec
   }
 
   protected void writeComplex(DataComplex complex, OutputStream out) throws IOException
+  {
+    writeComplex(complex, null, out);
+  }
+
+  protected void writeComplex(DataComplex complex, DataProjection projection, OutputStream out) throws IOException
   {
     try
     {
-      serialize(complex).writeToOutputStream(out);
+      serialize(complex, projection).writeToOutputStream(out);
     }
     catch (RuntimeException exc)
     {
@@ -246,6 +281,12 @@ public class PsonDataCodec implements DataCodec
     writeComplex(map, out);
   }
 
+  @Override
+  public void writeMap(DataMap map, DataProjection projection, OutputStream out) throws IOException
+  {
+    writeComplex(map, projection, out);
+  }
+
   @Override
   public void writeList(DataList list, OutputStream out) throws IOException
   {
@@ -262,7 +303,7 @@ public class PsonDataCodec implements DataCodec
           new BufferChain(ByteOrder.LITTLE_ENDIAN);
       buffer.readFromInputStream(in);
       buffer.rewind();
-      PsonParser psonParser = new PsonParser(buffer);
+      PsonParser psonParser = new PsonParser(buffer, getKeyDictionary());
       return clazz.cast(psonParser.read());
     }
     catch (RuntimeException exc)
@@ -285,35 +326,90 @@ public class PsonDataCodec implements DataCodec
     return readComplex(in, DataList.class);
   }
 
+  /**
+   * Decodes the segments of the {@link ByteString} in place. Only strings that cross a segment boundary are
+   * copied before they are decoded.
+   */
+  @Override
+  public DataMap readMap(ByteString bytes) throws IOException
+  {
+    return byteStringToComplex(bytes, DataMap.class);
+  }
+
+  /**
+   * See {@link #readMap(ByteString)}.
+   */
+  @Override
+  public DataList readList(ByteString bytes) throws IOException
+  {
+    return byteStringToComplex(bytes, DataList.class);
+  }
+
+  /**
+   * Only decodes the non-empty maps and lists at the top level when they are first read. The keys of the whole
+   * input are decoded up front, as they may be defined by any value and referenced by any later value.
+   */
+  @Override
+  public DataMap readLazyMap(ByteString bytes) throws IOException
+  {
+    try
+    {
+      LazyPsonMap map = new LazyPsonMap();
+      new PsonParser(new BufferChain(ByteOrder.LITTLE_ENDIAN, bytes), getKeyDictionary()).readLazy(bytes, map);
+      return new DataMap(map);
+    }
+    catch (RuntimeException exc)
+    {
+      // do not want RuntimeException from BufferChain propagating
+      // as RuntimeException to client code.
+      throw new IOException("Unexpected RuntimeException", exc);
+    }
+  }
+
+  protected <T extends DataComplex> T byteStringToComplex(ByteString bytes, Class<T> clazz) throws IOException
+  {
+    try
+    {
+      PsonParser psonParser = new PsonParser(new BufferChain(ByteOrder.LITTLE_ENDIAN, bytes), getKeyDictionary());
+      return clazz.cast(psonParser.read());
+    }
+    catch (RuntimeException exc)
+    {
+      // do not want RuntimeException from BufferChain propagating
+      // as RuntimeException to client code.
+      throw new IOException("Unexpected RuntimeException", exc);
+    }
+  }
+
   @Override
   public String toString()
   {
     return getClass().getSimpleName() + "(" + _options + ")";
   }
 
-  final static byte ZERO_BYTE = 0;
-  final static byte ONE_BYTE = 1;
-
-  final static int PSON_INVALID_KEY_INDEX = 0;
-
-  final static byte PSON_NULL = 0;
-  final static byte PSON_BOOLEAN = 1;
-  final static byte PSON_INT = 2;
-  final static byte PSON_LONG = 3;
-  final static byte PSON_FLOAT = 4;
-  final static byte PSON_DOUBLE = 5;
-  final static byte PSON_BINARY = 6;
-  final static byte PSON_STRING_EMPTY = 8;
-  final static byte PSON_STRING = 9;
-  final static byte PSON_STRING_WITH_LENGTH_4 = 10;
-  final static byte PSON_STRING_WITH_LENGTH_2 = 11;
-  final static byte PSON_ARRAY_EMPTY = 16;
-  final static byte PSON_ARRAY = 17;
-  final static byte PSON_ARRAY_WITH_COUNT = 18;
-  final static byte PSON_OBJECT_EMPTY = 32;
-  final static byte PSON_OBJECT = 33;
-  final static byte PSON_OBJECT_WITH_COUNT = 34;
-  final static byte PSON_LAST = (byte) 0xff;
+  public final static byte ZERO_BYTE = 0;
+  public final static byte ONE_BYTE = 1;
+
+  public final static int PSON_INVALID_KEY_INDEX = 0;
+
+  public final static byte PSON_NULL = 0;
+  public final static byte PSON_BOOLEAN = 1;
+  public final static byte PSON_INT = 2;
+  public final static byte PSON_LONG = 3;
+  public final static byte PSON_FLOAT = 4;
+  public final static byte PSON_DOUBLE = 5;
+  public final static byte PSON_BINARY = 6;
+  public final static byte PSON_STRING_EMPTY = 8;
+  public final static byte PSON_STRING = 9;
+  public final static byte PSON_STRING_WITH_LENGTH_4 = 10;
+  public final static byte PSON_STRING_WITH_LENGTH_2 = 11;
+  public final static byte PSON_ARRAY_EMPTY = 16;
+  public final static byte PSON_ARRAY = 17;
+  public final static byte PSON_ARRAY_WITH_COUNT = 18;
+  public final static byte PSON_OBJECT_EMPTY = 32;
+  public final static byte PSON_OBJECT = 33;
+  public final static byte PSON_OBJECT_WITH_COUNT = 34;
+  public final static byte PSON_LAST = (byte) 0xff;
 
   private final static int MAX_STRING_WITH_LENGTH_2 = Short.MAX_VALUE / 2 - 1;
 
@@ -321,7 +417,8 @@ public class PsonDataCodec implements DataCodec
   {
     private final BufferChain _buffer;
     private final HashMap<String, Integer> _keyMap = new HashMap<String, Integer>(200);
-    private int _keyIndex = 1;
+    private final PsonKeyDictionary _dictionary = getKeyDictionary();
+    private int _keyIndex = (_dictionary == null ? 1 : _dictionary.size() + 1);
     private final boolean _encodeStringLength = _options.getEncodeStringLength();
     private final boolean _encodeCollectionCount = _options.getEncodeCollectionCount();
 
@@ -420,11 +517,17 @@ public class PsonDataCodec implements DataCodec
 
     @Override
     public void startMap(DataMap map) throws CharacterCodingException
+    {
+      startMap(map, map.size());
+    }
+
+    @Override
+    public void startMap(DataMap map, int size) throws CharacterCodingException
     {
       if (_encodeCollectionCount)
       {
         start(PSON_OBJECT_WITH_COUNT);
-        _buffer.putVarUnsignedInt(map.size());
+        _buffer.putVarUnsignedInt(size);
       }
       else
       {
@@ -435,6 +538,15 @@ public class PsonDataCodec implements DataCodec
     @Override
     public void key(String key) throws CharacterCodingException
     {
+      if (_dictionary != null)
+      {
+        int dictionaryIndex = _dictionary.indexOf(key);
+        if (dictionaryIndex != PSON_INVALID_KEY_INDEX)
+        {
+          _buffer.putVarInt(dictionaryIndex);
+          return;
+        }
+      }
       Integer found = _keyMap.get(key);
       int index;
       if (found == null)
@@ -466,11 +578,17 @@ public class PsonDataCodec implements DataCodec
 
     @Override
     public void startList(DataList list) throws CharacterCodingException
+    {
+      startList(list, list.size());
+    }
+
+    @Override
+    public void startList(DataList list, int size) throws CharacterCodingException
     {
       if (_encodeCollectionCount)
       {
         start(PSON_ARRAY_WITH_COUNT);
-        _buffer.putVarUnsignedInt(list.size());
+        _buffer.putVarUnsignedInt(size);
       }
       else
       {
@@ -516,10 +634,11 @@ public class PsonDataCodec implements DataCodec
       }
     }
 
-    private void serialize(DataComplex map) throws IOException
+    private void serialize(DataComplex map, DataProjection projection) throws IOException
     {
-      _buffer.put(HEADER, 0, HEADER.length);
-      Data.traverse(map, this);
+      byte[] header = (_dictionary == null ? HEADER : _dictionary.header());
+      _buffer.put(header, 0, header.length);
+      Data.traverse(map, this, projection);
     }
 
     private final byte[] toBytes()
@@ -541,9 +660,28 @@ public class PsonDataCodec implements DataCodec
   protected static class PsonParser
   {
 
-    PsonParser(BufferChain buffer)
+    /**
+     * Constructs a parser for a PSON input.
+     *
+     * @param dictionary provides the keys that may be referenced without being defined by PSON version 2 inputs,
+     *                   or null if only PSON version 1 inputs are accepted.
+     */
+    PsonParser(BufferChain buffer, PsonKeyDictionary dictionary)
     {
       _buffer = buffer;
+      _dictionary = dictionary;
+    }
+
+    /**
+     * Constructs a parser for a value in the middle of a PSON input, whose keys have all been read by an earlier
+     * pass over the input. The keys defined in the value are skipped instead of being decoded again.
+     */
+    PsonParser(BufferChain buffer, String[] keyArray)
+    {
+      _buffer = buffer;
+      _dictionary = null;
+      _keyArray = keyArray;
+      _keysKnown = true;
     }
 
     static final String HEX = "0123456789ABCDEF";
@@ -562,15 +700,150 @@ public class PsonDataCodec implements DataCodec
     }
 
     Object read() throws IOException
+    {
+      readHeader();
+      return parseValue();
+    }
+
+    /**
+     * Reads the root map into the lazy map. The non-empty maps and lists at the top level are skipped, and decoded
+     * from their bytes in the input when they are first read. The other values are decoded.
+     */
+    void readLazy(ByteString input, LazyPsonMap map) throws IOException
+    {
+      BufferChain.Position origin = _buffer.position();
+      readHeader();
+      byte psonType = _buffer.get();
+      if (psonType != PSON_OBJECT_EMPTY)
+      {
+        if (psonType != PSON_OBJECT && psonType != PSON_OBJECT_WITH_COUNT)
+        {
+          throw new DataDecodingException("Expecting DataMap but got PSON element code " + psonType);
+        }
+
+        int size = (psonType == PSON_OBJECT_WITH_COUNT ? _buffer.getVarUnsignedInt() : -1);
+        int count;
+        for (count = 0; ; count++)
+        {
+          int keyIndex = _buffer.getVarInt();
+          if (keyIndex == PSON_INVALID_KEY_INDEX)
+          {
+            break;
+          }
+          String key = (keyIndex < 0 ? defineKey(-keyIndex) : _keyArray[keyIndex]);
+          int start = _buffer.offset(origin, _buffer.position());
+          byte valueType = _buffer.get();
+          if (isNonEmptyCollection(valueType))
+          {
+            skipValue(valueType);
+            map.putRaw(key, input.slice(start, _buffer.offset(origin, _buffer.position()) - start));
+          }
+          else
+          {
+            Object item = parseValue(valueType);
+            if (item == null)
+            {
+              throw new IOException("Unexpected end of array");
+            }
+            map.put(key, item);
+          }
+        }
+
+        if (size >= 0 && count != size)
+        {
+          throw new IOException("Actual number object fields (" + count + ") is not the same as expected (" + size + ")");
+        }
+      }
+      map.setKeys(_keyArray);
+    }
+
+    private void readHeader() throws IOException
     {
       byte header[] = new byte[HEADER.length];
       _buffer.get(header, 0, header.length);
-      if (Arrays.equals(header, HEADER) == false)
+      if (Arrays.equals(header, HEADER))
       {
-        throw new IOException("Expecting header " + bytesToString(HEADER) + " but got " + bytesToString(header));
+        return;
+      }
+      if (_dictionary != null && Arrays.equals(header, PsonKeyDictionary.HEADER))
+      {
+        long fingerprint = _buffer.getLong();
+        if (fingerprint != _dictionary.fingerprint())
+        {
+          throw new DataDecodingException("Expecting key dictionary fingerprint " + Long.toHexString(_dictionary.fingerprint())
+                                            + " but got " + Long.toHexString(fingerprint));
+        }
+        String[] keys = _dictionary.keys();
+        if (keys.length >= _keyArray.length)
+        {
+          _keyArray = new String[keys.length + _keyArray.length];
+        }
+        System.arraycopy(keys, 1, _keyArray, 1, keys.length - 1);
+        _expectedKeyIndex = keys.length;
+        return;
       }
+      byte[] expected = (_dictionary == null ? HEADER : PsonKeyDictionary.HEADER);
+      throw new IOException("Expecting header " + bytesToString(expected) + " but got " + bytesToString(header));
+    }
 
-      return parseValue();
+    private static boolean isNonEmptyCollection(byte psonType)
+    {
+      return psonType == PSON_OBJECT || psonType == PSON_OBJECT_WITH_COUNT
+          || psonType == PSON_ARRAY || psonType == PSON_ARRAY_WITH_COUNT;
+    }
+
+    /**
+     * Skips a value, only decoding the keys it defines.
+     */
+    private void skipValue(byte psonType) throws IOException
+    {
+      switch (psonType)
+      {
+        case PSON_OBJECT:
+          skipMap();
+          break;
+        case PSON_OBJECT_WITH_COUNT:
+          _buffer.getVarUnsignedInt();
+          skipMap();
+          break;
+        case PSON_ARRAY:
+          skipArray();
+          break;
+        case PSON_ARRAY_WITH_COUNT:
+          _buffer.getVarUnsignedInt();
+          skipArray();
+          break;
+        case PSON_INT:
+        case PSON_FLOAT:
+          _buffer.skip(4);
+          break;
+        case PSON_LONG:
+        case PSON_DOUBLE:
+          _buffer.skip(8);
+          break;
+        case PSON_STRING:
+          _buffer.skipUtf8CString();
+          break;
+        case PSON_STRING_WITH_LENGTH_4:
+          _buffer.skip(_buffer.getInt());
+          break;
+        case PSON_STRING_WITH_LENGTH_2:
+          _buffer.skip(_buffer.getShort());
+          break;
+        case PSON_BOOLEAN:
+          _buffer.skip(1);
+          break;
+        case PSON_BINARY:
+          _buffer.skip(_buffer.getInt());
+          break;
+        case PSON_OBJECT_EMPTY:
+        case PSON_ARRAY_EMPTY:
+        case PSON_STRING_EMPTY:
+        case PSON_NULL:
+          break;
+        default:
+          throw new IOException("Illegal PSON element code " + psonType);
+      }
     }
 
     DataList parseArray(boolean withCount) throws IOException
@@ -611,19 +884,15 @@ public class PsonDataCodec implements DataCodec
         }
         if (keyIndex < 0)
         {
-          keyIndex = -keyIndex;
-          if (keyIndex != _expectedKeyIndex)
+          if (_keysKnown)
           {
-            throw new IOException("Received new key index " + keyIndex + " but expecting " + _expectedKeyIndex);
+            _buffer.skipUtf8CString();
+            key = _keyArray[-keyIndex];
           }
-          _expectedKeyIndex++;
-          if (keyIndex >= _keyArray.length)
+          else
           {
-            resizeKeyArray();
+            key = defineKey(-keyIndex);
           }
-          assert(_keyArray[keyIndex] == null);
-          key = _buffer.getUtf8CString();
-          _keyArray[keyIndex] = key;
         }
         else
         {
@@ -646,6 +915,48 @@ public class PsonDataCodec implements DataCodec
       return map;
     }
 
+    private void skipMap() throws IOException
+    {
+      int keyIndex;
+      while ((keyIndex = _buffer.getVarInt()) != PSON_INVALID_KEY_INDEX)
+      {
+        if (keyIndex < 0)
+        {
+          defineKey(-keyIndex);
+        }
+        skipValue(_buffer.get());
+      }
+    }
+
+    private void skipArray() throws IOException
+    {
+      byte itemType;
+      while ((itemType = _buffer.get()) != PSON_LAST)
+      {
+        skipValue(itemType);
+      }
+    }
+
+    /**
+     * Reads the name of a key defined by the input.
+     */
+    private String defineKey(int keyIndex) throws IOException
+    {
+      if (keyIndex != _expectedKeyIndex)
+      {
+        throw new IOException("Received new key index " + keyIndex + " but expecting " + _expectedKeyIndex);
+      }
+      _expectedKeyIndex++;
+      if (keyIndex >= _keyArray.length)
+      {
+        resizeKeyArray();
+      }
+      assert(_keyArray[keyIndex] == null);
+      String key = _fieldNames.canonicalize(_buffer.getUtf8CString());
+      _keyArray[keyIndex] = key;
+      return key;
+    }
+
     private void resizeKeyArray()
     {
       String[] newKeyArray = new String[_keyArray.length * 2];
@@ -655,8 +966,11 @@ public class PsonDataCodec implements DataCodec
 
     Object parseValue() throws IOException
     {
-      byte psonType = _buffer.get();
+      return parseValue(_buffer.get());
+    }
 
+    private Object parseValue(byte psonType) throws IOException
+    {
       Object o = null;
       boolean valid = true;
       switch (psonType)
@@ -738,8 +1052,11 @@ public class PsonDataCodec implements DataCodec
     }
 
     private final BufferChain _buffer;
+    private final PsonKeyDictionary _dictionary;
+    private final FieldNameTable _fieldNames = FieldNameTable.getDefault();
     private String _keyArray[] = new String[100];
     private int _expectedKeyIndex = 1;
+    private boolean _keysKnown = false;
   }
 }
 
@@ -0,0 +1,185 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The keys that PSON version 2 encodes as indexes without defining them in the encoded value.
+ * <p>
+ *
+ * The keys are the names of the fields of the records and the member keys of the unions reachable from
+ * a list of {@link DataSchema}s, in depth-first order. They are numbered from 1, and the keys defined by
+ * an encoded value are numbered after them. The fingerprint identifies the list of keys, so that a reader
+ * can verify that it numbers the keys like the writer.
+ */
+final class PsonKeyDictionary
+{
+  static final byte[] HEADER = { 0x23, 0x21, 0x50, 0x53, 0x4f, 0x4e, 0x32, 0x0a };  // #!PSON2\n
+
+  PsonKeyDictionary(Collection<? extends DataSchema> schemas)
+  {
+    List<String> keys = new ArrayList<String>();
+    Map<String, Integer> indexes = new HashMap<String, Integer>();
+    Map<DataSchema, Boolean> visited = new IdentityHashMap<DataSchema, Boolean>();
+    keys.add(null);
+    for (DataSchema schema : schemas)
+    {
+      addKeys(schema, keys, indexes, visited);
+    }
+    _keys = keys.toArray(new String[keys.size()]);
+    _indexes = Collections.unmodifiableMap(indexes);
+    _fingerprint = fingerprint(_keys);
+
+    _header = new byte[HEADER.length + Long.BYTES];
+    System.arraycopy(HEADER, 0, _header, 0, HEADER.length);
+    for (int i = 0; i < Long.BYTES; i++)
+    {
+      _header[HEADER.length + i] = (byte) (_fingerprint >>> (8 * i));
+    }
+  }
+
+  private static void addKeys(DataSchema schema,
+                              List<String> keys,
+                              Map<String, Integer> indexes,
+                              Map<DataSchema, Boolean> visited)
+  {
+    DataSchema dereferencedSchema = schema.getDereferencedDataSchema();
+    if (visited.put(dereferencedSchema, Boolean.TRUE) != null)
+    {
+      return;
+    }
+    switch (dereferencedSchema.getType())
+    {
+      case RECORD:
+        for (RecordDataSchema.Field field : ((RecordDataSchema) dereferencedSchema).getFields())
+        {
+          addKey(field.getName(), keys, indexes);
+          addKeys(field.getType(), keys, indexes, visited);
+        }
+        break;
+      case UNION:
+        for (UnionDataSchema.Member member : ((UnionDataSchema) dereferencedSchema).getMembers())
+        {
+          addKey(member.getUnionMemberKey(), keys, indexes);
+          addKeys(member.getType(), keys, indexes, visited);
+        }
+        break;
+      case ARRAY:
+        addKeys(((ArrayDataSchema) dereferencedSchema).getItems(), keys, indexes, visited);
+        break;
+      case MAP:
+        addKeys(((MapDataSchema) dereferencedSchema).getValues(), keys, indexes, visited);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static void addKey(String key, List<String> keys, Map<String, Integer> indexes)
+  {
+    if (indexes.containsKey(key) == false)
+    {
+      indexes.put(key, keys.size());
+      keys.add(key);
+    }
+  }
+
+  private static long fingerprint(String[] keys)
+  {
+    MessageDigest digest;
+    try
+    {
+      digest = MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException(e);
+    }
+    for (int i = 1; i < keys.length; i++)
+    {
+      digest.update(keys[i].getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    byte[] hash = digest.digest();
+    long fingerprint = 0;
+    for (int i = 0; i < Long.BYTES; i++)
+    {
+      fingerprint |= (hash[i] & 0xffL) << (8 * i);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * @return the index of the key, or 0 if it is not in the dictionary.
+   */
+  int indexOf(String key)
+  {
+    Integer index = _indexes.get(key);
+    return index == null ? 0 : index;
+  }
+
+  /**
+   * @return the keys indexed by their index, the element at index 0 is null.
+   */
+  String[] keys()
+  {
+    return _keys;
+  }
+
+  /**
+   * @return the number of keys.
+   */
+  int size()
+  {
+    return _keys.length - 1;
+  }
+
+  long fingerprint()
+  {
+    return _fingerprint;
+  }
+
+  /**
+   * @return the header that starts the values encoded with the dictionary, which includes the fingerprint.
+   */
+  byte[] header()
+  {
+    return _header;
+  }
+
+  private final String[] _keys;
+  private final Map<String, Integer> _indexes;
+  private final long _fingerprint;
+  private final byte[] _header;
+}
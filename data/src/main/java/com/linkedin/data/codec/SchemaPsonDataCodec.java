@@ -0,0 +1,95 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.schema.DataSchema;
+import java.util.Arrays;
+import java.util.Collection;
+
+
+/**
+ * A {@link PsonDataCodec} that encodes PSON version 2, in which the field names of the records and the member
+ * keys of the unions reachable from a list of {@link DataSchema}s are encoded as varint indexes without being
+ * defined in the encoded value.
+ * <p>
+ *
+ * PSON version 1 defines every key with its name the first time it is used in a value, and references it by index
+ * afterwards. PSON version 2 numbers the keys of the schemas in the same way before the value is encoded, so that
+ * only the keys that are not in the schemas are defined with their names. Any {@link com.linkedin.data.DataMap}
+ * can be encoded, the schemas only determine which keys do not have to be defined.
+ * <p>
+ *
+ * The header of a PSON version 2 value includes a fingerprint of the numbered keys. The codec only decodes PSON
+ * version 2 values encoded with the same keys, and throws a {@link DataDecodingException} otherwise. It also decodes
+ * PSON version 1 values. Adding a field to one of the schemas changes the keys, so the encoders and decoders must
+ * be upgraded together, or told apart by a content type per version of the schemas.
+ */
+public class SchemaPsonDataCodec extends PsonDataCodec
+{
+  /**
+   * Constructor.
+   *
+   * @param schemas provides the {@link DataSchema}s whose keys are encoded without being defined, in the same order
+   *                as the codec that decodes the encoded values.
+   */
+  public SchemaPsonDataCodec(Collection<? extends DataSchema> schemas)
+  {
+    _dictionary = new PsonKeyDictionary(schemas);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param schemas provides the {@link DataSchema}s whose keys are encoded without being defined, in the same order
+   *                as the codec that decodes the encoded values.
+   */
+  public SchemaPsonDataCodec(DataSchema... schemas)
+  {
+    this(Arrays.asList(schemas));
+  }
+
+  /**
+   * @return the fingerprint of the keys that are encoded without being defined.
+   */
+  public long getKeyFingerprint()
+  {
+    return _dictionary.fingerprint();
+  }
+
+  /**
+   * @return the number of keys that are encoded without being defined.
+   */
+  public int getKeyCount()
+  {
+    return _dictionary.size();
+  }
+
+  @Override
+  PsonKeyDictionary getKeyDictionary()
+  {
+    return _dictionary;
+  }
+
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + "(" + getOptions() + ", keyFingerprint=" + Long.toHexString(_dictionary.fingerprint()) + ")";
+  }
+
+  private final PsonKeyDictionary _dictionary;
+}
@@ -0,0 +1,386 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.entitystream.ReadHandle;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+
+/**
+ * Abstract decoder for little-endian binary formats of a {@link DataComplex} object implemented as a
+ * {@link com.linkedin.entitystream.Reader} reading from an {@link com.linkedin.entitystream.EntityStream} of
+ * {@link ByteString}.
+ *
+ * <p>The bytes that have been received but not consumed yet are kept in a buffer. Subclasses parse the buffer one
+ * unit at a time, such as a scalar value or the start of a container, and only update their state once the whole
+ * unit has been read. If the buffer runs out in the middle of a unit, a {@link BufferUnderflowException} is thrown,
+ * the buffer is rewound to the start of the unit and more bytes are requested. Because the raw bytes are pushed to
+ * the decoder, it keeps the partially built data structure in a stack.</p>
+ */
+abstract class AbstractBinaryDataDecoder<T extends DataComplex> implements DataDecoder<T>
+{
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final byte ZERO_BYTE = 0;
+
+  private final Class<T> _rootClass;
+  private final CompletableFuture<T> _completable;
+  private final Deque<DataComplex> _stack;
+  private T _result;
+  private ReadHandle _readHandle;
+  private boolean _isEmpty = true;
+
+  // Unconsumed bytes, between the position and the limit of the buffer.
+  private ByteBuffer _buffer;
+
+  protected AbstractBinaryDataDecoder(Class<T> rootClass)
+  {
+    _rootClass = rootClass;
+    _completable = new CompletableFuture<>();
+    _stack = new ArrayDeque<>();
+    _buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    _buffer.limit(0);
+  }
+
+  /**
+   * Parses the next unit from the buffer.
+   *
+   * @throws BufferUnderflowException if the buffer ends before the unit does.
+   */
+  protected abstract void parseNext() throws IOException;
+
+  @Override
+  public void onInit(ReadHandle rh)
+  {
+    _readHandle = rh;
+    _readHandle.request(1);
+  }
+
+  @Override
+  public void onDataAvailable(ByteString data)
+  {
+    if (_completable.isDone())
+    {
+      return;
+    }
+
+    append(data);
+    while (_buffer.hasRemaining())
+    {
+      int start = _buffer.position();
+      try
+      {
+        if (_result != null)
+        {
+          throw new DataDecodingException("Unexpected data after the end of the root " + _rootClass.getSimpleName());
+        }
+        parseNext();
+      }
+      catch (BufferUnderflowException e)
+      {
+        _buffer.position(start);
+        break;
+      }
+      catch (IOException | RuntimeException e)
+      {
+        handleException(e);
+        return;
+      }
+    }
+
+    _readHandle.request(1);
+  }
+
+  @Override
+  public void onDone()
+  {
+    if (_completable.isDone())
+    {
+      return;
+    }
+
+    if (_result != null || _isEmpty)
+    {
+      // Like the JSON decoders, an empty source is decoded as null.
+      _completable.complete(_result);
+    }
+    else
+    {
+      handleException(new DataDecodingException("Unexpected end of source"));
+    }
+  }
+
+  @Override
+  public void onError(Throwable e)
+  {
+    _completable.completeExceptionally(e);
+  }
+
+  @Override
+  public CompletionStage<T> getResult()
+  {
+    return _completable;
+  }
+
+  /**
+   * @return whether the innermost container being decoded is a {@link DataList}.
+   */
+  protected final boolean isCurrList()
+  {
+    return _stack.peek() instanceof DataList;
+  }
+
+  /**
+   * @return the innermost container being decoded, or null if the root has not been started or has ended.
+   */
+  protected final DataComplex currContainer()
+  {
+    return _stack.peek();
+  }
+
+  /**
+   * Adds a value to the innermost container.
+   *
+   * @param key provides the key of the value if the container is a {@link DataMap}, ignored otherwise.
+   * @param value provides the value to add.
+   */
+  protected final void addValue(String key, Object value) throws IOException
+  {
+    DataComplex parent = _stack.peek();
+    if (parent == null)
+    {
+      if (!_rootClass.isInstance(value))
+      {
+        throw new DataDecodingException("Expecting " + _rootClass.getSimpleName() + " but got " + value.getClass().getSimpleName());
+      }
+      // An empty root is complete as soon as it starts.
+      _result = _rootClass.cast(value);
+    }
+    else if (parent instanceof DataList)
+    {
+      CheckedUtil.addWithoutChecking((DataList) parent, value);
+    }
+    else
+    {
+      CheckedUtil.putWithoutChecking((DataMap) parent, key, value);
+    }
+  }
+
+  /**
+   * Adds a container to the innermost container and makes it the innermost container.
+   */
+  protected final void push(String key, DataComplex container) throws IOException
+  {
+    addValue(key, container);
+    _result = null;
+    _stack.push(container);
+  }
+
+  /**
+   * Ends the innermost container.
+   */
+  protected final void pop()
+  {
+    DataComplex container = _stack.pop();
+    if (_stack.isEmpty())
+    {
+      _result = _rootClass.cast(container);
+    }
+  }
+
+  protected final byte getByte()
+  {
+    return _buffer.get();
+  }
+
+  protected final void get(byte[] dst)
+  {
+    _buffer.get(dst);
+  }
+
+  protected final short getShort()
+  {
+    return _buffer.getShort();
+  }
+
+  protected final int getInt()
+  {
+    return _buffer.getInt();
+  }
+
+  protected final long getLong()
+  {
+    return _buffer.getLong();
+  }
+
+  protected final float getFloat()
+  {
+    return _buffer.getFloat();
+  }
+
+  protected final double getDouble()
+  {
+    return _buffer.getDouble();
+  }
+
+  /**
+   * See {@link com.linkedin.data.codec.BufferChain#getVarUnsignedInt()}.
+   */
+  protected final int getVarUnsignedInt()
+  {
+    int v = 0;
+    int shift = 0;
+    while (true)
+    {
+      byte b = _buffer.get();
+      if ((b & (byte) 0x80) == 0)
+      {
+        v = v | (b << shift);
+        shift += 7;
+      }
+      else
+      {
+        return v | ((b & 0x7f) << shift);
+      }
+    }
+  }
+
+  /**
+   * See {@link com.linkedin.data.codec.BufferChain#getVarInt()}.
+   */
+  protected final int getVarInt()
+  {
+    int v = getVarUnsignedInt();
+    return (v >> 1) ^ (-(v & 1));
+  }
+
+  /**
+   * Get the next UTF-8 encoded null-terminated string.
+   */
+  protected final String getUtf8CString()
+  {
+    byte[] array = _buffer.array();
+    int start = _buffer.arrayOffset() + _buffer.position();
+    int end = _buffer.arrayOffset() + _buffer.limit();
+    for (int i = start; i < end; i++)
+    {
+      if (array[i] == ZERO_BYTE)
+      {
+        String result = new String(array, start, i - start, UTF_8);
+        _buffer.position(_buffer.position() + i - start + 1);
+        return result;
+      }
+    }
+    throw new BufferUnderflowException();
+  }
+
+  /**
+   * Get the next UTF-8 encoded null-terminated string of the given length, including the terminating zero byte.
+   */
+  protected final String getUtf8CString(int length) throws IOException
+  {
+    if (length <= 0)
+    {
+      throw new DataDecodingException("Length must be at least 1");
+    }
+    checkRemaining(length);
+    int position = _buffer.position();
+    if (_buffer.get(position + length - 1) != ZERO_BYTE)
+    {
+      throw new DataDecodingException("C string not terminated with null");
+    }
+    String result = new String(_buffer.array(), _buffer.arrayOffset() + position, length - 1, UTF_8);
+    _buffer.position(position + length);
+    return result;
+  }
+
+  /**
+   * Get the given number of bytes as a {@link ByteString}.
+   */
+  protected final ByteString getByteString(int length) throws IOException
+  {
+    if (length < 0)
+    {
+      throw new DataDecodingException("Negative length " + length);
+    }
+    checkRemaining(length);
+    int position = _buffer.position();
+    ByteString result = ByteString.copy(_buffer.array(), _buffer.arrayOffset() + position, length);
+    _buffer.position(position + length);
+    return result;
+  }
+
+  private void checkRemaining(int length)
+  {
+    if (_buffer.remaining() < length)
+    {
+      throw new BufferUnderflowException();
+    }
+  }
+
+  /**
+   * Appends the bytes to the end of the buffer, discarding the consumed bytes or growing the buffer if there is
+   * not enough room.
+   */
+  private void append(ByteString data)
+  {
+    int length = data.length();
+    _isEmpty &= length == 0;
+    if (_buffer.capacity() - _buffer.limit() < length)
+    {
+      int remaining = _buffer.remaining();
+      if (_buffer.capacity() - remaining < length)
+      {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(_buffer.capacity() * 2, remaining + length));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(_buffer);
+        _buffer = buffer;
+      }
+      else
+      {
+        _buffer.compact();
+      }
+      _buffer.flip();
+    }
+
+    int position = _buffer.position();
+    int limit = _buffer.limit();
+    _buffer.limit(limit + length);
+    data.copyBytes(_buffer.array(), _buffer.arrayOffset() + limit);
+    _buffer.position(position);
+  }
+
+  private void handleException(Throwable e)
+  {
+    _readHandle.cancel();
+    _completable.completeExceptionally(e);
+  }
+}
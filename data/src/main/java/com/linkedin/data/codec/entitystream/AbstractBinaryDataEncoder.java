@@ -0,0 +1,276 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.entitystream.WriteHandle;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Map;
+
+
+/**
+ * Abstract encoder for little-endian binary formats of a {@link DataComplex} object implemented as a
+ * {@link com.linkedin.entitystream.Writer} writing to an {@link com.linkedin.entitystream.EntityStream} of
+ * {@link ByteString}. The bytes are written to an internal non-blocking <code>OutputStream</code> implementation
+ * that has a fixed-size primary buffer and an unbounded overflow buffer. Because the bytes are pulled from the
+ * encoder asynchronously, it needs to keep the state in a stack.
+ */
+abstract class AbstractBinaryDataEncoder implements DataEncoder
+{
+  private final DataComplex _root;
+  private final QueueBufferedOutputStream _out;
+  private final byte[] _scratch = new byte[8];
+  private final Deque<Iterator<?>> _stack;
+  private WriteHandle<? super ByteString> _writeHandle;
+  private boolean _done;
+
+  protected AbstractBinaryDataEncoder(DataComplex root, int bufferSize)
+  {
+    _root = root;
+    _out = new QueueBufferedOutputStream(bufferSize);
+    _stack = new ArrayDeque<>();
+    _done = false;
+  }
+
+  /**
+   * Writes the start of the root, which is either a {@link DataMap} or a {@link DataList}.
+   */
+  protected abstract void writeRoot(DataComplex root) throws IOException;
+
+  /**
+   * Writes an entry of the innermost {@link DataMap}.
+   */
+  protected abstract void writeEntry(String key, Object value) throws IOException;
+
+  /**
+   * Writes an item of the innermost {@link DataList}.
+   */
+  protected abstract void writeItem(int index, Object value) throws IOException;
+
+  /**
+   * Writes the end of a {@link DataMap} started with {@link #push(DataMap)}.
+   */
+  protected abstract void writeEndMap() throws IOException;
+
+  /**
+   * Writes the end of a {@link DataList} started with {@link #push(DataList)}.
+   */
+  protected abstract void writeEndList() throws IOException;
+
+  @Override
+  public void onInit(WriteHandle<? super ByteString> wh)
+  {
+    _writeHandle = wh;
+
+    try
+    {
+      writeRoot(_root);
+      _done = _stack.isEmpty();
+    }
+    catch (IOException e)
+    {
+      _writeHandle.error(e);
+    }
+  }
+
+  @Override
+  public void onWritePossible()
+  {
+    while (_writeHandle.remaining() > 0)
+    {
+      if (_done)
+      {
+        if (_out.isEmpty())
+        {
+          _writeHandle.done();
+          break;
+        }
+        else
+        {
+          _writeHandle.write(_out.getBytes());
+        }
+      }
+      else if (_out.isFull())
+      {
+        _writeHandle.write(_out.getBytes());
+      }
+      else
+      {
+        try
+        {
+          generate();
+        }
+        catch (Exception e)
+        {
+          _writeHandle.error(e);
+          break;
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void generate() throws IOException
+  {
+    while (!_out.isFull())
+    {
+      Iterator<?> curr = _stack.peek();
+
+      if (curr.hasNext())
+      {
+        if (curr instanceof ListIterator)
+        {
+          int index = ((ListIterator<?>) curr).nextIndex();
+          writeItem(index, curr.next());
+        }
+        else
+        {
+          Map.Entry<String, ?> entry = (Map.Entry<String, ?>) curr.next();
+          writeEntry(entry.getKey(), entry.getValue());
+        }
+      }
+      else
+      {
+        if (_stack.pop() instanceof ListIterator)
+        {
+          writeEndList();
+        }
+        else
+        {
+          writeEndMap();
+        }
+
+        _done = _stack.isEmpty();
+        if (_done)
+        {
+          break;
+        }
+      }
+    }
+  }
+
+  @Override
+  public void onAbort(Throwable e)
+  {
+  }
+
+  /**
+   * Makes the entries of the map the next values to write.
+   */
+  protected final void push(DataMap map)
+  {
+    _stack.push(map.entrySet().iterator());
+  }
+
+  /**
+   * Makes the items of the list the next values to write.
+   */
+  protected final void push(DataList list)
+  {
+    _stack.push(list.listIterator());
+  }
+
+  /**
+   * Returns the {@link Data#TYPE_MAP} code of the value's type, or 0 for {@link Data#NULL}.
+   */
+  protected static int typeOf(Object value) throws IOException
+  {
+    if (value == Data.NULL)
+    {
+      return 0;
+    }
+    Integer type = Data.TYPE_MAP.get(value.getClass());
+    if (type == null)
+    {
+      throw new IOException("Illegal type encountered: " + value.getClass());
+    }
+    return type;
+  }
+
+  protected final void write(byte value) throws IOException
+  {
+    _out.write(value);
+  }
+
+  protected final void write(byte[] bytes)
+  {
+    _out.write(bytes, 0, bytes.length);
+  }
+
+  protected final void write(ByteString bytes) throws IOException
+  {
+    bytes.write(_out);
+  }
+
+  protected final void writeInt(int value)
+  {
+    for (int i = 0; i < 4; i++)
+    {
+      _scratch[i] = (byte) (value >> (i * 8));
+    }
+    _out.write(_scratch, 0, 4);
+  }
+
+  protected final void writeLong(long value)
+  {
+    for (int i = 0; i < 8; i++)
+    {
+      _scratch[i] = (byte) (value >> (i * 8));
+    }
+    _out.write(_scratch, 0, 8);
+  }
+
+  protected final void writeFloat(float value)
+  {
+    writeInt(Float.floatToRawIntBits(value));
+  }
+
+  protected final void writeDouble(double value)
+  {
+    writeLong(Double.doubleToRawLongBits(value));
+  }
+
+  /**
+   * See {@link com.linkedin.data.codec.BufferChain#putVarUnsignedInt(int)}.
+   */
+  protected final void writeVarUnsignedInt(int value) throws IOException
+  {
+    int z = value;
+    while ((z & 0xffffff80) != 0)
+    {
+      _out.write((byte) (z & 0x7f));
+      z = z >> 7;
+    }
+    _out.write((byte) ((z & 0x7f) | 0x80));
+  }
+
+  /**
+   * See {@link com.linkedin.data.codec.BufferChain#putVarInt(int)}.
+   */
+  protected final void writeVarInt(int value) throws IOException
+  {
+    writeVarUnsignedInt((value << 1) ^ (value >> 31));
+  }
+}
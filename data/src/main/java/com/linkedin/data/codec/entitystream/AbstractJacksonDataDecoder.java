@@ -22,6 +22,7 @@ import com.linkedin.data.Data;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.FieldNameTable;
 import com.linkedin.entitystream.ReadHandle;
 
 import com.fasterxml.jackson.core.JsonFactory;
@@ -79,6 +80,7 @@ class AbstractJacksonDataDecoder<T extends DataComplex> implements DataDecoder<T
   private static final byte NEXT_ARRAY_ITEM = (byte) (VALUE | END_ARRAY.bitPattern);
 
   private final JsonFactory _jsonFactory;
+  private final FieldNameTable _fieldNames = FieldNameTable.getDefault();
 
   private CompletableFuture<T> _completable;
   private T _result;
@@ -180,7 +182,7 @@ class AbstractJacksonDataDecoder<T extends DataComplex> implements DataDecoder<T
             break;
           case FIELD_NAME:
             validate(FIELD_NAME);
-            _currField = _jsonParser.getCurrentName();
+            _currField = _fieldNames.canonicalize(_jsonParser.getCurrentName());
             _expectedTokens = VALUE;
             break;
           case VALUE_STRING:
@@ -22,9 +22,11 @@ import com.linkedin.data.ByteString;
 import com.linkedin.data.Data;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.entitystream.WriteHandle;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -54,6 +56,7 @@ abstract class AbstractJacksonDataEncoder implements DataEncoder
   private QueueBufferedOutputStream _out;
   private Deque<Iterator<?>> _stack;
   private Deque<Object> _typeStack;
+  private Deque<DataProjection> _projectionStack;
   private WriteHandle<? super ByteString> _writeHandle;
   private boolean _done;
 
@@ -63,23 +66,31 @@ abstract class AbstractJacksonDataEncoder implements DataEncoder
     _out = new QueueBufferedOutputStream(bufferSize);
     _stack = new ArrayDeque<>();
     _typeStack = new ArrayDeque<>();
+    _projectionStack = new ArrayDeque<>();
     _done = false;
   }
 
   protected AbstractJacksonDataEncoder(JsonFactory jsonFactory, DataMap dataMap, int bufferSize)
+  {
+    this(jsonFactory, dataMap, DataProjection.ALL, bufferSize);
+  }
+
+  /**
+   * Encodes the parts of the {@link DataMap} selected by the {@link DataProjection}, which are skipped while
+   * encoding instead of being copied first.
+   */
+  protected AbstractJacksonDataEncoder(JsonFactory jsonFactory, DataMap dataMap, DataProjection projection, int bufferSize)
   {
     this(jsonFactory, bufferSize);
 
-    _stack.push(dataMap.entrySet().iterator());
-    _typeStack.push(MAP);
+    pushMap(dataMap, projection == null ? DataProjection.ALL : projection);
   }
 
   protected AbstractJacksonDataEncoder(JsonFactory jsonFactory, DataList dataList, int bufferSize)
   {
     this(jsonFactory, bufferSize);
 
-    _stack.push(dataList.iterator());
-    _typeStack.push(LIST);
+    pushList(dataList, DataProjection.ALL);
   }
 
   @Override
@@ -152,20 +163,28 @@ abstract class AbstractJacksonDataEncoder implements DataEncoder
       if (curr.hasNext())
       {
         Object currItem = curr.next();
+        DataProjection projection = _projectionStack.peek();
         if (_typeStack.peek() == MAP)
         {
           Map.Entry<String, ?> entry = (Map.Entry<String, ?>) currItem;
-          _generator.writeFieldName(entry.getKey());
-          writeValue(entry.getValue());
+          DataProjection valueProjection = (projection == DataProjection.ALL) ?
+              DataProjection.ALL :
+              projection.getFieldProjection(entry.getKey(), entry.getValue());
+          if (valueProjection != null)
+          {
+            _generator.writeFieldName(entry.getKey());
+            writeValue(entry.getValue(), valueProjection);
+          }
         }
         else
         {
-          writeValue(currItem);
+          writeValue(currItem, (projection == DataProjection.ALL) ? DataProjection.ALL : projection.getItemProjection(currItem));
         }
       }
       else
       {
         _stack.pop();
+        _projectionStack.pop();
         Object type = _typeStack.pop();
 
         if (type == MAP)
@@ -187,7 +206,30 @@ abstract class AbstractJacksonDataEncoder implements DataEncoder
     }
   }
 
-  private void writeValue(Object value)
+  private void pushMap(DataMap map, DataProjection projection)
+  {
+    _stack.push(map.entrySet().iterator());
+    _typeStack.push(MAP);
+    _projectionStack.push(projection);
+  }
+
+  private void pushList(DataList list, DataProjection projection)
+  {
+    if (projection == DataProjection.ALL)
+    {
+      _stack.push(list.iterator());
+    }
+    else
+    {
+      int start = projection.getStart(list);
+      int end = Math.min(projection.getEnd(list), list.size());
+      _stack.push(start < end ? list.subList(start, end).iterator() : Collections.emptyIterator());
+    }
+    _typeStack.push(LIST);
+    _projectionStack.push(projection);
+  }
+
+  private void writeValue(Object value, DataProjection projection)
       throws Exception
   {
     switch (Data.TYPE_MAP.get(value.getClass()))
@@ -199,13 +241,11 @@ abstract class AbstractJacksonDataEncoder implements DataEncoder
         _generator.writeNumber((Integer) value);
         break;
       case 3:
-        _stack.push(((DataMap) value).entrySet().iterator());
-        _typeStack.push(MAP);
+        pushMap((DataMap) value, projection);
         _generator.writeStartObject();
         break;
       case 4:
-        _stack.push(((DataList) value).iterator());
-        _typeStack.push(LIST);
+        pushList((DataList) value, projection);
         _generator.writeStartArray();
         break;
       case 5:
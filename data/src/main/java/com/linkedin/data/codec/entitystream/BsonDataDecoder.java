@@ -0,0 +1,134 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BsonDataCodec;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.codec.FieldNameTable;
+import java.io.IOException;
+
+import static com.linkedin.data.codec.BsonDataCodec.*;
+
+
+/**
+ * A BSON decoder for a {@link DataComplex} object implemented as a {@link com.linkedin.entitystream.Reader} reading
+ * from an {@link com.linkedin.entitystream.EntityStream} of ByteString. It reads the format written by
+ * {@link BsonDataCodec}, and decodes each chunk as soon as it is received, so the encoded entity is never buffered
+ * as a whole.
+ *
+ * <p>BSON encodes maps and lists the same way, so the type of the root must be given to the decoder.</p>
+ */
+public class BsonDataDecoder<T extends DataComplex> extends AbstractBinaryDataDecoder<T>
+{
+  private final FieldNameTable _fieldNames = FieldNameTable.getDefault();
+  private final boolean _isRootList;
+
+  /**
+   * @param rootClass provides the type of the root, either {@link DataMap} or {@link DataList}.
+   */
+  public BsonDataDecoder(Class<T> rootClass)
+  {
+    super(rootClass);
+    if (rootClass != DataMap.class && rootClass != DataList.class)
+    {
+      throw new IllegalArgumentException("Unknown DataComplex class " + rootClass.getName());
+    }
+    _isRootList = rootClass == DataList.class;
+  }
+
+  @Override
+  protected void parseNext() throws IOException
+  {
+    if (currContainer() == null)
+    {
+      // The length of the document is not needed, its end is marked by a zero byte.
+      getInt();
+      push(null, _isRootList ? new DataList() : new DataMap());
+      return;
+    }
+
+    byte bsonType = getByte();
+    if (bsonType == ZERO_BYTE)
+    {
+      pop();
+      return;
+    }
+
+    String name = getUtf8CString();
+    if (!isCurrList())
+    {
+      name = _fieldNames.canonicalize(name);
+    }
+    switch (bsonType)
+    {
+      case BSON_EMBEDDED_DOCUMENT:
+        getInt();
+        push(name, new DataMap());
+        break;
+      case BSON_ARRAY:
+        getInt();
+        push(name, new DataList());
+        break;
+      case BSON_32BIT_INTEGER:
+        addValue(name, getInt());
+        break;
+      case BSON_DOUBLE:
+        addValue(name, getDouble());
+        break;
+      case BSON_STRING:
+      case BSON_JAVASCRIPT_CODE:
+      case BSON_SYMBOL:
+        addValue(name, getString());
+        break;
+      case BSON_BOOLEAN:
+        addValue(name, getByte() != ZERO_BYTE);
+        break;
+      case BSON_64BIT_INTEGER:
+      case BSON_UTC_DATETIME:
+      case BSON_TIMESTAMP:
+        addValue(name, getLong());
+        break;
+      case BSON_BINARY:
+      {
+        int length = getInt();
+        // subtype
+        getByte();
+        addValue(name, getByteString(length));
+        break;
+      }
+      case BSON_NULL:
+        addValue(name, Data.NULL);
+        break;
+      default:
+        throw new DataDecodingException("Illegal BSON element code " + bsonType);
+    }
+  }
+
+  private String getString() throws IOException
+  {
+    int length = getInt();
+    if (length == 0)
+    {
+      throw new DataDecodingException("String size should not be 0");
+    }
+    return getUtf8CString(length);
+  }
+}
@@ -0,0 +1,288 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.BsonDataCodec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.linkedin.data.codec.BsonDataCodec.*;
+
+
+/**
+ * A BSON encoder for a {@link DataComplex} object implemented as a {@link com.linkedin.entitystream.Writer} writing
+ * to an {@link com.linkedin.entitystream.EntityStream} of {@link ByteString}. It writes the same bytes as
+ * {@link BsonDataCodec}.
+ *
+ * <p>BSON documents start with their length in bytes. Instead of buffering each document until its length is known,
+ * the encoder computes the lengths of all the documents before it starts writing, and keeps only these lengths.</p>
+ */
+public class BsonDataEncoder extends AbstractBinaryDataEncoder
+{
+  // Length of each non-empty document, in the order the documents are started.
+  private int[] _lengths = new int[16];
+  private int _numLengths;
+  private int _nextLength;
+
+  public BsonDataEncoder(DataMap dataMap, int bufferSize)
+  {
+    super(dataMap, bufferSize);
+  }
+
+  public BsonDataEncoder(DataList dataList, int bufferSize)
+  {
+    super(dataList, bufferSize);
+  }
+
+  @Override
+  protected void writeRoot(DataComplex root) throws IOException
+  {
+    documentLength(root);
+    startDocument(root);
+  }
+
+  @Override
+  protected void writeEntry(String key, Object value) throws IOException
+  {
+    writeElement(key, value);
+  }
+
+  @Override
+  protected void writeItem(int index, Object value) throws IOException
+  {
+    writeElement(String.valueOf(index), value);
+  }
+
+  @Override
+  protected void writeEndMap() throws IOException
+  {
+    write(ZERO_BYTE);
+  }
+
+  @Override
+  protected void writeEndList() throws IOException
+  {
+    write(ZERO_BYTE);
+  }
+
+  private void writeElement(String name, Object value) throws IOException
+  {
+    switch (typeOf(value))
+    {
+      case 0:
+        writeName(BSON_NULL, name);
+        break;
+      case 1:
+      {
+        writeName(BSON_STRING, name);
+        byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length + 1);
+        write(bytes);
+        write(ZERO_BYTE);
+        break;
+      }
+      case 2:
+        writeName(BSON_32BIT_INTEGER, name);
+        writeInt((Integer) value);
+        break;
+      case 3:
+        writeName(BSON_EMBEDDED_DOCUMENT, name);
+        startDocument((DataMap) value);
+        break;
+      case 4:
+        writeName(BSON_ARRAY, name);
+        startDocument((DataList) value);
+        break;
+      case 5:
+        writeName(BSON_BOOLEAN, name);
+        write((Boolean) value ? ONE_BYTE : ZERO_BYTE);
+        break;
+      case 6:
+        writeName(BSON_64BIT_INTEGER, name);
+        writeLong((Long) value);
+        break;
+      case 7:
+        writeName(BSON_DOUBLE, name);
+        writeDouble((Float) value);
+        break;
+      case 8:
+        writeName(BSON_DOUBLE, name);
+        writeDouble((Double) value);
+        break;
+      case 9:
+      {
+        ByteString byteString = (ByteString) value;
+        writeName(BSON_BINARY, name);
+        writeInt(byteString.length());
+        write(ZERO_BYTE);
+        write(byteString);
+        break;
+      }
+      default:
+        throw new IOException("Illegal type encountered: " + value.getClass());
+    }
+  }
+
+  private void writeName(byte bsonType, String name) throws IOException
+  {
+    write(bsonType);
+    write(name.getBytes(StandardCharsets.UTF_8));
+    write(ZERO_BYTE);
+  }
+
+  private void startDocument(DataComplex document) throws IOException
+  {
+    if (isEmpty(document))
+    {
+      // Same as BsonDataCodec, which writes 1 as the length of empty documents.
+      writeInt(1);
+      write(ZERO_BYTE);
+    }
+    else
+    {
+      writeInt(_lengths[_nextLength++]);
+      if (document instanceof DataMap)
+      {
+        push((DataMap) document);
+      }
+      else
+      {
+        push((DataList) document);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of bytes of the document, and records the lengths of the non-empty documents in the order
+   * they are written by {@link #startDocument(DataComplex)}.
+   */
+  private int documentLength(DataComplex document) throws IOException
+  {
+    if (isEmpty(document))
+    {
+      return 5;
+    }
+
+    int slot = _numLengths++;
+    if (slot == _lengths.length)
+    {
+      _lengths = Arrays.copyOf(_lengths, _lengths.length * 2);
+    }
+    int length = 4 + 1;
+    if (document instanceof DataMap)
+    {
+      for (Map.Entry<String, Object> entry : ((DataMap) document).entrySet())
+      {
+        length += elementLength(utf8Length(entry.getKey()), entry.getValue());
+      }
+    }
+    else
+    {
+      DataList list = (DataList) document;
+      for (int i = 0; i < list.size(); i++)
+      {
+        length += elementLength(decimalLength(i), list.get(i));
+      }
+    }
+    _lengths[slot] = length;
+    return length;
+  }
+
+  private int elementLength(int nameLength, Object value) throws IOException
+  {
+    int length = 1 + nameLength + 1;
+    switch (typeOf(value))
+    {
+      case 0:
+        return length;
+      case 1:
+        return length + 4 + utf8Length((String) value) + 1;
+      case 2:
+        return length + 4;
+      case 3:
+      case 4:
+        return length + documentLength((DataComplex) value);
+      case 5:
+        return length + 1;
+      case 6:
+      case 7:
+      case 8:
+        return length + 8;
+      case 9:
+        return length + 4 + 1 + ((ByteString) value).length();
+      default:
+        throw new IOException("Illegal type encountered: " + value.getClass());
+    }
+  }
+
+  private static boolean isEmpty(DataComplex document)
+  {
+    return document instanceof DataMap ? ((DataMap) document).isEmpty() : ((DataList) document).isEmpty();
+  }
+
+  /**
+   * Returns the number of bytes of the UTF-8 encoding of the string, where unpaired surrogates are replaced by a
+   * single byte like {@link String#getBytes(java.nio.charset.Charset)} does.
+   */
+  static int utf8Length(String s)
+  {
+    int length = 0;
+    for (int i = 0; i < s.length(); i++)
+    {
+      char c = s.charAt(i);
+      if (c < 0x80)
+      {
+        length += 1;
+      }
+      else if (c < 0x800)
+      {
+        length += 2;
+      }
+      else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1)))
+      {
+        length += 4;
+        i++;
+      }
+      else if (Character.isSurrogate(c))
+      {
+        length += 1;
+      }
+      else
+      {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  private static int decimalLength(int value)
+  {
+    int length = 1;
+    while (value >= 10)
+    {
+      value /= 10;
+      length++;
+    }
+    return length;
+  }
+}
@@ -19,6 +19,7 @@ package com.linkedin.data.codec.entitystream;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.entitystream.WriteHandle;
 
 import com.fasterxml.jackson.core.JsonFactory;
@@ -52,6 +53,14 @@ public class JacksonJsonDataEncoder extends AbstractJacksonDataEncoder implement
     super(JSON_FACTORY, dataMap, bufferSize);
   }
 
+  /**
+   * Encodes the parts of the {@link DataMap} selected by the {@link DataProjection}.
+   */
+  public JacksonJsonDataEncoder(DataMap dataMap, DataProjection projection, int bufferSize)
+  {
+    super(JSON_FACTORY, dataMap, projection, bufferSize);
+  }
+
   public JacksonJsonDataEncoder(DataList dataList, int bufferSize)
   {
     super(JSON_FACTORY, dataList, bufferSize);
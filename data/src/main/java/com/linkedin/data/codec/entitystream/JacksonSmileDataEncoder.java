@@ -21,6 +21,7 @@ import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.entitystream.WriteHandle;
 import java.io.IOException;
 import java.util.ArrayDeque;
@@ -49,6 +50,14 @@ public class JacksonSmileDataEncoder extends AbstractJacksonDataEncoder implemen
     super(smileFactory, dataMap, bufferSize);
   }
 
+  /**
+   * Encodes the parts of the {@link DataMap} selected by the {@link DataProjection}.
+   */
+  public JacksonSmileDataEncoder(SmileFactory smileFactory, DataMap dataMap, DataProjection projection, int bufferSize)
+  {
+    super(smileFactory, dataMap, projection, bufferSize);
+  }
+
   public JacksonSmileDataEncoder(SmileFactory smileFactory, DataList dataList, int bufferSize)
   {
     super(smileFactory, dataList, bufferSize);
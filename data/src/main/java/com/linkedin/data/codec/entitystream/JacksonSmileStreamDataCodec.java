@@ -22,6 +22,7 @@ import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.entitystream.EntityStream;
 import com.linkedin.entitystream.EntityStreams;
 import java.util.concurrent.CompletionStage;
@@ -80,6 +81,12 @@ public class JacksonSmileStreamDataCodec implements StreamDataCodec
     return EntityStreams.newEntityStream(new JacksonSmileDataEncoder(_smileFactory, map, _bufferSize));
   }
 
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map, DataProjection projection)
+  {
+    return EntityStreams.newEntityStream(new JacksonSmileDataEncoder(_smileFactory, map, projection, _bufferSize));
+  }
+
   @Override
   public EntityStream<ByteString> encodeList(DataList list)
   {
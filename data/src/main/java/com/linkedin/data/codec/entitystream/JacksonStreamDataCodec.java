@@ -20,6 +20,7 @@ package com.linkedin.data.codec.entitystream;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.entitystream.EntityStream;
 import com.linkedin.entitystream.EntityStreams;
 
@@ -63,6 +64,13 @@ public class JacksonStreamDataCodec implements StreamDataCodec
     return EntityStreams.newEntityStream(encoder);
   }
 
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map, DataProjection projection)
+  {
+    JacksonJsonDataEncoder encoder = new JacksonJsonDataEncoder(map, projection, _bufferSize);
+    return EntityStreams.newEntityStream(encoder);
+  }
+
   @Override
   public EntityStream<ByteString> encodeList(DataList list)
   {
@@ -0,0 +1,228 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.DataDecodingException;
+import com.linkedin.data.codec.FieldNameTable;
+import com.linkedin.data.codec.PsonDataCodec;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static com.linkedin.data.codec.PsonDataCodec.*;
+
+
+/**
+ * A PSON decoder for a {@link DataComplex} object implemented as a {@link com.linkedin.entitystream.Reader} reading
+ * from an {@link com.linkedin.entitystream.EntityStream} of ByteString. It reads the format written by
+ * {@link PsonDataCodec}, and decodes each chunk as soon as it is received, so the encoded entity is never buffered
+ * as a whole.
+ */
+public class PsonDataDecoder<T extends DataComplex> extends AbstractBinaryDataDecoder<T>
+{
+  private static final int NO_COUNT = -1;
+
+  private final FieldNameTable _fieldNames = FieldNameTable.getDefault();
+  private final byte[] _header = new byte[HEADER_BYTES.length()];
+  private boolean _headerRead;
+  private String _keyArray[] = new String[100];
+  private int _expectedKeyIndex = 1;
+  // Key of the next value of the innermost map, or null if a key is expected next.
+  private String _currKey;
+  // Number of items encoded with each open container, or NO_COUNT.
+  private final Deque<Integer> _counts = new ArrayDeque<>();
+
+  protected PsonDataDecoder(Class<T> rootClass)
+  {
+    super(rootClass);
+  }
+
+  @SuppressWarnings("unchecked")
+  public PsonDataDecoder()
+  {
+    this((Class<T>) DataComplex.class);
+  }
+
+  @Override
+  protected void parseNext() throws IOException
+  {
+    if (!_headerRead)
+    {
+      get(_header);
+      if (!Arrays.equals(_header, HEADER_BYTES.copyBytes()))
+      {
+        throw new DataDecodingException("Expecting PSON header but got " + ByteString.copy(_header));
+      }
+      _headerRead = true;
+    }
+    else if (currContainer() instanceof DataMap && _currKey == null)
+    {
+      parseKey();
+    }
+    else
+    {
+      parseValue();
+    }
+  }
+
+  private void parseKey() throws IOException
+  {
+    int keyIndex = getVarInt();
+    if (keyIndex == PSON_INVALID_KEY_INDEX)
+    {
+      end("object fields");
+    }
+    else if (keyIndex < 0)
+    {
+      String key = _fieldNames.canonicalize(getUtf8CString());
+      keyIndex = -keyIndex;
+      if (keyIndex != _expectedKeyIndex)
+      {
+        throw new DataDecodingException("Received new key index " + keyIndex + " but expecting " + _expectedKeyIndex);
+      }
+      _expectedKeyIndex++;
+      if (keyIndex >= _keyArray.length)
+      {
+        _keyArray = Arrays.copyOf(_keyArray, _keyArray.length * 2);
+      }
+      _keyArray[keyIndex] = key;
+      _currKey = key;
+    }
+    else
+    {
+      if (keyIndex >= _expectedKeyIndex)
+      {
+        throw new DataDecodingException("Received unknown key index " + keyIndex);
+      }
+      _currKey = _keyArray[keyIndex];
+    }
+  }
+
+  private void parseValue() throws IOException
+  {
+    byte psonType = getByte();
+    switch (psonType)
+    {
+      case PSON_OBJECT_EMPTY:
+        addValue(new DataMap());
+        break;
+      case PSON_OBJECT:
+        start(new DataMap(), NO_COUNT);
+        break;
+      case PSON_OBJECT_WITH_COUNT:
+      {
+        int size = getVarUnsignedInt();
+        start(new DataMap((int) ((size * 1.5) + 0.5)), size);
+        break;
+      }
+      case PSON_ARRAY_EMPTY:
+        addValue(new DataList());
+        break;
+      case PSON_ARRAY:
+        start(new DataList(), NO_COUNT);
+        break;
+      case PSON_ARRAY_WITH_COUNT:
+      {
+        int size = getVarUnsignedInt();
+        start(new DataList(size), size);
+        break;
+      }
+      case PSON_INT:
+        addValue(getInt());
+        break;
+      case PSON_LONG:
+        addValue(getLong());
+        break;
+      case PSON_FLOAT:
+        addValue(getFloat());
+        break;
+      case PSON_DOUBLE:
+        addValue(getDouble());
+        break;
+      case PSON_STRING_EMPTY:
+        addValue("");
+        break;
+      case PSON_STRING:
+        addValue(getUtf8CString());
+        break;
+      case PSON_STRING_WITH_LENGTH_4:
+        addValue(getStringWithLength(getInt()));
+        break;
+      case PSON_STRING_WITH_LENGTH_2:
+        addValue(getStringWithLength(getShort()));
+        break;
+      case PSON_BOOLEAN:
+        addValue(getByte() != ZERO_BYTE);
+        break;
+      case PSON_BINARY:
+        addValue(getByteString(getInt()));
+        break;
+      case PSON_NULL:
+        addValue(Data.NULL);
+        break;
+      case PSON_LAST:
+        if (!isCurrList())
+        {
+          throw new DataDecodingException("Unexpected end of array");
+        }
+        end("array items");
+        break;
+      default:
+        throw new DataDecodingException("Illegal PSON element code " + psonType);
+    }
+  }
+
+  private void addValue(Object value) throws IOException
+  {
+    addValue(_currKey, value);
+    _currKey = null;
+  }
+
+  private void start(DataComplex container, int count) throws IOException
+  {
+    push(_currKey, container);
+    _currKey = null;
+    _counts.push(count);
+  }
+
+  private void end(String items) throws IOException
+  {
+    int count = _counts.pop();
+    DataComplex container = currContainer();
+    int actual = container instanceof DataMap ? ((DataMap) container).size() : ((DataList) container).size();
+    if (count != NO_COUNT && count != actual)
+    {
+      throw new DataDecodingException("Actual number " + items + " (" + actual + ") is not the same as expected (" + count + ")");
+    }
+    pop();
+  }
+
+  private String getStringWithLength(int length) throws IOException
+  {
+    if (length == 0)
+    {
+      throw new DataDecodingException("String size should not be 0");
+    }
+    return getUtf8CString(length);
+  }
+}
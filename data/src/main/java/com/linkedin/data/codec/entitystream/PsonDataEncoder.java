@@ -0,0 +1,228 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.PsonDataCodec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.linkedin.data.codec.PsonDataCodec.*;
+
+
+/**
+ * A PSON encoder for a {@link DataComplex} object implemented as a {@link com.linkedin.entitystream.Writer} writing
+ * to an {@link com.linkedin.entitystream.EntityStream} of {@link ByteString}. It writes the same bytes as
+ * {@link PsonDataCodec} with the same {@link PsonDataCodec.Options}, but only encodes the data as the chunks are
+ * pulled from it.
+ */
+public class PsonDataEncoder extends AbstractBinaryDataEncoder
+{
+  private final Map<String, Integer> _keyMap = new HashMap<>(200);
+  private int _keyIndex = 1;
+  private final boolean _encodeStringLength;
+  private final boolean _encodeCollectionCount;
+
+  public PsonDataEncoder(DataMap dataMap, int bufferSize)
+  {
+    this(dataMap, new PsonDataCodec.Options(), bufferSize);
+  }
+
+  public PsonDataEncoder(DataList dataList, int bufferSize)
+  {
+    this(dataList, new PsonDataCodec.Options(), bufferSize);
+  }
+
+  public PsonDataEncoder(DataMap dataMap, PsonDataCodec.Options options, int bufferSize)
+  {
+    this((DataComplex) dataMap, options, bufferSize);
+  }
+
+  public PsonDataEncoder(DataList dataList, PsonDataCodec.Options options, int bufferSize)
+  {
+    this((DataComplex) dataList, options, bufferSize);
+  }
+
+  private PsonDataEncoder(DataComplex root, PsonDataCodec.Options options, int bufferSize)
+  {
+    super(root, bufferSize);
+    _encodeStringLength = options.getEncodeStringLength();
+    _encodeCollectionCount = options.getEncodeCollectionCount();
+  }
+
+  @Override
+  protected void writeRoot(DataComplex root) throws IOException
+  {
+    write(HEADER_BYTES);
+    writeValue(root);
+  }
+
+  @Override
+  protected void writeEntry(String key, Object value) throws IOException
+  {
+    Integer found = _keyMap.get(key);
+    if (found == null)
+    {
+      _keyMap.put(key, _keyIndex);
+      writeVarInt(-_keyIndex);
+      writeUtf8CString(key);
+      _keyIndex++;
+    }
+    else
+    {
+      writeVarInt(found);
+    }
+    writeValue(value);
+  }
+
+  @Override
+  protected void writeItem(int index, Object value) throws IOException
+  {
+    writeValue(value);
+  }
+
+  @Override
+  protected void writeEndMap() throws IOException
+  {
+    writeVarInt(PSON_INVALID_KEY_INDEX);
+  }
+
+  @Override
+  protected void writeEndList() throws IOException
+  {
+    write(PSON_LAST);
+  }
+
+  private void writeValue(Object value) throws IOException
+  {
+    switch (typeOf(value))
+    {
+      case 0:
+        write(PSON_NULL);
+        break;
+      case 1:
+        writeString((String) value);
+        break;
+      case 2:
+        write(PSON_INT);
+        writeInt((Integer) value);
+        break;
+      case 3:
+      {
+        DataMap map = (DataMap) value;
+        if (map.isEmpty())
+        {
+          write(PSON_OBJECT_EMPTY);
+        }
+        else
+        {
+          if (_encodeCollectionCount)
+          {
+            write(PSON_OBJECT_WITH_COUNT);
+            writeVarUnsignedInt(map.size());
+          }
+          else
+          {
+            write(PSON_OBJECT);
+          }
+          push(map);
+        }
+        break;
+      }
+      case 4:
+      {
+        DataList list = (DataList) value;
+        if (list.isEmpty())
+        {
+          write(PSON_ARRAY_EMPTY);
+        }
+        else
+        {
+          if (_encodeCollectionCount)
+          {
+            write(PSON_ARRAY_WITH_COUNT);
+            writeVarUnsignedInt(list.size());
+          }
+          else
+          {
+            write(PSON_ARRAY);
+          }
+          push(list);
+        }
+        break;
+      }
+      case 5:
+        write(PSON_BOOLEAN);
+        write((Boolean) value ? ONE_BYTE : ZERO_BYTE);
+        break;
+      case 6:
+        write(PSON_LONG);
+        writeLong((Long) value);
+        break;
+      case 7:
+        write(PSON_FLOAT);
+        writeFloat((Float) value);
+        break;
+      case 8:
+        write(PSON_DOUBLE);
+        writeDouble((Double) value);
+        break;
+      case 9:
+      {
+        ByteString byteString = (ByteString) value;
+        write(PSON_BINARY);
+        writeInt(byteString.length());
+        write(byteString);
+        break;
+      }
+      default:
+        throw new IOException("Illegal type encountered: " + value.getClass());
+    }
+  }
+
+  private void writeString(String value) throws IOException
+  {
+    if (value.isEmpty())
+    {
+      write(PSON_STRING_EMPTY);
+    }
+    else if (_encodeStringLength)
+    {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      write(PSON_STRING_WITH_LENGTH_4);
+      writeInt(bytes.length + 1);
+      write(bytes);
+      write(ZERO_BYTE);
+    }
+    else
+    {
+      write(PSON_STRING);
+      writeUtf8CString(value);
+    }
+  }
+
+  private void writeUtf8CString(String value) throws IOException
+  {
+    write(value.getBytes(StandardCharsets.UTF_8));
+    write(ZERO_BYTE);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.entitystream.EntityStream;
+import com.linkedin.entitystream.EntityStreams;
+import java.util.concurrent.CompletionStage;
+
+
+/**
+ * An {@link StreamDataCodec} for PSON, which reads and writes the same bytes as {@link PsonDataCodec}.
+ */
+public class PsonStreamDataCodec implements StreamDataCodec
+{
+  private final int _bufferSize;
+  private final PsonDataCodec.Options _options;
+
+  public PsonStreamDataCodec(int bufferSize)
+  {
+    this(new PsonDataCodec.Options(), bufferSize);
+  }
+
+  public PsonStreamDataCodec(PsonDataCodec.Options options, int bufferSize)
+  {
+    _options = options;
+    _bufferSize = bufferSize;
+  }
+
+  @Override
+  public CompletionStage<DataMap> decodeMap(EntityStream<ByteString> entityStream)
+  {
+    PsonDataDecoder<DataMap> decoder = new PsonDataDecoder<>(DataMap.class);
+    entityStream.setReader(decoder);
+    return decoder.getResult();
+  }
+
+  @Override
+  public CompletionStage<DataList> decodeList(EntityStream<ByteString> entityStream)
+  {
+    PsonDataDecoder<DataList> decoder = new PsonDataDecoder<>(DataList.class);
+    entityStream.setReader(decoder);
+    return decoder.getResult();
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeMap(DataMap map)
+  {
+    return EntityStreams.newEntityStream(new PsonDataEncoder(map, _options, _bufferSize));
+  }
+
+  @Override
+  public EntityStream<ByteString> encodeList(DataList list)
+  {
+    return EntityStreams.newEntityStream(new PsonDataEncoder(list, _options, _bufferSize));
+  }
+}
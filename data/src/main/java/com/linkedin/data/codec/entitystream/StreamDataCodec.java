@@ -18,8 +18,10 @@
 package com.linkedin.data.codec.entitystream;
 
 import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.entitystream.EntityStream;
 
 import java.util.concurrent.CompletionStage;
@@ -50,6 +52,17 @@ public interface StreamDataCodec
    */
   EntityStream<ByteString> encodeMap(DataMap map);
 
+  /**
+   * Encodes the parts of a <code>DataMap</code> selected by a {@link DataProjection} to an <code>EntityStream</code>,
+   * which is the same as encoding the projected copy of the map returned by {@link Data#project(Object, DataProjection)}.
+   * The default implementation encodes the projected copy, codecs may skip the values that are not selected while
+   * encoding the map instead.
+   */
+  default EntityStream<ByteString> encodeMap(DataMap map, DataProjection projection)
+  {
+    return encodeMap((DataMap) Data.project(map, projection));
+  }
+
   /**
    * Encodes a <code>DataList</code> to an <code>EntityStream</code>.
    */
@@ -30,18 +30,22 @@ import java.util.Set;
  * keys and values being stored into the {@link CheckedMap}.
  * <p>
  *
- * The underlying map implementation is {@link HashMap}. It delegates
- * map operations to the underlying {@link HashMap} associated
- * with this {@link CheckedMap}.
+ * The underlying map implementation is selected by {@link MapStorage},
+ * and is {@link HashMap} by default. It delegates map operations to the
+ * underlying map associated with this {@link CheckedMap}.
  * <P>
  *
  * A {@link CheckedMap} may be marked read-only to disable mutations,
  * and to avoid unintentional changes. It may also be invalidated
- * to release its reference the underlying {@link HashMap}.
+ * to release its reference the underlying map.
  * <p>
  *
  * The {@link #entrySet}, {@link #keySet} and {@link #values}
  * methods return unmodifiable set and collection views.
+ * <p>
+ *
+ * The {@link #getModificationCount} of the map changes with every mutation,
+ * so that values derived from its entries can be checked for staleness.
  *
  * @author slim
  */
@@ -53,7 +57,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap()
   {
     _checker = null;
-    _map = new HashMap<K,V>();
+    _map = MapStorage.getDefault().newMap();
   }
 
   /**
@@ -65,7 +69,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     _checker = null;
     checkAll(map);
-    _map = new HashMap<K,V>(map);
+    _map = MapStorage.getDefault().newMap(map);
   }
 
   /**
@@ -78,7 +82,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap(int initialCapacity)
   {
     _checker = null;
-    _map = new HashMap<K,V>(initialCapacity);
+    _map = MapStorage.getDefault().newMap(initialCapacity);
   }
 
   /**
@@ -92,7 +96,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap(int initialCapacity, float loadFactor)
   {
     _checker = null;
-    _map = new HashMap<K,V>(initialCapacity, loadFactor);
+    _map = MapStorage.getDefault().newMap(initialCapacity, loadFactor);
   }
 
   /**
@@ -103,7 +107,30 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap(MapChecker<K,V> checker)
   {
     _checker = checker;
-    _map = new HashMap<K,V>();
+    _map = MapStorage.getDefault().newMap();
+  }
+
+  /**
+   * Construct an empty map with the specified {@link MapStorage}.
+   *
+   * @param storage provides the {@link MapStorage} of the underlying map.
+   */
+  public CheckedMap(MapStorage storage)
+  {
+    _checker = null;
+    _map = storage.newMap();
+  }
+
+  /**
+   * Construct an empty map with the specified {@link MapStorage} and {@link MapChecker}.
+   *
+   * @param storage provides the {@link MapStorage} of the underlying map.
+   * @param checker provides the {@link MapChecker}.
+   */
+  public CheckedMap(MapStorage storage, MapChecker<K,V> checker)
+  {
+    _checker = checker;
+    _map = storage.newMap();
   }
 
   /**
@@ -119,7 +146,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     _checker = checker;
     checkAll(map);
-    _map = new HashMap<K,V>(map);
+    _map = MapStorage.getDefault().newMap(map);
   }
 
   /**
@@ -134,7 +161,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap(int initialCapacity, MapChecker<K,V> checker)
   {
     _checker = checker;
-    _map = new HashMap<K,V>(initialCapacity);
+    _map = MapStorage.getDefault().newMap(initialCapacity);
   }
 
   /**
@@ -149,13 +176,27 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap(int initialCapacity, float loadFactor, MapChecker<K,V> checker)
   {
     _checker = checker;
-    _map = new HashMap<K,V>(initialCapacity, loadFactor);
+    _map = MapStorage.getDefault().newMap(initialCapacity, loadFactor);
+  }
+
+  /**
+   * Construct a map backed by the specified {@link LazyMap} and {@link MapChecker}.
+   * The lazy map is not copied and its entries are not checked.
+   *
+   * @param map provides the underlying map.
+   * @param checker provides the {@link MapChecker}.
+   */
+  protected CheckedMap(LazyMap<K,V> map, MapChecker<K,V> checker)
+  {
+    _checker = checker;
+    _map = map;
   }
 
   @Override
   public void clear()
   {
     checkMutability();
+    _modCount++;
     _map.clear();
   }
 
@@ -164,7 +205,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap<K,V> clone() throws CloneNotSupportedException
   {
     CheckedMap<K,V> o = (CheckedMap<K,V>) super.clone();
-    o._map = (HashMap<K,V>) _map.clone();
+    o._map = MapStorage.copy(_map);
     o._readOnly = false;
     return o;
   }
@@ -232,6 +273,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     checkKeyValue(key, value);
     checkMutability();
+    _modCount++;
     return _map.put(key, value);
   }
 
@@ -240,6 +282,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     checkAll(m);
     checkMutability();
+    _modCount++;
     _map.putAll(m);
   }
 
@@ -247,6 +290,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public V remove(Object key)
   {
     checkMutability();
+    _modCount++;
     return _map.remove(key);
   }
 
@@ -291,6 +335,65 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
     _map = null;
   }
 
+  /**
+   * Put like {@link #put(Object, Object)}, without returning the previous value.
+   *
+   * If the underlying map is a {@link LazyMap}, a previous value that has not been
+   * resolved yet is dropped without being resolved.
+   *
+   * @param key key with which the specified value is to be associated.
+   * @param value to be associated with the specified key.
+   * @throws UnsupportedOperationException if the map is read-only.
+   */
+  public void putDiscardingPrevious(K key, V value)
+  {
+    checkKeyValue(key, value);
+    checkMutability();
+    _modCount++;
+    if (_map instanceof LazyMap)
+    {
+      ((LazyMap<K,V>) _map).putDiscardingPrevious(key, value);
+    }
+    else
+    {
+      _map.put(key, value);
+    }
+  }
+
+  /**
+   * Remove like {@link #remove(Object)}, without returning the previous value.
+   *
+   * If the underlying map is a {@link LazyMap}, a value that has not been
+   * resolved yet is dropped without being resolved.
+   *
+   * @param key key whose mapping is to be removed from the map.
+   * @return true if the map contained the key.
+   * @throws UnsupportedOperationException if the map is read-only.
+   */
+  public boolean removeDiscardingPrevious(Object key)
+  {
+    checkMutability();
+    _modCount++;
+    if (_map instanceof LazyMap)
+    {
+      return ((LazyMap<K,V>) _map).removeDiscardingPrevious(key);
+    }
+    return _map.remove(key) != null;
+  }
+
+  /**
+   * Return the modification count of this map, which changes with every mutation of the map.
+   *
+   * A value derived from the entries of this map is up to date as long as the
+   * modification count is the same as when the value was derived.
+   *
+   * @return the modification count of this map.
+   */
+  public int getModificationCount()
+  {
+    return _modCount;
+  }
+
   private final void checkMutability()
   {
     if (_readOnly)
@@ -332,6 +435,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   protected V putWithoutChecking(K key, V value)
   {
     checkMutability();
+    _modCount++;
     return _map.put(key, value);
   }
 
@@ -349,6 +453,7 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   protected void putAllWithoutChecking(Map<? extends K, ? extends V> src)
   {
     checkMutability();
+    _modCount++;
     _map.putAll(src);
   }
 
@@ -396,5 +501,6 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
 
   private boolean _readOnly = false;
   protected MapChecker<K,V> _checker;
-  private HashMap<K,V> _map;
+  private Map<K,V> _map;
+  private int _modCount;
 }
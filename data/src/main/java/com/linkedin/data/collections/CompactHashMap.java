@@ -0,0 +1,597 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compact open-addressing hash map.
+ * <p>
+ *
+ * Keys and values are stored interleaved in a single array and collisions are
+ * resolved by linear probing, so an entry costs two array slots instead of a
+ * {@link java.util.HashMap} node plus a table slot. Hash codes are not cached,
+ * which is inexpensive for {@link String} keys as {@link String} caches its own hash code.
+ * Removal uses backward-shift deletion, so no tombstones are left in the table.
+ * <p>
+ *
+ * Null keys and values are permitted. Iteration order is unspecified. Iterators of the
+ * {@link #entrySet}, {@link #keySet} and {@link #values} views are fail-fast and
+ * do not support {@link Iterator#remove()}.
+ * <p>
+ *
+ * This class is not thread-safe.
+ */
+public final class CompactHashMap<K,V> extends AbstractMap<K,V> implements Cloneable
+{
+  private static final Object NULL_KEY = new Object();
+  private static final Object[] EMPTY_TABLE = {};
+  private static final int MIN_CAPACITY = 4;
+  private static final int MAX_CAPACITY = 1 << 29;
+
+  /**
+   * The maximum ratio of entries to slots. Linear probing degrades quickly
+   * at higher load factors.
+   */
+  private static final float LOAD_FACTOR = 0.5f;
+
+  /**
+   * Construct an empty map.
+   */
+  public CompactHashMap()
+  {
+    _table = EMPTY_TABLE;
+  }
+
+  /**
+   * Construct an empty map that can hold the specified number of entries without resizing.
+   *
+   * @param initialCapacity provides the initial capacity.
+   */
+  public CompactHashMap(int initialCapacity)
+  {
+    if (initialCapacity < 0)
+    {
+      throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+    }
+    _table = initialCapacity == 0 ? EMPTY_TABLE : new Object[2 * tableCapacity(initialCapacity)];
+  }
+
+  /**
+   * Construct a map with initial entries provided by the specified map.
+   *
+   * @param map provides the initial entries for the new map.
+   */
+  public CompactHashMap(Map<? extends K,? extends V> map)
+  {
+    this(map.size());
+    putAll(map);
+  }
+
+  @Override
+  public int size()
+  {
+    return _size;
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return _size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return _size != 0 && find(maskNull(key)) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value)
+  {
+    Object[] table = _table;
+    for (int i = 0; i < table.length; i += 2)
+    {
+      if (table[i] != null && Objects.equals(table[i + 1], value))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public V get(Object key)
+  {
+    if (_size == 0)
+    {
+      return null;
+    }
+    int index = find(maskNull(key));
+    return index < 0 ? null : valueAt(index);
+  }
+
+  @Override
+  public V put(K key, V value)
+  {
+    Object k = maskNull(key);
+    if (_table.length == 0)
+    {
+      _table = new Object[2 * MIN_CAPACITY];
+    }
+
+    Object[] table = _table;
+    int mask = table.length - 1;
+    int index = indexFor(k, mask);
+    Object existing;
+    while ((existing = table[index]) != null)
+    {
+      if (existing == k || existing.equals(k))
+      {
+        V previous = valueAt(index);
+        table[index + 1] = value;
+        return previous;
+      }
+      index = (index + 2) & mask;
+    }
+
+    _modCount++;
+    if (_size + 1 > (table.length >> 1) * LOAD_FACTOR)
+    {
+      resize(table.length);
+      insert(k, value);
+    }
+    else
+    {
+      table[index] = k;
+      table[index + 1] = value;
+    }
+    _size++;
+    return null;
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> m)
+  {
+    int required = _size + m.size();
+    if (required > (_table.length >> 1) * LOAD_FACTOR)
+    {
+      resize(2 * tableCapacity(required));
+    }
+    for (Map.Entry<? extends K, ? extends V> e : m.entrySet())
+    {
+      put(e.getKey(), e.getValue());
+    }
+  }
+
+  @Override
+  public V remove(Object key)
+  {
+    if (_size == 0)
+    {
+      return null;
+    }
+    int index = find(maskNull(key));
+    if (index < 0)
+    {
+      return null;
+    }
+    V previous = valueAt(index);
+    _modCount++;
+    _size--;
+    closeDeletion(index);
+    return previous;
+  }
+
+  @Override
+  public void clear()
+  {
+    if (_size != 0)
+    {
+      _modCount++;
+      _size = 0;
+      Arrays.fill(_table, null);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompactHashMap<K,V> clone()
+  {
+    try
+    {
+      CompactHashMap<K,V> o = (CompactHashMap<K,V>) super.clone();
+      o._table = _table.length == 0 ? EMPTY_TABLE : _table.clone();
+      o._entrySet = null;
+      o._keySet = null;
+      o._values = null;
+      return o;
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  public int hashCode()
+  {
+    int h = 0;
+    Object[] table = _table;
+    for (int i = 0; i < table.length; i += 2)
+    {
+      if (table[i] != null)
+      {
+        h += (table[i] == NULL_KEY ? 0 : table[i].hashCode()) ^ Objects.hashCode(table[i + 1]);
+      }
+    }
+    return h;
+  }
+
+  @Override
+  public Set<Map.Entry<K,V>> entrySet()
+  {
+    Set<Map.Entry<K,V>> entrySet = _entrySet;
+    if (entrySet == null)
+    {
+      entrySet = new AbstractSet<Map.Entry<K,V>>()
+      {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+          return new TableIterator<Map.Entry<K,V>>()
+          {
+            @Override
+            Map.Entry<K,V> element(int index)
+            {
+              return new TableEntry(index);
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+          if (!(o instanceof Map.Entry))
+          {
+            return false;
+          }
+          Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+          int index = _size == 0 ? -1 : find(maskNull(e.getKey()));
+          return index >= 0 && Objects.equals(_table[index + 1], e.getValue());
+        }
+
+        @Override
+        public int size()
+        {
+          return _size;
+        }
+      };
+      _entrySet = entrySet;
+    }
+    return entrySet;
+  }
+
+  @Override
+  public Set<K> keySet()
+  {
+    Set<K> keySet = _keySet;
+    if (keySet == null)
+    {
+      keySet = new AbstractSet<K>()
+      {
+        @Override
+        public Iterator<K> iterator()
+        {
+          return new TableIterator<K>()
+          {
+            @Override
+            K element(int index)
+            {
+              return keyAt(index);
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+          return containsKey(o);
+        }
+
+        @Override
+        public int size()
+        {
+          return _size;
+        }
+      };
+      _keySet = keySet;
+    }
+    return keySet;
+  }
+
+  @Override
+  public Collection<V> values()
+  {
+    Collection<V> values = _values;
+    if (values == null)
+    {
+      values = new AbstractCollection<V>()
+      {
+        @Override
+        public Iterator<V> iterator()
+        {
+          return new TableIterator<V>()
+          {
+            @Override
+            V element(int index)
+            {
+              return valueAt(index);
+            }
+          };
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+          return containsValue(o);
+        }
+
+        @Override
+        public int size()
+        {
+          return _size;
+        }
+      };
+      _values = values;
+    }
+    return values;
+  }
+
+  /**
+   * Return the index of the slot holding the specified (masked) key, or -1 if the key is absent.
+   */
+  private int find(Object k)
+  {
+    Object[] table = _table;
+    int mask = table.length - 1;
+    int index = indexFor(k, mask);
+    Object existing;
+    while ((existing = table[index]) != null)
+    {
+      if (existing == k || existing.equals(k))
+      {
+        return index;
+      }
+      index = (index + 2) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Insert a key known to be absent, without checking the load factor.
+   */
+  private void insert(Object k, Object value)
+  {
+    Object[] table = _table;
+    int mask = table.length - 1;
+    int index = indexFor(k, mask);
+    while (table[index] != null)
+    {
+      index = (index + 2) & mask;
+    }
+    table[index] = k;
+    table[index + 1] = value;
+  }
+
+  /**
+   * Shift entries following a deleted slot back so that every remaining entry stays reachable
+   * from its home slot without tombstones.
+   */
+  private void closeDeletion(int deleted)
+  {
+    Object[] table = _table;
+    int mask = table.length - 1;
+    int hole = deleted;
+    int index = (hole + 2) & mask;
+    Object k;
+    while ((k = table[index]) != null)
+    {
+      int home = indexFor(k, mask);
+      // Move the entry into the hole unless its home slot lies cyclically in (hole, index].
+      boolean movable = (index > hole) ? (home <= hole || home > index) : (home <= hole && home > index);
+      if (movable)
+      {
+        table[hole] = k;
+        table[hole + 1] = table[index + 1];
+        hole = index;
+      }
+      index = (index + 2) & mask;
+    }
+    table[hole] = null;
+    table[hole + 1] = null;
+  }
+
+  private void resize(int newLength)
+  {
+    Object[] old = _table;
+    int length = Math.max(newLength, 2 * MIN_CAPACITY);
+    while (_size + 1 > (length >> 1) * LOAD_FACTOR && length < 2 * MAX_CAPACITY)
+    {
+      length <<= 1;
+    }
+    _table = new Object[length];
+    for (int i = 0; i < old.length; i += 2)
+    {
+      if (old[i] != null)
+      {
+        insert(old[i], old[i + 1]);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private K keyAt(int index)
+  {
+    Object k = _table[index];
+    return k == NULL_KEY ? null : (K) k;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V valueAt(int index)
+  {
+    return (V) _table[index + 1];
+  }
+
+  private static Object maskNull(Object key)
+  {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static int indexFor(Object k, int mask)
+  {
+    int h = k.hashCode();
+    h ^= (h >>> 16);
+    return (h << 1) & mask;
+  }
+
+  /**
+   * Return the number of key slots needed to hold the specified number of entries.
+   */
+  private static int tableCapacity(int entries)
+  {
+    int capacity = MIN_CAPACITY;
+    while (capacity * LOAD_FACTOR < entries && capacity < MAX_CAPACITY)
+    {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private abstract class TableIterator<E> implements Iterator<E>
+  {
+    private final Object[] _iteratedTable = _table;
+    private final int _expectedModCount = _modCount;
+    private int _next = advance(0);
+
+    abstract E element(int index);
+
+    @Override
+    public boolean hasNext()
+    {
+      return _next < _iteratedTable.length;
+    }
+
+    @Override
+    public E next()
+    {
+      if (_modCount != _expectedModCount)
+      {
+        throw new ConcurrentModificationException();
+      }
+      if (_next >= _iteratedTable.length)
+      {
+        throw new NoSuchElementException();
+      }
+      int index = _next;
+      _next = advance(index + 2);
+      return element(index);
+    }
+
+    private int advance(int index)
+    {
+      while (index < _iteratedTable.length && _iteratedTable[index] == null)
+      {
+        index += 2;
+      }
+      return index;
+    }
+  }
+
+  private final class TableEntry implements Map.Entry<K,V>
+  {
+    private final K _key;
+    private V _value;
+
+    TableEntry(int index)
+    {
+      _key = keyAt(index);
+      _value = valueAt(index);
+    }
+
+    @Override
+    public K getKey()
+    {
+      return _key;
+    }
+
+    @Override
+    public V getValue()
+    {
+      return _value;
+    }
+
+    @Override
+    public V setValue(V value)
+    {
+      V previous = _value;
+      put(_key, value);
+      _value = value;
+      return previous;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (!(o instanceof Map.Entry))
+      {
+        return false;
+      }
+      Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+      return Objects.equals(_key, e.getKey()) && Objects.equals(_value, e.getValue());
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return Objects.hashCode(_key) ^ Objects.hashCode(_value);
+    }
+
+    @Override
+    public String toString()
+    {
+      return _key + "=" + _value;
+    }
+  }
+
+  private Object[] _table;
+  private int _size;
+  private int _modCount;
+  private Set<Map.Entry<K,V>> _entrySet;
+  private Set<K> _keySet;
+  private Collection<V> _values;
+}
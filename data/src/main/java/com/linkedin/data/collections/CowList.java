@@ -43,6 +43,17 @@ import java.util.List;
  * by this {@link CowList}, and mutations will occur on the clone.
  * <p>
  *
+ * Cloning a read-only {@link CowList} does not increment the reference
+ * count. The clone borrows the underlying {@link ArrayList} without
+ * acquiring a reference and copies it on its first mutation, so threads
+ * cloning the same read-only list do not contend on the reference count.
+ * <p>
+ *
+ * A {@link CowList} is not thread-safe and must be confined to one thread,
+ * except that a read-only {@link CowList} may be cloned by several threads
+ * concurrently, as long as it is not invalidated meanwhile.
+ * <p>
+ *
  * A {@link CowList} may be marked read-only to disable mutations,
  * and to avoid unintentional changes. It may also be invalidated to
  * release its reference and decrease the reference count on the underlying
@@ -63,7 +74,7 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   public CowList()
   {
     _checker = null;
-    _refCounted = new RefCounted<InternalList<E>>(new InternalList<E>());
+    _refCounted = refCounted(new InternalList<E>());
   }
 
   /**
@@ -75,7 +86,7 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   {
     _checker = null;
     checkAll(list);
-    _refCounted = new RefCounted<InternalList<E>>(new InternalList<E>(list));
+    _refCounted = refCounted(new InternalList<E>(list));
   }
 
   /**
@@ -86,7 +97,7 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   public CowList(int initialCapacity)
   {
     _checker = null;
-    _refCounted = new RefCounted<InternalList<E>>(new InternalList<E>(initialCapacity));
+    _refCounted = refCounted(new InternalList<E>(initialCapacity));
   }
 
   /**
@@ -97,7 +108,7 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   public CowList(ListChecker<E> checker)
   {
     _checker = checker;
-    _refCounted = new RefCounted<InternalList<E>>(new InternalList<E>());
+    _refCounted = refCounted(new InternalList<E>());
   }
 
   /**
@@ -111,7 +122,7 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   {
     _checker = checker;
     checkAll(list);
-    _refCounted = new RefCounted<InternalList<E>>(new InternalList<E>(list));
+    _refCounted = refCounted(new InternalList<E>(list));
   }
 
   /**
@@ -123,7 +134,7 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   public CowList(int initialCapacity, ListChecker<E> checker)
   {
     _checker = checker;
-    _refCounted = new RefCounted<InternalList<E>>(new InternalList<E>(initialCapacity));
+    _refCounted = refCounted(new InternalList<E>(initialCapacity));
   }
 
   @Override
@@ -165,7 +176,16 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   {
     @SuppressWarnings("unchecked")
     CowList<E> o = (CowList<E>) super.clone();
-    o._refCounted = _refCounted.acquire();
+    if (_readOnly || _borrowed)
+    {
+      _lent = true;
+      o._borrowed = true;
+    }
+    else
+    {
+      o._refCounted = _refCounted.acquire();
+    }
+    o._lent = false;
     o._readOnly = false;
     return o;
   }
@@ -296,7 +316,8 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
   {
     try
     {
-      if (_refCounted != null)
+      // A lent underlying list stays shared, as its borrowers did not acquire a reference.
+      if (_refCounted != null && !_borrowed && !_lent)
       {
         _refCounted.release();
       }
@@ -359,6 +380,21 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
     return _refCounted;
   }
 
+  /**
+   * For debugging use only, package scope.
+   *
+   * @return whether the underlying list is borrowed from a read-only {@link CowList}.
+   */
+  boolean isBorrowed()
+  {
+    return _borrowed;
+  }
+
+  private static <E> RefCounted<InternalList<E>> refCounted(InternalList<E> list)
+  {
+    return new RefCounted<InternalList<E>>(list, InternalList::new);
+  }
+
   private final void check(E e)
   {
     if (_checker != null)
@@ -384,7 +420,15 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
     {
       throw new UnsupportedOperationException("Cannot mutate a read-only list");
     }
-    _refCounted = _refCounted.getMutable();
+    if (_borrowed)
+    {
+      _refCounted = refCounted(new InternalList<E>(_refCounted.getObject()));
+      _borrowed = false;
+    }
+    else
+    {
+      _refCounted = _refCounted.getMutable();
+    }
     return _refCounted.getObject();
   }
 
@@ -416,5 +460,9 @@ public class CowList<E> extends AbstractList<E> implements CommonList<E>, Clonea
 
   protected ListChecker<E> _checker;
   private boolean _readOnly = false;
+  // Whether the underlying list is borrowed without a reference, or has been lent to such a borrower.
+  // They are not volatile, see the threading notes of this class. Concurrent clones only ever set _lent to true.
+  private boolean _borrowed = false;
+  private boolean _lent = false;
   private RefCounted<InternalList<E>> _refCounted;
 }
\ No newline at end of file
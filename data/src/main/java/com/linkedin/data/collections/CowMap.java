@@ -26,28 +26,41 @@ import java.util.Set;
  * Copy-on-Write Map.
  * <p>
  *
- * The underlying map implementation is {@link HashMap}. It delegates
- * map operations to the underlying {@link HashMap} associated
- * with this {@link CowMap}.
+ * The underlying map implementation is selected by {@link MapStorage},
+ * and is {@link HashMap} by default. It delegates map operations to the
+ * underlying map associated with this {@link CowMap}.
  * <P>
  *
- * Multiple {@link CowMap} can reference the same {@link HashMap}.
- * When a {@link CowMap} is cloned, the underlying {@link HashMap} is not cloned,
+ * Multiple {@link CowMap} can reference the same underlying map.
+ * When a {@link CowMap} is cloned, the underlying map is not cloned,
  * instead a reference count is incremented. This reference count
  * tracks the number of {@link CowMap}'s sharing the same underlying
- * {@link HashMap}. A shared underlying P@link HashMap} instance is read-only.
+ * map. A shared underlying map instance is read-only.
+ * <p>
+ *
+ * Cloning a read-only {@link CowMap} does not increment the reference
+ * count. The underlying map of a read-only {@link CowMap} never changes,
+ * so the clone borrows it without acquiring a reference, and
+ * copies it on its first mutation. Threads cloning the same read-only
+ * map, such as a cached template, therefore do not contend on the
+ * reference count. A clone of a borrowing {@link CowMap} borrows too.
+ * <p>
+ *
+ * A {@link CowMap} is not thread-safe and must be confined to one thread,
+ * except that a read-only {@link CowMap} may be cloned by several threads
+ * concurrently, as long as it is not invalidated meanwhile.
  * <p>
  *
  * If a method mutates the {@link CowMap} and the underlying
- * {@link HashMap} is shared, then the underlying {@link HashMap} will be
- * cloned, the clone {@link HashMap} will be exclusively "owned"
+ * map is shared, then the underlying map will be
+ * cloned, the clone map will be exclusively "owned"
  * by this {@link CowMap}, and mutations will occur on the clone.
  * <p>
  *
  * A {@link CowMap} may be marked read-only to disable mutations,
  * and to avoid unintentional changes. It may also be invalidated
  * to release its reference and decrease the reference count on the
- * underlying {@link HashMap}.
+ * underlying map.
  * <p>
  *
  * The {@link #entrySet}, {@link #keySet} and {@link #values}
@@ -55,7 +68,7 @@ import java.util.Set;
  * This avoid the having a separate source
  * of mutations from these instances and their iterators. This is a
  * limitation of the current implementation as it leverages the underlying
- * {@link HashMap}'s implementations of these methods. (Without this
+ * map's implementations of these methods. (Without this
  * restriction, it would be possible to mutate the source of
  * clone and have the changes observable by the clone in the following
  * sequence {@code Set<Map.Entry<K,V>> aEntries = a.entrySet();
@@ -76,7 +89,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   public CowMap()
   {
     _checker = null;
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>());
+    _refCounted = refCounted(MapStorage.getDefault().newMap());
   }
 
   /**
@@ -88,7 +101,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     _checker = null;
     checkAll(map);
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>(map));
+    _refCounted = refCounted(MapStorage.getDefault().newMap(map));
   }
 
   /**
@@ -101,7 +114,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   public CowMap(int initialCapacity)
   {
     _checker = null;
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>(initialCapacity));
+    _refCounted = refCounted(MapStorage.getDefault().newMap(initialCapacity));
   }
 
   /**
@@ -115,7 +128,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   public CowMap(int initialCapacity, float loadFactor)
   {
     _checker = null;
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>(initialCapacity, loadFactor));
+    _refCounted = refCounted(MapStorage.getDefault().newMap(initialCapacity, loadFactor));
   }
 
   /**
@@ -126,7 +139,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   public CowMap(MapChecker<K,V> checker)
   {
     _checker = checker;
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>());
+    _refCounted = refCounted(MapStorage.getDefault().newMap());
   }
 
   /**
@@ -142,7 +155,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     _checker = checker;
     checkAll(map);
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>(map));
+    _refCounted = refCounted(MapStorage.getDefault().newMap(map));
   }
 
   /**
@@ -157,7 +170,7 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   public CowMap(int initialCapacity, MapChecker<K,V> checker)
   {
     _checker = checker;
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>(initialCapacity));
+    _refCounted = refCounted(MapStorage.getDefault().newMap(initialCapacity));
   }
 
   /**
@@ -172,7 +185,30 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   public CowMap(int initialCapacity, float loadFactor, MapChecker<K,V> checker)
   {
     _checker = checker;
-    _refCounted = new RefCounted<HashMap<K,V>>(new HashMap<K,V>(initialCapacity, loadFactor));
+    _refCounted = refCounted(MapStorage.getDefault().newMap(initialCapacity, loadFactor));
+  }
+
+  /**
+   * Construct an empty map with the specified {@link MapStorage}.
+   *
+   * @param storage provides the {@link MapStorage} of the underlying map.
+   */
+  public CowMap(MapStorage storage)
+  {
+    _checker = null;
+    _refCounted = refCounted(storage.<K,V>newMap());
+  }
+
+  /**
+   * Construct an empty map with the specified {@link MapStorage} and {@link MapChecker}.
+   *
+   * @param storage provides the {@link MapStorage} of the underlying map.
+   * @param checker provides the {@link MapChecker}.
+   */
+  public CowMap(MapStorage storage, MapChecker<K,V> checker)
+  {
+    _checker = checker;
+    _refCounted = refCounted(storage.<K,V>newMap());
   }
 
   @Override
@@ -186,7 +222,16 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     @SuppressWarnings("unchecked")
     CowMap<K,V> o = (CowMap<K,V>) super.clone();
-    o._refCounted = _refCounted.acquire();
+    if (_readOnly || _borrowed)
+    {
+      _lent = true;
+      o._borrowed = true;
+    }
+    else
+    {
+      o._refCounted = _refCounted.acquire();
+    }
+    o._lent = false;
     o._readOnly = false;
     return o;
   }
@@ -307,7 +352,8 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   {
     try
     {
-      if (_refCounted != null)
+      // A lent underlying map stays shared, as its borrowers did not acquire a reference.
+      if (_refCounted != null && !_borrowed && !_lent)
       {
         _refCounted.release();
       }
@@ -372,18 +418,51 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
    *
    * @return underlying {@link RefCounted}.
    */
-  RefCounted<HashMap<K, V>> getRefCounted()
+  RefCounted<? extends Map<K, V>> getRefCounted()
   {
     return _refCounted;
   }
 
+  /**
+   * For debugging use only, package scope.
+   *
+   * @return whether the underlying map is borrowed from a read-only {@link CowMap}.
+   */
+  boolean isBorrowed()
+  {
+    return _borrowed;
+  }
+
+  private static <K,V> RefCounted<? extends Map<K,V>> refCounted(Map<K,V> map)
+  {
+    if (map instanceof CompactHashMap)
+    {
+      return new RefCounted<CompactHashMap<K,V>>((CompactHashMap<K,V>) map, CompactHashMap::clone);
+    }
+    return new RefCounted<HashMap<K,V>>((HashMap<K,V>) map, CowMap::copyHashMap);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K,V> HashMap<K,V> copyHashMap(HashMap<K,V> map)
+  {
+    return (HashMap<K,V>) map.clone();
+  }
+
   private final Map<K,V> getMutable()
   {
     if (_readOnly)
     {
       throw new UnsupportedOperationException("Cannot mutate a read-only map");
     }
-    _refCounted = _refCounted.getMutable();
+    if (_borrowed)
+    {
+      _refCounted = refCounted(MapStorage.copy(_refCounted.getObject()));
+      _borrowed = false;
+    }
+    else
+    {
+      _refCounted = _refCounted.getMutable();
+    }
     return _refCounted.getObject();
   }
 
@@ -395,5 +474,9 @@ public class CowMap<K,V> implements CommonMap<K,V>, Cloneable
   protected MapChecker<K,V> _checker;
 
   private boolean _readOnly = false;
-  private RefCounted<HashMap<K,V>> _refCounted;
+  // Whether the underlying map is borrowed without a reference, or has been lent to such a borrower.
+  // They are not volatile, see the threading notes of this class. Concurrent clones only ever set _lent to true.
+  private boolean _borrowed = false;
+  private boolean _lent = false;
+  private RefCounted<? extends Map<K,V>> _refCounted;
 }
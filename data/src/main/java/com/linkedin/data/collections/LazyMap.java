@@ -0,0 +1,364 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Map whose values may be pending, in which case they are resolved from their
+ * source, such as the raw bytes of an encoded value, the first time they are read.
+ * <p>
+ *
+ * It may be the underlying map of a {@link CheckedMap}, so that codecs can
+ * decode the values of a map on demand. Every operation that reads a value,
+ * including iterating over {@link #entrySet} or {@link #values}, {@link #equals}
+ * and {@link #hashCode}, resolves it first, so the map behaves like a
+ * {@link HashMap} holding the resolved values. Only {@link #getSource(Object)}
+ * gives access to the source of a pending value, and only
+ * {@link #putDiscardingPrevious(Object, Object)} and {@link #removeDiscardingPrevious(Object)}
+ * drop a pending value without resolving it.
+ * <p>
+ *
+ * Resolving a value updates the map, so this class is not thread-safe, even for reads.
+ * {@link com.linkedin.data.DataMap#makeReadOnly()} resolves all the values of the map,
+ * after which it can be read concurrently.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public abstract class LazyMap<K,V> extends AbstractMap<K,V> implements Cloneable
+{
+  /**
+   * Construct an empty map that can hold the specified number of entries without resizing.
+   *
+   * @param initialCapacity provides the initial capacity.
+   */
+  protected LazyMap(int initialCapacity)
+  {
+    _map = new HashMap<K,Object>(initialCapacity);
+  }
+
+  /**
+   * Return the {@link LazyMap} underlying a {@link CheckedMap}.
+   *
+   * @param map provides the {@link CheckedMap}.
+   * @return the underlying {@link LazyMap}, or null if the underlying map is not a {@link LazyMap}.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K,V> LazyMap<K,V> unwrap(CheckedMap<K,V> map)
+  {
+    Map<K,V> underlying = map.getObject();
+    return underlying instanceof LazyMap ? (LazyMap<K,V>) underlying : null;
+  }
+
+  /**
+   * Resolve the value of a pending entry.
+   *
+   * @param key provides the key of the entry.
+   * @param source provides the source of the value, as passed to {@link #putPending(Object, Object)}.
+   * @return the value.
+   */
+  protected abstract V resolve(K key, Object source);
+
+  /**
+   * Add an entry whose value will be resolved from the specified source when first read.
+   *
+   * @param key provides the key of the entry.
+   * @param source provides the source of the value.
+   */
+  protected final void putPending(K key, Object source)
+  {
+    if (!(_map.put(key, new Pending(source)) instanceof Pending))
+    {
+      _numPending++;
+    }
+  }
+
+  /**
+   * Return the source of the value of an entry that has not been resolved yet.
+   *
+   * @param key provides the key of the entry.
+   * @return the source of the value, or null if there is no pending entry with this key.
+   */
+  public final Object getSource(Object key)
+  {
+    Object value = _map.get(key);
+    return value instanceof Pending ? ((Pending) value)._source : null;
+  }
+
+  /**
+   * Return whether some values have not been resolved yet.
+   *
+   * @return true if at least one value has not been resolved yet.
+   */
+  public final boolean hasPending()
+  {
+    return _numPending > 0;
+  }
+
+  @Override
+  public int size()
+  {
+    return _map.size();
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return _map.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return _map.containsKey(key);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key)
+  {
+    Object value = _map.get(key);
+    if (value instanceof Pending)
+    {
+      V resolved = resolve((K) key, ((Pending) value)._source);
+      _map.put((K) key, resolved);
+      _numPending--;
+      return resolved;
+    }
+    return (V) value;
+  }
+
+  @Override
+  public V put(K key, V value)
+  {
+    return valueOf(key, _map.put(key, value));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key)
+  {
+    return valueOf((K) key, _map.remove(key));
+  }
+
+  /**
+   * Put an entry without returning the previous value, so that a pending previous value is
+   * dropped without being resolved.
+   *
+   * @param key provides the key of the entry.
+   * @param value provides the new value of the entry.
+   */
+  public final void putDiscardingPrevious(K key, V value)
+  {
+    if (_map.put(key, value) instanceof Pending)
+    {
+      _numPending--;
+    }
+  }
+
+  /**
+   * Remove an entry without returning its value, so that a pending value is dropped
+   * without being resolved.
+   *
+   * @param key provides the key of the entry.
+   * @return true if the map contained an entry with this key.
+   */
+  public final boolean removeDiscardingPrevious(Object key)
+  {
+    if (!_map.containsKey(key))
+    {
+      return false;
+    }
+    if (_map.remove(key) instanceof Pending)
+    {
+      _numPending--;
+    }
+    return true;
+  }
+
+  @Override
+  public void clear()
+  {
+    _map.clear();
+    _numPending = 0;
+  }
+
+  @Override
+  public Set<Map.Entry<K,V>> entrySet()
+  {
+    return new EntrySet();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public LazyMap<K,V> clone()
+  {
+    try
+    {
+      LazyMap<K,V> o = (LazyMap<K,V>) super.clone();
+      o._map = (HashMap<K,Object>) _map.clone();
+      return o;
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Return the value of an entry that has been replaced or removed, resolving it if needed.
+   */
+  @SuppressWarnings("unchecked")
+  private V valueOf(K key, Object value)
+  {
+    if (value instanceof Pending)
+    {
+      _numPending--;
+      return resolve(key, ((Pending) value)._source);
+    }
+    return (V) value;
+  }
+
+  private static final class Pending
+  {
+    private Pending(Object source)
+    {
+      _source = source;
+    }
+
+    private final Object _source;
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K,V>>
+  {
+    @Override
+    public int size()
+    {
+      return _map.size();
+    }
+
+    @Override
+    public Iterator<Map.Entry<K,V>> iterator()
+    {
+      final Iterator<Map.Entry<K,Object>> it = _map.entrySet().iterator();
+      return new Iterator<Map.Entry<K,V>>()
+      {
+        private Map.Entry<K,Object> _current;
+
+        @Override
+        public boolean hasNext()
+        {
+          return it.hasNext();
+        }
+
+        @Override
+        public Map.Entry<K,V> next()
+        {
+          _current = it.next();
+          return new Entry(_current);
+        }
+
+        @Override
+        public void remove()
+        {
+          it.remove();
+          if (_current.getValue() instanceof Pending)
+          {
+            _numPending--;
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Entry that resolves its value when it is read.
+   */
+  private final class Entry implements Map.Entry<K,V>
+  {
+    private Entry(Map.Entry<K,Object> entry)
+    {
+      _entry = entry;
+    }
+
+    @Override
+    public K getKey()
+    {
+      return _entry.getKey();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getValue()
+    {
+      Object value = _entry.getValue();
+      if (value instanceof Pending)
+      {
+        V resolved = resolve(_entry.getKey(), ((Pending) value)._source);
+        _entry.setValue(resolved);
+        _numPending--;
+        return resolved;
+      }
+      return (V) value;
+    }
+
+    @Override
+    public V setValue(V value)
+    {
+      V previous = getValue();
+      _entry.setValue(value);
+      return previous;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      if (!(o instanceof Map.Entry))
+      {
+        return false;
+      }
+      Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+      Object value = getValue();
+      return (getKey() == null ? e.getKey() == null : getKey().equals(e.getKey()))
+          && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+    }
+
+    @Override
+    public int hashCode()
+    {
+      Object value = getValue();
+      return (getKey() == null ? 0 : getKey().hashCode()) ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override
+    public String toString()
+    {
+      return getKey() + "=" + getValue();
+    }
+
+    private final Map.Entry<K,Object> _entry;
+  }
+
+  private HashMap<K,Object> _map;
+  private int _numPending;
+}
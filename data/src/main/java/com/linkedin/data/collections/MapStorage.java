@@ -0,0 +1,95 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Underlying map implementation used by {@link CheckedMap} and {@link CowMap}.
+ * <p>
+ *
+ * The storage used when none is specified is {@link #HASH_MAP}, unless the
+ * {@value #PROPERTY} system property is set to the name of another storage, e.g.
+ * {@code -Dcom.linkedin.data.collections.mapStorage=COMPACT}. The property is read
+ * once, when this class is initialized.
+ *
+ * @see CompactHashMap
+ */
+public enum MapStorage
+{
+  /**
+   * {@link HashMap} storage.
+   */
+  HASH_MAP,
+
+  /**
+   * {@link CompactHashMap} storage, which stores keys and values interleaved in a
+   * single array. The load factor requested by constructors is ignored.
+   */
+  COMPACT;
+
+  /**
+   * Name of the system property that selects the default storage.
+   */
+  public static final String PROPERTY = "com.linkedin.data.collections.mapStorage";
+
+  private static final MapStorage DEFAULT = valueOf(System.getProperty(PROPERTY, HASH_MAP.name()));
+
+  /**
+   * Return the storage used when none is specified.
+   *
+   * @return the default storage.
+   */
+  public static MapStorage getDefault()
+  {
+    return DEFAULT;
+  }
+
+  <K,V> Map<K,V> newMap()
+  {
+    return this == COMPACT ? new CompactHashMap<K,V>() : new HashMap<K,V>();
+  }
+
+  <K,V> Map<K,V> newMap(int initialCapacity)
+  {
+    return this == COMPACT ? new CompactHashMap<K,V>(initialCapacity) : new HashMap<K,V>(initialCapacity);
+  }
+
+  <K,V> Map<K,V> newMap(int initialCapacity, float loadFactor)
+  {
+    return this == COMPACT ? new CompactHashMap<K,V>(initialCapacity) : new HashMap<K,V>(initialCapacity, loadFactor);
+  }
+
+  <K,V> Map<K,V> newMap(Map<? extends K,? extends V> map)
+  {
+    return this == COMPACT ? new CompactHashMap<K,V>(map) : new HashMap<K,V>(map);
+  }
+
+  /**
+   * Return a shallow copy of a map created by this storage.
+   */
+  @SuppressWarnings("unchecked")
+  static <K,V> Map<K,V> copy(Map<K,V> map)
+  {
+    if (map instanceof LazyMap)
+    {
+      return ((LazyMap<K,V>) map).clone();
+    }
+    return map instanceof CompactHashMap ? ((CompactHashMap<K,V>) map).clone() : (Map<K,V>) ((HashMap<K,V>) map).clone();
+  }
+}
@@ -19,6 +19,7 @@ package com.linkedin.data.collections;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 
 /**
  * Reference counting for copy-on-write functionality.
@@ -46,8 +47,21 @@ class RefCounted<T extends Cloneable> implements Cloneable
    * Constructor.
    */
   protected RefCounted(T object)
+  {
+    this(object, null);
+  }
+
+  /**
+   * Constructor with a function that copies the reference counted object.
+   *
+   * @param object provides the reference counted object.
+   * @param copier provides the function that copies the reference counted object
+   *               when it is un-shared, or null to invoke its clone method reflectively.
+   */
+  protected RefCounted(T object, UnaryOperator<T> copier)
   {
     _object = object;
+    _copier = copier;
     assert (object != null);
     assert (isSharable());
   }
@@ -120,6 +134,11 @@ class RefCounted<T extends Cloneable> implements Cloneable
 
     o._refCount = new AtomicInteger();
     assert (o.isSharable());
+    if (_copier != null)
+    {
+      o._object = _copier.apply(_object);
+      return o;
+    }
     Throwable exc = null;
     try
     {
@@ -238,4 +257,9 @@ class RefCounted<T extends Cloneable> implements Cloneable
    * The reference object.
    */
   protected T _object = null;
+
+  /**
+   * The function that copies the reference object, if any.
+   */
+  private final UnaryOperator<T> _copier;
 }
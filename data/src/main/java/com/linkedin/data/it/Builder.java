@@ -25,6 +25,7 @@ import com.linkedin.data.transforms.Transform;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -224,10 +225,23 @@ public class Builder
     return Transformer.replace(_element.getValue(), dataIterator(), value);
   }
 
+  /**
+   * Obtains a {@link DataIterator} that returns the Data objects that satisfy all the predicates.
+   * <p>
+   *
+   * The predicates are compiled, so that path patterns are matched incrementally as the Data objects are
+   * visited, and Data objects whose descendants cannot satisfy the path pattern and {@link DataSchema}
+   * predicates are not descended into.
+   *
+   * @return a {@link DataIterator}.
+   */
   public DataIterator dataIterator()
   {
-    DataIterator it = new ObjectIterator(_element, _order);
-    return _predicates.isEmpty() ? it : new FilterIterator(it, new AndPredicate(_predicates));
+    if (_predicates.isEmpty())
+    {
+      return new ObjectIterator(_element, _order);
+    }
+    return new CompiledIterator(_element, _order, compilePredicates());
   }
 
   public void iterate(Callback callback)
@@ -240,6 +254,29 @@ public class Builder
     }
   }
 
+  /**
+   * Invokes the callback on the Data objects that satisfy all the predicates, traversing the children of
+   * large {@link com.linkedin.data.DataList}s concurrently in the provided {@link ForkJoinPool}.
+   * <p>
+   *
+   * The callback may be invoked concurrently, and the Data objects are visited in the iteration order only
+   * within a range of the children of a large {@link com.linkedin.data.DataList}. The {@link DataElement}
+   * provided to the callback is valid until the callback returns. The Data objects must not be modified
+   * until this method returns.
+   *
+   * @param callback provides the callback, which must be thread-safe.
+   * @param pool provides the {@link ForkJoinPool} that the traversal runs in.
+   */
+  public void iterate(Callback callback, ForkJoinPool pool)
+  {
+    new ParallelTraversal(compilePredicates(), _order, callback).traverse(_element, pool);
+  }
+
+  private CompiledPredicate compilePredicates()
+  {
+    return CompiledPredicate.compile(new AndPredicate(_predicates), _element.getSchema());
+  }
+
   private List<Predicate> _predicates = new ArrayList<Predicate>();
   private DataElement _element;
   private IterationOrder _order;
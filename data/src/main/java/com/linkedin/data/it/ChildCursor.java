@@ -0,0 +1,190 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.element.DataElement;
+import com.linkedin.data.element.MutableDataElement;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.util.Iterator;
+import java.util.Map;
+
+
+/**
+ * Iterates the children of a {@link DataMap} or {@link DataList} for the traversals of a {@link Builder},
+ * computing the {@link DataSchema} of each child like {@link ObjectIterator} and its path automaton states.
+ * <p>
+ *
+ * A cursor is reused for every Data object visited at the same depth of a traversal, and returns
+ * the same {@link MutableDataElement} for every child of a Data object.
+ */
+final class ChildCursor
+{
+  ChildCursor(CompiledPredicate predicate)
+  {
+    _predicate = predicate;
+    _childStates = new long[predicate.stateCount()];
+  }
+
+  /**
+   * Start iterating the children of a Data object.
+   *
+   * @param element provides the {@link DataMap} or {@link DataList} whose children are iterated.
+   * @param states provides the path automaton states of the Data object.
+   */
+  void reset(DataElement element, long[] states)
+  {
+    Object value = element.getValue();
+    reset(element, states, 0, value instanceof DataList ? ((DataList) value).size() : 0);
+  }
+
+  /**
+   * Start iterating a range of the children of a Data object.
+   *
+   * @param element provides the {@link DataMap} or {@link DataList} whose children are iterated.
+   * @param states provides the path automaton states of the Data object.
+   * @param fromIndex provides the index of the first child to iterate if the Data object is a {@link DataList}.
+   * @param toIndex provides the index after the last child to iterate if the Data object is a {@link DataList}.
+   */
+  void reset(DataElement element, long[] states, int fromIndex, int toIndex)
+  {
+    _element = element;
+    _states = states;
+    _child = new MutableDataElement(element);
+    DataSchema schema = element.getSchema();
+    _schema = schema == null ? null : schema.getDereferencedDataSchema();
+    Object value = element.getValue();
+    if (value instanceof DataMap)
+    {
+      _entries = ((DataMap) value).entrySet().iterator();
+      _list = null;
+    }
+    else
+    {
+      _entries = null;
+      _list = (DataList) value;
+      _index = fromIndex;
+      _toIndex = toIndex;
+      if (_schema != null && _schema.getType() != DataSchema.Type.ARRAY)
+      {
+        _schema = null;
+      }
+    }
+  }
+
+  /**
+   * Advance to the next child.
+   *
+   * @return false if there are no more children.
+   */
+  boolean next()
+  {
+    Object name;
+    Object value;
+    DataSchema schema;
+    if (_entries != null)
+    {
+      if (_entries.hasNext() == false)
+      {
+        return false;
+      }
+      Map.Entry<String, Object> entry = _entries.next();
+      name = entry.getKey();
+      value = entry.getValue();
+      schema = _schema == null ? null : mapChildSchema(entry.getKey());
+    }
+    else
+    {
+      if (_index >= _toIndex)
+      {
+        return false;
+      }
+      name = _index;
+      value = _list.get(_index);
+      schema = _schema == null ? null : ((ArrayDataSchema) _schema).getItems();
+      _index++;
+    }
+    _child.setValueNameSchema(value, name, schema);
+    _predicate.childStates(_states, name, _childStates);
+    return true;
+  }
+
+  private DataSchema mapChildSchema(String key)
+  {
+    switch (_schema.getType())
+    {
+      case RECORD:
+        RecordDataSchema.Field field = ((RecordDataSchema) _schema).getField(key);
+        return field == null ? null : field.getType();
+      case UNION:
+        return ((UnionDataSchema) _schema).getTypeByMemberKey(key);
+      case MAP:
+        return ((MapDataSchema) _schema).getValues();
+      default:
+        throw new IllegalStateException("Unknown dereferenced type " + _schema.getType() + " for DataMap's schema " + _element.getSchema());
+    }
+  }
+
+  /**
+   * @return the Data object whose children are iterated.
+   */
+  DataElement element()
+  {
+    return _element;
+  }
+
+  /**
+   * @return the path automaton states of the Data object whose children are iterated.
+   */
+  long[] states()
+  {
+    return _states;
+  }
+
+  /**
+   * @return the current child, valid until {@link #next()} is called again.
+   */
+  DataElement child()
+  {
+    return _child;
+  }
+
+  /**
+   * @return the path automaton states of the current child, valid until {@link #next()} is called again.
+   */
+  long[] childStates()
+  {
+    return _childStates;
+  }
+
+  private final CompiledPredicate _predicate;
+  private final long[] _childStates;
+  private DataElement _element;
+  private long[] _states;
+  private MutableDataElement _child;
+  private DataSchema _schema;
+  private Iterator<Map.Entry<String, Object>> _entries;
+  private DataList _list;
+  private int _index;
+  private int _toIndex;
+}
@@ -0,0 +1,162 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.element.DataElement;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A {@link DataIterator} that returns the Data objects that satisfy a {@link CompiledPredicate}.
+ * <p>
+ *
+ * It returns the same {@link DataElement}s in the same order as a {@link FilterIterator} over an
+ * {@link ObjectIterator}, but it does not descend into Data objects without possibly matching descendants,
+ * and it computes the path automaton states of each Data object from the states of its parent.
+ */
+final class CompiledIterator implements DataIterator
+{
+  CompiledIterator(DataElement element, IterationOrder order, CompiledPredicate predicate)
+  {
+    _startElement = element;
+    _preOrder = order == IterationOrder.PRE_ORDER;
+    _predicate = predicate;
+  }
+
+  @Override
+  public DataElement next()
+  {
+    DataElement element;
+    while ((element = (_preOrder ? preOrderNext() : postOrderNext())) != null)
+    {
+      if (_predicate.evaluate(element, _currentStates))
+      {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void skipToSibling()
+  {
+    if (_preOrder)
+    {
+      _current = null;
+    }
+  }
+
+  private DataElement preOrderNext()
+  {
+    if (_first)
+    {
+      _first = false;
+      _current = _startElement;
+      _currentStates = _predicate.states(_startElement);
+      return _current;
+    }
+    if (_current != null && isComplex(_current) && _predicate.mayMatchDescendants(_current, _currentStates))
+    {
+      push(_current, _currentStates);
+    }
+    _current = null;
+    while (_depth > 0)
+    {
+      ChildCursor cursor = _cursors.get(_depth - 1);
+      if (cursor.next())
+      {
+        _current = cursor.child();
+        _currentStates = cursor.childStates();
+        break;
+      }
+      _depth--;
+    }
+    return _current;
+  }
+
+  private DataElement postOrderNext()
+  {
+    if (_first)
+    {
+      _first = false;
+      return descend(_startElement, _predicate.states(_startElement));
+    }
+    if (_depth == 0)
+    {
+      return null;
+    }
+    ChildCursor cursor = _cursors.get(_depth - 1);
+    if (cursor.next())
+    {
+      return descend(cursor.child(), cursor.childStates());
+    }
+    _depth--;
+    _currentStates = cursor.states();
+    return cursor.element();
+  }
+
+  /**
+   * Descend to the first Data object in post-order of the subtree of the provided Data object.
+   */
+  private DataElement descend(DataElement element, long[] states)
+  {
+    while (isComplex(element) && _predicate.mayMatchDescendants(element, states))
+    {
+      ChildCursor cursor = push(element, states);
+      if (cursor.next() == false)
+      {
+        _depth--;
+        break;
+      }
+      element = cursor.child();
+      states = cursor.childStates();
+    }
+    _currentStates = states;
+    return element;
+  }
+
+  private ChildCursor push(DataElement element, long[] states)
+  {
+    if (_depth == _cursors.size())
+    {
+      _cursors.add(new ChildCursor(_predicate));
+    }
+    ChildCursor cursor = _cursors.get(_depth++);
+    cursor.reset(element, states);
+    return cursor;
+  }
+
+  private static boolean isComplex(DataElement element)
+  {
+    Object value = element.getValue();
+    return value instanceof DataMap || value instanceof DataList;
+  }
+
+  private final DataElement _startElement;
+  private final boolean _preOrder;
+  private final CompiledPredicate _predicate;
+  private final List<ChildCursor> _cursors = new ArrayList<ChildCursor>();
+
+  private int _depth = 0;
+  private boolean _first = true;
+  private DataElement _current = null;
+  private long[] _currentStates = null;
+}
@@ -0,0 +1,305 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+
+import com.linkedin.data.element.DataElement;
+import com.linkedin.data.element.SimpleDataElement;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A {@link Predicate} compiled for the traversals of a {@link Builder}.
+ * <p>
+ *
+ * The predicate is split into its conjuncts. {@link PathMatchesPatternPredicate} conjuncts are evaluated
+ * with their {@link PathPatternAutomaton}, whose states are kept by the traversal for every Data object.
+ * {@link DataSchemaNameEqualsPredicate} and {@link DataSchemaTypeEqualsPredicate} conjuncts are evaluated as is,
+ * and are also evaluated on every {@link DataSchema} reachable from the {@link DataSchema} of the start Data object,
+ * to find the {@link DataSchema}s whose Data objects cannot have a matching descendant.
+ * <p>
+ *
+ * Subtrees are skipped when no descendant can match all of the path and schema conjuncts.
+ * Skipping only removes Data objects that the predicate would reject, so a traversal returns the same
+ * Data objects in the same order as filtering every Data object. A compiled predicate is immutable and
+ * may be shared by concurrent traversals.
+ */
+final class CompiledPredicate
+{
+  /**
+   * Compile a predicate.
+   *
+   * @param predicate provides the predicate to compile.
+   * @param schema provides the {@link DataSchema} of the start Data object, it may be null.
+   * @return the compiled predicate.
+   */
+  static CompiledPredicate compile(Predicate predicate, DataSchema schema)
+  {
+    List<Predicate> conjuncts = new ArrayList<Predicate>();
+    addConjuncts(predicate, conjuncts);
+
+    List<PathPatternAutomaton> automata = new ArrayList<PathPatternAutomaton>();
+    List<Predicate> schemaConjuncts = new ArrayList<Predicate>();
+    List<Predicate> remaining = new ArrayList<Predicate>();
+    for (Predicate conjunct : conjuncts)
+    {
+      PathPatternAutomaton automaton =
+        conjunct instanceof PathMatchesPatternPredicate ? ((PathMatchesPatternPredicate) conjunct).getAutomaton() : null;
+      if (automaton != null)
+      {
+        automata.add(automaton);
+        continue;
+      }
+      if (conjunct instanceof DataSchemaNameEqualsPredicate || conjunct instanceof DataSchemaTypeEqualsPredicate)
+      {
+        schemaConjuncts.add(conjunct);
+      }
+      remaining.add(conjunct);
+    }
+
+    return new CompiledPredicate(automata.toArray(new PathPatternAutomaton[automata.size()]),
+                                 remaining.toArray(new Predicate[remaining.size()]),
+                                 schemaConjuncts.isEmpty() ? null : matchingDescendants(schema, schemaConjuncts));
+  }
+
+  private static void addConjuncts(Predicate predicate, List<Predicate> conjuncts)
+  {
+    if (predicate instanceof AndPredicate)
+    {
+      for (Predicate child : ((AndPredicate) predicate)._predicates)
+      {
+        addConjuncts(child, conjuncts);
+      }
+    }
+    else
+    {
+      conjuncts.add(predicate);
+    }
+  }
+
+  /**
+   * Compute whether a Data object of each {@link DataSchema} reachable from the provided {@link DataSchema}
+   * may have a descendant whose {@link DataSchema} satisfies all the provided conjuncts.
+   */
+  private static Map<DataSchema, Boolean> matchingDescendants(DataSchema schema, List<Predicate> schemaConjuncts)
+  {
+    if (schema == null)
+    {
+      return Collections.emptyMap();
+    }
+
+    Map<DataSchema, List<DataSchema>> children = new IdentityHashMap<DataSchema, List<DataSchema>>();
+    List<DataSchema> pending = new ArrayList<DataSchema>();
+    pending.add(schema);
+    while (pending.isEmpty() == false)
+    {
+      DataSchema current = pending.remove(pending.size() - 1);
+      if (children.containsKey(current) == false)
+      {
+        List<DataSchema> currentChildren = childSchemas(current);
+        children.put(current, currentChildren);
+        pending.addAll(currentChildren);
+      }
+    }
+
+    Map<DataSchema, Boolean> matches = new IdentityHashMap<DataSchema, Boolean>();
+    Map<DataSchema, Boolean> result = new IdentityHashMap<DataSchema, Boolean>();
+    for (DataSchema current : children.keySet())
+    {
+      matches.put(current, evaluate(schemaConjuncts, current));
+      result.put(current, Boolean.FALSE);
+    }
+
+    // Propagate from the children until nothing changes, the schemas may be recursive.
+    boolean changed = true;
+    while (changed)
+    {
+      changed = false;
+      for (Map.Entry<DataSchema, List<DataSchema>> entry : children.entrySet())
+      {
+        if (result.get(entry.getKey()))
+        {
+          continue;
+        }
+        for (DataSchema child : entry.getValue())
+        {
+          if (matches.get(child) || result.get(child))
+          {
+            result.put(entry.getKey(), Boolean.TRUE);
+            changed = true;
+            break;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @return the {@link DataSchema}s that {@link ObjectIterator} provides to the children of a Data object
+   *         of the provided {@link DataSchema}.
+   */
+  private static List<DataSchema> childSchemas(DataSchema schema)
+  {
+    DataSchema dereferencedSchema = schema.getDereferencedDataSchema();
+    List<DataSchema> childSchemas = new ArrayList<DataSchema>();
+    switch (dereferencedSchema.getType())
+    {
+      case RECORD:
+        for (RecordDataSchema.Field field : ((RecordDataSchema) dereferencedSchema).getFields())
+        {
+          childSchemas.add(field.getType());
+        }
+        break;
+      case UNION:
+        for (UnionDataSchema.Member member : ((UnionDataSchema) dereferencedSchema).getMembers())
+        {
+          childSchemas.add(member.getType());
+        }
+        break;
+      case MAP:
+        childSchemas.add(((MapDataSchema) dereferencedSchema).getValues());
+        break;
+      case ARRAY:
+        childSchemas.add(((ArrayDataSchema) dereferencedSchema).getItems());
+        break;
+      default:
+        break;
+    }
+    return childSchemas;
+  }
+
+  private static boolean evaluate(List<Predicate> schemaConjuncts, DataSchema schema)
+  {
+    DataElement element = new SimpleDataElement(null, schema);
+    for (Predicate conjunct : schemaConjuncts)
+    {
+      if (conjunct.evaluate(element) == false)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private CompiledPredicate(PathPatternAutomaton[] automata,
+                            Predicate[] predicates,
+                            Map<DataSchema, Boolean> matchingDescendants)
+  {
+    _automata = automata;
+    _predicates = predicates;
+    _matchingDescendants = matchingDescendants;
+  }
+
+  /**
+   * @return the number of path automaton states kept for each Data object.
+   */
+  int stateCount()
+  {
+    return _automata.length;
+  }
+
+  /**
+   * Compute the path automaton states of a Data object from its ancestors.
+   */
+  long[] states(DataElement element)
+  {
+    long[] states = new long[_automata.length];
+    for (int i = 0; i < _automata.length; i++)
+    {
+      states[i] = _automata[i].states(element);
+    }
+    return states;
+  }
+
+  /**
+   * Compute the path automaton states of a child with the provided name.
+   *
+   * @param parentStates provides the states of the parent Data object.
+   * @param name provides the name of the child Data object.
+   * @param states is filled with the states of the child Data object.
+   */
+  void childStates(long[] parentStates, Object name, long[] states)
+  {
+    for (int i = 0; i < _automata.length; i++)
+    {
+      states[i] = _automata[i].step(parentStates[i], name);
+    }
+  }
+
+  /**
+   * @return whether the predicate is true for the Data object with the provided path automaton states.
+   */
+  boolean evaluate(DataElement element, long[] states)
+  {
+    for (int i = 0; i < _automata.length; i++)
+    {
+      if (_automata[i].accepts(states[i]) == false)
+      {
+        return false;
+      }
+    }
+    for (Predicate predicate : _predicates)
+    {
+      if (predicate.evaluate(element) == false)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return whether the predicate may be true for a descendant of the Data object with the provided
+   *         path automaton states.
+   */
+  boolean mayMatchDescendants(DataElement element, long[] states)
+  {
+    for (int i = 0; i < _automata.length; i++)
+    {
+      if (_automata[i].acceptsDescendants(states[i]) == false)
+      {
+        return false;
+      }
+    }
+    if (_matchingDescendants != null)
+    {
+      DataSchema schema = element.getSchema();
+      if (schema == null)
+      {
+        // The descendants of a Data object without a schema do not have schemas either.
+        return false;
+      }
+      Boolean matching = _matchingDescendants.get(schema);
+      return matching == null || matching;
+    }
+    return true;
+  }
+
+  private final PathPatternAutomaton[] _automata;
+  private final Predicate[] _predicates;
+  private final Map<DataSchema, Boolean> _matchingDescendants;
+}
@@ -0,0 +1,167 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.element.DataElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Traverses the Data objects that satisfy a {@link CompiledPredicate} like {@link CompiledIterator},
+ * splitting the children of large {@link DataList}s into ranges that are traversed by tasks of a {@link ForkJoinPool}.
+ * <p>
+ *
+ * Within a task, the callback is invoked in the provided {@link IterationOrder}. The callbacks of different ranges
+ * run concurrently and in no particular order. The Data objects must not be modified during the traversal.
+ */
+final class ParallelTraversal
+{
+  /**
+   * The number of children of a {@link DataList} above which they are split between tasks,
+   * and the maximum number of children traversed by a task.
+   */
+  static final int SPLIT_THRESHOLD = 256;
+
+  ParallelTraversal(CompiledPredicate predicate, IterationOrder order, Builder.Callback callback)
+  {
+    _predicate = predicate;
+    _preOrder = order == IterationOrder.PRE_ORDER;
+    _callback = callback;
+  }
+
+  void traverse(DataElement element, ForkJoinPool pool)
+  {
+    pool.invoke(new RootTask(element));
+  }
+
+  /**
+   * Traverse the subtree of a Data object.
+   *
+   * @param cursors provides the cursors of the current task, reused for the Data objects at the same depth.
+   * @param depth provides the depth of the Data object in the current task.
+   */
+  private void traverse(DataElement element, long[] states, List<ChildCursor> cursors, int depth)
+  {
+    boolean matches = _predicate.evaluate(element, states);
+    if (matches && _preOrder)
+    {
+      _callback.callback(element);
+    }
+
+    Object value = element.getValue();
+    if ((value instanceof DataMap || value instanceof DataList) && _predicate.mayMatchDescendants(element, states))
+    {
+      if (value instanceof DataList && ((DataList) value).size() > SPLIT_THRESHOLD)
+      {
+        new RangeTask(element, states, 0, ((DataList) value).size()).compute();
+      }
+      else
+      {
+        ChildCursor cursor = cursor(cursors, depth);
+        cursor.reset(element, states);
+        while (cursor.next())
+        {
+          traverse(cursor.child(), cursor.childStates(), cursors, depth + 1);
+        }
+      }
+    }
+
+    if (matches && _preOrder == false)
+    {
+      _callback.callback(element);
+    }
+  }
+
+  private ChildCursor cursor(List<ChildCursor> cursors, int depth)
+  {
+    if (depth == cursors.size())
+    {
+      cursors.add(new ChildCursor(_predicate));
+    }
+    return cursors.get(depth);
+  }
+
+  private final class RootTask extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private RootTask(DataElement element)
+    {
+      _element = element;
+    }
+
+    @Override
+    protected void compute()
+    {
+      traverse(_element, _predicate.states(_element), new ArrayList<ChildCursor>(), 0);
+    }
+
+    private final DataElement _element;
+  }
+
+  /**
+   * Traverses a range of the children of a {@link DataList}, splitting it in halves until
+   * the ranges are not larger than {@link #SPLIT_THRESHOLD}.
+   */
+  private final class RangeTask extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private RangeTask(DataElement element, long[] states, int fromIndex, int toIndex)
+    {
+      _element = element;
+      _states = states;
+      _fromIndex = fromIndex;
+      _toIndex = toIndex;
+    }
+
+    @Override
+    protected void compute()
+    {
+      if (_toIndex - _fromIndex > SPLIT_THRESHOLD)
+      {
+        int middle = (_fromIndex + _toIndex) >>> 1;
+        invokeAll(new RangeTask(_element, _states, _fromIndex, middle), new RangeTask(_element, _states, middle, _toIndex));
+      }
+      else
+      {
+        List<ChildCursor> cursors = new ArrayList<ChildCursor>();
+        ChildCursor cursor = cursor(cursors, 0);
+        cursor.reset(_element, _states, _fromIndex, _toIndex);
+        while (cursor.next())
+        {
+          traverse(cursor.child(), cursor.childStates(), cursors, 1);
+        }
+      }
+    }
+
+    private final DataElement _element;
+    private final long[] _states;
+    private final int _fromIndex;
+    private final int _toIndex;
+  }
+
+  private final CompiledPredicate _predicate;
+  private final boolean _preOrder;
+  private final Builder.Callback _callback;
+}
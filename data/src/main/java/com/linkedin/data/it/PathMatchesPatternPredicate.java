@@ -96,6 +96,7 @@ public class PathMatchesPatternPredicate implements Predicate
   {
     _patterns = patterns;
     generateComponentMatches();
+    _automaton = PathPatternAutomaton.compile(patterns);
   }
   
   public PathMatchesPatternPredicate(PathSpec pathSpec) throws IllegalArgumentException
@@ -128,6 +129,14 @@ public class PathMatchesPatternPredicate implements Predicate
     return pass(element, 0);
   }
 
+  /**
+   * @return the compiled pattern used by {@link Builder} traversals, or null if the pattern cannot be compiled.
+   */
+  PathPatternAutomaton getAutomaton()
+  {
+    return _automaton;
+  }
+
   private boolean pass(DataElement element, int i)
   {
     boolean pass = true;
@@ -315,6 +324,7 @@ public class PathMatchesPatternPredicate implements Predicate
 
   private final Object[] _patterns;
   private final List<Match> _matches = new ArrayList<Match>();
+  private final PathPatternAutomaton _automaton;
 
   /**
    * A {@link Match} holds either a name that represents an exact match of a path component or
@@ -0,0 +1,166 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+
+import com.linkedin.data.element.DataElement;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Non-deterministic automaton that matches the path of a Data object against the pattern
+ * of a {@link PathMatchesPatternPredicate} one path component at a time.
+ * <p>
+ *
+ * State {@code i} means that the first {@code i} components of the expanded pattern have been matched.
+ * A set of states is a bit mask, so that a traversal can keep the states of each Data object it visits
+ * and compute the states of a child from the states of its parent, instead of walking the ancestors of
+ * every Data object.
+ */
+final class PathPatternAutomaton
+{
+  /**
+   * The maximum number of expanded pattern components, so that the states fit in a {@code long}.
+   */
+  private static final int MAX_COMPONENTS = Long.SIZE - 1;
+
+  private static final Object ANY = new Object();
+  private static final Object OPTIONAL = new Object();
+  private static final Object REPEATED = new Object();
+
+  /**
+   * Compile the pattern components of a {@link PathMatchesPatternPredicate}.
+   *
+   * @param patterns provides the pattern components, which have been validated by the predicate.
+   * @return the automaton, or null if the pattern has too many components.
+   */
+  static PathPatternAutomaton compile(Object[] patterns)
+  {
+    List<Object> components = new ArrayList<Object>(patterns.length);
+    for (Object pattern : patterns)
+    {
+      if (pattern instanceof Wildcard)
+      {
+        switch ((Wildcard) pattern)
+        {
+          case ANY_ONE:
+            components.add(ANY);
+            break;
+          case ANY_ZERO_OR_ONE:
+            components.add(OPTIONAL);
+            break;
+          case ANY_ZERO_OR_MORE:
+            components.add(REPEATED);
+            break;
+          case ANY_ONE_OR_MORE:
+            components.add(ANY);
+            components.add(REPEATED);
+            break;
+        }
+      }
+      else
+      {
+        components.add(pattern);
+      }
+    }
+    return components.size() > MAX_COMPONENTS ? null : new PathPatternAutomaton(components.toArray());
+  }
+
+  private PathPatternAutomaton(Object[] components)
+  {
+    _components = components;
+    _accept = 1L << components.length;
+    _start = closure(1L);
+  }
+
+  /**
+   * @return the states of a Data object without a parent.
+   */
+  long start()
+  {
+    return _start;
+  }
+
+  /**
+   * @return the states of the provided Data object, computed from its ancestors.
+   */
+  long states(DataElement element)
+  {
+    DataElement parent = element.getParent();
+    return parent == null ? _start : step(states(parent), element.getName());
+  }
+
+  /**
+   * @return the states of a child with the provided name of a Data object with the provided states.
+   */
+  long step(long states, Object name)
+  {
+    long next = 0L;
+    long remaining = states & ~_accept;
+    while (remaining != 0L)
+    {
+      int i = Long.numberOfTrailingZeros(remaining);
+      remaining &= remaining - 1;
+      Object component = _components[i];
+      if (component == REPEATED)
+      {
+        next |= 1L << i;
+      }
+      else if (component == ANY || component == OPTIONAL || component.equals(name))
+      {
+        next |= 1L << (i + 1);
+      }
+    }
+    return closure(next);
+  }
+
+  /**
+   * @return whether a Data object with the provided states matches the pattern.
+   */
+  boolean accepts(long states)
+  {
+    return (states & _accept) != 0L;
+  }
+
+  /**
+   * @return whether a descendant of a Data object with the provided states may match the pattern.
+   */
+  boolean acceptsDescendants(long states)
+  {
+    return (states & ~_accept) != 0L;
+  }
+
+  /**
+   * Add the states that can be reached without matching a path component.
+   */
+  private long closure(long states)
+  {
+    for (int i = 0; i < _components.length; i++)
+    {
+      if ((states & (1L << i)) != 0L && (_components[i] == OPTIONAL || _components[i] == REPEATED))
+      {
+        states |= 1L << (i + 1);
+      }
+    }
+    return states;
+  }
+
+  private final Object[] _components;
+  private final long _accept;
+  private final long _start;
+}
@@ -25,6 +25,8 @@ import com.linkedin.data.schema.Name;
 import com.linkedin.data.schema.NamedDataSchema;
 import com.linkedin.data.schema.PegasusSchemaParser;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileDescriptor;
 import java.io.FileOutputStream;
 import java.io.FilterInputStream;
@@ -184,6 +186,16 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
     _dependencyResolver = this;
   }
 
+  /**
+   * Set the cache of parsed schema files used by this resolver.
+   *
+   * @param schemaCache provides the cache, or null to parse every file.
+   */
+  public void setSchemaCache(PersistentDataSchemaCache schemaCache)
+  {
+    _schemaCache = schemaCache;
+  }
+
   protected boolean isBadLocation(DataSchemaLocation location)
   {
     return _badLocations.contains(location);
@@ -320,6 +332,11 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
   /**
    * Read an {@link InputStream} and parse the {@link InputStream} looking for the
    * specified name.
+   * <p>
+   *
+   * If the resolver has a {@link PersistentDataSchemaCache}, the schemas are parsed from
+   * the entry for the content of the {@link InputStream} when there is one, and an entry
+   * is added otherwise.
    *
    * @param inputStream to parse.
    * @param location of the input source.
@@ -329,20 +346,39 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
    */
   protected NamedDataSchema parse(InputStream inputStream, final DataSchemaLocation location, String name, StringBuilder errorMessageBuilder)
   {
-    NamedDataSchema schema = null;
-
-    PegasusSchemaParser parser = _parserFactory.create(_dependencyResolver);
-    parser.setLocation(location);
-
-    parser.parse(new FilterInputStream(inputStream)
+    PegasusSchemaParser parser;
+    if (_schemaCache == null)
     {
-      @Override
-      public String toString()
+      parser = parseSource(inputStream, location);
+    }
+    else
+    {
+      byte[] source;
+      try
       {
-        return location.toString();
+        source = readSource(inputStream);
+      }
+      catch (IOException e)
+      {
+        errorMessageBuilder.append("Error reading ").append(location).append(" for \"").append(name).append("\": ")
+          .append(e.getMessage()).append(".\n");
+        _badLocations.add(location);
+        return null;
       }
-    });
 
+      byte[] key = PersistentDataSchemaCache.key(_parserFactory.getLanguageExtension(), source);
+      parser = _schemaCache.parse(key, _dependencyResolver, location);
+      if (parser == null)
+      {
+        parser = parseSource(new ByteArrayInputStream(source), location);
+        if (!parser.hasError())
+        {
+          _schemaCache.put(key, parser.topLevelDataSchemas(), location, _nameToDataSchemaLocations);
+        }
+      }
+    }
+
+    NamedDataSchema schema = null;
     if (parser.hasError())
     {
       errorMessageBuilder.append("Error parsing ").append(location).append(" for \"").append(name).append("\".\n");
@@ -363,11 +399,40 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
     return schema;
   }
 
+  private PegasusSchemaParser parseSource(InputStream inputStream, final DataSchemaLocation location)
+  {
+    PegasusSchemaParser parser = _parserFactory.create(_dependencyResolver);
+    parser.setLocation(location);
+
+    parser.parse(new FilterInputStream(inputStream)
+    {
+      @Override
+      public String toString()
+      {
+        return location.toString();
+      }
+    });
+    return parser;
+  }
+
+  private static byte[] readSource(InputStream inputStream) throws IOException
+  {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    int read;
+    while ((read = inputStream.read(buffer)) >= 0)
+    {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
   private final Map<String, NamedDataSchema> _nameToDataSchema = new HashMap<String, NamedDataSchema>();
   private final Map<String, DataSchemaLocation> _nameToDataSchemaLocations = new HashMap<String, DataSchemaLocation>();
   private final DataSchemaParserFactory _parserFactory;
   private final Set<DataSchemaLocation> _badLocations = new HashSet<DataSchemaLocation>();
   private final Set<DataSchemaLocation> _resolvedLocations = new HashSet<DataSchemaLocation>();
+  private PersistentDataSchemaCache _schemaCache = PersistentDataSchemaCache.getDefault();
   // Map of pending records with the boolean flag indicating if includes are being processed for that schema.
   private final LinkedHashMap<String, Boolean> _pendingSchemas = new LinkedHashMap<>();
 
@@ -26,6 +26,7 @@ import com.linkedin.data.schema.SchemaParserFactory;
 import com.linkedin.data.schema.grammar.PdlSchemaParser;
 import com.linkedin.data.schema.grammar.PdlSchemaParserFactory;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -49,6 +50,9 @@ public class MultiFormatDataSchemaResolver implements DataSchemaResolver
   };
 
   private final List<DataSchemaResolver> resolvers;
+  // Every name is bound through this resolver, so these are the union of the bindings of the resolvers.
+  private final Map<String, NamedDataSchema> _bindings = new HashMap<>();
+  private final Map<String, DataSchemaLocation> _nameToDataSchemaLocations = new HashMap<>();
 
   public static List<DataSchemaParserFactory> BUILTIN_FORMAT_PARSER_FACTORIES;
   static {
@@ -86,26 +90,29 @@ public class MultiFormatDataSchemaResolver implements DataSchemaResolver
     }
   }
 
-  @Override
-  public Map<String, NamedDataSchema> bindings()
+  /**
+   * Set the cache of parsed schema files used by the resolvers of every file format.
+   *
+   * @param schemaCache provides the cache, or null to parse every file.
+   */
+  public void setSchemaCache(PersistentDataSchemaCache schemaCache)
   {
-    Map<String, NamedDataSchema> results = new HashMap<>();
     for (DataSchemaResolver resolver: resolvers)
     {
-      results.putAll(resolver.bindings());
+      ((AbstractDataSchemaResolver) resolver).setSchemaCache(schemaCache);
     }
-    return results;
+  }
+
+  @Override
+  public Map<String, NamedDataSchema> bindings()
+  {
+    return Collections.unmodifiableMap(_bindings);
   }
 
   @Override
   public Map<String, DataSchemaLocation> nameToDataSchemaLocations()
   {
-    Map<String, DataSchemaLocation> results = new HashMap<>();
-    for (DataSchemaResolver resolver: resolvers)
-    {
-      results.putAll(resolver.nameToDataSchemaLocations());
-    }
-    return results;
+    return Collections.unmodifiableMap(_nameToDataSchemaLocations);
   }
 
   @Override
@@ -129,7 +136,8 @@ public class MultiFormatDataSchemaResolver implements DataSchemaResolver
     {
       resolver.bindNameToSchema(name, schema, location);
     }
-
+    _bindings.put(name.getFullName(), schema);
+    _nameToDataSchemaLocations.put(name.getFullName(), location);
   }
 
   @Override
@@ -0,0 +1,480 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.resolver;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.DataLocation;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.schema.AbstractSchemaEncoder.TypeReferenceFormat;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.DataSchemaConstants;
+import com.linkedin.data.schema.DataSchemaLocation;
+import com.linkedin.data.schema.DataSchemaResolver;
+import com.linkedin.data.schema.JsonBuilder;
+import com.linkedin.data.schema.NamedDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.SchemaParser;
+import com.linkedin.data.schema.SchemaToJsonEncoder;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+
+/**
+ * Cache of parsed schema files that persists across processes in a file.
+ * <p>
+ *
+ * An entry is keyed by a SHA-256 digest of the file extension and content of a schema file. It holds the
+ * schemas defined by the file in their JSON representation, with the schemas defined by other files
+ * referenced by name, encoded as PSON. When an {@link AbstractDataSchemaResolver} finds an entry for a
+ * file it locates, it parses the entry with a {@link SchemaParser}, which resolves the referenced schemas
+ * as usual and binds the schemas to the location of the file, instead of parsing the file. This mostly
+ * saves the cost of parsing .pdl files, and of parsing JSON text for .pdsc files.
+ * <p>
+ *
+ * The cache file is memory-mapped when it is opened, and its entries are indexed on the first lookup and
+ * decoded when they are found. New entries are appended to the file as soon as they are added, so that
+ * processes sharing the file find them the next time they open it. The file is locked while it is checked and
+ * initialized, and while an entry is appended, so that concurrent processes such as parallel build workers do
+ * not reset the file or interleave entries while another one writes. Entries that fail their checksum, such
+ * as entries partially written by a process that was killed, are ignored. Entries are never removed, so the
+ * file may be deleted at any time to reset the cache.
+ * <p>
+ *
+ * Every resolver uses the cache of the file named by the {@value #PROPERTY} system property
+ * unless {@link AbstractDataSchemaResolver#setSchemaCache(PersistentDataSchemaCache)} is called.
+ * <p>
+ *
+ * This class is thread-safe.
+ */
+public class PersistentDataSchemaCache implements Closeable
+{
+  /**
+   * Name of the system property that provides the file of the cache used by default, which is opened
+   * once per process, when the first resolver is created.
+   */
+  public static final String PROPERTY = "com.linkedin.data.schema.resolver.schemaCache";
+
+  // "PDSC" followed by the version of the format, which must change when the encoding of entries does.
+  private static final long MAGIC = 0x5044534300000001L;
+  private static final int HEADER_SIZE = 8;
+  private static final int KEY_SIZE = 32;
+  // key, length and CRC-32 of the value
+  private static final int ENTRY_HEADER_SIZE = KEY_SIZE + 8;
+
+  // The order of the fields and include of a record cannot be inferred from a DataMap.
+  private static final String FIELDS_BEFORE_INCLUDES_KEY = "__fieldsBeforeIncludes";
+  private static final DataLocation FIRST = new Order(0);
+  private static final DataLocation SECOND = new Order(1);
+
+  private static final PsonDataCodec PSON_CODEC = new PsonDataCodec();
+  private static final JacksonDataCodec JSON_CODEC = new JacksonDataCodec();
+
+  private static final PersistentDataSchemaCache DEFAULT = openDefault();
+
+  private final FileChannel _appendChannel;
+  private final ByteBuffer _mapped;
+  private Map<ByteBuffer, ByteBuffer> _index;
+
+  private PersistentDataSchemaCache(FileChannel appendChannel, ByteBuffer mapped)
+  {
+    _appendChannel = appendChannel;
+    _mapped = mapped;
+  }
+
+  /**
+   * Open the cache persisted in the specified file, creating the file if it does not exist.
+   * <p>
+   *
+   * The file is reset if it is not a cache file of the current format.
+   *
+   * @param file provides the file of the cache.
+   * @return the cache.
+   * @throws IOException if the file cannot be opened.
+   */
+  public static PersistentDataSchemaCache open(File file) throws IOException
+  {
+    FileChannel appendChannel = FileChannel.open(file.toPath(),
+                                                 StandardOpenOption.CREATE,
+                                                 StandardOpenOption.WRITE,
+                                                 StandardOpenOption.APPEND);
+    try
+    {
+      ByteBuffer mapped = null;
+      // Locks are held by the JVM, so threads of this process are excluded before the file is locked.
+      synchronized (PersistentDataSchemaCache.class)
+      {
+        FileLock lock = appendChannel.lock();
+        try (FileChannel readChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+          long size = readChannel.size();
+          if (size >= HEADER_SIZE && size <= Integer.MAX_VALUE)
+          {
+            mapped = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getLong(0) != MAGIC)
+            {
+              mapped = null;
+            }
+          }
+          if (mapped == null)
+          {
+            appendChannel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putLong(MAGIC).flip();
+            appendChannel.write(header);
+            mapped = ByteBuffer.allocate(0);
+          }
+        }
+        finally
+        {
+          lock.release();
+        }
+      }
+      return new PersistentDataSchemaCache(appendChannel, mapped);
+    }
+    catch (IOException | RuntimeException e)
+    {
+      appendChannel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Return the cache used by resolvers by default.
+   *
+   * @return the cache of the file named by the {@value #PROPERTY} system property, or null if the property
+   *         is not set or the file cannot be opened.
+   */
+  public static PersistentDataSchemaCache getDefault()
+  {
+    return DEFAULT;
+  }
+
+  private static PersistentDataSchemaCache openDefault()
+  {
+    String path = System.getProperty(PROPERTY);
+    if (path == null)
+    {
+      return null;
+    }
+    try
+    {
+      return open(new File(path));
+    }
+    catch (IOException e)
+    {
+      // The cache only saves time, resolvers parse every file without it.
+      return null;
+    }
+  }
+
+  /**
+   * Return the key of the entry for a schema file.
+   *
+   * @param extension provides the extension of the file, which identifies its format.
+   * @param source provides the content of the file.
+   * @return the key.
+   */
+  static byte[] key(String extension, byte[] source)
+  {
+    try
+    {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(extension.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      return digest.digest(source);
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Parse the schemas of the entry with the specified key, if there is one.
+   *
+   * @param key provides the key of the entry.
+   * @param resolver provides the resolver of the parser.
+   * @param location provides the location of the schema file.
+   * @return the parser that parsed the schemas, or null if there is no entry with the key.
+   */
+  SchemaParser parse(byte[] key, DataSchemaResolver resolver, DataSchemaLocation location)
+  {
+    ByteBuffer value;
+    synchronized (this)
+    {
+      value = index().get(ByteBuffer.wrap(key));
+    }
+    if (value == null)
+    {
+      return null;
+    }
+
+    DataList schemas;
+    try
+    {
+      byte[] bytes = new byte[value.remaining()];
+      value.duplicate().get(bytes);
+      schemas = PSON_CODEC.bytesToList(bytes);
+    }
+    catch (IOException e)
+    {
+      return null;
+    }
+
+    SchemaParser parser = new SchemaParser(resolver);
+    parser.setLocation(location);
+    restoreFieldsOrder(schemas, parser.dataLocationMap());
+    parser.parse(schemas);
+    return parser;
+  }
+
+  /**
+   * Add an entry for a schema file that has been parsed without errors.
+   * <p>
+   *
+   * No entry is added if a schema defined by the file is not bound to its location in the
+   * specified map, or if the entry cannot be encoded or written.
+   *
+   * @param key provides the key of the entry.
+   * @param topLevelSchemas provides the top level schemas parsed from the file.
+   * @param location provides the location of the file.
+   * @param nameToLocations provides the locations the names of schemas are bound to.
+   */
+  void put(byte[] key,
+           List<DataSchema> topLevelSchemas,
+           DataSchemaLocation location,
+           Map<String, DataSchemaLocation> nameToLocations)
+  {
+    byte[] value;
+    try
+    {
+      for (DataSchema schema : topLevelSchemas)
+      {
+        if (!(schema instanceof NamedDataSchema)
+            || !location.equals(nameToLocations.get(((NamedDataSchema) schema).getFullName())))
+        {
+          return;
+        }
+      }
+      value = PSON_CODEC.listToBytes(encode(topLevelSchemas, location, nameToLocations));
+    }
+    catch (IOException e)
+    {
+      return;
+    }
+
+    CRC32 crc = new CRC32();
+    crc.update(value);
+    ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + value.length);
+    entry.put(key).putInt(value.length).putInt((int) crc.getValue()).put(value).flip();
+
+    synchronized (this)
+    {
+      ByteBuffer wrappedKey = ByteBuffer.wrap(key);
+      if (index().containsKey(wrappedKey))
+      {
+        return;
+      }
+      _index.put(wrappedKey, ByteBuffer.wrap(value));
+      try
+      {
+        synchronized (PersistentDataSchemaCache.class)
+        {
+          FileLock lock = _appendChannel.lock();
+          try
+          {
+            while (entry.hasRemaining())
+            {
+              _appendChannel.write(entry);
+            }
+          }
+          finally
+          {
+            lock.release();
+          }
+        }
+      }
+      catch (IOException e)
+      {
+        // The entry is still found by this process.
+      }
+    }
+  }
+
+  /**
+   * Close the file of the cache. The entries that have been indexed can still be found.
+   *
+   * @throws IOException if the file cannot be closed.
+   */
+  @Override
+  public void close() throws IOException
+  {
+    _appendChannel.close();
+  }
+
+  /**
+   * @return the number of entries in the cache.
+   */
+  synchronized int size()
+  {
+    return index().size();
+  }
+
+  private Map<ByteBuffer, ByteBuffer> index()
+  {
+    if (_index == null)
+    {
+      Map<ByteBuffer, ByteBuffer> index = new HashMap<>();
+      ByteBuffer buffer = _mapped.duplicate();
+      CRC32 crc = new CRC32();
+      int position = Math.min(HEADER_SIZE, buffer.limit());
+      while (buffer.limit() - position >= ENTRY_HEADER_SIZE)
+      {
+        int length = buffer.getInt(position + KEY_SIZE);
+        int valuePosition = position + ENTRY_HEADER_SIZE;
+        if (length < 0 || length > buffer.limit() - valuePosition)
+        {
+          // A partially written entry can only be the last one.
+          break;
+        }
+        buffer.limit(valuePosition + length).position(valuePosition);
+        ByteBuffer value = buffer.slice();
+        buffer.limit(buffer.capacity());
+        crc.reset();
+        crc.update(value.duplicate());
+        if ((int) crc.getValue() == buffer.getInt(position + KEY_SIZE + 4))
+        {
+          buffer.limit(position + KEY_SIZE).position(position);
+          index.putIfAbsent(buffer.slice(), value);
+          buffer.limit(buffer.capacity());
+        }
+        position = valuePosition + length;
+      }
+      _index = index;
+    }
+    return _index;
+  }
+
+  /**
+   * Encode the top level schemas of a file in their JSON representation, declaring the schemas bound to the
+   * location of the file where they were declared and referencing the others by name.
+   */
+  private static DataList encode(List<DataSchema> topLevelSchemas,
+                                 final DataSchemaLocation location,
+                                 final Map<String, DataSchemaLocation> nameToLocations) throws IOException
+  {
+    JsonBuilder builder = new JsonBuilder(JsonBuilder.Pretty.COMPACT);
+    try
+    {
+      SchemaToJsonEncoder encoder = new SchemaToJsonEncoder(builder, TypeReferenceFormat.PRESERVE)
+      {
+        @Override
+        protected TypeRepresentation selectTypeRepresentation(DataSchema schema, boolean originallyInlined)
+        {
+          if (schema instanceof NamedDataSchema
+              && !location.equals(nameToLocations.get(((NamedDataSchema) schema).getFullName())))
+          {
+            return TypeRepresentation.REFERENCED_BY_NAME;
+          }
+          return super.selectTypeRepresentation(schema, originallyInlined);
+        }
+
+        @Override
+        protected void encodeProperties(DataSchema schema) throws IOException
+        {
+          super.encodeProperties(schema);
+          if (schema instanceof RecordDataSchema
+              && ((RecordDataSchema) schema).isFieldsBeforeIncludes()
+              && !((RecordDataSchema) schema).getInclude().isEmpty())
+          {
+            _builder.writeBooleanField(FIELDS_BEFORE_INCLUDES_KEY, true);
+          }
+        }
+      };
+      builder.writeStartArray();
+      for (DataSchema schema : topLevelSchemas)
+      {
+        encoder.encode(schema);
+      }
+      builder.writeEndArray();
+      return JSON_CODEC.stringToList(builder.result());
+    }
+    finally
+    {
+      builder.closeQuietly();
+    }
+  }
+
+  /**
+   * Remove the markers of records whose fields are before their include, and give their fields and include
+   * locations in that order for the parser.
+   */
+  private static void restoreFieldsOrder(Object object, Map<Object, DataLocation> dataLocationMap)
+  {
+    if (object instanceof DataMap)
+    {
+      DataMap map = (DataMap) object;
+      if (DataSchemaConstants.RECORD_TYPE.equals(map.get(DataSchemaConstants.TYPE_KEY))
+          && map.remove(FIELDS_BEFORE_INCLUDES_KEY) != null)
+      {
+        dataLocationMap.put(map.get(DataSchemaConstants.FIELDS_KEY), FIRST);
+        dataLocationMap.put(map.get(DataSchemaConstants.INCLUDE_KEY), SECOND);
+      }
+      for (Object value : map.values())
+      {
+        restoreFieldsOrder(value, dataLocationMap);
+      }
+    }
+    else if (object instanceof DataList)
+    {
+      for (Object value : (DataList) object)
+      {
+        restoreFieldsOrder(value, dataLocationMap);
+      }
+    }
+  }
+
+  private static final class Order implements DataLocation
+  {
+    private final int _order;
+
+    private Order(int order)
+    {
+      _order = order;
+    }
+
+    @Override
+    public int compareTo(DataLocation other)
+    {
+      return Integer.compare(_order, ((Order) other)._order);
+    }
+  }
+}
@@ -0,0 +1,682 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.validation;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.Null;
+import com.linkedin.data.element.DataElement;
+import com.linkedin.data.element.SimpleDataElement;
+import com.linkedin.data.it.Predicate;
+import com.linkedin.data.it.Predicates;
+import com.linkedin.data.message.Message;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.DataSchemaConstants;
+import com.linkedin.data.schema.EnumDataSchema;
+import com.linkedin.data.schema.FixedDataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import com.linkedin.data.schema.validator.DataSchemaAnnotationValidator;
+import com.linkedin.data.schema.validator.Validator;
+import com.linkedin.data.schema.validator.ValidatorContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Validation of Data objects against a {@link DataSchema}, compiled once for the schema, the
+ * {@link ValidationOptions} and the {@link Validator}, and reused for every validated object.
+ * <p>
+ *
+ * Compiling flattens the schema into a tree of checks that no longer switch on the schema type,
+ * and resolves which values have validators. Validating first runs these checks, which neither
+ * allocate {@link DataElement}s nor {@link Message}s, except to invoke the {@link Validator} on
+ * values that have validators. If the object is valid without any fix, trimmed field or message,
+ * the result is returned as is. Otherwise, the object is validated again by
+ * {@link ValidateDataAgainstSchema}, which reports the messages and applies the fixes. Either way,
+ * the {@link ValidationResult} is the same as the one of {@link ValidateDataAgainstSchema}.
+ * <p>
+ *
+ * When the object is validated again, the {@link Validator} is invoked again on the values it
+ * was invoked on by the checks, so validators must not modify the validated object.
+ * <p>
+ *
+ * Only a {@link DataSchemaAnnotationValidator} tells which values have validators. Other
+ * validators, including subclasses of {@link DataSchemaAnnotationValidator}, are invoked on every
+ * value. The Avro union mode of {@link ValidationOptions} is not compiled, and objects are always
+ * validated by {@link ValidateDataAgainstSchema} in that mode.
+ * <p>
+ *
+ * A {@link ValidationPlan} is immutable and thread-safe, provided that the {@link Validator} is.
+ * The {@link ValidationOptions} must not be modified after the plan is compiled.
+ */
+public final class ValidationPlan
+{
+  private final DataSchema _schema;
+  private final ValidationOptions _options;
+  private final Validator _validator;
+  private final boolean _validateRoot;
+  private final boolean _needsElements;
+  private final Node _root;
+
+  private ValidationPlan(DataSchema schema, ValidationOptions options, Validator validator)
+  {
+    _schema = schema;
+    _options = options;
+    _validator = validator;
+    if (options.isAvroUnionMode())
+    {
+      _root = null;
+      _validateRoot = false;
+      _needsElements = false;
+    }
+    else
+    {
+      Compiler compiler = new Compiler();
+      _root = compiler.compile(schema);
+      _validateRoot = compiler.hasValidators(schema, null);
+      _needsElements = compiler._needsElements || _validateRoot;
+    }
+  }
+
+  /**
+   * Compile the validation of Data objects against a schema.
+   *
+   * @param schema provides the schema to validate against.
+   * @param options provides the validation options.
+   * @return the compiled {@link ValidationPlan}.
+   */
+  public static ValidationPlan compile(DataSchema schema, ValidationOptions options)
+  {
+    return compile(schema, options, null);
+  }
+
+  /**
+   * Compile the validation of Data objects against a schema.
+   *
+   * @param schema provides the schema to validate against.
+   * @param options provides the validation options.
+   * @param validator provides the {@link Validator} invoked on every validated value, it may be null.
+   * @return the compiled {@link ValidationPlan}.
+   */
+  public static ValidationPlan compile(DataSchema schema, ValidationOptions options, Validator validator)
+  {
+    return new ValidationPlan(schema, options, validator);
+  }
+
+  /**
+   * Return the schema this plan validates against.
+   *
+   * @return the schema this plan validates against.
+   */
+  public DataSchema getSchema()
+  {
+    return _schema;
+  }
+
+  /**
+   * Validate a Data object, like {@link ValidateDataAgainstSchema#validate(Object, DataSchema, ValidationOptions, Validator)}.
+   *
+   * @param object provides the Data object to validate.
+   * @return the {@link ValidationResult}.
+   */
+  public ValidationResult validate(Object object)
+  {
+    if (_root != null)
+    {
+      Walk walk = _needsElements ? new Walk(object, _schema) : null;
+      if (_root.check(object, walk) && (!_validateRoot || walk.invokeValidator()))
+      {
+        return new ValidResult(object);
+      }
+    }
+    return ValidateDataAgainstSchema.validate(object, _schema, _options, _validator);
+  }
+
+  /**
+   * A compiled check of a value against a dereferenced schema.
+   */
+  private static abstract class Node
+  {
+    /**
+     * Return true if the value is valid without any fix, trimmed field or message.
+     *
+     * @param walk provides the elements of the value and its ancestors, null if no validator is invoked.
+     */
+    abstract boolean check(Object value, Walk walk);
+  }
+
+  /**
+   * A compiled check of a child value, stored at a given key of a map or index of a list.
+   */
+  private static final class Child
+  {
+    private final DataSchema _schema;
+    private final boolean _validate;
+    private Node _node;
+
+    private Child(DataSchema schema, boolean validate)
+    {
+      _schema = schema;
+      _validate = validate;
+    }
+
+    private boolean check(Object name, Object value, Walk walk)
+    {
+      if (walk == null)
+      {
+        return _node.check(value, null);
+      }
+      walk.push(value, name, _schema);
+      try
+      {
+        return _node.check(value, walk) && (!_validate || walk.invokeValidator());
+      }
+      finally
+      {
+        walk.pop();
+      }
+    }
+  }
+
+  private static final class ClassNode extends Node
+  {
+    private final Class<?> _class;
+
+    private ClassNode(Class<?> clazz)
+    {
+      _class = clazz;
+    }
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      return value.getClass() == _class;
+    }
+  }
+
+  /**
+   * Bytes are backed by a {@link ByteString}, or by a {@link String} when coercion is off.
+   * When coercion is on, a {@link String} is fixed to a {@link ByteString}.
+   */
+  private static final class BytesNode extends Node
+  {
+    private final boolean _coerce;
+    private final int _size;
+
+    private BytesNode(boolean coerce, int size)
+    {
+      _coerce = coerce;
+      _size = size;
+    }
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      Class<?> clazz = value.getClass();
+      if (clazz == ByteString.class)
+      {
+        return _size < 0 || ((ByteString) value).length() == _size;
+      }
+      if (clazz == String.class && !_coerce)
+      {
+        String string = (String) value;
+        return (_size < 0 || string.length() == _size) && Data.validStringAsBytes(string);
+      }
+      return false;
+    }
+  }
+
+  private static final class EnumNode extends Node
+  {
+    private final EnumDataSchema _schema;
+
+    private EnumNode(EnumDataSchema schema)
+    {
+      _schema = schema;
+    }
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      return value.getClass() == String.class && _schema.contains((String) value);
+    }
+  }
+
+  private static final class ArrayNode extends Node
+  {
+    private Child _items;
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      if (value.getClass() != DataList.class)
+      {
+        return false;
+      }
+      DataList list = (DataList) value;
+      for (int i = 0; i < list.size(); i++)
+      {
+        if (!_items.check(walk == null ? null : Integer.valueOf(i), list.get(i), walk))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class MapNode extends Node
+  {
+    private Child _values;
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      if (value.getClass() != DataMap.class)
+      {
+        return false;
+      }
+      for (Map.Entry<String, Object> entry : ((DataMap) value).entrySet())
+      {
+        if (!_values.check(entry.getKey(), entry.getValue(), walk))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static final class UnionNode extends Node
+  {
+    private final boolean _hasNull;
+    private final Map<String, Child> _members = new HashMap<String, Child>();
+
+    private UnionNode(boolean hasNull)
+    {
+      _hasNull = hasNull;
+    }
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      if (value == Data.NULL)
+      {
+        return _hasNull;
+      }
+      if (value.getClass() != DataMap.class || ((DataMap) value).size() != 1)
+      {
+        return false;
+      }
+      Map.Entry<String, Object> entry = ((DataMap) value).entrySet().iterator().next();
+      Child member = _members.get(entry.getKey());
+      return member != null && member.check(entry.getKey(), entry.getValue(), walk);
+    }
+  }
+
+  private static final class RecordNode extends Node
+  {
+    private final Map<String, Child> _fields = new HashMap<String, Child>();
+    private final boolean _allowUnrecognized;
+    private final RequiredMode _requiredMode;
+    private final Predicate _treatOptional;
+    private RecordDataSchema.Field[] _required;
+
+    private RecordNode(ValidationOptions options)
+    {
+      _allowUnrecognized = options.getUnrecognizedFieldMode() == UnrecognizedFieldMode.IGNORE;
+      _requiredMode = options.getRequiredMode();
+      _treatOptional = options.getTreatOptional();
+    }
+
+    @Override
+    boolean check(Object value, Walk walk)
+    {
+      if (value.getClass() != DataMap.class)
+      {
+        return false;
+      }
+      DataMap map = (DataMap) value;
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        Child field = _fields.get(entry.getKey());
+        if (field == null)
+        {
+          if (!_allowUnrecognized)
+          {
+            return false;
+          }
+        }
+        else if (!field.check(entry.getKey(), entry.getValue(), walk))
+        {
+          return false;
+        }
+      }
+      for (RecordDataSchema.Field field : _required)
+      {
+        if (!map.containsKey(field.getName()) && !isAbsenceValid(field, walk))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isAbsenceValid(RecordDataSchema.Field field, Walk walk)
+    {
+      if (_requiredMode == RequiredMode.CAN_BE_ABSENT_IF_HAS_DEFAULT && field.getDefault() != null)
+      {
+        return true;
+      }
+      return walk != null
+          && _treatOptional.evaluate(new SimpleDataElement(null, field.getName(), field.getType(), walk.element()));
+    }
+  }
+
+  /**
+   * Compiles the nodes of a schema, once for each declared schema so that recursive schemas
+   * are compiled into cyclic trees. Nodes are not shared between a typeref and the schema it
+   * refers to, because the validators of the fields of a record depend on how it is declared.
+   */
+  private final class Compiler
+  {
+    private final Map<DataSchema, Node> _nodes = new IdentityHashMap<DataSchema, Node>();
+    private final boolean _coerce = _options.getCoercionMode() != CoercionMode.OFF;
+    private boolean _needsElements = false;
+
+    private Node compile(DataSchema schema)
+    {
+      DataSchema dereferenced = schema.getDereferencedDataSchema();
+      Node node = _nodes.get(schema);
+      if (node != null)
+      {
+        return node;
+      }
+      switch (dereferenced.getType())
+      {
+        case RECORD:
+          node = compileRecord(schema, (RecordDataSchema) dereferenced);
+          break;
+        case ARRAY:
+          ArrayNode arrayNode = new ArrayNode();
+          _nodes.put(schema, arrayNode);
+          arrayNode._items = child(((ArrayDataSchema) dereferenced).getItems(), null);
+          node = arrayNode;
+          break;
+        case MAP:
+          MapNode mapNode = new MapNode();
+          _nodes.put(schema, mapNode);
+          mapNode._values = child(((MapDataSchema) dereferenced).getValues(), null);
+          node = mapNode;
+          break;
+        case UNION:
+          UnionDataSchema unionSchema = (UnionDataSchema) dereferenced;
+          UnionNode unionNode = new UnionNode(unionSchema.getTypeByMemberKey(DataSchemaConstants.NULL_TYPE) != null);
+          _nodes.put(schema, unionNode);
+          for (UnionDataSchema.Member member : unionSchema.getMembers())
+          {
+            unionNode._members.put(member.getUnionMemberKey(), child(member.getType(), null));
+          }
+          node = unionNode;
+          break;
+        case ENUM:
+          node = new EnumNode((EnumDataSchema) dereferenced);
+          break;
+        case FIXED:
+          node = new BytesNode(_coerce, ((FixedDataSchema) dereferenced).getSize());
+          break;
+        case BYTES:
+          node = new BytesNode(_coerce, -1);
+          break;
+        case INT:
+          node = new ClassNode(Integer.class);
+          break;
+        case LONG:
+          node = new ClassNode(Long.class);
+          break;
+        case FLOAT:
+          node = new ClassNode(Float.class);
+          break;
+        case DOUBLE:
+          node = new ClassNode(Double.class);
+          break;
+        case STRING:
+          node = new ClassNode(String.class);
+          break;
+        case BOOLEAN:
+          node = new ClassNode(Boolean.class);
+          break;
+        case NULL:
+          node = new ClassNode(Null.class);
+          break;
+        default:
+          throw new IllegalArgumentException("Unexpected schema type " + dereferenced.getType());
+      }
+      _nodes.put(schema, node);
+      return node;
+    }
+
+    /**
+     * Compiles a record, whose field validators are only invoked if the record is not referenced
+     * through a typeref, like {@link DataSchemaAnnotationValidator} does.
+     */
+    private Node compileRecord(DataSchema schema, RecordDataSchema dereferenced)
+    {
+      RecordNode node = new RecordNode(_options);
+      _nodes.put(schema, node);
+      List<RecordDataSchema.Field> required = new ArrayList<RecordDataSchema.Field>();
+      for (RecordDataSchema.Field field : dereferenced.getFields())
+      {
+        node._fields.put(field.getName(), child(field.getType(), schema == dereferenced ? field : null));
+        if (!field.getOptional() && _options.getRequiredMode() != RequiredMode.IGNORE)
+        {
+          required.add(field);
+          if (_options.getTreatOptional() != Predicates.alwaysFalse())
+          {
+            _needsElements = true;
+          }
+        }
+      }
+      node._required = required.toArray(new RecordDataSchema.Field[required.size()]);
+      return node;
+    }
+
+    private Child child(DataSchema schema, RecordDataSchema.Field field)
+    {
+      boolean validate = hasValidators(schema, field);
+      _needsElements |= validate;
+      Child child = new Child(schema, validate);
+      child._node = compile(schema);
+      return child;
+    }
+
+    private boolean hasValidators(DataSchema schema, RecordDataSchema.Field field)
+    {
+      if (_validator == null)
+      {
+        return false;
+      }
+      if (_validator.getClass() == DataSchemaAnnotationValidator.class)
+      {
+        return ((DataSchemaAnnotationValidator) _validator).hasValidators(schema, field);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * The values, names and schemas of the value being checked and its ancestors, from which their
+   * {@link DataElement}s are built on demand.
+   */
+  private final class Walk implements ValidatorContext
+  {
+    private Object[] _values = new Object[16];
+    private Object[] _names = new Object[16];
+    private DataSchema[] _schemas = new DataSchema[16];
+    private DataElement[] _elements = new DataElement[16];
+    private int _depth = 0;
+    private boolean _reported = false;
+
+    private Walk(Object root, DataSchema schema)
+    {
+      _values[0] = root;
+      _schemas[0] = schema;
+    }
+
+    private void push(Object value, Object name, DataSchema schema)
+    {
+      _depth++;
+      if (_depth == _values.length)
+      {
+        _values = Arrays.copyOf(_values, _depth * 2);
+        _names = Arrays.copyOf(_names, _depth * 2);
+        _schemas = Arrays.copyOf(_schemas, _depth * 2);
+        _elements = Arrays.copyOf(_elements, _depth * 2);
+      }
+      _values[_depth] = value;
+      _names[_depth] = name;
+      _schemas[_depth] = schema;
+      _elements[_depth] = null;
+    }
+
+    private void pop()
+    {
+      _elements[_depth] = null;
+      _depth--;
+    }
+
+    /**
+     * Return the element of the value being checked, building it and its ancestors if needed.
+     */
+    private DataElement element()
+    {
+      int built = _depth;
+      while (built >= 0 && _elements[built] == null)
+      {
+        built--;
+      }
+      for (int i = built + 1; i <= _depth; i++)
+      {
+        _elements[i] = (i == 0)
+            ? new SimpleDataElement(_values[0], _schemas[0])
+            : new SimpleDataElement(_values[i], _names[i], _schemas[i], _elements[i - 1]);
+      }
+      return _elements[_depth];
+    }
+
+    /**
+     * Invoke the validator on the value being checked, and return true if it reported nothing.
+     */
+    private boolean invokeValidator()
+    {
+      _validator.validate(this);
+      return !_reported;
+    }
+
+    @Override
+    public DataElement dataElement()
+    {
+      return element();
+    }
+
+    @Override
+    public void addResult(Message message)
+    {
+      _reported = true;
+    }
+
+    @Override
+    public void setHasFix(boolean value)
+    {
+      _reported |= value;
+    }
+
+    @Override
+    public void setHasFixupReadOnlyError(boolean value)
+    {
+      _reported |= value;
+    }
+
+    @Override
+    public ValidationOptions validationOptions()
+    {
+      return _options;
+    }
+  }
+
+  /**
+   * The result of an object that is valid without any fix or message.
+   */
+  private static final class ValidResult implements ValidationResult
+  {
+    private final Object _fixed;
+
+    private ValidResult(Object fixed)
+    {
+      _fixed = fixed;
+    }
+
+    @Override
+    public boolean hasFix()
+    {
+      return false;
+    }
+
+    @Override
+    public boolean hasFixupReadOnlyError()
+    {
+      return false;
+    }
+
+    @Override
+    public Object getFixed()
+    {
+      return _fixed;
+    }
+
+    @Override
+    public boolean isValid()
+    {
+      return true;
+    }
+
+    @Override
+    public Collection<Message> getMessages()
+    {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public String toString()
+    {
+      return "hasFix=false, hasFixupReadOnlyError=false, valid=true\nfixed=" + _fixed + "\n";
+    }
+  }
+}
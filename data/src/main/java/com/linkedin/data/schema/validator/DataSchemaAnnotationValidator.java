@@ -325,6 +325,36 @@ public class DataSchemaAnnotationValidator implements Validator
     return _debugMode;
   }
 
+  /**
+   * Return whether {@link #validate(ValidatorContext)} may invoke a {@link Validator} or add a {@link Message}
+   * for a value of the specified schema.
+   *
+   * This lets callers skip building the {@link DataElement} of values that have no validators.
+   *
+   * @param schema provides the schema of the value, which is the schema of its {@link DataElement}.
+   * @param field provides the field of the value if its parent {@link DataElement}'s schema is a record,
+   *              or null otherwise.
+   * @return false if validating the value does nothing.
+   */
+  public boolean hasValidators(DataSchema schema, RecordDataSchema.Field field)
+  {
+    DataSchema current = schema;
+    while (true)
+    {
+      // Schemas that have not been cached have a null list, and validating them adds a message.
+      if (_schemaValidators.get(current) != NO_VALIDATORS)
+      {
+        return true;
+      }
+      if (current.getType() != DataSchema.Type.TYPEREF)
+      {
+        break;
+      }
+      current = ((TyperefDataSchema) current).getRef();
+    }
+    return field != null && _schemaValidators.get(field) != NO_VALIDATORS;
+  }
+
   /**
    * Build a cache of {@link Validator}s declared for the specified schema.
    *
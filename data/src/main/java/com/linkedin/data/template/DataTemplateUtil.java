@@ -20,6 +20,7 @@ package com.linkedin.data.template;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.FieldNameTable;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.DataSchemaResolver;
 import com.linkedin.data.schema.DataSchemaUtil;
@@ -294,6 +295,9 @@ public class DataTemplateUtil
   /**
    * Parse data schema in JSON format to obtain a {@link DataSchema}.
    *
+   * The field names of the parsed schema are added to the default {@link FieldNameTable},
+   * so that decoded data shares them with the schema.
+   *
    * @param schemaText provides the data schema in JSON format.
    * @param schemaResolver for resolving referenced schemas
    * @return the {@link DataSchema} parsed from the data schema in JSON format.
@@ -317,7 +321,9 @@ public class DataTemplateUtil
       throw new IllegalArgumentException("More than one top level schemas");
     }
 
-    return parser.topLevelDataSchemas().get(0);
+    DataSchema schema = parser.topLevelDataSchemas().get(0);
+    FieldNameTable.getDefault().seed(schema);
+    return schema;
   }
 
   /**
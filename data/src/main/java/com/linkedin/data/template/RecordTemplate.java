@@ -41,6 +41,17 @@ import com.linkedin.data.schema.RecordDataSchema;
  * to fields whose values require DataTemplate's to proxy access.
  * The arrays, unions, records, and fixed field values are accessed
  * using the wrapping methods.
+ * <p>
+ *
+ * The direct methods that take the slot of the field, which is its index in
+ * {@link RecordDataSchema#getFields()}, cache the values they return in a slot
+ * per field, so that getting the same field again does not look up the
+ * underlying {@link DataMap} nor coerce its value. The slots are discarded when
+ * the modification count of the {@link DataMap} changes, whether it was changed
+ * through this template or not.
+ * The unboxed variants of these methods, such as
+ * {@link #obtainInt(com.linkedin.data.schema.RecordDataSchema.Field, int, GetMode)},
+ * let callers get primitive fields without boxing.
  */
 public abstract class RecordTemplate implements DataTemplate<DataMap>
 {
@@ -68,6 +79,7 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
     RecordTemplate clone = (RecordTemplate) super.clone();
     clone._map = clone._map.clone();
     clone._cache = clone._cache != null ? clone._cache.clone() : null;
+    clone._fieldSlots = null;
     return clone;
   }
 
@@ -90,6 +102,7 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
     RecordTemplate copy = (RecordTemplate) super.clone();
     copy._map = _map.copy();
     copy._cache = null;
+    copy._fieldSlots = null;
     return copy;
   }
 
@@ -138,7 +151,7 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
    */
   protected boolean remove(RecordDataSchema.Field field)
   {
-    return _map.remove(field.getName()) != null;
+    return _map.removeDiscardingPrevious(field.getName());
   }
 
   /**
@@ -165,7 +178,7 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
   {
     if (checkPutNullValue(field, object, mode))
     {
-      _map.put(field.getName(), DataTemplateUtil.coerceInput(object, valueClass, dataClass));
+      _map.putDiscardingPrevious(field.getName(), DataTemplateUtil.coerceInput(object, valueClass, dataClass));
     }
   }
 
@@ -192,7 +205,7 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
     if (checkPutNullValue(field, object, mode))
     {
       final Object coerced = DataTemplateUtil.coerceInput(object, valueClass, dataClass);
-      _map.put(field.getName(), coerced);
+      _map.putDiscardingPrevious(field.getName(), coerced);
       getCache().put(coerced, object);
     }
   }
@@ -268,7 +281,7 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
     {
       if (object.getClass() == valueClass)
       {
-        _map.put(field.getName(), object.data());
+        _map.putDiscardingPrevious(field.getName(), object.data());
         getCache().put(object.data(), object);
       }
       else
@@ -324,6 +337,110 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
   }
 
 
+  /**
+   * Get the value of field, caching it in the slot of the field.
+   *
+   * This is direct method. The result is not a {@link DataTemplate}.
+   * The value class must be the same for every call with the same slot.
+   *
+   * @param field provides the field to get.
+   * @param slot provides the index of the field in the fields of the schema of this record.
+   *             If the field is not at this index, the value is not cached.
+   * @param valueClass provides the expected class of the result.
+   * @param mode determines what should happen if the field is not present.
+   * @param <T> is the type of the result object.
+   * @return value of field or null with semantics defined by mode.
+   * @throws RequiredFieldNotPresentException if mode is STRICT and the field is required but not present.
+   * @throws TemplateOutputCastException if the value of the field is not the expected class or
+   *                                     it cannot be coerced to the expected class.
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> T obtainDirect(RecordDataSchema.Field field, int slot, Class<T> valueClass, GetMode mode)
+      throws RequiredFieldNotPresentException, TemplateOutputCastException
+  {
+    FieldSlots slots = getFieldSlots();
+    if (!slots.hasSlot(field, slot))
+    {
+      return obtainDirect(field, valueClass, mode);
+    }
+    Object value = slots._values[slot];
+    if (value == null)
+    {
+      Object found = _map.get(field.getName());
+      value = (found == null) ? FieldSlots.ABSENT : DataTemplateUtil.coerceOutput(found, valueClass);
+      slots._values[slot] = value;
+    }
+    if (value == FieldSlots.ABSENT)
+    {
+      Object found = obtainDefault(field, mode);
+      return (found == null) ? null : DataTemplateUtil.coerceOutput(found, valueClass);
+    }
+    return (T) value;
+  }
+
+  /**
+   * Get the value of an int field, caching it in the slot of the field.
+   *
+   * @see #obtainDirect(com.linkedin.data.schema.RecordDataSchema.Field, int, Class, GetMode)
+   *
+   * @param field provides the field to get.
+   * @param slot provides the index of the field in the fields of the schema of this record.
+   * @param mode determines what should happen if the field is not present.
+   * @return value of field.
+   * @throws RequiredFieldNotPresentException if mode is STRICT and the field is required but not present.
+   * @throws NullPointerException if the field has no value with the semantics defined by mode.
+   * @throws TemplateOutputCastException if the value of the field cannot be coerced to an int.
+   */
+  protected int obtainInt(RecordDataSchema.Field field, int slot, GetMode mode)
+      throws RequiredFieldNotPresentException, TemplateOutputCastException
+  {
+    return checkValuePresent(field, obtainDirect(field, slot, Integer.class, mode));
+  }
+
+  /**
+   * Get the value of a long field, caching it in the slot of the field.
+   *
+   * @see #obtainInt(com.linkedin.data.schema.RecordDataSchema.Field, int, GetMode)
+   */
+  protected long obtainLong(RecordDataSchema.Field field, int slot, GetMode mode)
+      throws RequiredFieldNotPresentException, TemplateOutputCastException
+  {
+    return checkValuePresent(field, obtainDirect(field, slot, Long.class, mode));
+  }
+
+  /**
+   * Get the value of a float field, caching it in the slot of the field.
+   *
+   * @see #obtainInt(com.linkedin.data.schema.RecordDataSchema.Field, int, GetMode)
+   */
+  protected float obtainFloat(RecordDataSchema.Field field, int slot, GetMode mode)
+      throws RequiredFieldNotPresentException, TemplateOutputCastException
+  {
+    return checkValuePresent(field, obtainDirect(field, slot, Float.class, mode));
+  }
+
+  /**
+   * Get the value of a double field, caching it in the slot of the field.
+   *
+   * @see #obtainInt(com.linkedin.data.schema.RecordDataSchema.Field, int, GetMode)
+   */
+  protected double obtainDouble(RecordDataSchema.Field field, int slot, GetMode mode)
+      throws RequiredFieldNotPresentException, TemplateOutputCastException
+  {
+    return checkValuePresent(field, obtainDirect(field, slot, Double.class, mode));
+  }
+
+  /**
+   * Get the value of a boolean field, caching it in the slot of the field.
+   *
+   * @see #obtainInt(com.linkedin.data.schema.RecordDataSchema.Field, int, GetMode)
+   */
+  protected boolean obtainBoolean(RecordDataSchema.Field field, int slot, GetMode mode)
+      throws RequiredFieldNotPresentException, TemplateOutputCastException
+  {
+    return checkValuePresent(field, obtainDirect(field, slot, Boolean.class, mode));
+  }
+
   /**
    * Get the value of field whose type has needs to be coerced by {@link DirectCoercer}.
    *
@@ -413,19 +530,48 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
   private Object obtainValueOrDefault(RecordDataSchema.Field field, GetMode mode)
       throws RequiredFieldNotPresentException
   {
-    String fieldName = field.getName();
-    Object found = _map.get(fieldName);
-    if (found == null && mode != GetMode.NULL)
+    Object found = _map.get(field.getName());
+    if (found == null)
     {
-      found = field.getDefault();
-      if (found == null && field.getOptional() == false && mode == GetMode.STRICT)
-      {
-        throw new RequiredFieldNotPresentException(fieldName);
-      }
+      found = obtainDefault(field, mode);
+    }
+    return found;
+  }
+
+  /**
+   * Obtain the value of field when it is not present in the underlying {@link DataMap}.
+   *
+   * @param field to access.
+   * @param mode determines what should happen since the field is not present.
+   * @return the default value or null.
+   * @throws RequiredFieldNotPresentException if the field has no default value
+   *                                          and is not optional,
+   *                                          and mode is STRICT.
+   */
+  private static Object obtainDefault(RecordDataSchema.Field field, GetMode mode)
+      throws RequiredFieldNotPresentException
+  {
+    if (mode == GetMode.NULL)
+    {
+      return null;
+    }
+    Object found = field.getDefault();
+    if (found == null && field.getOptional() == false && mode == GetMode.STRICT)
+    {
+      throw new RequiredFieldNotPresentException(field.getName());
     }
     return found;
   }
 
+  private static <T> T checkValuePresent(RecordDataSchema.Field field, T value)
+  {
+    if (value == null)
+    {
+      throw new NullPointerException("Field \"" + field.getName() + "\" has no value");
+    }
+    return value;
+  }
+
   /**
    * Check if the provided value is null, and handle the null value according to {@link SetMode}.
    *
@@ -448,13 +594,13 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
         case IGNORE_NULL:
           break;
         case REMOVE_IF_NULL:
-          _map.remove(field.getName());
+          _map.removeDiscardingPrevious(field.getName());
           doPut = false;
           break;
         case REMOVE_OPTIONAL_IF_NULL:
           if (field.getOptional())
           {
-            _map.remove(field.getName());
+            _map.removeDiscardingPrevious(field.getName());
             doPut = false;
           }
           else
@@ -489,7 +635,57 @@ public abstract class RecordTemplate implements DataTemplate<DataMap>
     return _cache;
   }
 
+  /**
+   * Get _fieldSlots. If this is the first time to use _fieldSlots, or _map has changed since
+   * _fieldSlots was initialized, initialize a new _fieldSlots for the current state of _map.
+   *
+   * @return a non-null _fieldSlots.
+   */
+  private FieldSlots getFieldSlots()
+  {
+    FieldSlots slots = _fieldSlots;
+    int modificationCount = _map.getModificationCount();
+    if (slots == null || slots._modificationCount != modificationCount)
+    {
+      slots = new FieldSlots(_schema, modificationCount);
+      _fieldSlots = slots;
+    }
+    return slots;
+  }
+
+  /**
+   * Values returned by the direct methods that take the slot of the field, by slot,
+   * for a given modification count of the underlying {@link DataMap}.
+   * <p>
+   *
+   * A null slot has not been obtained yet, and the {@link #ABSENT} slot holds a field that
+   * is not present. Slots hold immutable objects and are never reset, so that concurrent
+   * readers of the same record at worst obtain a value twice, and a {@link FieldSlots}
+   * for a different modification count replaces this one rather than clearing it.
+   */
+  private static final class FieldSlots
+  {
+    private static final Object ABSENT = new Object();
+
+    private final RecordDataSchema _schema;
+    private final int _modificationCount;
+    private final Object[] _values;
+
+    private FieldSlots(RecordDataSchema schema, int modificationCount)
+    {
+      _schema = schema;
+      _modificationCount = modificationCount;
+      _values = new Object[schema.getFields().size()];
+    }
+
+    private boolean hasSlot(RecordDataSchema.Field field, int slot)
+    {
+      return slot >= 0 && slot < _values.length && _schema.getFields().get(slot) == field;
+    }
+  }
+
   private DataMap _map;
   private final RecordDataSchema _schema;
   private DataObjectToObjectCache<Object> _cache;
+  private FieldSlots _fieldSlots;
 }
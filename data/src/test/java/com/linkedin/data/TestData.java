@@ -1844,4 +1844,124 @@ public class TestData
       assertEquals(noCommonDataComplex(o2, o1), expected);
     }
   }
+
+  @Test
+  public void testReadOnlyHashCodeAndEquals() throws CloneNotSupportedException
+  {
+    DataMap map1 = new DataMap(asMap("a", 1, "b", new DataList(Arrays.asList("x", 2L)), "c", new DataMap(asMap("d", 3.0))));
+    DataMap map2 = map1.copy();
+    int hashCode = map1.hashCode();
+    map1.makeReadOnly();
+    map2.makeReadOnly();
+    assertEquals(map1.hashCode(), hashCode);
+    assertEquals(map1.hashCode(), hashCode);
+    assertEquals(map1, map2);
+    assertEquals(map2.hashCode(), hashCode);
+
+    DataMap map3 = map1.copy();
+    map3.getDataMap("c").put("d", 4.0);
+    map3.makeReadOnly();
+    assertNotEquals(map3.hashCode(), hashCode);
+    assertNotEquals(map1, map3);
+    assertNotEquals(map3, map1);
+
+    DataMap map4 = map1.clone();
+    assertFalse(map4.isMadeReadOnly());
+    map4.put("e", 5);
+    assertNotEquals(map4.hashCode(), hashCode);
+    assertNotEquals(map1, map4);
+
+    DataList list1 = new DataList(Arrays.asList(1, "a", map1));
+    DataList list2 = new DataList(Arrays.asList(1, "a", map2));
+    int listHashCode = list1.hashCode();
+    list1.makeReadOnly();
+    list2.makeReadOnly();
+    assertEquals(list1.hashCode(), listHashCode);
+    assertEquals(list1, list2);
+    assertEquals(list1, Arrays.asList(1, "a", map1));
+
+    DataList list3 = list1.clone();
+    list3.add(2);
+    assertNotEquals(list3.hashCode(), listHashCode);
+    assertNotEquals(list1, list3);
+  }
+
+  @Test
+  public void testDigest() throws CloneNotSupportedException
+  {
+    DataMap map1 = new DataMap(asMap("a", 1, "b", new DataList(Arrays.asList("x", 2L)),
+                                     "c", ByteString.copy(new byte[] { 1, 2, 3 }), "d", Data.NULL));
+    DataMap map2 = new DataMap();
+    map2.put("d", Data.NULL);
+    map2.put("c", new ByteString.Builder()
+        .append(ByteString.copy(new byte[] { 1 }))
+        .append(ByteString.copy(new byte[] { 2, 3 }))
+        .build());
+    map2.put("b", new DataList(Arrays.asList("x", 2L)));
+    map2.put("a", 1);
+    assertEquals(map1, map2);
+    long digest = map1.digest();
+    assertEquals(map2.digest(), digest);
+
+    map1.makeReadOnly();
+    assertEquals(map1.digest(), digest);
+    assertEquals(map1.digest(), digest);
+
+    DataMap map3 = map1.copy();
+    map3.put("a", 1L);
+    assertNotEquals(map3.digest(), digest);
+    map3.put("a", 1);
+    assertEquals(map3.digest(), digest);
+    map3.getDataList("b").set(1, 3L);
+    assertNotEquals(map3.digest(), digest);
+
+    DataList list1 = new DataList(Arrays.asList("x", "y"));
+    DataList list2 = new DataList(Arrays.asList("y", "x"));
+    assertNotEquals(list1.digest(), list2.digest());
+    assertNotEquals(new DataList().digest(), new DataMap().digest());
+    assertNotEquals(new DataList(Arrays.asList(new DataList())).digest(), new DataList().digest());
+  }
+
+  @Test
+  public void testAvroStringConversions()
+  {
+    for (int length : new int[] { 0, 1, 31, 32, 33, 1023, 1024, 1025, 3000 })
+    {
+      char[] chars = new char[length];
+      byte[] bytes = new byte[length];
+      for (int i = 0; i < length; i++)
+      {
+        chars[i] = (char) ((i * 7) & 0xff);
+        bytes[i] = (byte) chars[i];
+      }
+      String string = new String(chars);
+      assertEquals(Data.stringToBytes(string, true), bytes);
+      assertEquals(Data.stringToBytes(string, false), bytes);
+      assertTrue(Data.validStringAsBytes(string));
+      assertEquals(Data.bytesToString(bytes), string);
+      assertEquals(Data.bytesToCharArray(bytes, 0, length), chars);
+      assertEquals(ByteString.copyAvroString(string, true).asAvroString(), string);
+
+      if (length > 0)
+      {
+        // Characters above U+00FF are invalid, and only their least significant 8 bits are kept without validation.
+        chars[length - 1] = (char) (0x100 | chars[length - 1]);
+        String invalid = new String(chars);
+        assertNull(Data.stringToBytes(invalid, true));
+        assertEquals(Data.stringToBytes(invalid, false), bytes);
+        assertFalse(Data.validStringAsBytes(invalid));
+      }
+    }
+
+    byte[] bytes = { 'a', (byte) 0xe9, 'b', (byte) 0xff };
+    assertEquals(Data.bytesToString(bytes, 1, 2), "\u00e9b");
+    char[] dest = new char[5];
+    Data.bytesToCharArray(bytes, 1, 3, dest, 2);
+    assertEquals(dest, new char[] { 0, 0, '\u00e9', 'b', '\u00ff' });
+    ByteString compound = new ByteString.Builder()
+        .append(ByteString.copy(bytes, 0, 2))
+        .append(ByteString.copy(bytes, 2, 2))
+        .build();
+    assertEquals(compound.asAvroString(), "a\u00e9b\u00ff");
+  }
 }
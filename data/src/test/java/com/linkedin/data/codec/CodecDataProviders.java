@@ -4,6 +4,7 @@ import com.linkedin.data.ByteString;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.TestData;
 import com.linkedin.data.TestUtil;
 import java.util.ArrayList;
@@ -15,6 +16,36 @@ import org.testng.annotations.DataProvider;
 
 public class CodecDataProviders
 {
+  /**
+   * Selects the fields whose names have an even length, and the items of lists between the first and the last one.
+   */
+  public static final DataProjection SAMPLE_PROJECTION = new DataProjection()
+  {
+    @Override
+    public DataProjection getFieldProjection(String name, Object value)
+    {
+      return name.length() % 2 == 0 ? this : null;
+    }
+
+    @Override
+    public int getStart(DataList list)
+    {
+      return 1;
+    }
+
+    @Override
+    public int getEnd(DataList list)
+    {
+      return list.size() - 1;
+    }
+
+    @Override
+    public DataProjection getItemProjection(Object item)
+    {
+      return this;
+    }
+  };
+
   @DataProvider
   public static Object[][] tempCodecData()
   {
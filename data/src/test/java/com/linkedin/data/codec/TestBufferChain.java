@@ -16,10 +16,12 @@
 
 package com.linkedin.data.codec;
 
+import com.linkedin.data.ByteString;
 import com.linkedin.data.Data;
 
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.testng.annotations.BeforeClass;
@@ -100,6 +102,37 @@ public class TestBufferChain
     }
   }
 
+  @Test
+  public void testGetUTF8CStringFromByteString() throws Exception
+  {
+    for (String value : _strings.values())
+    {
+      byte[] bytesFromString = value.getBytes(Data.UTF_8_CHARSET);
+      int bytes = bytesFromString.length + 1;
+      for (int chunkSize : _bufferSizes)
+      {
+        // two strings, so that the second one starts inside a chunk
+        ByteString.Builder builder = new ByteString.Builder();
+        byte[] bytesInBuffer = new byte[bytes * 2];
+        System.arraycopy(bytesFromString, 0, bytesInBuffer, 0, bytes - 1);
+        System.arraycopy(bytesFromString, 0, bytesInBuffer, bytes, bytes - 1);
+        for (int offset = 0; offset < bytesInBuffer.length; offset += chunkSize)
+        {
+          builder.append(ByteString.copy(bytesInBuffer, offset, Math.min(chunkSize, bytesInBuffer.length - offset)));
+        }
+        ByteString byteString = builder.build();
+
+        BufferChain bufferChain = new BufferChain(BufferChain.DEFAULT_ORDER, byteString);
+        assertEquals(bufferChain.getUtf8CString(), value);
+        assertEquals(bufferChain.getUtf8CString(), value);
+
+        bufferChain = new BufferChain(BufferChain.DEFAULT_ORDER, byteString);
+        assertEquals(bufferChain.getUtf8CString(bytes), value);
+        assertEquals(bufferChain.getUtf8CString(bytes), value);
+      }
+    }
+  }
+
   @Test
   public void testOffsetZero()
   {
@@ -147,4 +180,18 @@ public class TestBufferChain
     assertEquals(endPosition._index, 1);
     assertEquals(buffer.offset(startPosition, endPosition), Integer.BYTES * numIntsToWrite);
   }
+
+  @Test
+  public void testPutUtf8CStringAfterAsciiPrefix() throws Exception
+  {
+    String[] strings = { "", "ascii", "\u00e9t\u00e9", "caf\u00e9", "key\u65e5\u672c", "emoji\ud83d\ude00!", "\u007f\u0080" };
+    for (String string : strings)
+    {
+      BufferChain buffer = new BufferChain(ByteOrder.LITTLE_ENDIAN, 17);
+      buffer.putUtf8CString(string);
+      byte[] expected = Arrays.copyOf(string.getBytes(Data.UTF_8_CHARSET), string.getBytes(Data.UTF_8_CHARSET).length + 1);
+      assertEquals(buffer.toBytes(), expected, string);
+      assertEquals(new BufferChain(ByteOrder.LITTLE_ENDIAN, expected).getUtf8CString(), string);
+    }
+  }
 }
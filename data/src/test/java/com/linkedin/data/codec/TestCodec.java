@@ -18,10 +18,12 @@ package com.linkedin.data.codec;
 
 import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.linkedin.data.ByteString;
 import com.linkedin.data.Data;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.TestUtil;
 
 import java.io.ByteArrayInputStream;
@@ -77,6 +79,34 @@ public class TestCodec
     TestUtil.assertEquivalent(map3, map);
     TestUtil.assertEquivalent(map3, map2);
 
+    // test mapToBytes and writeMap with a projection
+
+    DataMap projected = (DataMap) Data.project(map, CodecDataProviders.SAMPLE_PROJECTION);
+    byte[] projectedBytes = codec.mapToBytes(map, CodecDataProviders.SAMPLE_PROJECTION);
+    TestUtil.assertEquivalent(codec.bytesToMap(projectedBytes), projected);
+    outputStream = new ByteArrayOutputStream(projectedBytes.length * 2);
+    codec.writeMap(map, CodecDataProviders.SAMPLE_PROJECTION, outputStream);
+    assertEquals(outputStream.toByteArray(), projectedBytes);
+    assertEquals(codec.mapToBytes(map, DataProjection.ALL), bytes);
+
+    // test readMap from ByteString, whole and in chunks
+
+    for (int chunkSize : CHUNK_SIZES)
+    {
+      DataMap map6 = codec.readMap(chunked(bytes, chunkSize));
+      TestUtil.assertEquivalent(map6, map);
+    }
+
+    // test readLazyMap, whole and in chunks, written back before and after its values are read
+
+    for (int chunkSize : CHUNK_SIZES)
+    {
+      DataMap lazyMap = codec.readLazyMap(chunked(bytes, chunkSize));
+      TestUtil.assertEquivalent(codec.bytesToMap(codec.mapToBytes(lazyMap)), map);
+      TestUtil.assertEquivalent(lazyMap, map);
+      TestUtil.assertEquivalent(codec.bytesToMap(codec.mapToBytes(lazyMap)), map);
+    }
+
     if (codec instanceof TextDataCodec)
     {
       TextDataCodec textCodec = (TextDataCodec) codec;
@@ -139,6 +169,15 @@ public class TestCodec
 
     assertEquals(sb3.toString(), sb1.toString());
 
+    // test readList from ByteString, whole and in chunks
+
+    for (int chunkSize : CHUNK_SIZES)
+    {
+      DataList list6 = codec.readList(chunked(bytes, chunkSize));
+      StringBuilder sb6 = new StringBuilder();
+      Data.dump("list", list6, "", sb6);
+      assertEquals(sb6.toString(), sb1.toString());
+    }
 
     if (codec instanceof TextDataCodec)
     {
@@ -170,6 +209,21 @@ public class TestCodec
     }
   }
 
+  private static final int[] CHUNK_SIZES = { 1, 7, 64, Integer.MAX_VALUE };
+
+  /**
+   * Returns a {@link ByteString} with the given bytes that is made of chunks of the given size.
+   */
+  static ByteString chunked(byte[] bytes, int chunkSize)
+  {
+    ByteString.Builder builder = new ByteString.Builder();
+    for (int offset = 0; offset < bytes.length; offset += chunkSize)
+    {
+      builder.append(ByteString.copy(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+    }
+    return builder.build();
+  }
+
   void testDataCodec(DataCodec codec, DataComplex value) throws IOException
   {
     if (value.getClass() == DataMap.class)
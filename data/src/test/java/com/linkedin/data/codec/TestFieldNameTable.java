@@ -0,0 +1,107 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import java.io.IOException;
+import java.util.Map;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestFieldNameTable
+{
+  private static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema(
+      "{ \"type\" : \"record\", \"name\" : \"FieldNameTableRecord\", \"fields\" : [" +
+      "  { \"name\" : \"fieldNameTableKey\", \"type\" : \"int\" } ] }");
+
+  @Test
+  public void testSeed() throws IOException
+  {
+    DataSchema schema = TestUtil.dataSchemaFromString(
+        "{ \"type\" : \"record\", \"name\" : \"Outer\", \"fields\" : [" +
+        "  { \"name\" : \"inner\", \"type\" : { \"type\" : \"record\", \"name\" : \"Inner\", \"fields\" : [" +
+        "    { \"name\" : \"innerField\", \"type\" : \"int\" }," +
+        "    { \"name\" : \"self\", \"type\" : [ \"null\", \"Outer\" ] } ] } }," +
+        "  { \"name\" : \"items\", \"type\" : { \"type\" : \"array\", \"items\" : { \"type\" : \"record\", \"name\" : \"Item\", \"fields\" : [" +
+        "    { \"name\" : \"itemField\", \"type\" : \"string\" } ] } } }" +
+        "] }");
+
+    FieldNameTable table = new FieldNameTable(100);
+    table.seed(schema);
+    // Field names, plus the member keys of the union.
+    assertEquals(table.size(), 7);
+
+    RecordDataSchema outer = (RecordDataSchema) schema;
+    String name = new String("inner");
+    assertSame(table.canonicalize(name), outer.getField("inner").getName());
+    assertEquals(table.canonicalize(new String("Outer")), "Outer");
+    String unknown = new String("unknown");
+    assertSame(table.canonicalize(unknown), unknown);
+
+    assertEquals(table.getHitCount(), 2);
+    assertEquals(table.getMissCount(), 1);
+    assertTrue(table.getBytesSaved() > 0);
+  }
+
+  @Test
+  public void testMaxSize()
+  {
+    FieldNameTable table = new FieldNameTable(2);
+    table.add("a");
+    table.add("b");
+    table.add("a");
+    table.add("c");
+    assertEquals(table.size(), 2);
+    String c = new String("c");
+    assertSame(table.canonicalize(c), c);
+  }
+
+  @DataProvider
+  public Object[][] codecs()
+  {
+    return new Object[][] {
+      { new JacksonDataCodec() },
+      { new JacksonSmileDataCodec() },
+      { new PsonDataCodec() },
+      { new BsonDataCodec() }
+    };
+  }
+
+  @Test(dataProvider = "codecs")
+  public void testDecodedKeysAreCanonical(DataCodec codec) throws IOException
+  {
+    DataMap map = new DataMap();
+    map.put(new String("fieldNameTableKey"), 1);
+    DataMap decoded = codec.bytesToMap(codec.mapToBytes(map));
+
+    String key = decoded.keySet().iterator().next();
+    assertSame(key, SCHEMA.getField("fieldNameTableKey").getName());
+    for (Map.Entry<String, Object> entry : decoded.entrySet())
+    {
+      assertEquals(entry.getValue(), 1);
+    }
+  }
+}
@@ -19,27 +19,38 @@ package com.linkedin.data.codec;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
+import com.linkedin.data.ByteString;
 import com.linkedin.data.Data;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.TestData;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.collections.LazyMap;
+import com.linkedin.data.schema.RecordDataSchema;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.PrettyPrinter;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.util.Instantiatable;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
@@ -211,6 +222,247 @@ public class TestJacksonCodec extends TestCodec
     codec.bytesToMap("[1, 2, 3]".getBytes());
   }
 
+  @DataProvider
+  public Object[][] recordCodecs()
+  {
+    return new Object[][] {{new JacksonDataCodec()}, {new JacksonSmileDataCodec()}};
+  }
+
+  @Test(dataProvider = "recordCodecs")
+  public void testSchemaSpecializedRoundTrip(AbstractJacksonDataCodec codec) throws IOException
+  {
+    RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(
+        "{ \"type\" : \"record\", \"name\" : \"Foo\", \"fields\" : [ " +
+        "{ \"name\" : \"int\", \"type\" : \"int\" }, " +
+        "{ \"name\" : \"string\", \"type\" : \"string\", \"optional\" : true }, " +
+        "{ \"name\" : \"child\", \"type\" : \"Foo\", \"optional\" : true }, " +
+        "{ \"name\" : \"children\", \"type\" : { \"type\" : \"array\", \"items\" : \"Foo\" }, \"optional\" : true }, " +
+        "{ \"name\" : \"byName\", \"type\" : { \"type\" : \"map\", \"values\" : \"Foo\" }, \"optional\" : true } " +
+        "] }");
+
+    DataMap map = TestUtil.dataMapFromString(
+        "{ \"int\" : 1, \"undeclared\" : [ 1, 2 ], " +
+        "\"child\" : { \"int\" : 2, \"string\" : \"s\", \"child\" : { \"int\" : 3 } }, " +
+        "\"children\" : [ { \"int\" : 4 }, 5, { \"string\" : \"t\", \"extra\" : true } ], " +
+        "\"byName\" : { \"a\" : { \"int\" : 6 }, \"b\" : \"notARecord\" } }");
+
+    byte[] specialized = codec.mapToBytes(map, schema);
+    byte[] generic = codec.mapToBytes(map);
+
+    assertEquals(codec.bytesToMap(specialized), map);
+    assertEquals(codec.bytesToMap(specialized, schema), map);
+    assertEquals(codec.bytesToMap(generic, schema), map);
+    assertEquals(codec.readMap(new ByteArrayInputStream(generic), schema), map);
+
+    // Keys matched from the schema are the schema's own field names.
+    DataMap decoded = codec.bytesToMap(specialized, schema);
+    for (String key : decoded.keySet())
+    {
+      if (schema.contains(key))
+      {
+        assertSame(key, schema.getField(key).getName());
+      }
+    }
+  }
+
+  @Test
+  public void testSchemaSpecializedWritesSchemaOrder() throws IOException
+  {
+    RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(
+        "{ \"type\" : \"record\", \"name\" : \"Bar\", \"fields\" : [ " +
+        "{ \"name\" : \"b\", \"type\" : \"int\" }, " +
+        "{ \"name\" : \"a\", \"type\" : \"int\" } ] }");
+
+    DataMap map = new DataMap();
+    map.put("a", 1);
+    map.put("c", 3);
+    map.put("b", 2);
+
+    JacksonDataCodec codec = new JacksonDataCodec();
+    assertEquals(new String(codec.mapToBytes(map, schema)), "{\"b\":2,\"a\":1,\"c\":3}");
+  }
+
+  @Test
+  public void testSchemaSpecializedDuplicateKeys() throws IOException
+  {
+    RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(
+        "{ \"type\" : \"record\", \"name\" : \"Baz\", \"fields\" : [ { \"name\" : \"a\", \"type\" : \"int\" } ] }");
+
+    JacksonDataCodec codec = new JacksonDataCodec();
+    DataMap decoded = codec.bytesToMap("{ \"a\" : 1, \"a\" : 2 }".getBytes(), schema);
+    assertEquals(decoded.get("a"), 2);
+    assertTrue(decoded.getError().contains("\"a\" defined more than once."));
+  }
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testParallelEncoding(String testName, DataComplex dataComplex) throws IOException
+  {
+    JacksonDataCodec parallelCodec = new JacksonDataCodec();
+    parallelCodec.setParallelEncoding(ForkJoinPool.commonPool(), 1);
+
+    byte[] expected = TestUtil.dataComplexToBytes(new JacksonDataCodec(), dataComplex);
+    assertEquals(TestUtil.dataComplexToBytes(parallelCodec, dataComplex), expected);
+    testDataCodec(parallelCodec, dataComplex);
+  }
+
+  @Test
+  public void testParallelEncodingOfLargeCollections() throws IOException
+  {
+    DataList elements = new DataList();
+    DataMap results = new DataMap();
+    for (int i = 0; i < 5000; i++)
+    {
+      DataMap element = new DataMap();
+      element.put("id", i);
+      element.put("name", "element" + i);
+      elements.add(element);
+      DataMap result = new DataMap(element);
+      results.put(String.valueOf(i), result);
+    }
+    DataMap paging = new DataMap();
+    paging.put("count", 10);
+
+    DataMap collectionResponse = new DataMap();
+    collectionResponse.put("elements", elements);
+    collectionResponse.put("paging", paging);
+    DataMap batchResponse = new DataMap();
+    batchResponse.put("results", results);
+    batchResponse.put("errors", new DataMap());
+
+    JacksonDataCodec codec = new JacksonDataCodec();
+    JacksonDataCodec parallelCodec = new JacksonDataCodec();
+    parallelCodec.setParallelEncoding(new ForkJoinPool(4), 1000);
+
+    // The output is the same as the sequential one, with the sliced collection in its original position.
+    assertEquals(parallelCodec.listToBytes(elements), codec.listToBytes(elements));
+    assertEquals(parallelCodec.mapToBytes(collectionResponse), codec.mapToBytes(collectionResponse));
+    assertEquals(parallelCodec.mapToByteString(batchResponse).copyBytes(), codec.mapToBytes(batchResponse));
+    assertEquals(parallelCodec.bytesToMap(parallelCodec.mapToByteString(collectionResponse).copyBytes()), collectionResponse);
+
+    // Below the threshold, and with a pretty printer, the codec encodes on the calling thread.
+    assertEquals(parallelCodec.mapToBytes(paging), codec.mapToBytes(paging));
+    parallelCodec.setPrettyPrinter(new InstantiableStatefulPrettyPrinter());
+    codec.setPrettyPrinter(new InstantiableStatefulPrettyPrinter());
+    assertEquals(parallelCodec.listToBytes(elements), codec.listToBytes(elements));
+  }
+
+  @Test
+  public void testLazyMap() throws IOException
+  {
+    JacksonDataCodec codec = new JacksonDataCodec();
+    String json = "{\"id\":1,\"missing\":null,\"map\":{ \"a\" : [1, 2] },\"list\":[ {\"b\":true} ]}";
+    DataMap map = codec.readLazyMap(ByteString.copyString(json, "UTF-8"));
+    LazyMap<String, Object> lazyMap = LazyMap.unwrap(map);
+    assertNotNull(lazyMap);
+    assertEquals(map.size(), 4);
+    assertEquals(map.get("id"), 1);
+    assertSame(map.get("missing"), Data.NULL);
+    assertNull(lazyMap.getSource("id"));
+    assertNotNull(lazyMap.getSource("map"));
+    assertNotNull(lazyMap.getSource("list"));
+
+    // Values that have not been read are written as they were read, including their whitespace.
+    String written = codec.mapToString(map);
+    assertTrue(written.contains("\"map\":{ \"a\" : [1, 2] }"), written);
+    assertTrue(written.contains("\"list\":[ {\"b\":true} ]"), written);
+    assertEquals(new String(codec.mapToBytes(map), "UTF-8"), written);
+    assertTrue(lazyMap.hasPending());
+
+    // Values that have been read are written from their current state.
+    map.getDataMap("map").put("c", 3);
+    assertNull(lazyMap.getSource("map"));
+    written = codec.mapToString(map);
+    assertTrue(written.contains("\"c\":3"), written);
+    assertTrue(written.contains("\"list\":[ {\"b\":true} ]"), written);
+
+    map.makeReadOnly();
+    assertFalse(lazyMap.hasPending());
+    assertTrue(map.getDataList("list").isMadeReadOnly());
+    DataMap expected = codec.stringToMap(json);
+    expected.getDataMap("map").put("c", 3);
+    assertEquals(map, expected);
+  }
+
+  @Test
+  public void testLazyMapOperations() throws IOException, CloneNotSupportedException
+  {
+    JacksonDataCodec codec = new JacksonDataCodec();
+    byte[] bytes = "{\"a\":{\"x\":1},\"b\":[2],\"c\":{\"y\":3}}".getBytes("UTF-8");
+    DataMap map = codec.readLazyMap(ByteString.copy(bytes));
+    LazyMap<String, Object> lazyMap = LazyMap.unwrap(map);
+
+    // Replaced and removed values are decoded, to be returned.
+    assertEquals(map.put("a", 1), new DataMap(TestUtil.asMap("x", 1)));
+    assertEquals(map.remove("b"), new DataList(TestUtil.asList(2)));
+    assertNull(lazyMap.getSource("a"));
+    assertNotNull(lazyMap.getSource("c"));
+
+    // A clone decodes its values separately.
+    DataMap clone = map.clone();
+    assertNotNull(LazyMap.unwrap(clone));
+    assertNotSame(clone.getDataMap("c"), map.getDataMap("c"));
+    assertEquals(clone, map);
+
+    // Values replaced or removed without returning them are dropped without being decoded.
+    map = codec.readLazyMap(ByteString.copy(bytes));
+    lazyMap = LazyMap.unwrap(map);
+    map.putDiscardingPrevious("a", 1);
+    assertNull(lazyMap.getSource("a"));
+    assertTrue(map.removeDiscardingPrevious("b"));
+    assertFalse(map.removeDiscardingPrevious("b"));
+    assertTrue(lazyMap.hasPending());
+    assertTrue(map.removeDiscardingPrevious("c"));
+    assertFalse(lazyMap.hasPending());
+    assertEquals(map, new DataMap(TestUtil.asMap("a", 1)));
+
+    for (Map.Entry<String, Object> entry : codec.readLazyMap(ByteString.copy(bytes)).entrySet())
+    {
+      assertFalse(entry.getValue() instanceof LazyMap);
+      assertEquals(entry.getValue(), codec.bytesToMap(bytes).get(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void testLazyMapRawValueQuoted() throws IOException
+  {
+    JacksonDataCodec codec = new JacksonDataCodec();
+    String raw = "{\"x\":\"\u00e9\"}";
+    DataMap map = codec.readLazyMap(ByteString.copyString("{\"a\":" + raw + "}", "UTF-8"));
+    SerializableString source = (SerializableString) LazyMap.unwrap(map).getSource("a");
+    SerializedString expected = new SerializedString(raw);
+
+    // The quoted forms escape the raw text as a JSON string.
+    assertEquals(source.getValue(), raw);
+    assertEquals(source.asQuotedChars(), expected.asQuotedChars());
+    assertEquals(source.asQuotedUTF8(), expected.asQuotedUTF8());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JsonGenerator generator = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+    generator.writeString(source);
+    generator.close();
+    assertEquals(out.toString("UTF-8"), "\"" + new String(expected.asQuotedChars()) + "\"");
+  }
+
+  @Test
+  public void testLazyMapFallsBackToEagerDecoding() throws IOException
+  {
+    JacksonDataCodec codec = new JacksonDataCodec();
+
+    // Comments would be copied along with the values, and duplicate keys are reported as an error of the map.
+    for (String json : new String[] { "{\"a\":{\"b\":1 /* comment */}}", "{\"a\":{\"b\":1},\"a\":{\"b\":2}}" })
+    {
+      byte[] bytes = json.getBytes("UTF-8");
+      DataMap map = codec.readLazyMap(ByteString.copy(bytes));
+      assertNull(LazyMap.unwrap(map));
+      assertEquals(map, codec.bytesToMap(bytes));
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void testLazyMapWithSyntaxError() throws IOException
+  {
+    new JacksonDataCodec().readLazyMap(ByteString.copyString("{\"a\":{\"b\":}}", "UTF-8"));
+  }
+
   @Test
   public void testPrettyPrinter()
       throws IOException
@@ -16,14 +16,22 @@
 
 package com.linkedin.data.codec;
 
+import com.linkedin.data.ByteString;
 import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.collections.LazyMap;
 
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
 
 
 public class TestPsonCodec extends TestCodec
@@ -65,4 +73,46 @@ public class TestPsonCodec extends TestCodec
     }
   }
 
+  @Test
+  public void testLazyMap() throws IOException
+  {
+    DataMap a = new DataMap(TestUtil.asMap("x", 1, "y", "s"));
+    DataMap b = new DataMap(TestUtil.asMap("y", 2, "z", new DataList(TestUtil.asList(new DataMap(TestUtil.asMap("x", 3, "w", true))))));
+    DataMap root = new DataMap(TestUtil.asMap("a", a, "b", b, "c", 4, "d", "e", "empty", new DataMap()));
+
+    Boolean[] booleanValues = new Boolean[] { Boolean.TRUE, Boolean.FALSE };
+    PsonDataCodec codec = new PsonDataCodec();
+    for (boolean encodeCollectionCount : booleanValues)
+    {
+      for (boolean encodeStringLength : booleanValues)
+      {
+        codec.setOptions(new PsonDataCodec.Options()
+            .setEncodeCollectionCount(encodeCollectionCount)
+            .setEncodeStringLength(encodeStringLength));
+        byte[] bytes = codec.mapToBytes(root);
+        for (int chunkSize : new int[] { 1, 7, Integer.MAX_VALUE })
+        {
+          DataMap map = codec.readLazyMap(chunked(bytes, chunkSize));
+          LazyMap<String, Object> lazyMap = LazyMap.unwrap(map);
+          assertNotNull(lazyMap.getSource("a"));
+          assertNotNull(lazyMap.getSource("b"));
+          assertNull(lazyMap.getSource("c"));
+          assertNull(lazyMap.getSource("empty"));
+          assertEquals(map.get("c"), 4);
+
+          // The values use keys defined by each other, so they are read in reverse order.
+          assertEquals(map.get("b"), b);
+          assertEquals(map.get("a"), a);
+          assertEquals(map, root);
+        }
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void testLazyMapOfList() throws IOException
+  {
+    PsonDataCodec codec = new PsonDataCodec();
+    codec.readLazyMap(ByteString.copy(codec.listToBytes(new DataList(TestUtil.asList(1)))));
+  }
 }
@@ -0,0 +1,154 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.schema.DataSchema;
+import java.io.IOException;
+import java.util.Arrays;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestSchemaPsonCodec extends TestCodec
+{
+  private static final String SCHEMA =
+    "{ \"type\" : \"record\", \"name\" : \"Event\", \"namespace\" : \"com.linkedin.test\", \"fields\" : [ " +
+    "  { \"name\" : \"id\", \"type\" : \"long\" }, " +
+    "  { \"name\" : \"name\", \"type\" : \"string\" }, " +
+    "  { \"name\" : \"list\", \"type\" : { \"type\" : \"array\", \"items\" : \"int\" }, \"optional\" : true }, " +
+    "  { \"name\" : \"attributes\", \"type\" : { \"type\" : \"map\", \"values\" : { \"type\" : \"record\", \"name\" : \"Attribute\", " +
+    "    \"fields\" : [ { \"name\" : \"key\", \"type\" : \"string\" }, { \"name\" : \"id\", \"type\" : \"int\" } ] } } }, " +
+    "  { \"name\" : \"value\", \"type\" : [ \"int\", \"Attribute\" ], \"optional\" : true } " +
+    "] }";
+
+  private static final String VALUE =
+    "{ \"id\" : 1, \"name\" : \"first\", \"list\" : [ 1, 2 ], " +
+    "  \"attributes\" : { \"a\" : { \"key\" : \"x\", \"id\" : 2 }, \"b\" : { \"key\" : \"y\", \"id\" : 3, \"extra\" : true } }, " +
+    "  \"value\" : { \"com.linkedin.test.Attribute\" : { \"key\" : \"z\", \"id\" : 4 } }, " +
+    "  \"unknown\" : { \"extra\" : [ { \"unknown\" : 5 } ] } }";
+
+  private DataSchema _schema;
+
+  @BeforeClass
+  public void setUp() throws IOException
+  {
+    _schema = TestUtil.dataSchemaFromString(SCHEMA);
+  }
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testSchemaPsonDataCodec(String testName, DataComplex dataComplex) throws IOException
+  {
+    Boolean[] booleanValues = new Boolean[] { Boolean.TRUE, Boolean.FALSE };
+    SchemaPsonDataCodec codec = new SchemaPsonDataCodec(_schema);
+    for (boolean encodeCollectionCount : booleanValues)
+    {
+      for (boolean encodeStringLength : booleanValues)
+      {
+        codec.setOptions(new PsonDataCodec.Options()
+            .setEncodeCollectionCount(encodeCollectionCount)
+            .setEncodeStringLength(encodeStringLength));
+        testDataCodec(codec, dataComplex);
+      }
+    }
+  }
+
+  @Test
+  public void testKeysNotDefined() throws IOException
+  {
+    DataMap value = TestUtil.dataMapFromString(VALUE);
+    SchemaPsonDataCodec codec = new SchemaPsonDataCodec(_schema);
+    assertEquals(codec.getKeyCount(), 8);
+    testDataCodec(codec, value);
+
+    byte[] bytes = codec.mapToBytes(value);
+    byte[] psonBytes = new PsonDataCodec().mapToBytes(value);
+    String encoded = new String(bytes, "ISO-8859-1");
+    assertTrue(encoded.startsWith("#!PSON2\n"));
+    for (String key : Arrays.asList("id", "name", "list", "attributes", "key", "value", "com.linkedin.test.Attribute"))
+    {
+      assertTrue(encoded.contains("\"" + key) == false && encoded.contains(key + "\u0000") == false, key);
+    }
+    for (String key : Arrays.asList("unknown", "extra", "a", "b"))
+    {
+      assertTrue(encoded.contains(key + "\u0000"), key);
+    }
+    assertTrue(bytes.length < psonBytes.length - 40, bytes.length + " vs " + psonBytes.length);
+  }
+
+  @Test
+  public void testFingerprint() throws IOException
+  {
+    DataMap value = TestUtil.dataMapFromString(VALUE);
+    SchemaPsonDataCodec codec = new SchemaPsonDataCodec(_schema);
+    SchemaPsonDataCodec sameCodec = new SchemaPsonDataCodec(TestUtil.dataSchemaFromString(SCHEMA));
+    assertEquals(sameCodec.getKeyFingerprint(), codec.getKeyFingerprint());
+    assertEquals(sameCodec.bytesToMap(codec.mapToBytes(value)), value);
+
+    DataSchema otherSchema = TestUtil.dataSchemaFromString(SCHEMA.replace("\"name\" : \"name\"", "\"name\" : \"title\""));
+    SchemaPsonDataCodec otherCodec = new SchemaPsonDataCodec(otherSchema);
+    assertNotEquals(otherCodec.getKeyFingerprint(), codec.getKeyFingerprint());
+    try
+    {
+      otherCodec.bytesToMap(codec.mapToBytes(value));
+      fail("Expected DataDecodingException");
+    }
+    catch (DataDecodingException e)
+    {
+      assertTrue(e.getMessage().contains(Long.toHexString(codec.getKeyFingerprint())), e.getMessage());
+    }
+  }
+
+  @Test
+  public void testPsonVersions() throws IOException
+  {
+    DataMap value = TestUtil.dataMapFromString(VALUE);
+    SchemaPsonDataCodec codec = new SchemaPsonDataCodec(_schema);
+    PsonDataCodec psonCodec = new PsonDataCodec();
+
+    // PSON version 1 values are decoded.
+    byte[] psonBytes = psonCodec.mapToBytes(value);
+    assertEquals(codec.bytesToMap(psonBytes), value);
+    assertEquals(codec.readLazyMap(chunked(psonBytes, 7)), value);
+
+    // PSON version 2 values are rejected by PSON version 1 codecs.
+    try
+    {
+      psonCodec.bytesToMap(codec.mapToBytes(value));
+      fail("Expected IOException");
+    }
+    catch (IOException e)
+    {
+      assertTrue(e.getMessage().contains("Expecting header"), e.getMessage());
+    }
+  }
+
+  @Test
+  public void testList() throws IOException
+  {
+    DataList list = new DataList(Arrays.<Object>asList(TestUtil.dataMapFromString(VALUE), TestUtil.dataMapFromString(VALUE)));
+    testDataCodec(new SchemaPsonDataCodec(_schema), list);
+  }
+}
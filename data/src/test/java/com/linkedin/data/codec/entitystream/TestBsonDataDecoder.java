@@ -0,0 +1,106 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.ChunkedByteStringWriter;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.codec.BsonDataCodec;
+import com.linkedin.data.codec.CodecDataProviders;
+import com.linkedin.entitystream.EntityStream;
+import com.linkedin.entitystream.EntityStreams;
+import com.linkedin.entitystream.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+
+public class TestBsonDataDecoder
+{
+  private static final BsonDataCodec BSON_DATA_CODEC = new BsonDataCodec();
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testDecoder(String testName, DataComplex dataComplex) throws Exception
+  {
+    byte[] bytes = TestUtil.dataComplexToBytes(BSON_DATA_CODEC, dataComplex);
+    DataComplex decodedDataComplex = decode(bytes, dataComplex.getClass(), 3);
+    assertEquals(TestUtil.dataComplexToBytes(BSON_DATA_CODEC, decodedDataComplex), bytes);
+    assertEquals(decode(bytes, dataComplex.getClass(), 1), decodedDataComplex);
+  }
+
+  @Test(dataProvider = "numbersData", dataProviderClass = CodecDataProviders.class)
+  public void testNumbers(Object number) throws Exception
+  {
+    DataMap dataMap = new DataMap();
+    dataMap.put("number", number);
+    byte[] bytes = TestUtil.dataComplexToBytes(BSON_DATA_CODEC, dataMap);
+    assertEquals(decode(bytes, DataMap.class, 3), dataMap);
+  }
+
+  @Test
+  public void testTrailingData() throws Exception
+  {
+    DataMap dataMap = new DataMap();
+    dataMap.put("key", "value");
+    byte[] bytes = TestUtil.dataComplexToBytes(BSON_DATA_CODEC, dataMap);
+
+    try
+    {
+      decode(Arrays.copyOf(bytes, bytes.length + 1), DataMap.class, 3);
+      fail("Parsing map followed by another byte");
+    }
+    catch (ExecutionException e)
+    {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testTruncated() throws Exception
+  {
+    DataList dataList = new DataList();
+    dataList.add("value");
+    byte[] bytes = TestUtil.dataComplexToBytes(BSON_DATA_CODEC, dataList);
+
+    try
+    {
+      decode(Arrays.copyOf(bytes, bytes.length - 1), DataList.class, 3);
+      fail("Parsing truncated list");
+    }
+    catch (ExecutionException e)
+    {
+      // Expected.
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends DataComplex> T decode(byte[] bytes, Class<?> rootClass, int chunkSize) throws Exception
+  {
+    Writer<ByteString> writer = new ChunkedByteStringWriter(bytes, chunkSize);
+    EntityStream<ByteString> entityStream = EntityStreams.newEntityStream(writer);
+    BsonDataDecoder<T> decoder = new BsonDataDecoder<>((Class<T>) rootClass);
+    entityStream.setReader(decoder);
+
+    return decoder.getResult().toCompletableFuture().get();
+  }
+}
@@ -24,6 +24,7 @@ import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.TestUtil;
 import com.linkedin.data.codec.CodecDataProviders;
+import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.entitystream.CollectingReader;
 import com.linkedin.entitystream.EntityStream;
 import com.linkedin.entitystream.EntityStreams;
@@ -45,12 +46,32 @@ public class TestJacksonJsonDataEncoder
     assertEquals(actual, expected);
   }
 
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testProjectedEncoder(String testName, DataComplex dataComplex)
+      throws Exception
+  {
+    if (dataComplex instanceof DataMap)
+    {
+      DataMap map = (DataMap) dataComplex;
+      byte[] expected = new JacksonDataCodec().mapToBytes(map, CodecDataProviders.SAMPLE_PROJECTION);
+      byte[] actual = encode(new JacksonJsonDataEncoder(map, CodecDataProviders.SAMPLE_PROJECTION, 3));
+
+      assertEquals(actual, expected);
+    }
+  }
+
   private byte[] encode(DataComplex data)
       throws Exception
   {
     JacksonJsonDataEncoder encoder = data instanceof DataMap
         ? new JacksonJsonDataEncoder((DataMap) data, 3)
         : new JacksonJsonDataEncoder((DataList) data, 3);
+    return encode(encoder);
+  }
+
+  private byte[] encode(JacksonJsonDataEncoder encoder)
+      throws Exception
+  {
     EntityStream<ByteString> entityStream = EntityStreams.newEntityStream(encoder);
     CollectingReader<ByteString, ?, ChunkedByteStringCollector.Result> reader = new CollectingReader<>(new ChunkedByteStringCollector());
     entityStream.setReader(reader);
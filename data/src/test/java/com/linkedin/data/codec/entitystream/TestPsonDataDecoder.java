@@ -0,0 +1,167 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.linkedin.data.codec.entitystream;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.ChunkedByteStringWriter;
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.codec.CodecDataProviders;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.entitystream.EntityStream;
+import com.linkedin.entitystream.EntityStreams;
+import com.linkedin.entitystream.Writer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+
+public class TestPsonDataDecoder
+{
+  private static final PsonDataCodec PSON_DATA_CODEC = new PsonDataCodec();
+  private static final PsonDataCodec PSON_DATA_CODEC_WITH_COUNTS = new PsonDataCodec().setOptions(
+      new PsonDataCodec.Options().setEncodeCollectionCount(true).setEncodeStringLength(false));
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testDecoder(String testName, DataComplex dataComplex) throws Exception
+  {
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC, dataComplex);
+    DataComplex decodedDataComplex = decode(bytes, 3);
+    assertEquals(TestUtil.dataComplexToBytes(PSON_DATA_CODEC, decodedDataComplex), bytes);
+    assertEquals(decode(bytes, 1), decodedDataComplex);
+  }
+
+  @Test(dataProvider = "codecData", dataProviderClass = CodecDataProviders.class)
+  public void testDecoderWithCounts(String testName, DataComplex dataComplex) throws Exception
+  {
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC_WITH_COUNTS, dataComplex);
+    // Maps are presized from their counts, so their iteration order may differ and the decoded data is compared.
+    assertEquals(decode(bytes, 5), dataComplex);
+  }
+
+  @Test(dataProvider = "numbersData", dataProviderClass = CodecDataProviders.class)
+  public void testNumbers(Object number) throws Exception
+  {
+    DataMap dataMap = new DataMap();
+    dataMap.put("number", number);
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC, dataMap);
+    assertEquals(decode(bytes, 3), dataMap);
+  }
+
+  @Test
+  public void testLargeValues() throws Exception
+  {
+    char[] chars = new char[10000];
+    Arrays.fill(chars, '\u00e9');
+    byte[] binary = new byte[10000];
+    Arrays.fill(binary, (byte) 7);
+    DataMap dataMap = new DataMap();
+    dataMap.put("string", new String(chars));
+    dataMap.put("bytes", ByteString.copy(binary));
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC, dataMap);
+    assertEquals(decode(bytes, 100), dataMap);
+  }
+
+  @Test
+  public void testInvalidMap() throws Exception
+  {
+    DataList dataList = new DataList();
+    dataList.add(1);
+    dataList.add(2);
+    dataList.add(4);
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC, dataList);
+    decode(bytes, 3);
+
+    try
+    {
+      decode(bytes, new PsonDataDecoder<>(DataMap.class));
+      fail("Parsing list as map.");
+    }
+    catch (ExecutionException e)
+    {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testInvalidList() throws Exception
+  {
+    DataMap dataMap = new DataMap();
+    dataMap.put("key", true);
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC, dataMap);
+    decode(bytes, 3);
+
+    try
+    {
+      decode(bytes, new PsonDataDecoder<>(DataList.class));
+      fail("Parsing map as list");
+    }
+    catch (ExecutionException e)
+    {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testTruncated() throws Exception
+  {
+    DataMap dataMap = new DataMap();
+    dataMap.put("key", "value");
+    byte[] bytes = TestUtil.dataComplexToBytes(PSON_DATA_CODEC, dataMap);
+
+    try
+    {
+      decode(Arrays.copyOf(bytes, bytes.length - 1), 3);
+      fail("Parsing truncated map");
+    }
+    catch (ExecutionException e)
+    {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testEmptySource() throws Exception
+  {
+    assertNull(decode(new byte[0], 3));
+  }
+
+  private static DataComplex decode(byte[] bytes, int chunkSize) throws Exception
+  {
+    Writer<ByteString> writer = new ChunkedByteStringWriter(bytes, chunkSize);
+    EntityStream<ByteString> entityStream = EntityStreams.newEntityStream(writer);
+    PsonDataDecoder<DataComplex> decoder = new PsonDataDecoder<>();
+    entityStream.setReader(decoder);
+
+    return decoder.getResult().toCompletableFuture().get();
+  }
+
+  private static <T extends DataComplex> T decode(byte[] bytes, PsonDataDecoder<T> decoder) throws Exception
+  {
+    Writer<ByteString> writer = new ChunkedByteStringWriter(bytes, 3);
+    EntityStream<ByteString> entityStream = EntityStreams.newEntityStream(writer);
+    entityStream.setReader(decoder);
+
+    return decoder.getResult().toCompletableFuture().get();
+  }
+}
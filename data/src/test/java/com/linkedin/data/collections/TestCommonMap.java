@@ -304,12 +304,45 @@ public class TestCommonMap
     assert(expectedValues.containsAll(map.values()));
   }
 
+  @Test
+  public void testModificationCount() throws CloneNotSupportedException
+  {
+    for (MapStorage storage : MapStorage.values())
+    {
+      CheckedMap<String, Integer> map = new CheckedMap<String, Integer>(storage);
+      Set<Integer> counts = new HashSet<Integer>();
+      counts.add(map.getModificationCount());
+
+      map.put("a", 1);
+      assertTrue(counts.add(map.getModificationCount()));
+      map.remove("a");
+      assertTrue(counts.add(map.getModificationCount()));
+      Map<String, Integer> other = new HashMap<String, Integer>();
+      other.put("b", 2);
+      map.putAll(other);
+      assertTrue(counts.add(map.getModificationCount()));
+
+      // reads and changes of clones do not change the count of the original map
+      int count = map.getModificationCount();
+      map.get("b");
+      map.containsKey("b");
+      CheckedMap<String, Integer> clone = map.clone();
+      clone.put("c", 3);
+      assertEquals(map.getModificationCount(), count);
+
+      map.clear();
+      assertTrue(counts.add(map.getModificationCount()));
+    }
+  }
+
   @DataProvider(name = "factories")
   public Object[][] mapFactories()
   {
     return new Object[][] {
       { new CowMapFactory() },
-      { new CheckedMapFactory() }
+      { new CheckedMapFactory() },
+      { new CompactCowMapFactory() },
+      { new CompactCheckedMapFactory() }
     };
   }
 
@@ -378,4 +411,68 @@ public class TestCommonMap
       return new CheckedMap<K, V>(map, checker);
     }
   }
+
+  public static class CompactCowMapFactory implements CommonMapFactory
+  {
+    public <K,V> CommonMap<K,V> create()
+    {
+      return new CowMap<K, V>(MapStorage.COMPACT);
+    }
+    public <K,V> CommonMap<K,V> create(int initialCapacity)
+    {
+      return new CowMap<K, V>(MapStorage.COMPACT);
+    }
+    public <K,V> CommonMap<K,V> create(int initialCapacity, float factor)
+    {
+      return new CowMap<K, V>(MapStorage.COMPACT);
+    }
+    public <K,V> CommonMap<K,V> create(Map<K,V> map)
+    {
+      CommonMap<K,V> result = new CowMap<K, V>(MapStorage.COMPACT);
+      result.putAll(map);
+      return result;
+    }
+    public <K,V> CommonMap<K,V> create(MapChecker<K,V> checker)
+    {
+      return new CowMap<K, V>(MapStorage.COMPACT, checker);
+    }
+    public <K,V> CommonMap<K,V> create(Map<K,V> map, MapChecker<K,V> checker)
+    {
+      CommonMap<K,V> result = new CowMap<K, V>(MapStorage.COMPACT, checker);
+      result.putAll(map);
+      return result;
+    }
+  }
+
+  public static class CompactCheckedMapFactory implements CommonMapFactory
+  {
+    public <K,V> CommonMap<K,V> create()
+    {
+      return new CheckedMap<K, V>(MapStorage.COMPACT);
+    }
+    public <K,V> CommonMap<K,V> create(int initialCapacity)
+    {
+      return new CheckedMap<K, V>(MapStorage.COMPACT);
+    }
+    public <K,V> CommonMap<K,V> create(int initialCapacity, float factor)
+    {
+      return new CheckedMap<K, V>(MapStorage.COMPACT);
+    }
+    public <K,V> CommonMap<K,V> create(Map<K,V> map)
+    {
+      CommonMap<K,V> result = new CheckedMap<K, V>(MapStorage.COMPACT);
+      result.putAll(map);
+      return result;
+    }
+    public <K,V> CommonMap<K,V> create(MapChecker<K,V> checker)
+    {
+      return new CheckedMap<K, V>(MapStorage.COMPACT, checker);
+    }
+    public <K,V> CommonMap<K,V> create(Map<K,V> map, MapChecker<K,V> checker)
+    {
+      CommonMap<K,V> result = new CheckedMap<K, V>(MapStorage.COMPACT, checker);
+      result.putAll(map);
+      return result;
+    }
+  }
 }
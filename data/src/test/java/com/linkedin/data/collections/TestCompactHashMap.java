@@ -0,0 +1,206 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestCompactHashMap
+{
+  /**
+   * Key whose hash code is chosen by the test, used to force collisions and wrap-around probing.
+   */
+  private static class Key
+  {
+    private final int _id;
+    private final int _hash;
+
+    Key(int id, int hash)
+    {
+      _id = id;
+      _hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+      return o instanceof Key && ((Key) o)._id == _id;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return _hash;
+    }
+
+    @Override
+    public String toString()
+    {
+      return "Key" + _id;
+    }
+  }
+
+  @Test
+  public void testAgainstHashMap()
+  {
+    Random random = new Random(42);
+    Map<Object, Integer> expected = new HashMap<Object, Integer>();
+    CompactHashMap<Object, Integer> map = new CompactHashMap<Object, Integer>();
+    for (int i = 0; i < 20000; i++)
+    {
+      // Few distinct hash codes, so that removals exercise the backward shift across probe chains.
+      int id = random.nextInt(200);
+      Key key = new Key(id, id % 16);
+      int op = random.nextInt(4);
+      if (op == 0)
+      {
+        assertEquals(map.remove(key), expected.remove(key));
+      }
+      else if (op == 1)
+      {
+        assertEquals(map.get(key), expected.get(key));
+      }
+      else
+      {
+        assertEquals(map.put(key, i), expected.put(key, i));
+      }
+      assertEquals(map.size(), expected.size());
+    }
+
+    assertEquals(map, expected);
+    assertEquals(expected, map);
+    assertEquals(map.hashCode(), expected.hashCode());
+    for (Object key : expected.keySet())
+    {
+      assertTrue(map.containsKey(key));
+    }
+  }
+
+  @Test
+  public void testRemoveWithWrapAround()
+  {
+    CompactHashMap<Object, Integer> map = new CompactHashMap<Object, Integer>(4);
+    // All keys share the home slot of hash 7, which is the last slot of the table, so probing wraps.
+    for (int i = 0; i < 3; i++)
+    {
+      map.put(new Key(i, 7), i);
+    }
+    assertEquals(map.remove(new Key(0, 7)), Integer.valueOf(0));
+    assertEquals(map.get(new Key(1, 7)), Integer.valueOf(1));
+    assertEquals(map.get(new Key(2, 7)), Integer.valueOf(2));
+    assertEquals(map.remove(new Key(1, 7)), Integer.valueOf(1));
+    assertEquals(map.get(new Key(2, 7)), Integer.valueOf(2));
+    assertEquals(map.size(), 1);
+  }
+
+  @Test
+  public void testNullKeyAndValue()
+  {
+    CompactHashMap<String, String> map = new CompactHashMap<String, String>();
+    assertNull(map.get(null));
+    assertFalse(map.containsKey(null));
+
+    map.put(null, "a");
+    map.put("b", null);
+    assertEquals(map.get(null), "a");
+    assertTrue(map.containsKey(null));
+    assertTrue(map.containsKey("b"));
+    assertTrue(map.containsValue(null));
+    assertTrue(map.keySet().contains(null));
+
+    Map<String, String> expected = new HashMap<String, String>();
+    expected.put(null, "a");
+    expected.put("b", null);
+    assertEquals(map, expected);
+    assertEquals(map.hashCode(), expected.hashCode());
+
+    assertEquals(map.remove(null), "a");
+    assertFalse(map.containsKey(null));
+    assertEquals(map.size(), 1);
+  }
+
+  @Test
+  public void testClone()
+  {
+    CompactHashMap<String, String> map = new CompactHashMap<String, String>(TestCommonMap.referenceMap1);
+    CompactHashMap<String, String> clone = map.clone();
+    clone.put("k4", "4");
+    clone.remove("k1");
+    TestCommonMap.testAgainstReferenceMap1(map);
+    assertEquals(clone.size(), 3);
+    assertEquals(clone.get("k4"), "4");
+
+    CompactHashMap<String, String> empty = new CompactHashMap<String, String>().clone();
+    empty.put("a", "b");
+    assertEquals(empty.get("a"), "b");
+  }
+
+  @Test
+  public void testIteratorIsFailFast()
+  {
+    CompactHashMap<String, String> map = new CompactHashMap<String, String>(TestCommonMap.referenceMap1);
+    Iterator<String> it = map.keySet().iterator();
+    it.next();
+    map.put("k4", "4");
+    try
+    {
+      it.next();
+      fail("Expected ConcurrentModificationException");
+    }
+    catch (ConcurrentModificationException e)
+    {
+    }
+  }
+
+  @Test
+  public void testEntrySetValue()
+  {
+    CompactHashMap<String, String> map = new CompactHashMap<String, String>(TestCommonMap.referenceMap1);
+    for (Map.Entry<String, String> e : map.entrySet())
+    {
+      assertEquals(e.setValue("x" + e.getValue()), TestCommonMap.referenceMap1.get(e.getKey()));
+      assertEquals(e.getValue(), "x" + TestCommonMap.referenceMap1.get(e.getKey()));
+    }
+    for (Map.Entry<String, String> e : TestCommonMap.referenceMap1.entrySet())
+    {
+      assertEquals(map.get(e.getKey()), "x" + e.getValue());
+    }
+  }
+
+  @Test
+  public void testClear()
+  {
+    CompactHashMap<String, String> map = new CompactHashMap<String, String>(TestCommonMap.referenceMap1);
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get("k1"));
+    map.putAll(TestCommonMap.referenceMap2);
+    TestCommonMap.containsReferenceMap2(map);
+  }
+}
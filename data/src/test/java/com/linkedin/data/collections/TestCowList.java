@@ -581,4 +581,42 @@ public class TestCowList
     assertEquals(list1.getRefCounted().getRefCount(), 1);
     assertEquals(list44.getRefCounted().getRefCount(), 0);
   }
+
+  @Test
+  public void testCloneReadOnly() throws CloneNotSupportedException
+  {
+    CowList<Integer> list1 = new CowList<Integer>(referenceList1);
+    CowList<Integer> list2 = list1.clone();
+    assertEquals(list1.getRefCounted().getRefCount(), 1);
+    list1.setReadOnly();
+
+    CowList<Integer> list3 = list1.clone();
+    assertFalse(list3.isReadOnly());
+    assertTrue(list3.isBorrowed());
+    assertTrue(list3.getRefCounted() == list1.getRefCounted());
+    assertEquals(list1.getRefCounted().getRefCount(), 1);
+    testAgainstReferenceList1(list3);
+
+    CowList<Integer> list4 = list3.clone();
+    assertTrue(list4.isBorrowed());
+    assertTrue(list4.getRefCounted() == list1.getRefCounted());
+    assertEquals(list1.getRefCounted().getRefCount(), 1);
+
+    list3.add(-1);
+    assertFalse(list3.isBorrowed());
+    assertTrue(list3.getRefCounted() != list1.getRefCounted());
+    assertEquals(list3.getRefCounted().getRefCount(), 0);
+    notContain(list1, -1);
+    notContain(list4, -1);
+    list3.invalidate();
+    list4.invalidate();
+    assertEquals(list1.getRefCounted().getRefCount(), 1);
+
+    // list1 has lent its list, so the list stays shared with list2 after list1 is invalidated.
+    list1.invalidate();
+    assertEquals(list2.getRefCounted().getRefCount(), 1);
+    CowList<Integer> list5 = list2.clone();
+    list2.add(-2);
+    notContain(list5, -2);
+  }
 }
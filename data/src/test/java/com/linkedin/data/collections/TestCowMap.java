@@ -191,4 +191,42 @@ public class TestCowMap
     assertTrue(exc != null);
     map10.invalidate();
   }
+
+  @Test
+  public void testCloneReadOnly() throws CloneNotSupportedException
+  {
+    CowMap<String,String> map1 = new CowMap<String,String>(referenceMap1);
+    CowMap<String,String> map2 = map1.clone();
+    assertEquals(map1.getRefCounted().getRefCount(), 1);
+    map1.setReadOnly();
+
+    CowMap<String,String> map3 = map1.clone();
+    assertFalse(map3.isReadOnly());
+    assertTrue(map3.isBorrowed());
+    assertTrue(map3.getRefCounted() == map1.getRefCounted());
+    assertEquals(map1.getRefCounted().getRefCount(), 1);
+    testAgainstReferenceMap1(map3);
+
+    CowMap<String,String> map4 = map3.clone();
+    assertTrue(map4.isBorrowed());
+    assertTrue(map4.getRefCounted() == map1.getRefCounted());
+    assertEquals(map1.getRefCounted().getRefCount(), 1);
+
+    map3.put("x", "y");
+    assertFalse(map3.isBorrowed());
+    assertTrue(map3.getRefCounted() != map1.getRefCounted());
+    assertEquals(map3.getRefCounted().getRefCount(), 0);
+    assertFalse(map1.containsKey("x"));
+    assertFalse(map4.containsKey("x"));
+    map3.invalidate();
+    map4.invalidate();
+    assertEquals(map1.getRefCounted().getRefCount(), 1);
+
+    // map1 has lent its map, so the map stays shared with map2 after map1 is invalidated.
+    map1.invalidate();
+    assertEquals(map2.getRefCounted().getRefCount(), 1);
+    CowMap<String,String> map5 = map2.clone();
+    map2.put("x", "y");
+    assertFalse(map5.containsKey("x"));
+  }
 }
@@ -0,0 +1,284 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.it;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.element.DataElement;
+import com.linkedin.data.element.SimpleDataElement;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.it.Predicates.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestCompiledIterator
+{
+  private static final String SCHEMA =
+    "{ \"type\" : \"record\", \"name\" : \"Node\", \"namespace\" : \"com.linkedin.test\", \"fields\" : [ " +
+    "  { \"name\" : \"name\", \"type\" : \"string\" }, " +
+    "  { \"name\" : \"children\", \"type\" : { \"type\" : \"array\", \"items\" : \"Node\" }, \"optional\" : true }, " +
+    "  { \"name\" : \"tags\", \"type\" : { \"type\" : \"map\", \"values\" : \"string\" }, \"optional\" : true }, " +
+    "  { \"name\" : \"value\", \"type\" : [ \"int\", " +
+    "    { \"type\" : \"record\", \"name\" : \"Leaf\", \"fields\" : [ { \"name\" : \"id\", \"type\" : \"long\" } ] } ], \"optional\" : true }, " +
+    "  { \"name\" : \"meta\", \"type\" : { \"type\" : \"typeref\", \"name\" : \"MetaRef\", \"ref\" : " +
+    "    { \"type\" : \"record\", \"name\" : \"Meta\", \"fields\" : [ " +
+    "      { \"name\" : \"id\", \"type\" : \"long\" }, " +
+    "      { \"name\" : \"leaves\", \"type\" : { \"type\" : \"map\", \"values\" : \"Leaf\" } } ] } }, \"optional\" : true } " +
+    "] }";
+
+  private static final Object[] PATTERN_COMPONENTS =
+  {
+    "name", "children", "tags", "value", "meta", "id", "leaves", "com.linkedin.test.Leaf", "unknown", 0, 1, 2,
+    Wildcard.ANY_ONE, Wildcard.ANY_ZERO_OR_ONE, Wildcard.ANY_ZERO_OR_MORE, Wildcard.ANY_ONE_OR_MORE
+  };
+
+  private RecordDataSchema _schema;
+  private DataMap _data;
+
+  @BeforeClass
+  public void setUp() throws IOException
+  {
+    _schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    _data = node(new Random(42), 0, 4);
+    _data.put("meta", meta());
+  }
+
+  @DataProvider(name = "orders")
+  public Object[][] orders()
+  {
+    return new Object[][] { { IterationOrder.PRE_ORDER }, { IterationOrder.POST_ORDER } };
+  }
+
+  @Test(dataProvider = "orders")
+  public void testSameAsFilterIterator(IterationOrder order)
+  {
+    Random random = new Random(7);
+    DataElement root = new SimpleDataElement(_data, _schema);
+    for (int i = 0; i < 500; i++)
+    {
+      Object[] pattern = new Object[random.nextInt(5)];
+      for (int j = 0; j < pattern.length; j++)
+      {
+        pattern[j] = PATTERN_COMPONENTS[random.nextInt(PATTERN_COMPONENTS.length)];
+      }
+      Predicate predicate = pathMatchesPattern(pattern);
+      assertSameAsFilterIterator(root, order, predicate);
+      assertSameAsFilterIterator(root, order, and(predicate, dataSchemaNameEquals("com.linkedin.test.Leaf")));
+      assertSameAsFilterIterator(root, order, and(dataSchemaTypeEquals(DataSchema.Type.ARRAY), predicate));
+      assertSameAsFilterIterator(root, order, and(predicate, valueInstanceOf(String.class)));
+      assertSameAsFilterIterator(new SimpleDataElement(_data, null), order, predicate);
+    }
+    assertSameAsFilterIterator(root, order, dataSchemaNameEquals("com.linkedin.test.MetaRef"));
+    assertSameAsFilterIterator(root, order, dataSchemaNameEquals("com.linkedin.test.Unknown"));
+    assertSameAsFilterIterator(root, order, and(dataSchemaTypeEquals(DataSchema.Type.LONG), nameEquals("id")));
+    assertSameAsFilterIterator(root, order, hasChildWithNameValue("name", "node-3"));
+  }
+
+  @Test(dataProvider = "orders")
+  public void testStartElementWithParent(IterationOrder order)
+  {
+    DataElement root = new SimpleDataElement(_data, _schema);
+    DataElement child = new SimpleDataElement(((DataList) _data.get("children")).get(1), 1, null, root);
+    assertSameAsFilterIterator(child, order, pathMatchesPattern(Wildcard.ANY_ONE, "name"));
+    assertSameAsFilterIterator(child, order, pathMatchesPattern(1, Wildcard.ANY_ONE_OR_MORE, "name"));
+    assertSameAsFilterIterator(child, order, pathMatchesPattern(0, Wildcard.ANY_ZERO_OR_MORE));
+    assertTrue(Builder.create(child, order).filterBy(pathMatchesPattern(1)).count() == 1);
+  }
+
+  @Test
+  public void testSkipsSubtrees()
+  {
+    final List<String> visited = new ArrayList<String>();
+    Predicate recording = new Predicate()
+    {
+      @Override
+      public boolean evaluate(DataElement element)
+      {
+        visited.add(element.pathAsString());
+        return true;
+      }
+    };
+
+    List<String> expected = paths(new FilterIterator(new ObjectIterator(_data, _schema, IterationOrder.PRE_ORDER),
+                                                     and(recording, pathMatchesPattern("meta", "id"))));
+    assertFalse(expected.isEmpty());
+    int allVisited = visited.size();
+
+    visited.clear();
+    Builder builder = Builder.create(_data, _schema, IterationOrder.PRE_ORDER);
+    assertEquals(paths(builder.filterBy(recording).filterBy(pathMatchesPattern("meta", "id")).dataIterator()), expected);
+    assertTrue(visited.size() < allVisited / 10, visited.size() + " of " + allVisited);
+    for (String path : visited)
+    {
+      assertTrue(path.isEmpty() || path.equals("/meta") || path.startsWith("/meta/"), path);
+    }
+
+    // Leaf records cannot be reached through the tags field.
+    visited.clear();
+    builder = Builder.create(_data, _schema, IterationOrder.PRE_ORDER);
+    assertTrue(builder.filterBy(recording).filterBy(dataSchemaNameEquals("com.linkedin.test.Leaf")).count() > 0);
+    boolean visitedTags = false;
+    for (String path : visited)
+    {
+      visitedTags |= path.endsWith("/tags");
+      assertFalse(path.contains("/tags/"), path);
+    }
+    assertTrue(visitedTags);
+  }
+
+  @Test(dataProvider = "orders")
+  public void testParallelIterate(IterationOrder order)
+  {
+    DataMap data = new DataMap();
+    DataList children = new DataList();
+    Random random = new Random(3);
+    for (int i = 0; i < 3 * ParallelTraversal.SPLIT_THRESHOLD + 17; i++)
+    {
+      children.add(node(random, 1, 2));
+    }
+    data.put("name", "root");
+    data.put("children", children);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try
+    {
+      Predicate[] predicates =
+      {
+        pathMatchesPattern(Wildcard.ANY_ZERO_OR_MORE, "name"),
+        and(dataSchemaNameEquals("com.linkedin.test.Leaf"), pathMatchesPattern("children", Wildcard.ANY_ONE_OR_MORE)),
+        valueInstanceOf(DataMap.class)
+      };
+      for (Predicate predicate : predicates)
+      {
+        List<String> expected = paths(Builder.create(data, _schema, order).filterBy(predicate).dataIterator());
+        final List<String> actual = Collections.synchronizedList(new ArrayList<String>());
+        Builder.create(data, _schema, order).filterBy(predicate).iterate(new Builder.Callback()
+        {
+          @Override
+          public void callback(DataElement element)
+          {
+            actual.add(describe(element));
+          }
+        }, pool);
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(actual, expected);
+      }
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+
+  private void assertSameAsFilterIterator(DataElement element, IterationOrder order, Predicate predicate)
+  {
+    List<String> expected = paths(new FilterIterator(new ObjectIterator(element, order), predicate));
+    List<String> actual = paths(Builder.create(element, order).filterBy(predicate).dataIterator());
+    assertEquals(actual, expected, predicate.toString());
+  }
+
+  private static List<String> paths(DataIterator it)
+  {
+    List<String> paths = new ArrayList<String>();
+    DataElement element;
+    while ((element = it.next()) != null)
+    {
+      paths.add(describe(element));
+    }
+    return paths;
+  }
+
+  private static String describe(DataElement element)
+  {
+    return element.pathAsString() + "=" + (element.getSchema() == null ? null : element.getSchema().getType());
+  }
+
+  private static DataMap node(Random random, int depth, int maxDepth)
+  {
+    DataMap node = new DataMap();
+    node.put("name", "node-" + random.nextInt(10));
+    if (random.nextBoolean())
+    {
+      DataMap tags = new DataMap();
+      tags.put("a", "x");
+      tags.put("name", "y");
+      node.put("tags", tags);
+    }
+    if (random.nextBoolean())
+    {
+      DataMap value = new DataMap();
+      if (random.nextBoolean())
+      {
+        value.put("int", random.nextInt());
+      }
+      else
+      {
+        DataMap leaf = new DataMap();
+        leaf.put("id", random.nextLong());
+        value.put("com.linkedin.test.Leaf", leaf);
+      }
+      node.put("value", value);
+    }
+    if (random.nextInt(3) == 0)
+    {
+      node.put("meta", meta());
+    }
+    if (random.nextInt(4) == 0)
+    {
+      node.put("unknown", new DataList(Collections.<Object>singletonList("z")));
+    }
+    if (depth < maxDepth)
+    {
+      DataList children = new DataList();
+      int count = depth == 0 ? 3 : random.nextInt(4);
+      for (int i = 0; i < count; i++)
+      {
+        children.add(node(random, depth + 1, maxDepth));
+      }
+      node.put("children", children);
+    }
+    return node;
+  }
+
+  private static DataMap meta()
+  {
+    DataMap meta = new DataMap();
+    meta.put("id", 1L);
+    DataMap leaves = new DataMap();
+    DataMap leaf = new DataMap();
+    leaf.put("id", 2L);
+    leaves.put("first", leaf);
+    meta.put("leaves", leaves);
+    return meta;
+  }
+}
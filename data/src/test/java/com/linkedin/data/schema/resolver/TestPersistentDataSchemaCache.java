@@ -0,0 +1,258 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.resolver;
+
+
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.schema.DataSchemaLocation;
+import com.linkedin.data.schema.NamedDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestPersistentDataSchemaCache
+{
+  private static final Map<String, String> SCHEMAS = new HashMap<String, String>();
+  static
+  {
+    SCHEMAS.put("com/linkedin/test/Base.pdsc",
+                "{ \"type\" : \"record\", \"name\" : \"Base\", \"namespace\" : \"com.linkedin.test\", " +
+                "  \"fields\" : [ { \"name\" : \"id\", \"type\" : \"long\" } ] }");
+    SCHEMAS.put("com/linkedin/test/Derived.pdl",
+                "namespace com.linkedin.test\n\n" +
+                "@validate.strlen = {}\n" +
+                "record Derived {\n" +
+                "  /** The size. */\n" +
+                "  size: int\n" +
+                "} includes Base\n");
+    SCHEMAS.put("com/linkedin/test/Top.pdl",
+                "namespace com.linkedin.test\n\n" +
+                "/**\n * The top.\n */\n" +
+                "@deprecated\n" +
+                "record Top {\n" +
+                "  derived: Derived\n" +
+                "  inner: record Inner { name: string = \"none\" }\n" +
+                "  other: Inner\n" +
+                "  kind: optional enum Kind { ONE, TWO }\n" +
+                "  values: map[string, union[int, Base]]\n" +
+                "}\n");
+  }
+
+  private File _testDir;
+  private File _cacheFile;
+
+  @BeforeMethod
+  public void setUp() throws IOException
+  {
+    _testDir = TestUtil.testDir("testPersistentDataSchemaCache", false);
+    TestUtil.createSchemaFiles(_testDir, SCHEMAS, false);
+    _cacheFile = new File(_testDir, "schemaCache.bin");
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException
+  {
+    TestUtil.deleteRecursive(_testDir, false);
+  }
+
+  @Test
+  public void testParseFromCache() throws IOException
+  {
+    MultiFormatDataSchemaResolver sourceResolver = newResolver(null);
+    NamedDataSchema expected = find(sourceResolver, "com.linkedin.test.Top");
+
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      MultiFormatDataSchemaResolver resolver = newResolver(cache);
+      NamedDataSchema schema = find(resolver, "com.linkedin.test.Top");
+      assertEquals(schema, expected);
+      assertEquals(cache.size(), 3);
+    }
+
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      assertEquals(cache.size(), 3);
+      MultiFormatDataSchemaResolver resolver = newResolver(cache);
+      NamedDataSchema schema = find(resolver, "com.linkedin.test.Top");
+      assertNotSame(schema, expected);
+      assertEquals(schema, expected);
+      assertEquals(schema.toString(), expected.toString());
+      assertEquals(cache.size(), 3);
+
+      // The schemas are bound to the locations of their files.
+      assertLocationsEqual(resolver, sourceResolver, "com.linkedin.test.Top");
+      assertLocationsEqual(resolver, sourceResolver, "com.linkedin.test.Inner");
+      assertLocationsEqual(resolver, sourceResolver, "com.linkedin.test.Kind");
+      assertLocationsEqual(resolver, sourceResolver, "com.linkedin.test.Derived");
+      assertLocationsEqual(resolver, sourceResolver, "com.linkedin.test.Base");
+
+      RecordDataSchema top = (RecordDataSchema) schema;
+      assertTrue(top.getField("inner").isDeclaredInline());
+      assertFalse(top.getField("other").isDeclaredInline());
+      assertFalse(top.getField("derived").isDeclaredInline());
+    }
+  }
+
+  @Test
+  public void testFieldsBeforeIncludes() throws IOException
+  {
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      RecordDataSchema derived = (RecordDataSchema) find(newResolver(cache), "com.linkedin.test.Derived");
+      assertTrue(derived.isFieldsBeforeIncludes());
+    }
+
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      RecordDataSchema derived = (RecordDataSchema) find(newResolver(cache), "com.linkedin.test.Derived");
+      assertEquals(cache.size(), 2);
+      assertTrue(derived.isFieldsBeforeIncludes());
+      assertEquals(derived.getFields().get(0).getName(), "size");
+      assertEquals(derived.getFields().size(), 2);
+      assertEquals(derived.getInclude().size(), 1);
+      assertFalse(derived.getProperties().containsKey("__fieldsBeforeIncludes"));
+    }
+  }
+
+  @Test
+  public void testCorruptedEntriesIgnored() throws IOException
+  {
+    NamedDataSchema expected = find(newResolver(null), "com.linkedin.test.Top");
+
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      find(newResolver(cache), "com.linkedin.test.Top");
+    }
+
+    // A partially written last entry.
+    try (RandomAccessFile file = new RandomAccessFile(_cacheFile, "rw"))
+    {
+      file.setLength(file.length() - 1);
+    }
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      assertEquals(cache.size(), 2);
+      assertEquals(find(newResolver(cache), "com.linkedin.test.Top"), expected);
+      assertEquals(cache.size(), 3);
+    }
+
+    // A file that is not a cache.
+    try (RandomAccessFile file = new RandomAccessFile(_cacheFile, "rw"))
+    {
+      file.seek(0);
+      file.writeInt(0);
+    }
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      assertEquals(cache.size(), 0);
+      assertEquals(find(newResolver(cache), "com.linkedin.test.Top"), expected);
+    }
+    try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+    {
+      assertEquals(cache.size(), 3);
+    }
+  }
+
+  @Test
+  public void testConcurrentOpen() throws Exception
+  {
+    NamedDataSchema expected = find(newResolver(null), "com.linkedin.test.Top");
+
+    // Threads open a new file and append entries at the same time, none of them resets the file or corrupts the
+    // entries of the others.
+    final int threads = 8;
+    final CyclicBarrier barrier = new CyclicBarrier(threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try
+    {
+      for (int round = 0; round < 20; round++)
+      {
+        assertTrue(!_cacheFile.exists() || _cacheFile.delete());
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < threads; i++)
+        {
+          futures.add(executor.submit(() -> {
+            barrier.await();
+            try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+            {
+              assertEquals(find(newResolver(cache), "com.linkedin.test.Top"), expected);
+              return cache.size();
+            }
+          }));
+        }
+        for (Future<Integer> future : futures)
+        {
+          assertEquals(future.get().intValue(), 3);
+        }
+
+        // Every entry written by every thread is found.
+        try (PersistentDataSchemaCache cache = PersistentDataSchemaCache.open(_cacheFile))
+        {
+          assertEquals(cache.size(), 3);
+        }
+      }
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+
+  private MultiFormatDataSchemaResolver newResolver(PersistentDataSchemaCache cache) throws IOException
+  {
+    MultiFormatDataSchemaResolver resolver = MultiFormatDataSchemaResolver.withBuiltinFormats(_testDir.getCanonicalPath());
+    resolver.setSchemaCache(cache);
+    return resolver;
+  }
+
+  private static NamedDataSchema find(MultiFormatDataSchemaResolver resolver, String name)
+  {
+    StringBuilder errorMessageBuilder = new StringBuilder();
+    NamedDataSchema schema = resolver.findDataSchema(name, errorMessageBuilder);
+    assertNotNull(schema, errorMessageBuilder.toString());
+    assertEquals(errorMessageBuilder.length(), 0, errorMessageBuilder.toString());
+    return schema;
+  }
+
+  private static void assertLocationsEqual(MultiFormatDataSchemaResolver actual,
+                                           MultiFormatDataSchemaResolver expected,
+                                           String name)
+  {
+    DataSchemaLocation location = actual.nameToDataSchemaLocations().get(name);
+    assertNotNull(location, name);
+    assertEquals(location, expected.nameToDataSchemaLocations().get(name));
+  }
+}
@@ -0,0 +1,220 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.validation;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.it.Predicates;
+import com.linkedin.data.message.Message;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.validator.DataSchemaAnnotationValidator;
+import com.linkedin.data.schema.validator.Validator;
+import com.linkedin.data.schema.validator.VisitedTrackingValidator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+import static com.linkedin.data.TestUtil.dataSchemaFromString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestValidationPlan
+{
+  private static final String SCHEMA =
+    "{\n" +
+    "  \"type\" : \"record\",\n" +
+    "  \"name\" : \"Foo\",\n" +
+    "  \"fields\" : [\n" +
+    "    { \"name\" : \"int\", \"type\" : \"int\" },\n" +
+    "    { \"name\" : \"long\", \"type\" : \"long\", \"optional\" : true },\n" +
+    "    { \"name\" : \"double\", \"type\" : \"double\", \"default\" : 1.5 },\n" +
+    "    { \"name\" : \"bool\", \"type\" : \"boolean\", \"optional\" : true },\n" +
+    "    { \"name\" : \"bytes\", \"type\" : \"bytes\", \"optional\" : true },\n" +
+    "    { \"name\" : \"fixed\", \"type\" : { \"type\" : \"fixed\", \"name\" : \"Fixed2\", \"size\" : 2 }, \"optional\" : true },\n" +
+    "    { \"name\" : \"enum\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Color\", \"symbols\" : [ \"RED\", \"GREEN\" ] }, \"optional\" : true },\n" +
+    "    { \"name\" : \"name\", \"type\" : \"string\", \"optional\" : true, \"validate\" : { \"strlen\" : { \"max\" : 5 } } },\n" +
+    "    { \"name\" : \"code\", \"type\" : { \"type\" : \"typeref\", \"name\" : \"Code\", \"ref\" : \"string\", \"validate\" : { \"strlen\" : { \"min\" : 2 } } }, \"optional\" : true },\n" +
+    "    { \"name\" : \"tags\", \"type\" : { \"type\" : \"array\", \"items\" : \"Code\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"counts\", \"type\" : { \"type\" : \"map\", \"values\" : \"int\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"union\", \"type\" : [ \"null\", \"string\", \"Color\" ], \"optional\" : true },\n" +
+    "    { \"name\" : \"next\", \"type\" : \"Foo\", \"optional\" : true },\n" +
+    "    { \"name\" : \"alias\", \"type\" : { \"type\" : \"typeref\", \"name\" : \"FooRef\", \"ref\" : \"Foo\" }, \"optional\" : true }\n" +
+    "  ]\n" +
+    "}";
+
+  private static final String[] INPUTS =
+  {
+    // valid
+    "{ \"int\" : 1, \"double\" : 2.5 }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"long\" : 12345678901, \"bool\" : true, \"bytes\" : \"\\u0000\\u00ff\", \"fixed\" : \"ab\", \"enum\" : \"RED\" }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"name\" : \"abc\", \"code\" : \"xy\", \"tags\" : [ \"ab\", \"cd\" ], \"counts\" : { \"a\" : 1 } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"union\" : null }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"union\" : { \"Color\" : \"GREEN\" } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"next\" : { \"int\" : 2, \"double\" : 3.5, \"next\" : { \"int\" : 3, \"double\" : 4.5, \"name\" : \"x\" } } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"alias\" : { \"int\" : 2, \"double\" : 3.5, \"name\" : \"abcdefgh\" } }",
+    // invalid or fixed, depending on the options
+    "{ \"int\" : 1 }",
+    "{ \"double\" : 2.5 }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"extra\" : { \"a\" : 1 } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"long\" : 2.0 }",
+    "{ \"int\" : \"1\", \"double\" : 2.5, \"bool\" : \"true\" }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"bytes\" : \"\\u0100\" }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"fixed\" : \"abc\" }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"enum\" : \"BLUE\" }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"name\" : \"abcdefgh\" }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"tags\" : [ \"ab\", \"c\" ] }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"counts\" : { \"a\" : \"b\" } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"union\" : { \"int\" : 1 } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"union\" : { \"string\" : \"a\", \"Color\" : \"RED\" } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"next\" : { \"int\" : 2, \"next\" : { \"double\" : 4.5, \"name\" : \"abcdefgh\" } } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"alias\" : { \"double\" : 3.5 } }",
+    "{ \"int\" : 1, \"double\" : 2.5, \"next\" : [ 1 ] }"
+  };
+
+  private static List<ValidationOptions> allOptions()
+  {
+    List<ValidationOptions> options = new ArrayList<ValidationOptions>();
+    for (RequiredMode requiredMode : RequiredMode.values())
+    {
+      for (CoercionMode coercionMode : CoercionMode.values())
+      {
+        for (UnrecognizedFieldMode unrecognizedFieldMode : UnrecognizedFieldMode.values())
+        {
+          options.add(new ValidationOptions(requiredMode, coercionMode, unrecognizedFieldMode));
+          ValidationOptions treatOptional = new ValidationOptions(requiredMode, coercionMode, unrecognizedFieldMode);
+          treatOptional.setTreatOptional(Predicates.alwaysTrue());
+          options.add(treatOptional);
+        }
+      }
+    }
+    ValidationOptions avroUnionMode = new ValidationOptions();
+    avroUnionMode.setAvroUnionMode(true);
+    options.add(avroUnionMode);
+    return options;
+  }
+
+  private static void assertSameResult(ValidationResult actual, ValidationResult expected)
+  {
+    assertEquals(actual.isValid(), expected.isValid());
+    assertEquals(actual.hasFix(), expected.hasFix());
+    assertEquals(actual.hasFixupReadOnlyError(), expected.hasFixupReadOnlyError());
+    assertEquals(actual.getFixed(), expected.getFixed());
+    List<String> actualMessages = new ArrayList<String>();
+    for (Message message : actual.getMessages())
+    {
+      actualMessages.add(message.toString());
+    }
+    List<String> expectedMessages = new ArrayList<String>();
+    for (Message message : expected.getMessages())
+    {
+      expectedMessages.add(message.toString());
+    }
+    assertEquals(actualMessages, expectedMessages);
+    assertEquals(actual.toString(), expected.toString());
+  }
+
+  private static void testAllInputs(DataSchema schema, ValidationOptions options, Validator validator, boolean readOnly)
+    throws IOException
+  {
+    ValidationPlan plan = ValidationPlan.compile(schema, options, validator);
+    for (String input : INPUTS)
+    {
+      DataMap expectedInput = dataMapFromString(input);
+      DataMap actualInput = dataMapFromString(input);
+      if (readOnly)
+      {
+        expectedInput.makeReadOnly();
+        actualInput.makeReadOnly();
+      }
+      ValidationResult expected = ValidateDataAgainstSchema.validate(expectedInput, schema, options, validator);
+      ValidationResult actual = plan.validate(actualInput);
+      assertSameResult(actual, expected);
+    }
+  }
+
+  @Test
+  public void testSameResultAsValidateDataAgainstSchema() throws IOException
+  {
+    DataSchema schema = dataSchemaFromString(SCHEMA);
+    DataSchemaAnnotationValidator annotationValidator = new DataSchemaAnnotationValidator(schema);
+    assertTrue(annotationValidator.isInitOk());
+    Validator[] validators = { null, annotationValidator, new VisitedTrackingValidator(annotationValidator) };
+
+    for (ValidationOptions options : allOptions())
+    {
+      for (Validator validator : validators)
+      {
+        testAllInputs(schema, options, validator, false);
+        testAllInputs(schema, options, validator, true);
+      }
+    }
+  }
+
+  @Test
+  public void testValidObjectIsNotFixed() throws IOException
+  {
+    DataSchema schema = dataSchemaFromString(SCHEMA);
+    ValidationPlan plan = ValidationPlan.compile(schema, new ValidationOptions(), new DataSchemaAnnotationValidator(schema));
+    assertSame(plan.getSchema(), schema);
+
+    DataMap map = dataMapFromString(INPUTS[2]);
+    ValidationResult result = plan.validate(map);
+    assertTrue(result.isValid());
+    assertFalse(result.hasFix());
+    assertSame(result.getFixed(), map);
+    assertTrue(result.getMessages().isEmpty());
+
+    result = plan.validate(dataMapFromString("{ \"int\" : 1, \"double\" : 2.5, \"name\" : \"abcdefgh\" }"));
+    assertFalse(result.isValid());
+    assertEquals(result.getMessages().size(), 1);
+  }
+
+  @Test
+  public void testValidatorVisitsSameElements() throws IOException
+  {
+    DataSchema schema = dataSchemaFromString(SCHEMA);
+    ValidationOptions options = new ValidationOptions(RequiredMode.CAN_BE_ABSENT_IF_HAS_DEFAULT, CoercionMode.OFF);
+    for (int i = 0; i < 7; i++)
+    {
+      VisitedTrackingValidator expected = new VisitedTrackingValidator(null);
+      VisitedTrackingValidator actual = new VisitedTrackingValidator(null);
+      ValidateDataAgainstSchema.validate(dataMapFromString(INPUTS[i]), schema, options, expected);
+      ValidationResult result = ValidationPlan.compile(schema, options, actual).validate(dataMapFromString(INPUTS[i]));
+      assertTrue(result.isValid());
+      assertFalse(result.hasFix());
+      assertEquals(actual.getVisited(), expected.getVisited());
+    }
+  }
+
+  @Test
+  public void testAvroUnionModeIsNotCompiled() throws IOException
+  {
+    DataSchema schema = dataSchemaFromString(SCHEMA);
+    ValidationOptions options = new ValidationOptions();
+    options.setAvroUnionMode(true);
+    ValidationResult result = ValidationPlan.compile(schema, options).validate(dataMapFromString(INPUTS[0]));
+    assertTrue(result.isValid());
+    assertEquals(result.getFixed(), dataMapFromString(INPUTS[0]));
+  }
+}
@@ -1047,6 +1047,152 @@ public class TestRecordAndUnionTemplate
     }
   }
 
+  public static class Slotted extends RecordTemplate
+  {
+    public static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema
+    (
+      "{ \"type\" : \"record\", \"name\" : \"Slotted\", \"fields\" : [\n" +
+      "  { \"name\" : \"int\", \"type\" : \"int\", \"default\" : 7 },\n" +
+      "  { \"name\" : \"long\", \"type\" : \"long\" },\n" +
+      "  { \"name\" : \"float\", \"type\" : \"float\", \"optional\" : true },\n" +
+      "  { \"name\" : \"double\", \"type\" : \"double\" },\n" +
+      "  { \"name\" : \"boolean\", \"type\" : \"boolean\" },\n" +
+      "  { \"name\" : \"enum\", \"type\" : { \"type\" : \"enum\", \"name\" : \"EnumType\", \"symbols\" : [ \"APPLE\", \"ORANGE\", \"BANANA\" ] } }\n" +
+      "] }"
+    );
+    private static final RecordDataSchema.Field FIELD_int = SCHEMA.getField("int");
+    private static final RecordDataSchema.Field FIELD_long = SCHEMA.getField("long");
+    private static final RecordDataSchema.Field FIELD_float = SCHEMA.getField("float");
+    private static final RecordDataSchema.Field FIELD_double = SCHEMA.getField("double");
+    private static final RecordDataSchema.Field FIELD_boolean = SCHEMA.getField("boolean");
+    private static final RecordDataSchema.Field FIELD_enum = SCHEMA.getField("enum");
+
+    public Slotted(DataMap map)
+    {
+      super(map, SCHEMA);
+    }
+
+    public Integer getInt(GetMode mode)
+    {
+      return obtainDirect(FIELD_int, 0, Integer.class, mode);
+    }
+
+    public int getIntValue()
+    {
+      return obtainInt(FIELD_int, 0, GetMode.STRICT);
+    }
+
+    public long getLongValue()
+    {
+      return obtainLong(FIELD_long, 1, GetMode.STRICT);
+    }
+
+    public Float getFloat(GetMode mode)
+    {
+      return obtainDirect(FIELD_float, 2, Float.class, mode);
+    }
+
+    public float getFloatValue()
+    {
+      return obtainFloat(FIELD_float, 2, GetMode.STRICT);
+    }
+
+    public double getDoubleValue()
+    {
+      return obtainDouble(FIELD_double, 3, GetMode.STRICT);
+    }
+
+    public boolean getBooleanValue()
+    {
+      return obtainBoolean(FIELD_boolean, 4, GetMode.STRICT);
+    }
+
+    public EnumType getEnum(GetMode mode)
+    {
+      return obtainDirect(FIELD_enum, 5, EnumType.class, mode);
+    }
+
+    public EnumType getEnumWithWrongSlot(GetMode mode)
+    {
+      return obtainDirect(FIELD_enum, 0, EnumType.class, mode);
+    }
+
+    public Slotted setInt(int value)
+    {
+      putDirect(FIELD_int, Integer.class, Integer.class, value, SetMode.DISALLOW_NULL);
+      return this;
+    }
+
+    @Override
+    public Slotted clone() throws CloneNotSupportedException
+    {
+      return (Slotted) super.clone();
+    }
+  }
+
+  @Test
+  public void testFieldSlots() throws CloneNotSupportedException
+  {
+    DataMap map = new DataMap(asMap("int", 1, "long", 2L, "float", 1.5, "double", 2.5, "boolean", true, "enum", "ORANGE"));
+    Slotted slotted = new Slotted(map);
+
+    assertEquals(slotted.getIntValue(), 1);
+    assertEquals(slotted.getLongValue(), 2L);
+    assertEquals(slotted.getFloatValue(), 1.5f);
+    assertEquals(slotted.getDoubleValue(), 2.5);
+    assertTrue(slotted.getBooleanValue());
+    assertSame(slotted.getEnum(GetMode.STRICT), EnumType.ORANGE);
+    assertSame(slotted.getEnumWithWrongSlot(GetMode.STRICT), EnumType.ORANGE);
+    // the coerced value is cached
+    assertSame(slotted.getFloat(GetMode.STRICT), slotted.getFloat(GetMode.STRICT));
+
+    // changes through the template or the map invalidate the slots
+    slotted.setInt(3);
+    assertEquals(slotted.getIntValue(), 3);
+    map.put("float", 4.5);
+    assertEquals(slotted.getFloatValue(), 4.5f);
+    map.put("enum", "BANANA");
+    assertSame(slotted.getEnum(GetMode.STRICT), EnumType.BANANA);
+
+    // absent fields follow the get mode
+    map.remove("int");
+    assertEquals(slotted.getIntValue(), 7);
+    assertNull(slotted.getInt(GetMode.NULL));
+    map.remove("float");
+    assertNull(slotted.getFloat(GetMode.STRICT));
+    try
+    {
+      slotted.getFloatValue();
+      fail("Expected NullPointerException");
+    }
+    catch (NullPointerException e)
+    {
+    }
+    map.remove("long");
+    try
+    {
+      slotted.getLongValue();
+      fail("Expected RequiredFieldNotPresentException");
+    }
+    catch (RequiredFieldNotPresentException e)
+    {
+    }
+
+    // clones have their own slots
+    Slotted clone = slotted.clone();
+    clone.setInt(5);
+    assertEquals(clone.getIntValue(), 5);
+    assertEquals(slotted.getIntValue(), 7);
+
+    // read-only maps are cached without listening to changes
+    DataMap readOnly = new DataMap(asMap("int", 8, "long", 9L, "double", 1.0, "boolean", false, "enum", "APPLE"));
+    readOnly.makeReadOnly();
+    Slotted readOnlySlotted = new Slotted(readOnly);
+    assertEquals(readOnlySlotted.getIntValue(), 8);
+    assertEquals(readOnlySlotted.getIntValue(), 8);
+    assertFalse(readOnlySlotted.getBooleanValue());
+  }
+
   @Test
   public void testGetMode()
   {
@@ -271,6 +271,19 @@ public class JavaDataTemplateGenerator extends JavaCodeGeneratorBase
     return inv;
   }
 
+  /**
+   * Invokes the obtain method of a record field, with the slot of the field for direct fields without custom type.
+   */
+  private static JInvocation obtainFieldValue(String wrappedOrDirect, JFieldVar fieldField, int slot, JClass type, JExpression mode)
+  {
+    JInvocation inv = JExpr.invoke("obtain" + wrappedOrDirect).arg(fieldField);
+    if (wrappedOrDirect.equals("Direct") && slot >= 0)
+    {
+      inv.arg(JExpr.lit(slot));
+    }
+    return inv.arg(JExpr.dotclass(type)).arg(mode);
+  }
+
   private static void generateCopierMethods(JDefinedClass templateClass)
   {
     overrideCopierMethod(templateClass, "clone");
@@ -666,7 +679,7 @@ public class JavaDataTemplateGenerator extends JavaCodeGeneratorBase
 
     for (RecordTemplateSpec.Field field : recordSpec.getFields())
     {
-      generateRecordFieldAccessors(templateClass, field, generate(field.getType()), schemaFieldVar);
+      generateRecordFieldAccessors(templateClass, recordSpec.getSchema(), field, generate(field.getType()), schemaFieldVar);
     }
 
     recordSpec.getFields().stream()
@@ -736,7 +749,11 @@ public class JavaDataTemplateGenerator extends JavaCodeGeneratorBase
     staticFieldsAccessor.body()._return(staticFields);
   }
 
-  private void generateRecordFieldAccessors(JDefinedClass templateClass, RecordTemplateSpec.Field field, JClass type, JVar schemaFieldVar)
+  private void generateRecordFieldAccessors(JDefinedClass templateClass,
+                                            RecordDataSchema recordSchema,
+                                            RecordTemplateSpec.Field field,
+                                            JClass type,
+                                            JVar schemaFieldVar)
   {
     final RecordDataSchema.Field schemaField = field.getSchemaField();
     final DataSchema fieldSchema = schemaField.getType();
@@ -751,6 +768,8 @@ public class JavaDataTemplateGenerator extends JavaCodeGeneratorBase
       wrappedOrDirect = "Wrapped";
     }
     final String capitalizedName = CodeUtil.capitalize(schemaField.getName());
+    // Direct getters cache their values in the slot of the field, which is its index in the record schema.
+    final int slot = recordSchema.index(schemaField.getName());
 
     final String fieldFieldName = "FIELD_" + capitalizedName;
     final JFieldVar fieldField = templateClass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, RecordDataSchema.Field.class, fieldFieldName);
@@ -785,7 +804,7 @@ public class JavaDataTemplateGenerator extends JavaCodeGeneratorBase
       setDeprecatedAnnotationAndJavadoc(getterWithMode, schemaField);
       JVar modeParam = getterWithMode.param(_getModeClass, "mode");
       final JBlock getterWithModeBody = getterWithMode.body();
-      res = JExpr.invoke("obtain" + wrappedOrDirect).arg(fieldField).arg(JExpr.dotclass(type)).arg(modeParam);
+      res = obtainFieldValue(wrappedOrDirect, fieldField, slot, type, modeParam);
       getterWithModeBody._return(res);
     }
 
@@ -805,7 +824,7 @@ public class JavaDataTemplateGenerator extends JavaCodeGeneratorBase
       returnComment.add("Required field. Could be null for partial record.");
     }
     final JBlock getterWithoutModeBody = getterWithoutMode.body();
-    res = JExpr.invoke("obtain" + wrappedOrDirect).arg(fieldField).arg(JExpr.dotclass(type)).arg(_strictGetMode);
+    res = obtainFieldValue(wrappedOrDirect, fieldField, slot, type, _strictGetMode);
     getterWithoutModeBody._return(res);
 
     // Determine dataClass
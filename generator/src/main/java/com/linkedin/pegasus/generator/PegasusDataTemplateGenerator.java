@@ -21,19 +21,33 @@ import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.DataSchemaLocation;
 import com.linkedin.data.schema.NamedDataSchema;
 import com.linkedin.data.schema.generator.AbstractGenerator;
+import com.linkedin.data.schema.resolver.MultiFormatDataSchemaResolver;
 import com.linkedin.pegasus.generator.spec.ClassTemplateSpec;
 import com.linkedin.util.FileUtil;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JPackage;
@@ -54,6 +68,11 @@ public class PegasusDataTemplateGenerator
    */
   public static final String GENERATOR_GENERATE_IMPORTED = "generator.generate.imported";
 
+  /**
+   * The system property that specifies the maximum number of partitions of the sources that are generated concurrently
+   */
+  public static final String GENERATOR_PARALLELISM = "generator.parallelism";
+
   private static final Logger _log = LoggerFactory.getLogger(PegasusDataTemplateGenerator.class);
 
   public static class DataTemplatePersistentClassChecker implements JavaCodeUtil.PersistentClassChecker
@@ -102,44 +121,66 @@ public class PegasusDataTemplateGenerator
 
     final String generateImportedProperty = System.getProperty(PegasusDataTemplateGenerator.GENERATOR_GENERATE_IMPORTED);
     final boolean generateImported = generateImportedProperty == null ? true : Boolean.parseBoolean(generateImportedProperty);
+    final String parallelismProperty = System.getProperty(PegasusDataTemplateGenerator.GENERATOR_PARALLELISM);
+    final int parallelism = parallelismProperty == null ? 1 : Integer.parseInt(parallelismProperty);
     PegasusDataTemplateGenerator.run(System.getProperty(AbstractGenerator.GENERATOR_RESOLVER_PATH),
                                      System.getProperty(JavaCodeGeneratorBase.GENERATOR_DEFAULT_PACKAGE),
                                      System.getProperty(JavaCodeGeneratorBase.ROOT_PATH),
                                      generateImported,
                                      args[0],
-                                     Arrays.copyOfRange(args, 1, args.length));
+                                     Arrays.copyOfRange(args, 1, args.length),
+                                     parallelism);
   }
 
   public static GeneratorResult run(String resolverPath, String defaultPackage, String rootPath, final boolean generateImported, String targetDirectoryPath, String[] sources)
       throws IOException
   {
-    final DataSchemaParser schemaParser = new DataSchemaParser(resolverPath);
-    final TemplateSpecGenerator specGenerator = new TemplateSpecGenerator(schemaParser.getSchemaResolver());
-    final JavaDataTemplateGenerator dataTemplateGenerator = new JavaDataTemplateGenerator(defaultPackage, rootPath);
-
-    for (DataSchema predefinedSchema : JavaDataTemplateGenerator.PredefinedJavaClasses.keySet())
-    {
-      specGenerator.registerDefinedSchema(predefinedSchema);
-    }
-
-    final DataSchemaParser.ParseResult parseResult = schemaParser.parseSources(sources);
+    return run(resolverPath, defaultPackage, rootPath, generateImported, targetDirectoryPath, sources, 1);
+  }
 
-    for (Map.Entry<DataSchema, DataSchemaLocation> entry : parseResult.getSchemaAndLocations().entrySet())
-    {
-      specGenerator.generate(entry.getKey(), entry.getValue());
-    }
-    for (ClassTemplateSpec spec : specGenerator.getGeneratedSpecs())
+  /**
+   * Generate the data templates of the sources, in partitions generated concurrently if parallelism is greater than 1.
+   * <p/>
+   * The schema files of source directories are listed individually and split by path into at most parallelism
+   * partitions. Each partition is parsed with its own resolver and generated into its own code model, on its own
+   * thread, in order of schema location and name. A class generated by several partitions, such as the class of a
+   * schema that sources of several partitions depend on, is written from the first of them. The output only depends
+   * on the sources and parallelism. It differs from the output of the sources generated together only for classes
+   * that are not generated from their own schema files, e.g. the classes of arrays: their "Generated from" comments
+   * may name other schema files that use them, and their schemas may be other schemas bound to the same class,
+   * e.g. with typerefs of the items. Builds that need the output to be the same as the serial output should keep
+   * parallelism at 1, which is the default of {@link #GENERATOR_PARALLELISM}.
+   * <p/>
+   * The sources are generated together if they cannot be generated in partitions, e.g. when a source refers to a
+   * source of another partition that is not on the resolver path.
+   *
+   * @param parallelism provides the maximum number of partitions of the sources.
+   */
+  public static GeneratorResult run(String resolverPath, String defaultPackage, String rootPath, final boolean generateImported, String targetDirectoryPath, String[] sources, int parallelism)
+      throws IOException
+  {
+    if (parallelism > 1)
     {
-      dataTemplateGenerator.generate(spec);
+      final List<String[]> partitions = partitionSources(sources, parallelism);
+      if (partitions.size() > 1)
+      {
+        final GeneratorResult result = runPartitions(resolverPath, defaultPackage, rootPath, generateImported, targetDirectoryPath, partitions);
+        if (result != null)
+        {
+          return result;
+        }
+      }
     }
 
-    final JavaCodeUtil.PersistentClassChecker checker = new DataTemplatePersistentClassChecker(generateImported, specGenerator, dataTemplateGenerator, parseResult.getSourceFiles());
+    final Generation generation = new Generation(resolverPath, defaultPackage, rootPath, sources, false);
+    final Set<File> sourceFiles = generation._parseResult.getSourceFiles();
+    final JCodeModel codeModel = generation._dataTemplateGenerator.getCodeModel();
 
     final File targetDirectory = new File(targetDirectoryPath);
-    final List<File> targetFiles = JavaCodeUtil.targetFiles(targetDirectory, dataTemplateGenerator.getCodeModel(), JavaCodeUtil.classLoaderFromResolverPath(schemaParser.getResolverPath()), checker);
+    final List<File> targetFiles = generation.targetFiles(targetDirectory, JavaCodeUtil.classLoaderFromResolverPath(resolverPath), generateImported, sourceFiles);
 
     final List<File> modifiedFiles;
-    if (FileUtil.upToDate(parseResult.getSourceFiles(), targetFiles))
+    if (FileUtil.upToDate(sourceFiles, targetFiles))
     {
       modifiedFiles = Collections.emptyList();
       _log.info("Target files are up-to-date: " + targetFiles);
@@ -149,11 +190,180 @@ public class PegasusDataTemplateGenerator
       modifiedFiles = targetFiles;
       _log.info("Generating " + targetFiles.size() + " files");
       _log.debug("Files: "+ targetFiles);
-      validateDefinedClassRegistration(dataTemplateGenerator.getCodeModel(), dataTemplateGenerator.getGeneratedClasses().keySet());
+      validateDefinedClassRegistration(codeModel, generation._dataTemplateGenerator.getGeneratedClasses().keySet());
       targetDirectory.mkdirs();
-      dataTemplateGenerator.getCodeModel().build(new FileCodeWriter(targetDirectory, true));
+      codeModel.build(new FileCodeWriter(targetDirectory, true));
+    }
+    return new DefaultGeneratorResult(sourceFiles, targetFiles, modifiedFiles);
+  }
+
+  /**
+   * @return the generator result, or null if a partition cannot be generated.
+   */
+  private static GeneratorResult runPartitions(final String resolverPath,
+                                               final String defaultPackage,
+                                               final String rootPath,
+                                               boolean generateImported,
+                                               String targetDirectoryPath,
+                                               List<String[]> partitions)
+      throws IOException
+  {
+    final ExecutorService executor = Executors.newFixedThreadPool(partitions.size());
+    try
+    {
+      final List<Future<Generation>> generationFutures = new ArrayList<Future<Generation>>(partitions.size());
+      for (final String[] partition : partitions)
+      {
+        generationFutures.add(executor.submit(() -> new Generation(resolverPath, defaultPackage, rootPath, partition, true)));
+      }
+      final List<Generation> generations;
+      try
+      {
+        generations = getAll(generationFutures);
+      }
+      catch (IOException | RuntimeException e)
+      {
+        _log.info("Unable to generate the sources in " + partitions.size() + " partitions, generating them together: " + e.getMessage());
+        return null;
+      }
+
+      final Set<File> sourceFiles = new HashSet<File>();
+      for (Generation generation : generations)
+      {
+        sourceFiles.addAll(generation._parseResult.getSourceFiles());
+      }
+
+      final File targetDirectory = new File(targetDirectoryPath);
+      final ClassLoader classLoader = JavaCodeUtil.classLoaderFromResolverPath(resolverPath);
+      final Set<File> targetFileSet = new LinkedHashSet<File>();
+      for (Generation generation : generations)
+      {
+        targetFileSet.addAll(generation.targetFiles(targetDirectory, classLoader, generateImported, sourceFiles));
+      }
+      final List<File> targetFiles = new ArrayList<File>(targetFileSet);
+
+      final List<File> modifiedFiles;
+      if (FileUtil.upToDate(sourceFiles, targetFiles))
+      {
+        modifiedFiles = Collections.emptyList();
+        _log.info("Target files are up-to-date: " + targetFiles);
+      }
+      else
+      {
+        modifiedFiles = targetFiles;
+        _log.info("Generating " + targetFiles.size() + " files from " + partitions.size() + " partitions");
+        _log.debug("Files: "+ targetFiles);
+
+        final List<Future<MemoryCodeWriter>> writerFutures = new ArrayList<Future<MemoryCodeWriter>>(generations.size());
+        for (final Generation generation : generations)
+        {
+          writerFutures.add(executor.submit(() -> {
+            final JCodeModel codeModel = generation._dataTemplateGenerator.getCodeModel();
+            validateDefinedClassRegistration(codeModel, generation._dataTemplateGenerator.getGeneratedClasses().keySet());
+            final MemoryCodeWriter writer = new MemoryCodeWriter();
+            codeModel.build(writer);
+            return writer;
+          }));
+        }
+
+        final Map<String, MemoryCodeWriter.Artifact> artifacts = new LinkedHashMap<String, MemoryCodeWriter.Artifact>();
+        for (MemoryCodeWriter writer : getAll(writerFutures))
+        {
+          for (MemoryCodeWriter.Artifact artifact : writer._artifacts)
+          {
+            artifacts.putIfAbsent(artifact._package.name() + '/' + artifact._fileName, artifact);
+          }
+        }
+
+        targetDirectory.mkdirs();
+        final FileCodeWriter fileWriter = new FileCodeWriter(targetDirectory, true);
+        for (MemoryCodeWriter.Artifact artifact : artifacts.values())
+        {
+          try (OutputStream out = fileWriter.openBinary(artifact._package, artifact._fileName))
+          {
+            artifact._content.writeTo(out);
+          }
+        }
+        fileWriter.close();
+      }
+      return new DefaultGeneratorResult(sourceFiles, targetFiles, modifiedFiles);
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Split the sources into at most the specified number of partitions of consecutive sources in path order, with the
+   * schema files of source directories listed individually, so that schema files of the same namespace mostly end up
+   * in the same partition.
+   */
+  private static List<String[]> partitionSources(String[] sources, int parallelism)
+  {
+    final List<String> units = new ArrayList<String>();
+    for (String source : sources)
+    {
+      final File sourceFile = new File(source);
+      if (sourceFile.isDirectory())
+      {
+        final FileUtil.FileExtensionFilter filter = new FileUtil.FileExtensionFilter(MultiFormatDataSchemaResolver.BUILTIN_EXTENSIONS);
+        for (File file : FileUtil.listFiles(sourceFile, filter))
+        {
+          units.add(file.getAbsolutePath());
+        }
+      }
+      else
+      {
+        units.add(source);
+      }
+    }
+    Collections.sort(units);
+
+    final int count = Math.min(parallelism, units.size());
+    final List<String[]> partitions = new ArrayList<String[]>(count);
+    for (int i = 0; i < count; i++)
+    {
+      final List<String> partition = units.subList(i * units.size() / count, (i + 1) * units.size() / count);
+      partitions.add(partition.toArray(new String[partition.size()]));
+    }
+    return partitions;
+  }
+
+  private static <T> List<T> getAll(List<Future<T>> futures)
+      throws IOException
+  {
+    final List<T> results = new ArrayList<T>(futures.size());
+    for (Future<T> future : futures)
+    {
+      try
+      {
+        results.add(future.get());
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while generating data templates");
+      }
+      catch (ExecutionException e)
+      {
+        final Throwable cause = e.getCause();
+        if (cause instanceof IOException)
+        {
+          throw (IOException) cause;
+        }
+        else if (cause instanceof RuntimeException)
+        {
+          throw (RuntimeException) cause;
+        }
+        else if (cause instanceof Error)
+        {
+          throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+      }
     }
-    return new DefaultGeneratorResult(parseResult.getSourceFiles(), targetFiles, modifiedFiles);
+    return results;
   }
 
   /**
@@ -174,4 +384,94 @@ public class PegasusDataTemplateGenerator
       }
     }
   }
-}
+
+  /**
+   * The data templates generated from some sources, with the resolver of their parser.
+   */
+  private static class Generation
+  {
+    private static final Comparator<Map.Entry<DataSchema, DataSchemaLocation>> SCHEMA_ORDER =
+        Comparator.comparing((Map.Entry<DataSchema, DataSchemaLocation> entry) -> String.valueOf(entry.getValue()))
+            .thenComparing(entry -> entry.getKey() instanceof NamedDataSchema
+                ? ((NamedDataSchema) entry.getKey()).getFullName()
+                : entry.getKey().toString());
+
+    private final TemplateSpecGenerator _specGenerator;
+    private final JavaDataTemplateGenerator _dataTemplateGenerator;
+    private final DataSchemaParser.ParseResult _parseResult;
+
+    /**
+     * @param ordered specifies whether the schemas are generated in order of their locations and names. The iteration
+     *                order of schemas depends on identity hash codes, which depend on the scheduling of threads.
+     */
+    private Generation(String resolverPath, String defaultPackage, String rootPath, String[] sources, boolean ordered)
+        throws IOException
+    {
+      final DataSchemaParser schemaParser = new DataSchemaParser(resolverPath);
+      _specGenerator = new TemplateSpecGenerator(schemaParser.getSchemaResolver());
+      _dataTemplateGenerator = new JavaDataTemplateGenerator(defaultPackage, rootPath);
+
+      for (DataSchema predefinedSchema : JavaDataTemplateGenerator.PredefinedJavaClasses.keySet())
+      {
+        _specGenerator.registerDefinedSchema(predefinedSchema);
+      }
+
+      _parseResult = schemaParser.parseSources(sources);
+
+      final List<Map.Entry<DataSchema, DataSchemaLocation>> entries =
+          new ArrayList<Map.Entry<DataSchema, DataSchemaLocation>>(_parseResult.getSchemaAndLocations().entrySet());
+      if (ordered)
+      {
+        Collections.sort(entries, SCHEMA_ORDER);
+      }
+      for (Map.Entry<DataSchema, DataSchemaLocation> entry : entries)
+      {
+        _specGenerator.generate(entry.getKey(), entry.getValue());
+      }
+      for (ClassTemplateSpec spec : _specGenerator.getGeneratedSpecs())
+      {
+        _dataTemplateGenerator.generate(spec);
+      }
+    }
+
+    private List<File> targetFiles(File targetDirectory, ClassLoader classLoader, boolean generateImported, Set<File> sourceFiles)
+    {
+      final JavaCodeUtil.PersistentClassChecker checker = new DataTemplatePersistentClassChecker(generateImported, _specGenerator, _dataTemplateGenerator, sourceFiles);
+      return JavaCodeUtil.targetFiles(targetDirectory, _dataTemplateGenerator.getCodeModel(), classLoader, checker);
+    }
+  }
+
+  /**
+   * {@link CodeWriter} that keeps the files in memory, so that code models can be built concurrently.
+   */
+  private static class MemoryCodeWriter extends CodeWriter
+  {
+    private final List<Artifact> _artifacts = new ArrayList<Artifact>();
+
+    @Override
+    public OutputStream openBinary(JPackage pkg, String fileName)
+    {
+      final Artifact artifact = new Artifact(pkg, fileName);
+      _artifacts.add(artifact);
+      return artifact._content;
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    private static class Artifact
+    {
+      private final JPackage _package;
+      private final String _fileName;
+      private final ByteArrayOutputStream _content = new ByteArrayOutputStream();
+
+      private Artifact(JPackage pkg, String fileName)
+      {
+        _package = pkg;
+        _fileName = fileName;
+      }
+    }
+  }
+}
\ No newline at end of file
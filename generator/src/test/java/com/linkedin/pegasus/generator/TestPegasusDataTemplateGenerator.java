@@ -3,6 +3,9 @@ package com.linkedin.pegasus.generator;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
 import org.apache.commons.io.FileUtils;
 import org.testng.annotations.AfterTest;
 import org.testng.annotations.DataProvider;
@@ -45,6 +48,32 @@ public class TestPegasusDataTemplateGenerator {
     assertTrue(generatedSource.contains("Generated from resources" + FS + "generator" + FS + pegasusFilename));
   }
 
+  @Test
+  public void testRunGeneratorInPartitions() throws Exception {
+    File sourceDir = Files.createTempDir();
+    for (int i = 0; i < 8; i++) {
+      String namespace = "com.linkedin.test.ns" + (i / 4);
+      String schema = "namespace " + namespace + "\n\n"
+          + "record Record" + i + " {\n"
+          + "  status: enum Status" + i + " { ON, OFF }\n"
+          + "  values: array[union[int, string]]\n"
+          + (i > 0 ? "  previous: optional map[string, com.linkedin.test.ns" + ((i - 1) / 4) + ".Record" + (i - 1) + "]\n" : "")
+          + "}\n";
+      File file = new File(sourceDir, namespace.replace('.', File.separatorChar) + FS + "Record" + i + ".pdl");
+      FileUtils.writeStringToFile(file, schema);
+    }
+
+    Map<String, String> serial = generatePegasusDataTemplates(sourceDir, 1);
+    Map<String, String> partitioned = generatePegasusDataTemplates(sourceDir, 3);
+    assertEquals(partitioned.keySet(), serial.keySet());
+    assertEquals(generatePegasusDataTemplates(sourceDir, 3), partitioned);
+    for (int i = 0; i < 8; i++) {
+      String recordFile = "com" + FS + "linkedin" + FS + "test" + FS + "ns" + (i / 4) + FS + "Record" + i + ".java";
+      assertTrue(serial.containsKey(recordFile), recordFile);
+      assertEquals(partitioned.get(recordFile), serial.get(recordFile));
+    }
+  }
+
   @AfterTest
   public void afterTest() {
     System.clearProperty("root.path");
@@ -56,4 +85,18 @@ public class TestPegasusDataTemplateGenerator {
     PegasusDataTemplateGenerator.main(new String[] {temp, pegasusFile.getAbsolutePath()});
     return new File(temp, generatedFilename);
   }
+
+  private Map<String, String> generatePegasusDataTemplates(File sourceDir, int parallelism) throws IOException {
+    File targetDir = Files.createTempDir();
+    String sourcePath = sourceDir.getAbsolutePath();
+    PegasusDataTemplateGenerator.run(sourcePath, null, null, true, targetDir.getAbsolutePath(),
+        new String[] {sourcePath}, parallelism);
+    Map<String, String> generated = new TreeMap<>();
+    Collection<File> files = FileUtils.listFiles(targetDir, new String[] {"java"}, true);
+    for (File file : files) {
+      generated.put(targetDir.toURI().relativize(file.toURI()).getPath().replace('/', File.separatorChar),
+          FileUtils.readFileToString(file));
+    }
+    return generated;
+  }
 }
@@ -86,6 +86,7 @@ public class CheckRestModelTask extends DefaultTask
       it.classpath = codegenClasspath
       it.args '--compat', modelCompatLevel.toLowerCase()
       it.args '--report'
+      it.systemProperty 'com.linkedin.restli.tools.compatibility.cacheDirectory', new File(project.rootProject.buildDir, 'compatibilityCheckCache').path
       it.args argFiles
       it.standardOutput = logChecker
     }
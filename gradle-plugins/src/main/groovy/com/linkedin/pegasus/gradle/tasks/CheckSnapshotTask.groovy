@@ -71,6 +71,7 @@ class CheckSnapshotTask extends DefaultTask
       it.classpath = codegenClasspath
       it.args '--compat', snapshotCompatLevel
       it.args '--report'
+      it.systemProperty 'com.linkedin.restli.tools.compatibility.cacheDirectory', new File(project.rootProject.buildDir, 'compatibilityCheckCache').path
       it.args argFiles
       it.standardOutput = logChecker
     }
@@ -0,0 +1,125 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.client;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures the checkout and return of objects from an {@link AsyncPoolImpl} shared by concurrent threads.
+ *
+ * With a pool at least as large as the number of threads, checkouts are served from the idle objects. With a
+ * smaller pool, threads also wait for the objects returned by the others. Use {@code -t} to change the number
+ * of threads.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AsyncPoolBenchmark
+{
+  @Param({"MRU", "LRU"})
+  public AsyncPoolImpl.Strategy _strategy;
+
+  @Param({"4", "64"})
+  public int _maxSize;
+
+  private ScheduledExecutorService _executor;
+  private AsyncPoolImpl<Object> _pool;
+
+  @Setup
+  public void setup()
+  {
+    _executor = Executors.newSingleThreadScheduledExecutor();
+    _pool = new AsyncPoolImpl<Object>("benchmark", new ObjectLifecycle(), _maxSize, 0, _executor, _executor,
+        Integer.MAX_VALUE, _strategy, _maxSize);
+    _pool.start();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception
+  {
+    FutureCallback<None> callback = new FutureCallback<None>();
+    _pool.shutdown(callback);
+    callback.get(10, TimeUnit.SECONDS);
+    _executor.shutdown();
+  }
+
+  @Benchmark
+  public Object getAndPut() throws Exception
+  {
+    FutureCallback<Object> callback = new FutureCallback<Object>();
+    _pool.get(callback);
+    Object obj = callback.get();
+    _pool.put(obj);
+    return obj;
+  }
+
+  private static class ObjectLifecycle implements AsyncPool.Lifecycle<Object>
+  {
+    @Override
+    public void create(Callback<Object> callback)
+    {
+      callback.onSuccess(new Object());
+    }
+
+    @Override
+    public boolean validateGet(Object obj)
+    {
+      return true;
+    }
+
+    @Override
+    public boolean validatePut(Object obj)
+    {
+      return true;
+    }
+
+    @Override
+    public void destroy(Object obj, boolean error, Callback<Object> callback)
+    {
+      callback.onSuccess(obj);
+    }
+
+    @Override
+    public PoolStats.LifecycleStats getStats()
+    {
+      return null;
+    }
+  }
+}
@@ -28,15 +28,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import com.linkedin.common.stats.LongStats;
 import com.linkedin.common.stats.LongTracking;
 import com.linkedin.r2.SizeLimitExceededException;
 import org.slf4j.Logger;
@@ -74,21 +73,29 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   public enum Strategy { MRU, LRU }
   private final Strategy _strategy;
 
-  // All members below are protected by this lock
+  // All members below are protected by this lock, except for the idle objects and the
+  // checked out count, which are updated without it when objects are checked out and returned.
+  // Volatile members are only written while holding the lock.
   // Never call user code (callbacks) while holding this lock
   private final Object _lock = new Object();
   // Including idle, checked out, and creations/destructions in progress
-  private int _poolSize = 0;
-  private int _checkedOut = 0;
+  private volatile int _poolSize = 0;
+  private final AtomicInteger _checkedOut = new AtomicInteger();
   // Unused objects live here, sorted by age.
   // The first object is the least recently added object.
-  private final Deque<TimedObject<T>> _idle = new LinkedList<TimedObject<T>>();
+  // An object is added before _idleCount is incremented, and _idleCount is decremented
+  // before an object is removed, so that a successful decrement reserves an idle object.
+  private final Deque<TimedObject<T>> _idle = new ConcurrentLinkedDeque<TimedObject<T>>();
+  private final AtomicInteger _idleCount = new AtomicInteger();
   // When no unused objects are available, callbacks live here while they wait
   // for a new object (either returned by another user, or newly created)
   private final LinkedDeque<Callback<T>> _waiters = new LinkedDeque<Callback<T>>();
+  private volatile int _waiterCount = 0;
   private Throwable _lastCreateError = null;
-  private State _state = State.NOT_YET_STARTED;
+  private volatile State _state = State.NOT_YET_STARTED;
   private Callback<None> _shutdownCallback = null;
+  // Not thread safe, synchronized on itself. The lock may be held while synchronizing on
+  // the tracker, but never the other way around.
   private final AsyncPoolStatsTracker _statsTracker;
 
   /**
@@ -218,23 +225,9 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
         () -> _lifecycle.getStats(),
         () -> _maxSize,
         () -> _minSize,
-        () -> {
-          synchronized (_lock) {
-            return _poolSize;
-          }
-        },
-        () -> {
-          synchronized (_lock)
-          {
-            return _checkedOut;
-          }
-        },
-        () -> {
-          synchronized (_lock)
-          {
-            return _idle.size();
-          }
-        },
+        () -> _poolSize,
+        _checkedOut::get,
+        _idleCount::get,
         clock,
         waitTimeTracker);
   }
@@ -312,6 +305,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       {
          cancelled.add(item);
       }
+      _waiterCount = 0;
       return cancelled;
     }
   }
@@ -319,50 +313,23 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   @Override
   public Cancellable get(final Callback<T> callback)
   {
-    // getter needs to add to wait queue atomically with check for empty pool
-    // putter needs to add to pool atomically with check for empty wait queue
-    boolean create = false;
-    boolean reject = false;
-    final LinkedDeque.Node<Callback<T>> node;
     final Callback<T> callbackWithTracking = new TimeTrackingCallback<T>(callback);
     for (;;)
     {
-      TimedObject<T> obj = null;
-      final State state;
-      synchronized (_lock)
+      TimedObject<T> obj = pollIdle();
+      if (obj == null)
       {
-        state = _state;
-        if (state == State.RUNNING)
-        {
-          if(_strategy == Strategy.LRU)
-          {
-            obj = _idle.pollFirst();
-          }
-          else
-          {
-            obj = _idle.pollLast();
-          }
-          if (obj == null)
-          {
-            if (_waiters.size() < _maxWaiters)
-            {
-              // No objects available and the waiter list is not full; add to waiter list and break out of loop
-              node = _waiters.addLastNode(callbackWithTracking);
-              create = shouldCreate();
-            }
-            else
-            {
-              reject = true;
-              node = null;
-            }
-            break;
-          }
-        }
+        break;
       }
+      // The state is checked after the reservation: shutdown changes the state before it compares
+      // the idle count to the pool size, so either this getter sees the pool is shutting down, or
+      // the shutdown sees the reservation and waits for the object to be returned.
+      final State state = _state;
       if (state != State.RUNNING)
       {
-        // Defer execution of the callback until we are out of the synchronized block
-        callbackWithTracking.onError(new IllegalStateException(_poolName + " is " + _state));
+        restoreIdle(obj);
+        shutdownIfNeeded();
+        callbackWithTracking.onError(new IllegalStateException(_poolName + " is " + state));
         return () -> false;
       }
       T rawObj = obj.get();
@@ -370,11 +337,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       {
         trc("dequeued an idle object");
         // Valid object; done
-        synchronized (_lock)
-        {
-          _checkedOut++;
-          _statsTracker.sampleMaxCheckedOut();
-        }
+        checkOut();
         callbackWithTracking.onSuccess(rawObj);
         return () -> false;
       }
@@ -382,6 +345,39 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       destroy(rawObj, true);
       trc("dequeued and disposed an invalid idle object");
     }
+
+    // getter adds to wait queue before checking for idle objects again
+    // putter adds to idle objects before checking for waiters again
+    boolean create = false;
+    boolean reject = false;
+    final State state;
+    final LinkedDeque.Node<Callback<T>> node;
+    synchronized (_lock)
+    {
+      state = _state;
+      if (state != State.RUNNING)
+      {
+        node = null;
+      }
+      else if (_waiters.size() < _maxWaiters)
+      {
+        // No objects available and the waiter list is not full; add to waiter list
+        node = _waiters.addLastNode(callbackWithTracking);
+        _waiterCount = _waiters.size();
+        create = shouldCreate();
+      }
+      else
+      {
+        reject = true;
+        node = null;
+      }
+    }
+    if (state != State.RUNNING)
+    {
+      // Defer execution of the callback until we are out of the synchronized block
+      callbackWithTracking.onError(new IllegalStateException(_poolName + " is " + state));
+      return () -> false;
+    }
     if (reject)
     {
       // This is a recoverable exception. User can simply retry the failed get() operation.
@@ -394,6 +390,8 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     {
       create();
     }
+    // An object may have been added to the idle objects since they were checked
+    serveWaiters();
     return new Cancellable()
     {
       @Override
@@ -404,6 +402,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
           boolean cancelled = _waiters.removeNode(node) != null;
           if (cancelled)
           {
+            _waiterCount = _waiters.size();
             shutdownIfNeeded();
           }
           return cancelled;
@@ -415,10 +414,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   @Override
   public void put(T obj)
   {
-    synchronized (_lock)
-    {
-      _checkedOut--;
-    }
+    _checkedOut.decrementAndGet();
     if (!_lifecycle.validatePut(obj))
     {
       destroy(obj, true);
@@ -431,24 +427,21 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
 
   private void add(T obj)
   {
-    final Callback<None> shutdown;
-    Callback<T> waiter;
-    synchronized (_lock)
+    Callback<T> waiter = null;
+    if (_waiterCount > 0)
     {
-      // If we have waiters, the idle list must already be empty.
-      // Therefore, immediately reusing the object is valid with
-      // both MRU and LRU strategies.
-      waiter = _waiters.poll();
-      if (waiter == null)
-      {
-        _idle.offerLast(new TimedObject<T>(obj));
-      }
-      else
+      synchronized (_lock)
       {
-        _checkedOut++;
-        _statsTracker.sampleMaxCheckedOut();
+        // Waiters only wait after finding no idle object.
+        // Therefore, immediately reusing the object is valid with
+        // both MRU and LRU strategies.
+        waiter = _waiters.poll();
+        if (waiter != null)
+        {
+          _waiterCount = _waiters.size();
+          checkOut();
+        }
       }
-      shutdown = checkShutdownComplete();
     }
 
     if (waiter != null)
@@ -461,22 +454,129 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     }
     else
     {
+      offerIdle(new TimedObject<T>(obj));
       trc("enqueued an idle object");
+      // A waiter may have been added since the waiters were checked
+      serveWaiters();
     }
-    if (shutdown != null)
+    if (_state != State.RUNNING)
     {
-      // Now that the final user callback has been executed, pool shutdown is complete
-      finishShutdown(shutdown);
+      // Now that the final user callback has been executed, pool shutdown may be complete
+      shutdownIfNeeded();
     }
   }
 
-  @Override
-  public void dispose(T obj)
+  /**
+   * Hands idle objects to waiters while there are both. A getter checks the idle objects
+   * before adding itself to the waiters, and a putter checks the waiters before adding its
+   * object to the idle objects, so both call this afterwards in case the other one raced.
+   */
+  private void serveWaiters()
   {
-    synchronized (_lock)
+    while (_waiterCount > 0)
     {
-      _checkedOut--;
+      TimedObject<T> obj = pollIdle();
+      if (obj == null)
+      {
+        return;
+      }
+      T rawObj = obj.get();
+      if (!_lifecycle.validateGet(rawObj))
+      {
+        destroy(rawObj, true);
+        continue;
+      }
+      final Callback<T> waiter;
+      synchronized (_lock)
+      {
+        waiter = _waiters.poll();
+        if (waiter == null)
+        {
+          // Waiters added from now on find the object themselves
+          restoreIdle(obj);
+        }
+        else
+        {
+          _waiterCount = _waiters.size();
+          checkOut();
+        }
+      }
+      if (waiter == null)
+      {
+        if (_state != State.RUNNING)
+        {
+          // A shutdown may have seen the reservation and be waiting for this object
+          shutdownIfNeeded();
+        }
+        return;
+      }
+      trc("dequeued a waiter");
+      waiter.onSuccess(rawObj);
+    }
+  }
+
+  private void offerIdle(TimedObject<T> obj)
+  {
+    _idle.offerLast(obj);
+    _idleCount.incrementAndGet();
+  }
+
+  /**
+   * Returns an object removed by {@link #pollIdle()} to its place.
+   */
+  private void restoreIdle(TimedObject<T> obj)
+  {
+    if (_strategy == Strategy.LRU)
+    {
+      _idle.offerFirst(obj);
+    }
+    else
+    {
+      _idle.offerLast(obj);
+    }
+    _idleCount.incrementAndGet();
+  }
+
+  /**
+   * @return true if an idle object is reserved, which may then be removed from the idle objects.
+   */
+  private boolean reserveIdle()
+  {
+    for (int idle; (idle = _idleCount.get()) > 0;)
+    {
+      if (_idleCount.compareAndSet(idle, idle - 1))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the idle object chosen by the strategy, or null if there is none.
+   */
+  private TimedObject<T> pollIdle()
+  {
+    if (!reserveIdle())
+    {
+      return null;
+    }
+    return _strategy == Strategy.LRU ? _idle.pollFirst() : _idle.pollLast();
+  }
+
+  private void checkOut()
+  {
+    _checkedOut.incrementAndGet();
+    synchronized (_statsTracker)
+    {
+      _statsTracker.sampleMaxCheckedOut();
     }
+  }
+
+  @Override
+  public void dispose(T obj)
+  {
+    _checkedOut.decrementAndGet();
     destroy(obj, true);
   }
 
@@ -484,7 +584,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   public AsyncPoolStats getStats()
   {
     // get a copy of the stats
-    synchronized (_lock)
+    synchronized (_statsTracker)
     {
       return _statsTracker.getStats();
     }
@@ -494,7 +594,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
   {
     if(bad)
     {
-      synchronized(_lock)
+      synchronized (_statsTracker)
       {
         _statsTracker.incrementBadDestroyed();
       }
@@ -503,13 +603,11 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     _lifecycle.destroy(obj, bad, new Callback<T>() {
       @Override
       public void onSuccess(T t) {
-        boolean create;
-        synchronized (_lock)
+        synchronized (_statsTracker)
         {
           _statsTracker.incrementDestroyed();
-          create = objectDestroyed();
         }
-        if (create)
+        if (objectDestroyed())
         {
           create();
         }
@@ -517,12 +615,10 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
 
       @Override
       public void onError(Throwable e) {
-        boolean create;
-        synchronized (_lock) {
+        synchronized (_statsTracker) {
           _statsTracker.incrementDestroyErrors();
-          create = objectDestroyed();
         }
-        if (create) {
+        if (objectDestroyed()) {
           create();
         }
         // TODO log this error!
@@ -582,7 +678,10 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
         else if (_waiters.size() > 0 || _poolSize < _minSize)
         {
           _poolSize++;
-          _statsTracker.sampleMaxPoolSize();
+          synchronized (_statsTracker)
+          {
+            _statsTracker.sampleMaxPoolSize();
+          }
           result = true;
         }
       }
@@ -608,9 +707,12 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
           {
             synchronized (_lock)
             {
-              _statsTracker.incrementCreated();
               _lastCreateError = null;
             }
+            synchronized (_statsTracker)
+            {
+              _statsTracker.incrementCreated();
+            }
             add(t);
             callback.onDone();
           }
@@ -628,9 +730,12 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
             final Collection<Callback<T>> waitersDenied;
             final Collection<Task> cancelledCreate = _rateLimiter.cancelPendingTasks();
             boolean create;
-            synchronized (_lock)
+            synchronized (_statsTracker)
             {
               _statsTracker.incrementCreateErrors();
+            }
+            synchronized (_lock)
+            {
               _lastCreateError = e;
               create = objectDestroyed(1 + cancelledCreate.size());
               if (!_waiters.isEmpty())
@@ -668,7 +773,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
 
   private void timeoutObjects()
   {
-    Collection<T> idle = reap(_idle, _idleTimeout);
+    Collection<T> idle = reap(_idleTimeout);
     if (idle.size() > 0)
     {
       LOG.debug("{}: disposing {} objects due to idle timeout", _poolName, idle.size());
@@ -679,19 +784,34 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     }
   }
 
-  private <U> Collection<U> reap(Queue<TimedObject<U>> queue, long timeout)
+  private Collection<T> reap(long timeout)
   {
-    List<U> toReap = new ArrayList<U>();
+    List<T> toReap = new ArrayList<T>();
     long now = System.currentTimeMillis();
     long target = now - timeout;
 
     synchronized (_lock)
     {
       int excess = _poolSize - _minSize;
-      for (TimedObject<U> p; (p = queue.peek()) != null && p.getTime() < target && excess > 0; excess--)
+      for (TimedObject<T> p; (p = _idle.peekFirst()) != null && p.getTime() < target && excess > 0; excess--)
       {
-        toReap.add(queue.poll().get());
-        _statsTracker.incrementTimedOut();
+        if (!reserveIdle())
+        {
+          break;
+        }
+        p = _idle.pollFirst();
+        if (p.getTime() >= target)
+        {
+          // The oldest object was checked out in the meantime
+          _idle.offerFirst(p);
+          _idleCount.incrementAndGet();
+          break;
+        }
+        toReap.add(p.get());
+        synchronized (_statsTracker)
+        {
+          _statsTracker.incrementTimedOut();
+        }
       }
     }
     return toReap;
@@ -718,7 +838,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
       // Save state for logging outside synchronized block
       state = _state;
       waiters = _waiters.size();
-      idle = _idle.size();
+      idle = _idleCount.get();
       poolSize = _poolSize;
 
       // Now compare against the same state that will be logged
@@ -786,7 +906,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     public void onError(Throwable e)
     {
       long waitTime = System.currentTimeMillis() - _startTime;
-      synchronized (_lock)
+      synchronized (_statsTracker)
       {
         _statsTracker.trackWaitTime(waitTime);
         _statsTracker.sampleMaxWaitTime(waitTime);
@@ -798,7 +918,7 @@ public class AsyncPoolImpl<T> implements AsyncPool<T>
     public void onSuccess(T result)
     {
       long waitTime = System.currentTimeMillis() - _startTime;
-      synchronized (_lock)
+      synchronized (_statsTracker)
       {
         _statsTracker.trackWaitTime(waitTime);
         _statsTracker.sampleMaxWaitTime(waitTime);
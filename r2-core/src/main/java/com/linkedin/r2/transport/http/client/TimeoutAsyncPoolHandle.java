@@ -20,8 +20,10 @@
 
 package com.linkedin.r2.transport.http.client;
 
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
 import com.linkedin.r2.util.Timeout;
 import com.linkedin.r2.util.TimeoutExecutor;
+import com.linkedin.r2.util.TimeoutScheduler;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -44,6 +46,12 @@ public class TimeoutAsyncPoolHandle<T> implements AsyncPoolHandle<T>, TimeoutExe
 
   public TimeoutAsyncPoolHandle(
       AsyncPool<T> pool, ScheduledExecutorService scheduler, long timeout, TimeUnit unit, T item)
+  {
+    this(pool, new ExecutorTimeoutScheduler(scheduler), timeout, unit, item);
+  }
+
+  public TimeoutAsyncPoolHandle(
+      AsyncPool<T> pool, TimeoutScheduler scheduler, long timeout, TimeUnit unit, T item)
   {
     _pool = pool;
     _timeout = new Timeout<>(scheduler, timeout, unit, item);
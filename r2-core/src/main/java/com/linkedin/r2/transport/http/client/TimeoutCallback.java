@@ -17,7 +17,9 @@
 package com.linkedin.r2.transport.http.client;
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
 import com.linkedin.r2.util.SingleTimeout;
+import com.linkedin.r2.util.TimeoutScheduler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -55,7 +57,23 @@ public class TimeoutCallback<T> implements Callback<T>
   public TimeoutCallback(ScheduledExecutorService executor, long timeout, TimeUnit timeoutUnit,
                                final Callback<T> callback, final String timeoutMessage)
   {
-    _timeout = new SingleTimeout<>(executor, timeout, timeoutUnit, callback, () -> callback.onError(
+    this(new ExecutorTimeoutScheduler(executor), timeout, timeoutUnit, callback, timeoutMessage);
+  }
+
+  /**
+   * Construct a new instance.
+   *
+   * @param scheduler the {@link TimeoutScheduler} used to schedule the timeout
+   * @param timeout the timeout delay, in the specified {@link TimeUnit}.
+   * @param timeoutUnit the {@link TimeUnit} for the timeout parameter.
+   * @param callback the {@link Callback} to be invoked on success or error.
+   * @param timeoutMessage the message to be included in the {@link TimeoutException} if a
+   *                       timeout occurs.
+   */
+  public TimeoutCallback(TimeoutScheduler scheduler, long timeout, TimeUnit timeoutUnit,
+                               final Callback<T> callback, final String timeoutMessage)
+  {
+    _timeout = new SingleTimeout<>(scheduler, timeout, timeoutUnit, callback, () -> callback.onError(
       new TimeoutException(
         "Exceeded request timeout of " + timeoutUnit.toMillis(timeout) + "ms: " + timeoutMessage)));
   }
@@ -24,7 +24,9 @@ import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
 import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
 import com.linkedin.r2.util.Timeout;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
 import com.linkedin.r2.util.TimeoutExecutor;
+import com.linkedin.r2.util.TimeoutScheduler;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -59,6 +61,25 @@ public class TimeoutTransportCallback<T> implements TransportCallback<T>, Timeou
                                   TimeUnit timeoutUnit,
                                   final TransportCallback<T> callback,
                                   final String timeoutMessage)
+  {
+    this(new ExecutorTimeoutScheduler(scheduler), timeout, timeoutUnit, callback, timeoutMessage);
+  }
+
+  /**
+   * Construct a new instance using the specified parameters.
+   *
+   * @param scheduler the {@link TimeoutScheduler} used to schedule the timeout
+   * @param timeout the timeout delay, in the specified {@link TimeUnit}.
+   * @param timeoutUnit the {@link TimeUnit} for the timeout parameter.
+   * @param callback the {@link TransportCallback} to be invoked on success or error.
+   * @param timeoutMessage the message to be included in the {@link TimeoutException} if a
+   *                       timeout occurs.
+   */
+  public TimeoutTransportCallback(TimeoutScheduler scheduler,
+                                  long timeout,
+                                  TimeUnit timeoutUnit,
+                                  final TransportCallback<T> callback,
+                                  final String timeoutMessage)
   {
     _timeout = new Timeout<TransportCallback<T>>(scheduler, timeout, timeoutUnit, callback);
     _timeout.addTimeoutTask(new Runnable()
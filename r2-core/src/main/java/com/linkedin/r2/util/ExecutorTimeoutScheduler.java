@@ -0,0 +1,48 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.util.ArgumentUtil;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * A {@link TimeoutScheduler} that schedules each timeout on a {@link ScheduledExecutorService}.
+ */
+public class ExecutorTimeoutScheduler implements TimeoutScheduler
+{
+  private final ScheduledExecutorService _executor;
+
+  /**
+   * @param executor the {@link ScheduledExecutorService} that runs the timeout tasks; it is the caller's
+   *                 responsibility to shut it down
+   */
+  public ExecutorTimeoutScheduler(ScheduledExecutorService executor)
+  {
+    ArgumentUtil.notNull(executor, "executor");
+    _executor = executor;
+  }
+
+  @Override
+  public Cancellable schedule(Runnable task, long delay, TimeUnit unit)
+  {
+    final ScheduledFuture<?> future = _executor.schedule(task, delay, unit);
+    return () -> future.cancel(false);
+  }
+}
@@ -0,0 +1,300 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import com.linkedin.util.ArgumentUtil;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A {@link TimeoutScheduler} backed by a hashed timing wheel, which schedules and cancels timeouts in constant
+ * time without a lock.
+ *
+ * The wheel is an array of buckets, each holding the timeouts that expire at one tick of the wheel modulo its size.
+ * A single worker thread advances the wheel once per tick, and runs the tasks of the expired timeouts. Newly
+ * scheduled and cancelled timeouts are handed to the worker through lock-free queues, so callers never contend on
+ * the buckets. Timeouts expire up to one tick late, never early.
+ *
+ * The tasks run on the worker thread, and should hand any lengthy work off to another executor.
+ */
+public class HashedWheelTimeoutScheduler implements TimeoutScheduler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimeoutScheduler.class);
+
+  public static final long DEFAULT_TICK_MILLIS = 10;
+  public static final int DEFAULT_WHEEL_SIZE = 512;
+
+  private static final int MAX_WHEEL_SIZE = 1 << 30;
+  // Bounds the scheduled timeouts the worker adds to the wheel per tick, so that it keeps ticking under load
+  private static final int MAX_SCHEDULED_PER_TICK = 100000;
+
+  private static final int PENDING = 0;
+  private static final int CANCELLED = 1;
+  private static final int EXPIRED = 2;
+  private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+      AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "_state");
+
+  private final long _tickNanos;
+  private final int _mask;
+  // The first timeout of each bucket, only accessed by the worker thread
+  private final WheelTimeout[] _buckets;
+  private final Queue<WheelTimeout> _scheduled = new ConcurrentLinkedQueue<>();
+  private final Queue<WheelTimeout> _cancelled = new ConcurrentLinkedQueue<>();
+  private final long _startNanos;
+  private final Thread _worker;
+  private volatile boolean _shutdown = false;
+  // Only accessed by the worker thread
+  private long _tick = 0;
+
+  /**
+   * Creates a scheduler with a tick of {@link #DEFAULT_TICK_MILLIS} milliseconds and {@link #DEFAULT_WHEEL_SIZE}
+   * buckets, whose worker thread is a daemon thread named "R2 Timeout Wheel", so that a scheduler which is never
+   * shut down does not keep the JVM alive.
+   */
+  public HashedWheelTimeoutScheduler()
+  {
+    this(daemonThreadFactory("R2 Timeout Wheel"), DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+  }
+
+  /**
+   * @param threadFactory creates the worker thread, which is started right away
+   * @param tickDuration the duration of a tick, which is the precision of the timeouts
+   * @param unit the {@link TimeUnit} of the tick duration
+   * @param wheelSize the number of buckets, rounded up to a power of two. Timeouts longer than a revolution of
+   *                  the wheel stay in their bucket for several revolutions.
+   */
+  public HashedWheelTimeoutScheduler(ThreadFactory threadFactory, long tickDuration, TimeUnit unit, int wheelSize)
+  {
+    ArgumentUtil.notNull(threadFactory, "threadFactory");
+    ArgumentUtil.checkArgument(tickDuration > 0, "tickDuration");
+    ArgumentUtil.checkArgument(wheelSize > 0 && wheelSize <= MAX_WHEEL_SIZE, "wheelSize");
+
+    int size = Integer.highestOneBit(wheelSize);
+    if (size < wheelSize)
+    {
+      size <<= 1;
+    }
+    _tickNanos = unit.toNanos(tickDuration);
+    _mask = size - 1;
+    _buckets = new WheelTimeout[size];
+    _startNanos = System.nanoTime();
+    _worker = threadFactory.newThread(this::run);
+    _worker.start();
+  }
+
+  @Override
+  public Cancellable schedule(Runnable task, long delay, TimeUnit unit)
+  {
+    ArgumentUtil.notNull(task, "task");
+    if (_shutdown)
+    {
+      throw new RejectedExecutionException("Timeout scheduler is shut down");
+    }
+    final WheelTimeout timeout = new WheelTimeout(task, System.nanoTime() - _startNanos + unit.toNanos(delay));
+    _scheduled.offer(timeout);
+    return timeout;
+  }
+
+  /**
+   * Stops the worker thread. The timeouts that have not expired yet are dropped without running their tasks, and
+   * no timeout can be scheduled afterwards.
+   */
+  public void shutdown()
+  {
+    _shutdown = true;
+    _worker.interrupt();
+  }
+
+  private static ThreadFactory daemonThreadFactory(String name)
+  {
+    final ThreadFactory threadFactory = new NamedThreadFactory(name);
+    return runnable ->
+    {
+      Thread thread = threadFactory.newThread(runnable);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private void run()
+  {
+    while (waitForNextTick())
+    {
+      removeCancelled();
+      addScheduled();
+      expire(_buckets[(int) (_tick & _mask)]);
+      _tick++;
+    }
+    _scheduled.clear();
+    _cancelled.clear();
+    Arrays.fill(_buckets, null);
+  }
+
+  /**
+   * @return false if the scheduler was shut down while waiting.
+   */
+  private boolean waitForNextTick()
+  {
+    final long deadline = _tickNanos * (_tick + 1);
+    while (!_shutdown)
+    {
+      long sleepNanos = deadline - (System.nanoTime() - _startNanos);
+      if (sleepNanos <= 0)
+      {
+        return true;
+      }
+      try
+      {
+        TimeUnit.NANOSECONDS.sleep(sleepNanos);
+      }
+      catch (InterruptedException e)
+      {
+        // Interrupted by shutdown
+      }
+    }
+    return false;
+  }
+
+  private void removeCancelled()
+  {
+    for (WheelTimeout timeout; (timeout = _cancelled.poll()) != null;)
+    {
+      // Timeouts cancelled before they were added to the wheel are skipped by addScheduled
+      if (timeout._bucket >= 0)
+      {
+        unlink(timeout);
+      }
+    }
+  }
+
+  private void addScheduled()
+  {
+    for (int i = 0; i < MAX_SCHEDULED_PER_TICK; i++)
+    {
+      final WheelTimeout timeout = _scheduled.poll();
+      if (timeout == null)
+      {
+        return;
+      }
+      if (timeout._state != PENDING)
+      {
+        continue;
+      }
+      // The tick that expires the timeout; a deadline that has already passed expires at the current tick
+      final long tick = Math.max(timeout._deadline / _tickNanos, _tick);
+      timeout._rounds = (tick - _tick) / _buckets.length;
+      timeout._bucket = (int) (tick & _mask);
+      timeout._next = _buckets[timeout._bucket];
+      if (timeout._next != null)
+      {
+        timeout._next._prev = timeout;
+      }
+      _buckets[timeout._bucket] = timeout;
+    }
+  }
+
+  private void expire(WheelTimeout timeout)
+  {
+    while (timeout != null)
+    {
+      final WheelTimeout next = timeout._next;
+      if (timeout._rounds > 0)
+      {
+        timeout._rounds--;
+      }
+      else
+      {
+        unlink(timeout);
+        if (STATE.compareAndSet(timeout, PENDING, EXPIRED))
+        {
+          try
+          {
+            timeout._task.run();
+          }
+          catch (Throwable e)
+          {
+            LOG.error("Failed to execute timeout task", e);
+          }
+        }
+      }
+      timeout = next;
+    }
+  }
+
+  private void unlink(WheelTimeout timeout)
+  {
+    if (timeout._prev != null)
+    {
+      timeout._prev._next = timeout._next;
+    }
+    else
+    {
+      _buckets[timeout._bucket] = timeout._next;
+    }
+    if (timeout._next != null)
+    {
+      timeout._next._prev = timeout._prev;
+    }
+    timeout._prev = null;
+    timeout._next = null;
+    timeout._bucket = -1;
+  }
+
+  private final class WheelTimeout implements Cancellable
+  {
+    private final Runnable _task;
+    // In nanoseconds since the scheduler started
+    private final long _deadline;
+    // Not private, so that STATE can update it
+    volatile int _state = PENDING;
+
+    // Only accessed by the worker thread
+    private long _rounds;
+    private int _bucket = -1;
+    private WheelTimeout _prev;
+    private WheelTimeout _next;
+
+    private WheelTimeout(Runnable task, long deadline)
+    {
+      _task = task;
+      _deadline = deadline;
+    }
+
+    @Override
+    public boolean cancel()
+    {
+      if (STATE.compareAndSet(this, PENDING, CANCELLED))
+      {
+        if (!_shutdown)
+        {
+          // Lets the worker remove the timeout from its bucket before it expires
+          _cancelled.offer(this);
+        }
+        return true;
+      }
+      return false;
+    }
+  }
+}
@@ -18,7 +18,6 @@ package com.linkedin.r2.util;
 
 import com.linkedin.util.ArgumentUtil;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import org.slf4j.Logger;
@@ -37,7 +36,7 @@ public class SingleTimeout<T>
   private static final Logger LOG = LoggerFactory.getLogger(SingleTimeout.class);
 
   private final AtomicReference<T> _item;
-  private final ScheduledFuture<?> _future;
+  private final Cancellable _cancellable;
 
   /**
    * Construct a new instance with the specified parameters.
@@ -49,12 +48,26 @@ public class SingleTimeout<T>
    * @param timeoutAction the action to be executed in case of timeout.
    */
   public SingleTimeout(ScheduledExecutorService executor, long timeout, TimeUnit timeoutUnit, T item, Runnable timeoutAction)
+  {
+    this(new ExecutorTimeoutScheduler(executor), timeout, timeoutUnit, item, timeoutAction);
+  }
+
+  /**
+   * Construct a new instance with the specified parameters.
+   *
+   * @param scheduler the {@link TimeoutScheduler} to use for scheduling the timeout task
+   * @param timeout the timeout delay, in the specified {@link TimeUnit}.
+   * @param timeoutUnit the {@link TimeUnit} for the timeout parameter.
+   * @param item the item to be retrieved.
+   * @param timeoutAction the action to be executed in case of timeout.
+   */
+  public SingleTimeout(TimeoutScheduler scheduler, long timeout, TimeUnit timeoutUnit, T item, Runnable timeoutAction)
   {
     ArgumentUtil.ensureNotNull(item,"item");
     ArgumentUtil.ensureNotNull(timeoutAction,"timeoutAction");
 
     _item = new AtomicReference<>(item);
-    _future = executor.schedule(() -> {
+    _cancellable = scheduler.schedule(() -> {
       T item1 = _item.getAndSet(null);
       if (item1 != null)
       {
@@ -79,7 +92,7 @@ public class SingleTimeout<T>
     T item = _item.getAndSet(null);
     if (item != null)
     {
-      _future.cancel(false);
+      _cancellable.cancel();
     }
     return item;
   }
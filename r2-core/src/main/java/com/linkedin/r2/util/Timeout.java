@@ -25,7 +25,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -43,7 +42,7 @@ public class Timeout<T> implements TimeoutExecutor
   private static final Logger LOG = LoggerFactory.getLogger(Timeout.class);
 
   private final AtomicReference<T> _item;
-  private final ScheduledFuture<?> _future;
+  private final Cancellable _cancellable;
   private final ClosableQueue<Runnable> _queue = new ClosableQueue<Runnable>();
 
   /**
@@ -55,13 +54,26 @@ public class Timeout<T> implements TimeoutExecutor
    * @param item the item to be retrieved.
    */
   public Timeout(ScheduledExecutorService executor, long timeout, TimeUnit timeoutUnit, T item)
+  {
+    this(new ExecutorTimeoutScheduler(executor), timeout, timeoutUnit, item);
+  }
+
+  /**
+   * Construct a new instance with the specified parameters.
+   *
+   * @param scheduler the {@link TimeoutScheduler} to use for scheduling the timeout task
+   * @param timeout the timeout delay, in the specified {@link TimeUnit}.
+   * @param timeoutUnit the {@link TimeUnit} for the timeout parameter.
+   * @param item the item to be retrieved.
+   */
+  public Timeout(TimeoutScheduler scheduler, long timeout, TimeUnit timeoutUnit, T item)
   {
     if (item == null)
     {
       throw new NullPointerException();
     }
     _item = new AtomicReference<>(item);
-    _future = executor.schedule(() -> {
+    _cancellable = scheduler.schedule(() -> {
       T item1 = _item.getAndSet(null);
       if (item1 != null)
       {
@@ -95,7 +107,7 @@ public class Timeout<T> implements TimeoutExecutor
     T item = _item.getAndSet(null);
     if (item != null)
     {
-      _future.cancel(false);
+      _cancellable.cancel();
     }
     return item;
   }
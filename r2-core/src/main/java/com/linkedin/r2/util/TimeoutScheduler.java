@@ -0,0 +1,41 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Schedules the timeouts of requests and pooled objects. Most of these timeouts are cancelled before they expire,
+ * so implementations should make both scheduling and cancelling cheap.
+ *
+ * @see ExecutorTimeoutScheduler
+ * @see HashedWheelTimeoutScheduler
+ */
+public interface TimeoutScheduler
+{
+  /**
+   * Runs the task once after the delay.
+   *
+   * @param task the task to run when the timeout expires.
+   * @param delay the delay, in the specified {@link TimeUnit}.
+   * @param unit the {@link TimeUnit} of the delay.
+   * @return a {@link Cancellable} that prevents the task from running if the timeout has not expired yet.
+   * @throws java.util.concurrent.RejectedExecutionException if the scheduler is shut down.
+   */
+  Cancellable schedule(Runnable task, long delay, TimeUnit unit);
+}
@@ -0,0 +1,159 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.util;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestHashedWheelTimeoutScheduler
+{
+  private static final long TICK_MILLIS = 10;
+  private static final int WHEEL_SIZE = 8;
+
+  private HashedWheelTimeoutScheduler _scheduler;
+
+  @BeforeMethod
+  public void setUp()
+  {
+    // A small wheel, so that most timeouts go around it several times
+    _scheduler = new HashedWheelTimeoutScheduler(new NamedThreadFactory("Test Timeout Wheel"), TICK_MILLIS,
+        TimeUnit.MILLISECONDS, WHEEL_SIZE);
+  }
+
+  @AfterMethod
+  public void tearDown()
+  {
+    _scheduler.shutdown();
+  }
+
+  @Test
+  public void testExpire() throws Exception
+  {
+    for (long delay : new long[] { 0, 25, 150, 400 })
+    {
+      final CountDownLatch latch = new CountDownLatch(1);
+      final long start = System.nanoTime();
+      final long[] elapsed = new long[1];
+      _scheduler.schedule(() -> {
+        elapsed[0] = System.nanoTime() - start;
+        latch.countDown();
+      }, delay, TimeUnit.MILLISECONDS);
+
+      Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+      Assert.assertTrue(elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(delay),
+          "Expired after " + elapsed[0] + "ns instead of " + delay + "ms");
+    }
+  }
+
+  @Test
+  public void testCancel() throws Exception
+  {
+    final AtomicInteger runs = new AtomicInteger();
+    Cancellable cancellable = _scheduler.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+    Assert.assertTrue(cancellable.cancel());
+    Assert.assertFalse(cancellable.cancel());
+
+    Thread.sleep(200);
+    Assert.assertEquals(runs.get(), 0);
+  }
+
+  @Test
+  public void testCancelAfterExpire() throws Exception
+  {
+    final CountDownLatch latch = new CountDownLatch(1);
+    Cancellable cancellable = _scheduler.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+    Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    Assert.assertFalse(cancellable.cancel());
+  }
+
+  @Test
+  public void testManyTimeouts() throws Exception
+  {
+    final int count = 10000;
+    final Random random = new Random(42);
+    final CountDownLatch latch = new CountDownLatch(count / 2);
+    final AtomicInteger cancelledRuns = new AtomicInteger();
+    for (int i = 0; i < count; i++)
+    {
+      if (i % 2 == 0)
+      {
+        _scheduler.schedule(latch::countDown, random.nextInt(300), TimeUnit.MILLISECONDS);
+      }
+      else
+      {
+        // Cancelled right away, with a delay well above a tick, so that it cannot expire first
+        Cancellable cancellable =
+            _scheduler.schedule(cancelledRuns::incrementAndGet, 100 + random.nextInt(200), TimeUnit.MILLISECONDS);
+        Assert.assertTrue(cancellable.cancel());
+      }
+    }
+
+    Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    Thread.sleep(400);
+    Assert.assertEquals(cancelledRuns.get(), 0);
+  }
+
+  @Test
+  public void testDefaultWorkerIsDaemon() throws Exception
+  {
+    HashedWheelTimeoutScheduler scheduler = new HashedWheelTimeoutScheduler();
+    try
+    {
+      final CountDownLatch latch = new CountDownLatch(1);
+      final boolean[] daemon = new boolean[1];
+      scheduler.schedule(() -> {
+        daemon[0] = Thread.currentThread().isDaemon();
+        latch.countDown();
+      }, 0, TimeUnit.MILLISECONDS);
+
+      Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+      Assert.assertTrue(daemon[0], "The default worker thread keeps the JVM alive");
+    }
+    finally
+    {
+      scheduler.shutdown();
+    }
+  }
+
+  @Test
+  public void testShutdown() throws Exception
+  {
+    final AtomicInteger runs = new AtomicInteger();
+    _scheduler.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+    _scheduler.shutdown();
+
+    try
+    {
+      _scheduler.schedule(runs::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+      Assert.fail("Scheduled a timeout after shutdown");
+    }
+    catch (RejectedExecutionException e)
+    {
+      // expected
+    }
+    Thread.sleep(200);
+    Assert.assertEquals(runs.get(), 0);
+  }
+}
@@ -43,6 +43,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Steven Ihde
@@ -169,6 +170,142 @@ public class TestAsyncPool
     Assert.assertTrue(lifecycle.getHighWaterMark() <= POOL_SIZE, "High water mark exceeded " + POOL_SIZE);
   }
 
+  /**
+   * Tests that concurrent checkouts and returns, served from idle objects and waiters alike,
+   * leave the pool stats consistent.
+   */
+  @Test
+  public void testConcurrentGetAndPut() throws Exception
+  {
+    final int ITERATIONS = 2000;
+    final int THREADS = 16;
+    final int POOL_SIZE = 4;
+
+    for (AsyncPoolImpl.Strategy strategy : AsyncPoolImpl.Strategy.values())
+    {
+      SynchronousLifecycle lifecycle = new SynchronousLifecycle();
+      final AsyncPool<Object> pool = new AsyncPoolImpl<Object>("object pool",
+          lifecycle, POOL_SIZE, 100, _executor, _executor, Integer.MAX_VALUE, strategy, 0);
+      pool.start();
+
+      final AtomicInteger completed = new AtomicInteger();
+      Runnable r = () -> {
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+          FutureCallback<Object> cb = new FutureCallback<Object>();
+          pool.get(cb);
+          try
+          {
+            pool.put(cb.get(5, TimeUnit.SECONDS));
+            completed.incrementAndGet();
+          }
+          catch (Exception e)
+          {
+            return;
+          }
+        }
+      };
+      List<Thread> threads = new ArrayList<Thread>(THREADS);
+      for (int i = 0; i < THREADS; i++)
+      {
+        Thread t = new Thread(r);
+        t.start();
+        threads.add(t);
+      }
+      for (Thread t : threads)
+      {
+        t.join();
+      }
+      Assert.assertEquals(completed.get(), ITERATIONS * THREADS);
+
+      PoolStats stats = pool.getStats();
+      Assert.assertEquals(stats.getCheckedOut(), 0);
+      Assert.assertEquals(stats.getIdleCount(), stats.getPoolSize());
+      Assert.assertTrue(stats.getPoolSize() <= POOL_SIZE);
+      Assert.assertTrue(stats.getSampleMaxCheckedOut() <= POOL_SIZE);
+      Assert.assertEquals(stats.getTotalCreated(), lifecycle.getLive());
+
+      FutureCallback<None> shutdown = new FutureCallback<None>();
+      pool.shutdown(shutdown);
+      shutdown.get(5, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testConcurrentGetAndShutdown() throws Exception
+  {
+    final int ROUNDS = 200;
+    final int THREADS = 8;
+    final int POOL_SIZE = 4;
+
+    for (AsyncPoolImpl.Strategy strategy : AsyncPoolImpl.Strategy.values())
+    {
+      for (int round = 0; round < ROUNDS; round++)
+      {
+        SynchronousLifecycle lifecycle = new SynchronousLifecycle();
+        final AsyncPool<Object> pool = new AsyncPoolImpl<Object>("object pool",
+            lifecycle, POOL_SIZE, 100, _executor, _executor, Integer.MAX_VALUE, strategy, POOL_SIZE);
+        pool.start();
+
+        final AtomicBoolean shutdownComplete = new AtomicBoolean();
+        final AtomicInteger checkedOutAfterShutdown = new AtomicInteger();
+        Runnable r = () -> {
+          for (;;)
+          {
+            FutureCallback<Object> cb = new FutureCallback<Object>();
+            pool.get(cb);
+            try
+            {
+              Object obj = cb.get(5, TimeUnit.SECONDS);
+              // The pool cannot complete its shutdown while an object is checked out
+              if (shutdownComplete.get())
+              {
+                checkedOutAfterShutdown.incrementAndGet();
+              }
+              pool.put(obj);
+            }
+            catch (Exception e)
+            {
+              return;
+            }
+          }
+        };
+        List<Thread> threads = new ArrayList<Thread>(THREADS);
+        for (int i = 0; i < THREADS; i++)
+        {
+          Thread t = new Thread(r);
+          t.start();
+          threads.add(t);
+        }
+
+        FutureCallback<None> shutdown = new FutureCallback<None>();
+        pool.shutdown(new Callback<None>()
+        {
+          @Override
+          public void onSuccess(None none)
+          {
+            shutdownComplete.set(true);
+            shutdown.onSuccess(none);
+          }
+
+          @Override
+          public void onError(Throwable e)
+          {
+            shutdown.onError(e);
+          }
+        });
+        shutdown.get(5, TimeUnit.SECONDS);
+        for (Thread t : threads)
+        {
+          t.join();
+        }
+
+        Assert.assertEquals(checkedOutAfterShutdown.get(), 0, "Object checked out after shutdown completed");
+        Assert.assertEquals(pool.getStats().getCheckedOut(), 0);
+      }
+    }
+  }
+
   @Test
   public void testShutdown()
   {
@@ -51,8 +51,12 @@ import com.linkedin.r2.transport.http.client.rest.HttpNettyClient;
 import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamClient;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import com.linkedin.r2.util.ConfigValueExtractor;
+import com.linkedin.r2.util.HashedWheelTimeoutScheduler;
 import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.util.TimeoutScheduler;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -75,7 +79,10 @@ import org.slf4j.LoggerFactory;
  * A factory for HttpNettyClient instances.
  *
  * All clients created by the factory will share the same resources, in particular the
- * {@link io.netty.channel.nio.NioEventLoopGroup} and {@link ScheduledExecutorService}.
+ * {@link EventLoopGroup} and {@link ScheduledExecutorService}. The event loop group uses the NIO
+ * transport unless another {@link NettyTransport} is set on the {@link Builder}. The request
+ * timeouts of the clients are scheduled on a shared {@link HashedWheelTimeoutScheduler} unless
+ * another {@link TimeoutScheduler} is set on the {@link Builder}.
  *
  * In order to shutdown cleanly, all clients issued by the factory should be shutdown via
  * {@link TransportClient#shutdown(com.linkedin.common.callback.Callback)} and the factory
@@ -156,7 +163,7 @@ public class HttpClientFactory implements TransportClientFactory
 
   private static final String LIST_SEPARATOR = ",";
 
-  private final NioEventLoopGroup          _eventLoopGroup;
+  private final EventLoopGroup             _eventLoopGroup;
   private final ScheduledExecutorService   _executor;
   private final ExecutorService            _callbackExecutorGroup;
   private final boolean                    _shutdownFactory;
@@ -184,6 +191,10 @@ public class HttpClientFactory implements TransportClientFactory
   // All fields below protected by _mutex
   private final Object                     _mutex               = new Object();
   private boolean                          _running             = true;
+  // Null if no timeout scheduler was provided and no client has been created yet
+  private TimeoutScheduler                 _timeoutScheduler;
+  // Created with the first client and shut down by this factory, or null if the timeout scheduler was provided
+  private HashedWheelTimeoutScheduler      _ownTimeoutScheduler = null;
   private int                              _clientsOutstanding  = 0;
   private Callback<None>                   _factoryShutdownCallback;
   private ChannelPoolManagerFactory        _channelPoolManagerFactory;
@@ -543,11 +554,11 @@ public class HttpClientFactory implements TransportClientFactory
   {
     this(filters, eventLoopGroup, shutdownFactory, executor, shutdownExecutor, callbackExecutorGroup, shutdownCallbackExecutor,
       jmxManager, requestCompressionThresholdDefault, requestCompressionConfigs, responseCompressionConfigs,
-      compressionExecutor, defaultHttpVersion, shareConnection, eventProviderRegistry, true);
+      compressionExecutor, defaultHttpVersion, shareConnection, eventProviderRegistry, true, null);
   }
 
   private HttpClientFactory(FilterChain filters,
-                            NioEventLoopGroup eventLoopGroup,
+                            EventLoopGroup eventLoopGroup,
                             boolean shutdownFactory,
                             ScheduledExecutorService executor,
                             boolean shutdownExecutor,
@@ -561,12 +572,14 @@ public class HttpClientFactory implements TransportClientFactory
                             HttpProtocolVersion defaultHttpVersion,
                             boolean shareConnection,
                             EventProviderRegistry eventProviderRegistry,
-                            boolean enableSSLSessionResumption)
+                            boolean enableSSLSessionResumption,
+                            TimeoutScheduler timeoutScheduler)
   {
     _filters = filters;
     _eventLoopGroup = eventLoopGroup;
     _shutdownFactory = shutdownFactory;
     _executor = executor;
+    _timeoutScheduler = timeoutScheduler;
     _shutdownExecutor = shutdownExecutor;
     _callbackExecutorGroup = callbackExecutorGroup;
     _shutdownCallbackExecutor = shutdownCallbackExecutor;
@@ -601,8 +614,10 @@ public class HttpClientFactory implements TransportClientFactory
 
   public static class Builder
   {
-    private NioEventLoopGroup          _eventLoopGroup = null;
+    private EventLoopGroup             _eventLoopGroup = null;
+    private NettyTransport             _transport = NettyTransport.NIO;
     private ScheduledExecutorService   _executor = null;
+    private TimeoutScheduler           _timeoutScheduler = null;
     private ExecutorService            _callbackExecutorGroup = null;
     private boolean                    _shutdownFactory = true;
     private boolean                    _shutdownExecutor = true;
@@ -630,6 +645,27 @@ public class HttpClientFactory implements TransportClientFactory
       return this;
     }
 
+    /**
+     * @param eventLoopGroup the {@link EventLoopGroup} that all Clients created by this factory will share,
+     *                       either a {@link NioEventLoopGroup} or an {@link io.netty.channel.epoll.EpollEventLoopGroup}
+     */
+    public Builder setEventLoopGroup(EventLoopGroup eventLoopGroup)
+    {
+      _eventLoopGroup = eventLoopGroup;
+      return this;
+    }
+
+    /**
+     * @param transport the {@link NettyTransport} of the event loop group created by the factory when no event
+     *                  loop group is set, {@link NettyTransport#NIO} by default. Transports that are not available
+     *                  on the current platform fall back to {@link NettyTransport#NIO}.
+     */
+    public Builder setNettyTransport(NettyTransport transport)
+    {
+      _transport = transport;
+      return this;
+    }
+
     /**
      * @param scheduleExecutorService an executor shared by all Clients created by this factory to schedule
      *                                tasks
@@ -640,6 +676,18 @@ public class HttpClientFactory implements TransportClientFactory
       return this;
     }
 
+    /**
+     * @param timeoutScheduler schedules the request timeouts of all Clients created by this factory; it is
+     *                         the caller's responsibility to shut it down. By default, the factory creates a
+     *                         {@link HashedWheelTimeoutScheduler} with its first client, which it shuts
+     *                         down with itself.
+     */
+    public Builder setTimeoutScheduler(TimeoutScheduler timeoutScheduler)
+    {
+      _timeoutScheduler = timeoutScheduler;
+      return this;
+    }
+
     /**
      * @param callbackExecutor an optional executor to invoke user callbacks that otherwise
      *                         will be invoked by scheduler executor.
@@ -761,8 +809,8 @@ public class HttpClientFactory implements TransportClientFactory
 
     public HttpClientFactory build()
     {
-      NioEventLoopGroup eventLoopGroup = _eventLoopGroup != null ? _eventLoopGroup
-          : new NioEventLoopGroup(0 /* use default settings */, new NamedThreadFactory("R2 Nio Event Loop"));
+      EventLoopGroup eventLoopGroup = _eventLoopGroup != null ? _eventLoopGroup
+          : _transport.orFallback().newEventLoopGroup(0 /* use default settings */, "Event Loop");
       ScheduledExecutorService scheduledExecutorService = _executor != null ? _executor
           : Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("R2 Netty Scheduler"));
 
@@ -778,7 +826,8 @@ public class HttpClientFactory implements TransportClientFactory
       return new HttpClientFactory(_filters, eventLoopGroup, _shutdownFactory, scheduledExecutorService,
         _shutdownExecutor, _callbackExecutorGroup, _shutdownCallbackExecutor, _jmxManager,
         _requestCompressionThresholdDefault, _requestCompressionConfigs, _responseCompressionConfigs,
-        compressionExecutor, _defaultHttpVersion, _shareConnection, eventProviderRegistry, _enableSSLSessionResumption);
+        compressionExecutor, _defaultHttpVersion, _shareConnection, eventProviderRegistry, _enableSSLSessionResumption,
+        _timeoutScheduler);
     }
 
   }
@@ -1195,16 +1244,17 @@ public class HttpClientFactory implements TransportClientFactory
     HttpProtocolVersion httpProtocolVersion =
       chooseNewOverDefault(getHttpProtocolVersion(properties, HTTP_PROTOCOL_VERSION), _defaultHttpVersion);
 
+    final TimeoutScheduler timeoutScheduler = getTimeoutScheduler();
     TransportClient streamClient;
     switch (httpProtocolVersion)
     {
       case HTTP_1_1:
-        streamClient = new HttpNettyStreamClient(_eventLoopGroup, _executor, requestTimeout, shutdownTimeout,
+        streamClient = new HttpNettyStreamClient(_eventLoopGroup, _executor, timeoutScheduler, requestTimeout, shutdownTimeout,
           _callbackExecutorGroup, _jmxManager, _channelPoolManagerFactory.buildStream(key),
           _channelPoolManagerFactory.buildStream(sslKey));
         break;
       case HTTP_2:
-        streamClient = new Http2NettyStreamClient(_eventLoopGroup, _executor, requestTimeout, shutdownTimeout,
+        streamClient = new Http2NettyStreamClient(_eventLoopGroup, _executor, timeoutScheduler, requestTimeout, shutdownTimeout,
           _callbackExecutorGroup, _jmxManager, _channelPoolManagerFactory.buildHttp2Stream(key),
           _channelPoolManagerFactory.buildHttp2Stream(sslKey));
         break;
@@ -1212,13 +1262,30 @@ public class HttpClientFactory implements TransportClientFactory
         throw new IllegalArgumentException("Unrecognized HTTP protocol version " + httpProtocolVersion);
     }
 
-    HttpNettyClient legacyClient = new HttpNettyClient(_eventLoopGroup, _executor, requestTimeout, shutdownTimeout,
+    HttpNettyClient legacyClient = new HttpNettyClient(_eventLoopGroup, _executor, timeoutScheduler, requestTimeout, shutdownTimeout,
       _callbackExecutorGroup, _jmxManager, _channelPoolManagerFactory.buildRest(key),
       _channelPoolManagerFactory.buildRest(sslKey));
 
     return new MixedClient(legacyClient, streamClient);
   }
 
+  /**
+   * Returns the timeout scheduler of the clients, creating the factory's own
+   * {@link HashedWheelTimeoutScheduler} with the first client if none was provided.
+   */
+  private TimeoutScheduler getTimeoutScheduler()
+  {
+    synchronized (_mutex)
+    {
+      if (_timeoutScheduler == null)
+      {
+        _ownTimeoutScheduler = new HashedWheelTimeoutScheduler();
+        _timeoutScheduler = _ownTimeoutScheduler;
+      }
+      return _timeoutScheduler;
+    }
+  }
+
   /**
    * choose new value. If new value doesn't exist, choose default value.
    *
@@ -1331,6 +1398,16 @@ public class HttpClientFactory implements TransportClientFactory
           LOG.info("Scheduler shutdown complete");
         }
 
+        final HashedWheelTimeoutScheduler ownTimeoutScheduler;
+        synchronized (_mutex)
+        {
+          ownTimeoutScheduler = _ownTimeoutScheduler;
+        }
+        if (ownTimeoutScheduler != null)
+        {
+          ownTimeoutScheduler.shutdown();
+        }
+
         if (_shutdownCallbackExecutor)
         {
           LOG.info("Shutdown callback executor");
@@ -18,7 +18,9 @@ package com.linkedin.r2.transport.http.client.common;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.MultiCallback;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
 import com.linkedin.r2.util.RequestTimeoutUtil;
+import com.linkedin.r2.util.TimeoutScheduler;
 import com.linkedin.common.util.None;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.message.Request;
@@ -83,6 +85,7 @@ public abstract class AbstractNettyClient<Req extends Request, Res extends Respo
   public enum State {RUNNING, SHUTTING_DOWN, REQUESTS_STOPPING, SHUTDOWN}
 
   protected final ScheduledExecutorService _scheduler;
+  protected final TimeoutScheduler _timeoutScheduler;
 
   private final long _requestTimeout;
   private final long _shutdownTimeout;
@@ -112,8 +115,34 @@ public abstract class AbstractNettyClient<Req extends Request, Res extends Respo
                              AbstractJmxManager jmxManager,
                              ChannelPoolManager channelPoolManager,
                              ChannelPoolManager sslChannelPoolManager)
+  {
+    this(executor, new ExecutorTimeoutScheduler(executor), requestTimeout, shutdownTimeout, jmxManager,
+        channelPoolManager, sslChannelPoolManager);
+  }
+
+  /**
+   * Creates a new HttpNettyClient
+   * @param executor                  An executor; it is the caller's responsibility to shut it down
+   * @param timeoutScheduler          Schedules the request timeouts; it is the caller's responsibility to
+   *                                  shut it down
+   * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
+   * @param shutdownTimeout           Timeout, in ms, the client should wait after shutdown is
+   *                                  initiated before terminating outstanding requests
+   * @param jmxManager                A management class that is aware of the creation/shutdown event
+   *                                  of the underlying {@link ChannelPoolManager}
+   * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
+   * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
+   */
+  public AbstractNettyClient(ScheduledExecutorService executor,
+                             TimeoutScheduler timeoutScheduler,
+                             long requestTimeout,
+                             long shutdownTimeout,
+                             AbstractJmxManager jmxManager,
+                             ChannelPoolManager channelPoolManager,
+                             ChannelPoolManager sslChannelPoolManager)
   {
     _scheduler = executor;
+    _timeoutScheduler = timeoutScheduler;
     _requestTimeout = requestTimeout;
     _shutdownTimeout = shutdownTimeout;
     _jmxManager = jmxManager;
@@ -127,6 +156,7 @@ public abstract class AbstractNettyClient<Req extends Request, Res extends Respo
   public AbstractNettyClient(ChannelPoolFactory factory, ScheduledExecutorService executor, int requestTimeout,
       int shutdownTimeout) {
     _scheduler = executor;
+    _timeoutScheduler = new ExecutorTimeoutScheduler(executor);
     _requestTimeout = requestTimeout;
     _shutdownTimeout = shutdownTimeout;
     _jmxManager = AbstractJmxManager.NULL_JMX_MANAGER;
@@ -206,7 +236,7 @@ public abstract class AbstractNettyClient<Req extends Request, Res extends Respo
     // 1. The user callback will always be invoked, since the Timeout will eventually expire
     // 2. The user callback is never invoked more than once
     TimeoutTransportCallback<Res> timeoutCallback =
-      new TimeoutTransportCallback<>(_scheduler,
+      new TimeoutTransportCallback<>(_timeoutScheduler,
         requestTimeout,
         TimeUnit.MILLISECONDS,
         shutdownAwareCallback,
@@ -21,8 +21,8 @@ import com.linkedin.common.util.None;
 import com.linkedin.r2.transport.http.client.rest.HttpNettyChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamChannelPoolFactory;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,17 +39,17 @@ public class ChannelPoolManagerFactoryImpl implements ChannelPoolManagerFactory
 {
   private static final Logger LOG = LoggerFactory.getLogger(ChannelPoolManagerFactoryImpl.class);
 
-  private final NioEventLoopGroup _eventLoopGroup;
+  private final EventLoopGroup _eventLoopGroup;
   private final ScheduledExecutorService _scheduler;
   private final boolean _enableSSLSessionResumption;
 
   /**
-   * @param eventLoopGroup The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup The EventLoopGroup; it is the caller's responsibility to
    *                       shut it down
    * @param scheduler      An executor; it is the caller's responsibility to shut it down
    * @param enableSSLSessionResumption
    */
-  public ChannelPoolManagerFactoryImpl(NioEventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler, boolean enableSSLSessionResumption)
+  public ChannelPoolManagerFactoryImpl(EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler, boolean enableSSLSessionResumption)
   {
     _eventLoopGroup = eventLoopGroup;
     _scheduler = scheduler;
@@ -25,12 +25,13 @@ import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.common.SessionResumptionSslHandler;
 import com.linkedin.r2.transport.http.util.SslHandlerUtil;
 import com.linkedin.util.clock.SystemClock;
+import com.linkedin.r2.transport.http.util.NettyTransport;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import java.net.SocketAddress;
@@ -65,7 +66,7 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     _scheduler = scheduler;
     _maxConcurrentConnectionInitializations = maxConcurrentConnectionInitializations;
     Bootstrap bootstrap = new Bootstrap().group(eventLoopGroup)
-      .channel(NioSocketChannel.class)
+      .channel(NettyTransport.forEventLoopGroup(eventLoopGroup).getSocketChannelClass())
       .handler(new HttpClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize, enableSSLSessionResumption));
 
     _bootstrap = bootstrap;
@@ -100,7 +101,7 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     );
   }
 
-  static class HttpClientPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+  static class HttpClientPipelineInitializer extends ChannelInitializer<SocketChannel>
   {
     private final SSLContext _sslContext;
     private final SSLParameters _sslParameters;
@@ -139,7 +140,7 @@ public class HttpNettyChannelPoolFactory implements ChannelPoolFactory
     }
 
     @Override
-    protected void initChannel(NioSocketChannel ch) throws Exception
+    protected void initChannel(SocketChannel ch) throws Exception
     {
       if (_sslContext != null)
       {
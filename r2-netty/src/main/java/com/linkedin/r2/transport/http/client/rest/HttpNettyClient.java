@@ -38,9 +38,11 @@ import com.linkedin.r2.transport.http.client.common.ssl.SslSessionValidator;
 import com.linkedin.r2.transport.http.client.stream.SslHandshakeTimingHandler;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import com.linkedin.r2.util.Cancellable;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
+import com.linkedin.r2.util.TimeoutScheduler;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import java.net.SocketAddress;
 import java.util.Map;
@@ -62,7 +64,7 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
 
   /**
    * Creates a new HttpNettyClient
-   *  @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   *  @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param executor                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -74,7 +76,7 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    */
-  public HttpNettyClient(NioEventLoopGroup eventLoopGroup,
+  public HttpNettyClient(EventLoopGroup eventLoopGroup,
                          ScheduledExecutorService executor,
                          long requestTimeout,
                          long shutdownTimeout,
@@ -83,7 +85,38 @@ public class HttpNettyClient extends AbstractNettyClient<RestRequest, RestRespon
                          ChannelPoolManager channelPoolManager,
                          ChannelPoolManager sslChannelPoolManager)
   {
-    super(executor, requestTimeout, shutdownTimeout, jmxManager, channelPoolManager, sslChannelPoolManager);
+    this(eventLoopGroup, executor, new ExecutorTimeoutScheduler(executor), requestTimeout, shutdownTimeout,
+        callbackExecutors, jmxManager, channelPoolManager, sslChannelPoolManager);
+  }
+
+  /**
+   * Creates a new HttpNettyClient
+   *  @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
+   *                                  shut it down
+   * @param executor                  An executor; it is the caller's responsibility to shut it down
+   * @param timeoutScheduler          Schedules the request timeouts; it is the caller's responsibility to
+   *                                  shut it down
+   * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
+   * @param shutdownTimeout           Timeout, in ms, the client should wait after shutdown is
+   *                                  initiated before terminating outstanding requests
+   * @param callbackExecutors         An optional EventExecutorGroup to invoke user callback
+   * @param jmxManager                A management class that is aware of the creation/shutdown event
+   *                                  of the underlying {@link ChannelPoolManager}
+   * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
+   * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
+   */
+  public HttpNettyClient(EventLoopGroup eventLoopGroup,
+                         ScheduledExecutorService executor,
+                         TimeoutScheduler timeoutScheduler,
+                         long requestTimeout,
+                         long shutdownTimeout,
+                         ExecutorService callbackExecutors,
+                         AbstractJmxManager jmxManager,
+                         ChannelPoolManager channelPoolManager,
+                         ChannelPoolManager sslChannelPoolManager)
+  {
+    super(executor, timeoutScheduler, requestTimeout, shutdownTimeout, jmxManager, channelPoolManager,
+        sslChannelPoolManager);
     _callbackExecutors = callbackExecutors == null ? eventLoopGroup : callbackExecutors;
   }
 
@@ -33,7 +33,9 @@ import com.linkedin.r2.transport.http.client.TimeoutTransportCallback;
 import com.linkedin.r2.transport.http.client.common.AbstractNettyClient;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolFactory;
 import com.linkedin.r2.transport.http.client.common.ChannelPoolManager;
-import io.netty.channel.nio.NioEventLoopGroup;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
+import com.linkedin.r2.util.TimeoutScheduler;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 
 import java.net.SocketAddress;
@@ -58,7 +60,7 @@ public abstract class AbstractNettyStreamClient extends AbstractNettyClient<Stre
   /**
    * Creates a new HttpNettyClient
    *
-   * @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param executor                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -70,11 +72,38 @@ public abstract class AbstractNettyStreamClient extends AbstractNettyClient<Stre
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    * */
-  public AbstractNettyStreamClient(NioEventLoopGroup eventLoopGroup, ScheduledExecutorService executor, long requestTimeout,
+  public AbstractNettyStreamClient(EventLoopGroup eventLoopGroup, ScheduledExecutorService executor, long requestTimeout,
                                    long shutdownTimeout, ExecutorService callbackExecutors, AbstractJmxManager jmxManager,
                                    ChannelPoolManager channelPoolManager, ChannelPoolManager sslChannelPoolManager)
   {
-    super(executor, requestTimeout, shutdownTimeout, jmxManager, channelPoolManager, sslChannelPoolManager);
+    this(eventLoopGroup, executor, new ExecutorTimeoutScheduler(executor), requestTimeout, shutdownTimeout,
+        callbackExecutors, jmxManager, channelPoolManager, sslChannelPoolManager);
+  }
+
+  /**
+   * Creates a new HttpNettyClient
+   *
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
+   *                                  shut it down
+   * @param executor                  An executor; it is the caller's responsibility to shut it down
+   * @param timeoutScheduler          Schedules the request timeouts; it is the caller's responsibility to
+   *                                  shut it down
+   * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
+   * @param shutdownTimeout           Timeout, in ms, the client should wait after shutdown is
+   *                                  initiated before terminating outstanding requests
+   * @param callbackExecutors         An optional EventExecutorGroup to invoke user callback
+   * @param jmxManager                A management class that is aware of the creation/shutdown event
+   *                                  of the underlying {@link ChannelPoolManager}
+   * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
+   * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
+   * */
+  public AbstractNettyStreamClient(EventLoopGroup eventLoopGroup, ScheduledExecutorService executor,
+                                   TimeoutScheduler timeoutScheduler, long requestTimeout, long shutdownTimeout,
+                                   ExecutorService callbackExecutors, AbstractJmxManager jmxManager,
+                                   ChannelPoolManager channelPoolManager, ChannelPoolManager sslChannelPoolManager)
+  {
+    super(executor, timeoutScheduler, requestTimeout, shutdownTimeout, jmxManager, channelPoolManager,
+        sslChannelPoolManager);
     _callbackExecutors = callbackExecutors == null ? eventLoopGroup : callbackExecutors;
   }
 
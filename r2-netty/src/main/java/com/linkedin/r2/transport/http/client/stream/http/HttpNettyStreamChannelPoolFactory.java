@@ -24,12 +24,13 @@ import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.ExponentialBackOffRateLimiter;
 import com.linkedin.r2.transport.http.client.stream.http2.Http2NettyStreamClient;
 import com.linkedin.util.clock.SystemClock;
+import com.linkedin.r2.transport.http.util.NettyTransport;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -69,11 +70,11 @@ public class HttpNettyStreamChannelPoolFactory implements ChannelPoolFactory
                                            EventLoopGroup eventLoopGroup,
                                            ChannelGroup channelGroup)
   {
-    ChannelInitializer<NioSocketChannel> initializer =
+    ChannelInitializer<SocketChannel> initializer =
       new RAPStreamClientPipelineInitializer(sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize, enableSSLSessionResumption);
 
     Bootstrap bootstrap = new Bootstrap().group(eventLoopGroup)
-      .channel(NioSocketChannel.class)
+      .channel(NettyTransport.forEventLoopGroup(eventLoopGroup).getSocketChannelClass())
       .handler(initializer);
 
     _bootstrap = bootstrap;
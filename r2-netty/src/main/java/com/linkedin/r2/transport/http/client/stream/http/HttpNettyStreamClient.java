@@ -41,10 +41,12 @@ import com.linkedin.r2.transport.http.client.stream.AbstractNettyStreamClient;
 import com.linkedin.r2.transport.http.client.stream.SslHandshakeTimingHandler;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import com.linkedin.r2.util.Cancellable;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
 import com.linkedin.r2.util.Timeout;
+import com.linkedin.r2.util.TimeoutScheduler;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.nio.NioEventLoopGroup;
 import java.net.SocketAddress;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -64,7 +66,7 @@ import java.util.concurrent.TimeoutException;
   /**
    * Creates a new HttpNettyStreamClient
    *
-   * @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param executor                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -76,7 +78,7 @@ import java.util.concurrent.TimeoutException;
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    */
-  public HttpNettyStreamClient(NioEventLoopGroup eventLoopGroup,
+  public HttpNettyStreamClient(EventLoopGroup eventLoopGroup,
                                ScheduledExecutorService executor,
                                long requestTimeout,
                                long shutdownTimeout,
@@ -85,7 +87,38 @@ import java.util.concurrent.TimeoutException;
                                ChannelPoolManager channelPoolManager,
                                ChannelPoolManager sslChannelPoolManager)
   {
-    super(eventLoopGroup, executor, requestTimeout, shutdownTimeout, callbackExecutors,
+    this(eventLoopGroup, executor, new ExecutorTimeoutScheduler(executor), requestTimeout, shutdownTimeout,
+        callbackExecutors, jmxManager, channelPoolManager, sslChannelPoolManager);
+  }
+
+  /**
+   * Creates a new HttpNettyStreamClient
+   *
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
+   *                                  shut it down
+   * @param executor                  An executor; it is the caller's responsibility to shut it down
+   * @param timeoutScheduler          Schedules the request timeouts; it is the caller's responsibility to
+   *                                  shut it down
+   * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
+   * @param shutdownTimeout           Timeout, in ms, the client should wait after shutdown is
+   *                                  initiated before terminating outstanding requests
+   * @param callbackExecutors         An optional EventExecutorGroup to invoke user callback
+   * @param jmxManager                A management class that is aware of the creation/shutdown event
+   *                                  of the underlying {@link ChannelPoolManager}
+   * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
+   * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
+   */
+  public HttpNettyStreamClient(EventLoopGroup eventLoopGroup,
+                               ScheduledExecutorService executor,
+                               TimeoutScheduler timeoutScheduler,
+                               long requestTimeout,
+                               long shutdownTimeout,
+                               ExecutorService callbackExecutors,
+                               AbstractJmxManager jmxManager,
+                               ChannelPoolManager channelPoolManager,
+                               ChannelPoolManager sslChannelPoolManager)
+  {
+    super(eventLoopGroup, executor, timeoutScheduler, requestTimeout, shutdownTimeout, callbackExecutors,
       jmxManager, channelPoolManager, sslChannelPoolManager);
   }
 
@@ -155,7 +188,7 @@ import java.util.concurrent.TimeoutException;
         }
       });
 
-      Timeout<None> streamingTimeout = new Timeout<>(_scheduler, _requestTimeout, TimeUnit.MILLISECONDS, None.none());
+      Timeout<None> streamingTimeout = new Timeout<>(_timeoutScheduler, _requestTimeout, TimeUnit.MILLISECONDS, None.none());
       _callback.addTimeoutTask(() -> {
         Timeout<None> timeout = channel.attr(RAPStreamResponseDecoder.TIMEOUT_ATTR_KEY).getAndSet(null);
         if (timeout != null)
@@ -20,9 +20,9 @@
 
 package com.linkedin.r2.transport.http.client.stream.http2;
 
+import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpClientUpgradeHandler;
 import io.netty.handler.codec.http.HttpScheme;
@@ -47,7 +47,7 @@ import org.slf4j.LoggerFactory;
 /**
  * Initializes Netty HTTP/2 streaming pipeline implementation of {@link io.netty.channel.ChannelInitializer}
  */
-class Http2ClientPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+class Http2ClientPipelineInitializer extends ChannelInitializer<SocketChannel>
 {
   private static final Logger LOG = LoggerFactory.getLogger(Http2ClientPipelineInitializer.class);
 
@@ -109,7 +109,7 @@ class Http2ClientPipelineInitializer extends ChannelInitializer<NioSocketChannel
   }
 
   @Override
-  protected void initChannel(NioSocketChannel channel) throws Exception
+  protected void initChannel(SocketChannel channel) throws Exception
   {
     Http2Connection connection = new DefaultHttp2Connection(false /* not server */);
     channel.attr(HTTP2_CONNECTION_ATTR_KEY).set(connection);
@@ -159,7 +159,7 @@ class Http2ClientPipelineInitializer extends ChannelInitializer<NioSocketChannel
   /**
    * Sets up HTTP/2 over TLS through ALPN (h2) pipeline
    */
-  private void configureHttpsPipeline(NioSocketChannel ctx, Http2Connection connection) throws Exception
+  private void configureHttpsPipeline(SocketChannel ctx, Http2Connection connection) throws Exception
   {
     JdkSslContext context = new JdkSslContext(
       _sslContext,
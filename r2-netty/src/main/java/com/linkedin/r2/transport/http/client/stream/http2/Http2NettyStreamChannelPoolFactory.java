@@ -24,12 +24,13 @@ import com.linkedin.r2.transport.http.client.common.ChannelPoolLifecycle;
 import com.linkedin.r2.transport.http.client.NoopRateLimiter;
 import com.linkedin.r2.transport.http.client.stream.http.HttpNettyStreamClient;
 import com.linkedin.util.clock.SystemClock;
+import com.linkedin.r2.transport.http.util.NettyTransport;
+import io.netty.channel.socket.SocketChannel;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -65,10 +66,10 @@ public class Http2NettyStreamChannelPoolFactory implements ChannelPoolFactory
     EventLoopGroup eventLoopGroup,
     ChannelGroup channelGroup)
   {
-    ChannelInitializer<NioSocketChannel> initializer = new Http2ClientPipelineInitializer(
+    ChannelInitializer<SocketChannel> initializer = new Http2ClientPipelineInitializer(
       sslContext, sslParameters, maxHeaderSize, maxChunkSize, maxResponseSize, gracefulShutdownTimeout, enableSSLSessionResumption);
 
-    _bootstrap = new Bootstrap().group(eventLoopGroup).channel(NioSocketChannel.class).handler(initializer);
+    _bootstrap = new Bootstrap().group(eventLoopGroup).channel(NettyTransport.forEventLoopGroup(eventLoopGroup).getSocketChannelClass()).handler(initializer);
     _idleTimeout = idleTimeout;
     _maxPoolWaiterSize = maxPoolWaiterSize;
 
@@ -40,9 +40,11 @@ import com.linkedin.r2.transport.http.client.stream.AbstractNettyStreamClient;
 import com.linkedin.r2.transport.http.client.stream.SslHandshakeTimingHandler;
 import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
 import com.linkedin.r2.util.Cancellable;
+import com.linkedin.r2.util.ExecutorTimeoutScheduler;
+import com.linkedin.r2.util.TimeoutScheduler;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.nio.NioEventLoopGroup;
 import java.net.SocketAddress;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -66,7 +68,7 @@ public class Http2NettyStreamClient extends AbstractNettyStreamClient
   /**
    * Creates a new Http2NettyStreamClient
    *
-   * @param eventLoopGroup            The NioEventLoopGroup; it is the caller's responsibility to
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
    *                                  shut it down
    * @param scheduler                  An executor; it is the caller's responsibility to shut it down
    * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
@@ -78,14 +80,42 @@ public class Http2NettyStreamClient extends AbstractNettyStreamClient
    * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
    * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
    */
-  public Http2NettyStreamClient(NioEventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler,
+  public Http2NettyStreamClient(EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler,
                                 long requestTimeout, long shutdownTimeout,
                                 ExecutorService callbackExecutors,
                                 AbstractJmxManager jmxManager,
                                 ChannelPoolManager channelPoolManager,
                                 ChannelPoolManager sslChannelPoolManager)
   {
-    super(eventLoopGroup, scheduler, requestTimeout, shutdownTimeout, callbackExecutors,
+    this(eventLoopGroup, scheduler, new ExecutorTimeoutScheduler(scheduler), requestTimeout, shutdownTimeout,
+        callbackExecutors, jmxManager, channelPoolManager, sslChannelPoolManager);
+  }
+
+  /**
+   * Creates a new Http2NettyStreamClient
+   *
+   * @param eventLoopGroup            The EventLoopGroup; it is the caller's responsibility to
+   *                                  shut it down
+   * @param scheduler                  An executor; it is the caller's responsibility to shut it down
+   * @param timeoutScheduler          Schedules the request timeouts; it is the caller's responsibility to
+   *                                  shut it down
+   * @param requestTimeout            Timeout, in ms, to get a connection from the pool or create one
+   * @param shutdownTimeout           Timeout, in ms, the client should wait after shutdown is
+   *                                  initiated before terminating outstanding requests
+   * @param callbackExecutors         An optional EventExecutorGroup to invoke user callback
+   * @param jmxManager                A management class that is aware of the creation/shutdown event
+   *                                  of the underlying {@link ChannelPoolManager}
+   * @param channelPoolManager        channelPoolManager instance to retrieve http only channels
+   * @param sslChannelPoolManager     channelPoolManager instance to retrieve https only connection
+   */
+  public Http2NettyStreamClient(EventLoopGroup eventLoopGroup, ScheduledExecutorService scheduler,
+                                TimeoutScheduler timeoutScheduler, long requestTimeout, long shutdownTimeout,
+                                ExecutorService callbackExecutors,
+                                AbstractJmxManager jmxManager,
+                                ChannelPoolManager channelPoolManager,
+                                ChannelPoolManager sslChannelPoolManager)
+  {
+    super(eventLoopGroup, scheduler, timeoutScheduler, requestTimeout, shutdownTimeout, callbackExecutors,
       jmxManager, channelPoolManager, sslChannelPoolManager);
   }
 
@@ -163,7 +193,7 @@ public class Http2NettyStreamClient extends AbstractNettyStreamClient
       // 2. the channel can be returned back to the pool at most once through the handle
       // 3. the channel will eventually be returned to the pool due to timeout of handle
       TimeoutAsyncPoolHandle<Channel> handle = new TimeoutAsyncPoolHandle<>(
-        _pool, _scheduler, _requestTimeout, TimeUnit.MILLISECONDS, channel);
+        _pool, _timeoutScheduler, _requestTimeout, TimeUnit.MILLISECONDS, channel);
 
       TransportCallback<StreamResponse> sslTimingCallback = SslHandshakeTimingHandler.getSslTimingCallback(channel, _requestContext, _callback);
 
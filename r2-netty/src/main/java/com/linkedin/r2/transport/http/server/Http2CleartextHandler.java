@@ -0,0 +1,63 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import java.util.List;
+
+
+/**
+ * Detects the protocol of a clear text connection. A connection that starts with the HTTP/2 connection preface
+ * is served as HTTP/2 with prior knowledge, any other connection as HTTP/1.1 that may upgrade to HTTP/2 (h2c).
+ * The handler removes itself once the protocol is detected, and the bytes it has read are passed on to the
+ * handlers of the detected protocol.
+ */
+class Http2CleartextHandler extends ByteToMessageDecoder
+{
+  public static final String PIPELINE_CLEARTEXT_HANDLER = "cleartextHandler";
+
+  private static final ByteBuf CONNECTION_PREFACE = Http2CodecUtil.connectionPrefaceBuf();
+
+  private final HttpNettyServerPipelineInitializer _initializer;
+
+  Http2CleartextHandler(HttpNettyServerPipelineInitializer initializer)
+  {
+    _initializer = initializer;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception
+  {
+    final int prefaceLength = CONNECTION_PREFACE.readableBytes();
+    final int length = Math.min(in.readableBytes(), prefaceLength);
+    if (!ByteBufUtil.equals(CONNECTION_PREFACE, CONNECTION_PREFACE.readerIndex(), in, in.readerIndex(), length))
+    {
+      _initializer.configureHttp1UpgradePipeline(ctx.pipeline());
+      ctx.pipeline().remove(this);
+    }
+    else if (length == prefaceLength)
+    {
+      _initializer.configureHttp2Pipeline(ctx.pipeline());
+      ctx.pipeline().remove(this);
+    }
+    // Otherwise, waits for the rest of the preface
+  }
+}
@@ -0,0 +1,61 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Configures the pipeline of a TLS connection for the protocol negotiated through ALPN once the SSL handshake
+ * completes: HTTP/2 (h2), or HTTP/1.1 for clients that do not negotiate a protocol.
+ */
+class Http2ServerAlpnHandler extends ApplicationProtocolNegotiationHandler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerAlpnHandler.class);
+  public static final String PIPELINE_ALPN_HANDLER = "alpnHandler";
+
+  private final HttpNettyServerPipelineInitializer _initializer;
+
+  Http2ServerAlpnHandler(HttpNettyServerPipelineInitializer initializer)
+  {
+    super(ApplicationProtocolNames.HTTP_1_1);
+    _initializer = initializer;
+  }
+
+  @Override
+  protected void configurePipeline(ChannelHandlerContext ctx, String protocol) throws Exception
+  {
+    if (ApplicationProtocolNames.HTTP_2.equals(protocol))
+    {
+      LOG.debug("HTTP/2 is negotiated");
+      _initializer.configureHttp2Pipeline(ctx.pipeline());
+    }
+    else if (ApplicationProtocolNames.HTTP_1_1.equals(protocol))
+    {
+      LOG.debug("HTTP/1.1 is negotiated");
+      _initializer.configureHttp1Pipeline(ctx.pipeline());
+    }
+    else
+    {
+      throw new IllegalStateException("Unsupported protocol " + protocol + " is negotiated through ALPN");
+    }
+  }
+}
@@ -0,0 +1,352 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.Response;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.CancelingReader;
+import com.linkedin.r2.message.stream.entitystream.ReadHandle;
+import com.linkedin.r2.message.stream.entitystream.Reader;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionAdapter;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2ConnectionEncoder;
+import io.netty.handler.codec.http2.Http2ConnectionHandler;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2Stream;
+import io.netty.util.AsciiString;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Encodes {@link RestResponse} and {@link StreamResponse} to HTTP/2 frames on the streams of the requests they
+ * answer. Requests are decoded by {@link Http2ServerFrameListener}. Http/2 stream level errors only reset the
+ * stream, not the entire connection.
+ *
+ * Response entities are read from their {@link com.linkedin.r2.message.stream.entitystream.EntityStream} as the
+ * HTTP/2 remote flow controller writes them out, so a slow client slows down the response writer instead of
+ * buffering the entity on the server.
+ */
+class Http2ServerCodec extends Http2ConnectionHandler
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerCodec.class);
+  public static final String PIPELINE_HTTP2_CODEC_HANDLER = "http2Handler";
+
+  private static final int NO_PADDING = 0;
+  private static final boolean NOT_END_STREAM = false;
+  private static final boolean END_STREAM = true;
+
+  private static final Set<String> HEADER_BLACKLIST = new HashSet<>();
+  static {
+    HEADER_BLACKLIST.add(HttpHeaderNames.CONNECTION.toString());
+    @SuppressWarnings("deprecation")
+    AsciiString keepAlive = HttpHeaderNames.KEEP_ALIVE;
+    HEADER_BLACKLIST.add(keepAlive.toString());
+    @SuppressWarnings("deprecation")
+    AsciiString proxyConnection = HttpHeaderNames.PROXY_CONNECTION;
+    HEADER_BLACKLIST.add(proxyConnection.toString());
+    HEADER_BLACKLIST.add(HttpHeaderNames.TRANSFER_ENCODING.toString());
+    HEADER_BLACKLIST.add(HttpHeaderNames.UPGRADE.toString());
+  }
+
+  private final Http2Connection.PropertyKey _readerKey;
+  private Http2ServerFrameListener _frameListener;
+
+  Http2ServerCodec(Http2ConnectionDecoder decoder, Http2ConnectionEncoder encoder, Http2Settings initialSettings)
+  {
+    super(decoder, encoder, initialSettings);
+    _readerKey = connection().newKey();
+    connection().addListener(new Http2ConnectionAdapter()
+    {
+      @Override
+      public void onStreamClosed(Http2Stream stream)
+      {
+        final BufferedReader reader = stream.removeProperty(_readerKey);
+        if (reader != null)
+        {
+          reader.cancel();
+        }
+      }
+    });
+  }
+
+  void setFrameListener(Http2ServerFrameListener frameListener)
+  {
+    _frameListener = frameListener;
+  }
+
+  @Override
+  public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception
+  {
+    if (evt instanceof HttpServerUpgradeHandler.UpgradeEvent)
+    {
+      // The HTTP/1.1 request that was upgraded is answered on the first HTTP/2 stream
+      LOG.debug("HTTP/2 clear text upgrade successful");
+      _frameListener.onUpgradeRequest(ctx, ((HttpServerUpgradeHandler.UpgradeEvent) evt).upgradeRequest());
+    }
+    super.userEventTriggered(ctx, evt);
+  }
+
+  /**
+   * Writes a {@link RestResponse} to a stream. Must be invoked on the event loop of the channel.
+   */
+  void writeResponse(ChannelHandlerContext ctx, int streamId, RestResponse response)
+  {
+    if (connection().stream(streamId) == null)
+    {
+      LOG.debug("Dropped the response of a closed stream, stream={}", streamId);
+      return;
+    }
+
+    final Http2Headers headers = toHttp2Headers(response);
+    final ByteString entity = response.getEntity();
+    if (entity.isEmpty())
+    {
+      LOG.debug("Sent HTTP/2 HEADERS frame, stream={}, end={}, headers={}, padding={}bytes",
+          new Object[] { streamId, END_STREAM, headers.size(), NO_PADDING });
+      encoder().writeHeaders(ctx, streamId, headers, NO_PADDING, END_STREAM, ctx.newPromise());
+    }
+    else
+    {
+      LOG.debug("Sent HTTP/2 HEADERS frame, stream={}, end={}, headers={}, padding={}bytes",
+          new Object[] { streamId, NOT_END_STREAM, headers.size(), NO_PADDING });
+      encoder().writeHeaders(ctx, streamId, headers, NO_PADDING, NOT_END_STREAM, ctx.newPromise());
+      final ByteBuf data = Unpooled.wrappedBuffer(entity.asByteBuffer());
+      LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+          new Object[] { streamId, END_STREAM, data.readableBytes(), NO_PADDING });
+      encoder().writeData(ctx, streamId, data, NO_PADDING, END_STREAM, ctx.newPromise());
+    }
+    ctx.channel().flush();
+  }
+
+  /**
+   * Writes a {@link StreamResponse} to a stream, reading its entity as the stream is written out. Must be
+   * invoked on the event loop of the channel.
+   */
+  void writeResponse(ChannelHandlerContext ctx, int streamId, StreamResponse response)
+  {
+    final Http2Stream stream = connection().stream(streamId);
+    if (stream == null)
+    {
+      LOG.debug("Cancelled the response entity of a closed stream, stream={}", streamId);
+      response.getEntityStream().setReader(new CancelingReader());
+      return;
+    }
+
+    final Http2Headers headers = toHttp2Headers(response);
+    final BufferedReader reader = new BufferedReader(ctx, streamId);
+    stream.setProperty(_readerKey, reader);
+    response.getEntityStream().setReader(reader);
+    LOG.debug("Sent HTTP/2 HEADERS frame, stream={}, end={}, headers={}, padding={}bytes",
+        new Object[] { streamId, NOT_END_STREAM, headers.size(), NO_PADDING });
+    encoder().writeHeaders(ctx, streamId, headers, NO_PADDING, NOT_END_STREAM, ctx.newPromise())
+        .addListener(future -> {
+          if (future.isSuccess())
+          {
+            reader.request();
+          }
+          else
+          {
+            reader.cancel();
+          }
+        });
+    ctx.channel().flush();
+  }
+
+  @Override
+  protected void onStreamError(ChannelHandlerContext ctx, Throwable cause, Http2Exception.StreamException streamException)
+  {
+    LOG.debug(String.format("HTTP/2 stream encountered an exception, stream=%d, remote=%s, channel=%s",
+        streamException.streamId(), ctx.channel().remoteAddress(), ctx.channel().id()), cause);
+    super.onStreamError(ctx, cause, streamException);
+  }
+
+  @Override
+  protected void onConnectionError(ChannelHandlerContext ctx, Throwable cause, Http2Exception connectionError)
+  {
+    LOG.error(String.format("HTTP/2 connection encountered an exception, streamCount=%d, remote=%s, channel=%s",
+        connection().numActiveStreams(), ctx.channel().remoteAddress(), ctx.channel().id()), cause);
+    super.onConnectionError(ctx, cause, connectionError);
+  }
+
+  private static Http2Headers toHttp2Headers(Response response)
+  {
+    final Http2Headers headers = new DefaultHttp2Headers().status(Integer.toString(response.getStatus()));
+    for (Map.Entry<String, String> entry : response.getHeaders().entrySet())
+    {
+      // RFC 7540, section 8.1.2: header field names MUST be converted to lowercase, and connection-specific
+      // header fields MUST NOT be sent
+      final String name = entry.getKey().toLowerCase();
+      if (!HEADER_BLACKLIST.contains(name))
+      {
+        headers.set(name, entry.getValue());
+      }
+    }
+    for (String cookie : response.getCookies())
+    {
+      headers.add(HttpConstants.RESPONSE_COOKIE_HEADER_NAME.toLowerCase(), cookie);
+    }
+    return headers;
+  }
+
+  /**
+   * Writes the entity of a response to its stream, requesting another chunk from the entity stream whenever a
+   * written chunk has been flushed by the remote flow controller.
+   */
+  private class BufferedReader implements Reader
+  {
+    private static final int MAX_BUFFERED_CHUNKS = 10;
+
+    // this threshold is to mitigate the effect of the inter-play of Nagle's algorithm & Delayed ACK
+    // when sending responses with small entity
+    private static final int FLUSH_THRESHOLD = R2Constants.DEFAULT_DATA_CHUNK_SIZE;
+
+    private final ChannelHandlerContext _ctx;
+    private final int _streamId;
+    private volatile ReadHandle _readHandle;
+    private int _notFlushedBytes;
+    private int _notFlushedChunks;
+    private boolean _done;
+
+    BufferedReader(ChannelHandlerContext ctx, int streamId)
+    {
+      _ctx = ctx;
+      _streamId = streamId;
+    }
+
+    @Override
+    public void onInit(ReadHandle rh)
+    {
+      _readHandle = rh;
+    }
+
+    @Override
+    public void onDataAvailable(ByteString data)
+    {
+      execute(() -> {
+        if (_done)
+        {
+          return;
+        }
+
+        final ByteBuf content = Unpooled.wrappedBuffer(data.asByteBuffer());
+        LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+            new Object[] { _streamId, NOT_END_STREAM, content.readableBytes(), NO_PADDING });
+        encoder().writeData(_ctx, _streamId, content, NO_PADDING, NOT_END_STREAM, _ctx.newPromise())
+            .addListener(future -> {
+              if (future.isSuccess())
+              {
+                _readHandle.request(1);
+              }
+              else
+              {
+                cancel();
+              }
+            });
+        _notFlushedBytes += data.length();
+        _notFlushedChunks++;
+        if (_notFlushedBytes >= FLUSH_THRESHOLD || _notFlushedChunks == MAX_BUFFERED_CHUNKS)
+        {
+          _ctx.channel().flush();
+          _notFlushedBytes = 0;
+          _notFlushedChunks = 0;
+        }
+      });
+    }
+
+    @Override
+    public void onDone()
+    {
+      execute(() -> {
+        if (_done)
+        {
+          return;
+        }
+
+        _done = true;
+        LOG.debug("Sent HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+            new Object[] { _streamId, END_STREAM, 0, NO_PADDING });
+        encoder().writeData(_ctx, _streamId, Unpooled.EMPTY_BUFFER, NO_PADDING, END_STREAM, _ctx.newPromise());
+        _ctx.channel().flush();
+      });
+    }
+
+    @Override
+    public void onError(Throwable cause)
+    {
+      execute(() -> {
+        if (_done)
+        {
+          return;
+        }
+
+        _done = true;
+        LOG.error("Failed to read the response entity, stream=" + _streamId, cause);
+        resetStream(_ctx, _streamId, Http2Error.INTERNAL_ERROR.code(), _ctx.newPromise());
+        _ctx.channel().flush();
+      });
+    }
+
+    private void request()
+    {
+      _readHandle.request(MAX_BUFFERED_CHUNKS);
+    }
+
+    /**
+     * Stops reading the entity, invoked when the stream is closed before the entity is written.
+     */
+    private void cancel()
+    {
+      execute(() -> {
+        if (!_done)
+        {
+          _done = true;
+          _readHandle.cancel();
+        }
+      });
+    }
+
+    private void execute(Runnable task)
+    {
+      if (_ctx.executor().inEventLoop())
+      {
+        task.run();
+      }
+      else
+      {
+        _ctx.executor().execute(task);
+      }
+    }
+  }
+}
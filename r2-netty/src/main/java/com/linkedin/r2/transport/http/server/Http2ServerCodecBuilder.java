@@ -0,0 +1,115 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import io.netty.handler.codec.http2.AbstractHttp2ConnectionHandlerBuilder;
+import io.netty.handler.codec.http2.DefaultHttp2Connection;
+import io.netty.handler.codec.http2.DefaultHttp2ConnectionDecoder;
+import io.netty.handler.codec.http2.DefaultHttp2ConnectionEncoder;
+import io.netty.handler.codec.http2.DefaultHttp2FrameReader;
+import io.netty.handler.codec.http2.DefaultHttp2FrameWriter;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
+import io.netty.handler.codec.http2.DefaultHttp2LocalFlowController;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionDecoder;
+import io.netty.handler.codec.http2.Http2ConnectionEncoder;
+import io.netty.handler.codec.http2.Http2FrameReader;
+import io.netty.handler.codec.http2.Http2FrameWriter;
+import io.netty.handler.codec.http2.Http2HeadersDecoder;
+import io.netty.handler.codec.http2.Http2InboundFrameLogger;
+import io.netty.handler.codec.http2.Http2OutboundFrameLogger;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.util.internal.ObjectUtil;
+
+import static io.netty.handler.codec.http2.DefaultHttp2LocalFlowController.DEFAULT_WINDOW_UPDATE_RATIO;
+
+
+class Http2ServerCodecBuilder extends AbstractHttp2ConnectionHandlerBuilder<Http2ServerCodec, Http2ServerCodecBuilder>
+{
+  // Fixed flow control settings: the initial stream window is the smaller of 8MB and the maximum request size, and
+  // the connection window is refilled as soon as data is received, so only the stream windows apply backpressure.
+  private final long MAX_INITIAL_STREAM_WINDOW_SIZE = 8 * 1024 * 1024;
+  private final boolean AUTO_REFILL_CONNECTION_WINDOW = true;
+
+  private long _maxRequestSize = -1;
+  private boolean _restOverStream = false;
+  private Http2Connection _connection = null;
+
+  /**
+   * Sets the maximum size of the aggregated entity of requests dispatched as
+   * {@link com.linkedin.r2.message.rest.RestRequest}s, which also bounds the initial stream window size.
+   */
+  public Http2ServerCodecBuilder maxRequestSize(long maxRequestSize)
+  {
+    ObjectUtil.checkPositive(maxRequestSize, "maxRequestSize");
+    _maxRequestSize = maxRequestSize;
+    return self();
+  }
+
+  public Http2ServerCodecBuilder restOverStream(boolean restOverStream)
+  {
+    _restOverStream = restOverStream;
+    return self();
+  }
+
+  @Override
+  public Http2ServerCodec build()
+  {
+    _connection = new DefaultHttp2Connection(true);
+
+    Http2HeadersDecoder headerDecoder = new DefaultHttp2HeadersDecoder(isValidateHeaders());
+    Http2FrameReader reader = new DefaultHttp2FrameReader(headerDecoder);
+    Http2FrameWriter writer = new DefaultHttp2FrameWriter(headerSensitivityDetector());
+
+    if (frameLogger() != null) {
+      reader = new Http2InboundFrameLogger(reader, frameLogger());
+      writer = new Http2OutboundFrameLogger(writer, frameLogger());
+    }
+
+    Http2ConnectionEncoder encoder = new DefaultHttp2ConnectionEncoder(_connection, writer);
+
+    _connection.local().flowController(
+        new DefaultHttp2LocalFlowController(_connection, DEFAULT_WINDOW_UPDATE_RATIO, AUTO_REFILL_CONNECTION_WINDOW));
+    Http2ConnectionDecoder decoder = new DefaultHttp2ConnectionDecoder(_connection, encoder, reader);
+
+    super.codec(decoder, encoder);
+
+    return super.build();
+  }
+
+  @Override
+  protected Http2ServerCodec build(
+      Http2ConnectionDecoder decoder,
+      Http2ConnectionEncoder encoder,
+      Http2Settings initialSettings)
+      throws Exception
+  {
+    ObjectUtil.checkPositive(_maxRequestSize, "maxRequestSize");
+
+    // HTTP/2 initial settings - ensures 0 <= initialWindowSize <= MAX_INITIAL_STREAM_WINDOW_SIZE
+    final int initialWindowSize = (int) Math.min(MAX_INITIAL_STREAM_WINDOW_SIZE, _maxRequestSize);
+    initialSettings.initialWindowSize(initialWindowSize);
+
+    Http2ServerCodec codec = new Http2ServerCodec(decoder, encoder, initialSettings);
+    Http2ServerFrameListener frameListener =
+        new Http2ServerFrameListener(_connection, codec, _restOverStream, _maxRequestSize);
+    codec.setFrameListener(frameListener);
+    super.frameListener(frameListener);
+
+    return codec;
+  }
+}
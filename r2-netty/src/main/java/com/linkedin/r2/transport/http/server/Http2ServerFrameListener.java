@@ -0,0 +1,598 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.message.BaseRequestBuilder;
+import com.linkedin.r2.message.Messages;
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.rest.RestStatus;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.WriteHandle;
+import com.linkedin.r2.message.stream.entitystream.Writer;
+import com.linkedin.r2.transport.common.WireAttributeHelper;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponse;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelException;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionAdapter;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2EventAdapter;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2Stream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Listens to HTTP/2 frames and assembles the requests of the streams, which are fired down the pipeline to
+ * {@link PipelineHttp2Handler} with callbacks that write the responses with {@link Http2ServerCodec}.
+ *
+ * In stream mode, the request is fired as soon as its headers are read, and its
+ * {@link com.linkedin.r2.message.stream.entitystream.EntityStream} is written as the reader requests data. The
+ * received bytes are returned to the HTTP/2 flow controller only when the reader consumes them, so a slow reader
+ * stops the client from sending more data on the stream. In REST mode, the request is fired once its entity
+ * has been aggregated.
+ */
+class Http2ServerFrameListener extends Http2EventAdapter
+{
+  private static final Logger LOG = LoggerFactory.getLogger(Http2ServerFrameListener.class);
+
+  private static final String ASTERISK_FORM = "*";
+  private static final int REQUEST_ENTITY_TOO_LARGE = 413;
+
+  private final Http2Connection _connection;
+  private final Http2ServerCodec _codec;
+  private final boolean _restOverStream;
+  private final long _maxRequestSize;
+  private final Http2Connection.PropertyKey _writerKey;
+  private final Http2Connection.PropertyKey _aggregatorKey;
+
+  Http2ServerFrameListener(Http2Connection connection, Http2ServerCodec codec, boolean restOverStream,
+      long maxRequestSize)
+  {
+    _connection = connection;
+    _codec = codec;
+    _restOverStream = restOverStream;
+    _maxRequestSize = maxRequestSize;
+    _writerKey = connection.newKey();
+    _aggregatorKey = connection.newKey();
+    connection.addListener(new Http2ConnectionAdapter()
+    {
+      @Override
+      public void onStreamClosed(Http2Stream stream)
+      {
+        final BufferedWriter writer = stream.removeProperty(_writerKey);
+        if (writer != null)
+        {
+          writer.onStreamClosed();
+        }
+        stream.removeProperty(_aggregatorKey);
+      }
+    });
+  }
+
+  @Override
+  public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers, int streamDependency,
+      short weight, boolean exclusive, int padding, boolean endStream) throws Http2Exception
+  {
+    onHeadersRead(ctx, streamId, headers, padding, endStream);
+  }
+
+  @Override
+  public void onHeadersRead(ChannelHandlerContext ctx, int streamId, Http2Headers headers, int padding,
+      boolean endOfStream) throws Http2Exception
+  {
+    LOG.debug("Received HTTP/2 HEADERS frame, stream={}, end={}, headers={}, padding={}bytes",
+        new Object[]{streamId, endOfStream, headers.size(), padding});
+
+    final Http2Stream stream = _connection.stream(streamId);
+    if (stream.getProperty(_writerKey) != null || stream.getProperty(_aggregatorKey) != null)
+    {
+      // Trailing headers are not part of R2 requests
+      if (endOfStream)
+      {
+        onEndOfStream(ctx, streamId);
+      }
+      return;
+    }
+
+    if (headers.method() == null || headers.path() == null)
+    {
+      throw Http2Exception.streamError(streamId, Http2Error.PROTOCOL_ERROR,
+          "Missing :method or :path pseudo header");
+    }
+
+    final URI uri;
+    try
+    {
+      uri = new URI(headers.path().toString());
+    }
+    catch (URISyntaxException e)
+    {
+      throw Http2Exception.streamError(streamId, Http2Error.PROTOCOL_ERROR, e, "Invalid :path pseudo header");
+    }
+
+    if (_restOverStream)
+    {
+      final StreamRequestBuilder builder = setHeaders(new StreamRequestBuilder(uri), headers);
+      final EntityStream entityStream;
+      if (endOfStream)
+      {
+        entityStream = EntityStreams.emptyStream();
+      }
+      else
+      {
+        final BufferedWriter writer = new BufferedWriter(ctx, streamId);
+        stream.setProperty(_writerKey, writer);
+        entityStream = EntityStreams.newEntityStream(writer);
+      }
+      fireRequest(ctx, streamId, builder.build(entityStream));
+    }
+    else
+    {
+      final RestRequestAggregator aggregator = new RestRequestAggregator(setHeaders(new RestRequestBuilder(uri), headers));
+      if (endOfStream)
+      {
+        fireRequest(ctx, streamId, aggregator.build());
+      }
+      else
+      {
+        stream.setProperty(_aggregatorKey, aggregator);
+      }
+    }
+  }
+
+  @Override
+  public int onDataRead(ChannelHandlerContext ctx, int streamId, ByteBuf data, int padding, boolean endOfStream)
+      throws Http2Exception
+  {
+    final int length = data.readableBytes();
+    LOG.debug("Received HTTP/2 DATA frame, stream={}, end={}, data={}bytes, padding={}bytes",
+        new Object[]{streamId, endOfStream, length, padding});
+
+    final Http2Stream stream = _connection.stream(streamId);
+    final BufferedWriter writer = stream.getProperty(_writerKey);
+    if (writer != null)
+    {
+      // The data is returned to the flow controller once the reader consumes it
+      final int processed = writer.onDataRead(data, endOfStream);
+      if (endOfStream)
+      {
+        stream.removeProperty(_writerKey);
+      }
+      return processed + padding;
+    }
+
+    final RestRequestAggregator aggregator = stream.getProperty(_aggregatorKey);
+    if (aggregator != null)
+    {
+      if (aggregator._size + length > _maxRequestSize)
+      {
+        stream.removeProperty(_aggregatorKey);
+        LOG.debug("Request entity exceeded {} bytes, stream={}", _maxRequestSize, streamId);
+        _codec.writeResponse(ctx, streamId, RestStatus.responseForStatus(REQUEST_ENTITY_TOO_LARGE,
+            "Request entity exceeded " + _maxRequestSize + " bytes"));
+      }
+      else
+      {
+        aggregator.append(data);
+        if (endOfStream)
+        {
+          stream.removeProperty(_aggregatorKey);
+          fireRequest(ctx, streamId, aggregator.build());
+        }
+      }
+    }
+
+    // Data that is aggregated or discarded is consumed right away
+    return length + padding;
+  }
+
+  @Override
+  public void onRstStreamRead(ChannelHandlerContext ctx, int streamId, long errorCode) throws Http2Exception
+  {
+    LOG.debug("Received HTTP/2 RST_STREAM frame, stream={}, error={}", streamId, Http2Error.valueOf(errorCode));
+  }
+
+  /**
+   * Dispatches the HTTP/1.1 request of an h2c upgrade, which is answered on the upgrade stream.
+   */
+  void onUpgradeRequest(ChannelHandlerContext ctx, FullHttpRequest request) throws IOException, URISyntaxException
+  {
+    final int streamId = Http2CodecUtil.HTTP_UPGRADE_STREAM_ID;
+
+    // An upgrade request for the server as a whole, such as the one of the R2 client, needs no dispatching
+    if (HttpMethod.OPTIONS.equals(request.method()) && ASTERISK_FORM.equals(request.uri()))
+    {
+      _codec.writeResponse(ctx, streamId, new RestResponseBuilder().build());
+      return;
+    }
+
+    final RestRequestBuilder builder = new RestRequestBuilder(new URI(request.uri()))
+        .setMethod(request.method().name());
+    for (Map.Entry<String, String> e : request.headers())
+    {
+      if (e.getKey().equalsIgnoreCase(HttpConstants.REQUEST_COOKIE_HEADER_NAME))
+      {
+        builder.addCookie(e.getValue());
+      }
+      else if (!HttpHeaderNames.UPGRADE.contentEqualsIgnoreCase(e.getKey())
+          && !HttpHeaderNames.CONNECTION.contentEqualsIgnoreCase(e.getKey())
+          && !Http2CodecUtil.HTTP_UPGRADE_SETTINGS_HEADER.toString().equalsIgnoreCase(e.getKey()))
+      {
+        builder.unsafeAddHeaderValue(e.getKey(), e.getValue());
+      }
+    }
+    final ByteBuf content = request.content();
+    builder.setEntity(ByteString.read(new ByteBufInputStream(content), content.readableBytes()));
+
+    final RestRequest restRequest = builder.build();
+    fireRequest(ctx, streamId, _restOverStream ? Messages.toStreamRequest(restRequest) : restRequest);
+  }
+
+  private void onEndOfStream(ChannelHandlerContext ctx, int streamId)
+  {
+    final Http2Stream stream = _connection.stream(streamId);
+    final BufferedWriter writer = stream.removeProperty(_writerKey);
+    if (writer != null)
+    {
+      writer.onEndOfStream();
+    }
+    final RestRequestAggregator aggregator = stream.removeProperty(_aggregatorKey);
+    if (aggregator != null)
+    {
+      fireRequest(ctx, streamId, aggregator.build());
+    }
+  }
+
+  private static <B extends BaseRequestBuilder<B>> B setHeaders(B builder, Http2Headers headers)
+  {
+    builder.setMethod(headers.method().toString());
+    if (headers.authority() != null)
+    {
+      builder.unsafeAddHeaderValue(HttpHeaderNames.HOST.toString(), headers.authority().toString());
+    }
+
+    for (Map.Entry<CharSequence, CharSequence> header : headers)
+    {
+      if (Http2Headers.PseudoHeaderName.isPseudoHeader(header.getKey()))
+      {
+        // HTTP/2 pseudo headers are not request headers
+        continue;
+      }
+
+      final String key = header.getKey().toString();
+      final String value = header.getValue().toString();
+      if (key.equalsIgnoreCase(HttpConstants.REQUEST_COOKIE_HEADER_NAME))
+      {
+        builder.addCookie(value);
+      }
+      else
+      {
+        builder.unsafeAddHeaderValue(key, value);
+      }
+    }
+    return builder;
+  }
+
+  private void fireRequest(ChannelHandlerContext ctx, int streamId, Request request)
+  {
+    final TransportCallback<?> callback = _restOverStream
+        ? new StreamResponseCallback(ctx, streamId) : new RestResponseCallback(ctx, streamId);
+    ctx.fireChannelRead(new PipelineHttp2Handler.Http2Request(request, callback));
+  }
+
+  /**
+   * Writes the {@link RestResponse} of a stream on the event loop of the channel.
+   */
+  private class RestResponseCallback implements TransportCallback<RestResponse>
+  {
+    private final ChannelHandlerContext _ctx;
+    private final int _streamId;
+
+    RestResponseCallback(ChannelHandlerContext ctx, int streamId)
+    {
+      _ctx = ctx;
+      _streamId = streamId;
+    }
+
+    @Override
+    public void onResponse(TransportResponse<RestResponse> response)
+    {
+      final RestResponseBuilder responseBuilder;
+      if (response.hasError())
+      {
+        responseBuilder =
+            new RestResponseBuilder(RestStatus.responseForError(RestStatus.INTERNAL_SERVER_ERROR, response.getError()));
+      }
+      else
+      {
+        responseBuilder = new RestResponseBuilder(response.getResponse());
+      }
+      final RestResponse restResponse = responseBuilder
+          .unsafeOverwriteHeaders(WireAttributeHelper.toWireAttributes(response.getWireAttributes()))
+          .build();
+
+      _ctx.executor().execute(() -> _codec.writeResponse(_ctx, _streamId, restResponse));
+    }
+  }
+
+  /**
+   * Writes the {@link StreamResponse} of a stream on the event loop of the channel.
+   */
+  private class StreamResponseCallback implements TransportCallback<StreamResponse>
+  {
+    private final ChannelHandlerContext _ctx;
+    private final int _streamId;
+
+    StreamResponseCallback(ChannelHandlerContext ctx, int streamId)
+    {
+      _ctx = ctx;
+      _streamId = streamId;
+    }
+
+    @Override
+    public void onResponse(TransportResponse<StreamResponse> response)
+    {
+      final Map<String, String> wireAttrs = WireAttributeHelper.toWireAttributes(response.getWireAttributes());
+      if (response.hasError())
+      {
+        final RestResponse restResponse =
+            new RestResponseBuilder(RestStatus.responseForError(RestStatus.INTERNAL_SERVER_ERROR, response.getError()))
+                .unsafeOverwriteHeaders(wireAttrs)
+                .build();
+        _ctx.executor().execute(() -> _codec.writeResponse(_ctx, _streamId, restResponse));
+      }
+      else
+      {
+        final StreamResponse streamResponse = response.getResponse().builder()
+            .unsafeOverwriteHeaders(wireAttrs)
+            .build(response.getResponse().getEntityStream());
+        _ctx.executor().execute(() -> _codec.writeResponse(_ctx, _streamId, streamResponse));
+      }
+    }
+  }
+
+  /**
+   * Aggregates the entity of a request in REST mode.
+   */
+  private static class RestRequestAggregator
+  {
+    private final RestRequestBuilder _builder;
+    private final ByteString.Builder _entity = new ByteString.Builder();
+    private long _size;
+
+    RestRequestAggregator(RestRequestBuilder builder)
+    {
+      _builder = builder;
+    }
+
+    void append(ByteBuf data) throws Http2Exception
+    {
+      if (data.isReadable())
+      {
+        final int length = data.readableBytes();
+        try
+        {
+          _entity.append(ByteString.read(new ByteBufInputStream(data), length));
+        }
+        catch (IOException e)
+        {
+          throw Http2Exception.connectionError(Http2Error.INTERNAL_ERROR, e, "Failed to read DATA frame");
+        }
+        _size += length;
+      }
+    }
+
+    Request build()
+    {
+      return _builder.setEntity(_entity.build()).build();
+    }
+  }
+
+  /**
+   * Writes the entity of a request in stream mode. Received data is buffered until the reader requests it, and
+   * returned to the HTTP/2 local flow controller once it is written to the entity stream, which bounds the buffered
+   * data by the stream flow control window.
+   */
+  private class BufferedWriter implements Writer
+  {
+    private final ChannelHandlerContext _ctx;
+    private final int _streamId;
+    private final Queue<ByteString> _buffer = new LinkedList<>();
+    private WriteHandle _wh;
+    private boolean _lastChunkReceived;
+    private boolean _done;
+    private Throwable _failureBeforeInit;
+
+    BufferedWriter(ChannelHandlerContext ctx, int streamId)
+    {
+      _ctx = ctx;
+      _streamId = streamId;
+    }
+
+    @Override
+    public void onInit(WriteHandle wh)
+    {
+      _wh = wh;
+    }
+
+    @Override
+    public void onWritePossible()
+    {
+      if (_ctx.executor().inEventLoop())
+      {
+        doWrite();
+      }
+      else
+      {
+        _ctx.executor().execute(this::doWrite);
+      }
+    }
+
+    @Override
+    public void onAbort(Throwable ex)
+    {
+      // The reader is not interested in the rest of the entity, which is consumed as it is received
+      _ctx.executor().execute(() -> {
+        _done = true;
+        int buffered = 0;
+        for (ByteString bytes : _buffer)
+        {
+          buffered += bytes.length();
+        }
+        _buffer.clear();
+        consumeBytes(buffered);
+      });
+    }
+
+    /**
+     * @return the number of bytes that are consumed right away.
+     */
+    int onDataRead(ByteBuf data, boolean end) throws Http2Exception
+    {
+      final int length = data.readableBytes();
+      if (_done)
+      {
+        return length;
+      }
+
+      if (length > 0)
+      {
+        try
+        {
+          _buffer.add(ByteString.read(new ByteBufInputStream(data), length));
+        }
+        catch (IOException e)
+        {
+          throw Http2Exception.connectionError(Http2Error.INTERNAL_ERROR, e, "Failed to read DATA frame");
+        }
+      }
+      if (end)
+      {
+        _lastChunkReceived = true;
+      }
+      doWrite();
+      return 0;
+    }
+
+    void onEndOfStream()
+    {
+      _lastChunkReceived = true;
+      doWrite();
+    }
+
+    void onStreamClosed()
+    {
+      if (!_done && !_lastChunkReceived)
+      {
+        _done = true;
+        _buffer.clear();
+        final Throwable ex =
+            new ChannelException("HTTP/2 stream " + _streamId + " closed before the request entity was received");
+        if (_wh != null)
+        {
+          _wh.error(ex);
+        }
+        else
+        {
+          // The reader is not attached yet, the error is reported once it is
+          _failureBeforeInit = ex;
+        }
+      }
+    }
+
+    private void doWrite()
+    {
+      if (_failureBeforeInit != null && _wh != null)
+      {
+        final Throwable ex = _failureBeforeInit;
+        _failureBeforeInit = null;
+        _wh.error(ex);
+        return;
+      }
+
+      if (_done || _wh == null)
+      {
+        return;
+      }
+
+      while (_wh.remaining() > 0)
+      {
+        if (!_buffer.isEmpty())
+        {
+          final ByteString bytes = _buffer.poll();
+          _wh.write(bytes);
+          consumeBytes(bytes.length());
+        }
+        else
+        {
+          if (_lastChunkReceived)
+          {
+            _done = true;
+            _wh.done();
+          }
+          break;
+        }
+      }
+    }
+
+    private void consumeBytes(int length)
+    {
+      final Http2Stream stream = _connection.stream(_streamId);
+      if (stream == null || length == 0)
+      {
+        return;
+      }
+
+      try
+      {
+        if (_connection.local().flowController().consumeBytes(stream, length))
+        {
+          _ctx.channel().flush();
+        }
+      }
+      catch (Http2Exception e)
+      {
+        _codec.onError(_ctx, e);
+      }
+    }
+  }
+}
@@ -21,10 +21,10 @@
 package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.r2.filter.R2Constants;
-import com.linkedin.r2.util.NamedThreadFactory;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 import java.net.InetSocketAddress;
@@ -47,9 +47,14 @@ import javax.net.ssl.SSLParameters;
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final int _startupTimeoutMillis;
-
-  private NioEventLoopGroup _bossGroup;
-  private NioEventLoopGroup _workerGroup;
+  private final NettyTransport _transport;
+  private final boolean _tcpNoDelay;
+  private final boolean _reusePort;
+  private final boolean _edgeTriggered;
+  private final boolean _http2;
+
+  private EventLoopGroup _bossGroup;
+  private EventLoopGroup _workerGroup;
   private EventExecutorGroup _eventExecutors;
 
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher)
@@ -76,6 +81,25 @@ import javax.net.ssl.SSLParameters;
 
   public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
                          SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis)
+  {
+    this(port, threadPoolSize, dispatcher, restOverStream, sslContext, sslParameters, startupTimeoutMillis,
+        NettyTransport.NIO, true, false, true, false);
+  }
+
+  /**
+   * @param transport the Netty transport, which falls back to {@link NettyTransport#NIO} if it is not available
+   * @param tcpNoDelay the TCP_NODELAY option of the accepted channels
+   * @param reusePort if true and the transport supports SO_REUSEPORT, binds one server channel per boss thread
+   *                  to the port, so that the kernel balances the incoming connections among the boss threads
+   * @param edgeTriggered if true, the channels of the epoll transport use edge-triggered notifications,
+   *                      otherwise level-triggered ones
+   * @param http2 if true, also serves HTTP/2: through ALPN (h2) if the server uses SSL, otherwise to clients that
+   *              upgrade from HTTP/1.1 or connect with prior knowledge (h2c)
+   */
+  public HttpNettyServer(int port, int threadPoolSize, HttpDispatcher dispatcher, boolean restOverStream,
+                         SSLContext sslContext, SSLParameters sslParameters, int startupTimeoutMillis,
+                         NettyTransport transport, boolean tcpNoDelay, boolean reusePort, boolean edgeTriggered,
+                         boolean http2)
   {
     _port = port;
     _threadPoolSize = threadPoolSize;
@@ -84,22 +108,35 @@ import javax.net.ssl.SSLParameters;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _startupTimeoutMillis = startupTimeoutMillis;
+    _transport = transport;
+    _tcpNoDelay = tcpNoDelay;
+    _reusePort = reusePort;
+    _edgeTriggered = edgeTriggered;
+    _http2 = http2;
   }
 
   @Override
   public void start()
   {
     _eventExecutors =  new DefaultEventExecutorGroup(_threadPoolSize);
-    _bossGroup = new NioEventLoopGroup(1, new NamedThreadFactory("R2 Nio Boss"));
-    _workerGroup = new NioEventLoopGroup(0, new NamedThreadFactory("R2 Nio Worker"));
+    final NettyTransport transport = _transport.orFallback();
+    // Without SO_REUSEPORT, a single server channel accepts the connections.
+    final int bossCount = (_reusePort && transport != NettyTransport.NIO) ? Runtime.getRuntime().availableProcessors() : 1;
+    _bossGroup = transport.newEventLoopGroup(bossCount, "Boss");
+    _workerGroup = transport.newEventLoopGroup(0, "Worker");
 
     final HttpNettyServerPipelineInitializer pipelineInitializer = new HttpNettyServerPipelineInitializer(
-        _dispatcher, _eventExecutors, _sslContext, _sslParameters, _restOverStream);
+        _dispatcher, _eventExecutors, _sslContext, _sslParameters, _restOverStream, _http2);
     ServerBootstrap bootstrap = new ServerBootstrap()
                                       .group(_bossGroup, _workerGroup)
-                                      .channel(NioServerSocketChannel.class)
+                                      .channel(transport.getServerSocketChannelClass())
+                                      .childOption(ChannelOption.TCP_NODELAY, _tcpNoDelay)
                                       .childHandler(pipelineInitializer);
-    bootstrap.bind(new InetSocketAddress(_port)).awaitUninterruptibly(_startupTimeoutMillis);
+    transport.configureServer(bootstrap, _reusePort, _edgeTriggered);
+    for (int i = 0; i < bossCount; i++)
+    {
+      bootstrap.bind(new InetSocketAddress(_port)).awaitUninterruptibly(_startupTimeoutMillis);
+    }
   }
 
   @Override
@@ -20,6 +20,7 @@ import com.linkedin.r2.filter.FilterChain;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.transport.FilterChainDispatcher;
 import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import com.linkedin.util.ArgumentUtil;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLParameters;
@@ -36,6 +37,7 @@ public class HttpNettyServerBuilder
 {
   public static final int DEFAULT_NETTY_HTTP_SERVER_PORT = 8080;
   public static final int DEFAULT_THREAD_POOL_SIZE = 256;
+  public static final int DEFAULT_STARTUP_TIMEOUT_MILLIS = 10000;
 
   // The following fields are required.
   private TransportDispatcher _transportDispatcher = null;
@@ -45,6 +47,11 @@ public class HttpNettyServerBuilder
   private int _port = DEFAULT_NETTY_HTTP_SERVER_PORT;
   private int _threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
   private boolean _restOverStream = R2Constants.DEFAULT_REST_OVER_STREAM;
+  private NettyTransport _transport = NettyTransport.NIO;
+  private boolean _tcpNoDelay = true;
+  private boolean _reusePort = false;
+  private boolean _edgeTriggered = true;
+  private boolean _http2 = false;
 
   // The following fields are optional.
   private SSLContext _sslContext = null;
@@ -92,12 +99,63 @@ public class HttpNettyServerBuilder
     return this;
   }
 
+  /**
+   * Sets the Netty transport of the server, {@link NettyTransport#NIO} by default. A transport that is not
+   * available on the platform falls back to {@link NettyTransport#NIO}.
+   */
+  public HttpNettyServerBuilder transport(NettyTransport transport)
+  {
+    _transport = transport;
+    return this;
+  }
+
+  /**
+   * Sets the TCP_NODELAY option of the accepted connections, true by default.
+   */
+  public HttpNettyServerBuilder tcpNoDelay(boolean tcpNoDelay)
+  {
+    _tcpNoDelay = tcpNoDelay;
+    return this;
+  }
+
+  /**
+   * If true and the transport supports SO_REUSEPORT, binds one server channel per processor to the port, so that
+   * the kernel balances the incoming connections among them. False by default.
+   */
+  public HttpNettyServerBuilder reusePort(boolean reusePort)
+  {
+    _reusePort = reusePort;
+    return this;
+  }
+
+  /**
+   * Sets whether the channels of the epoll transport use edge-triggered or level-triggered notifications,
+   * edge-triggered by default.
+   */
+  public HttpNettyServerBuilder edgeTriggered(boolean edgeTriggered)
+  {
+    _edgeTriggered = edgeTriggered;
+    return this;
+  }
+
+  /**
+   * If true, the server also serves HTTP/2: through ALPN (h2) if an SSL context is set, otherwise to clients that
+   * upgrade from HTTP/1.1 or connect with prior knowledge (h2c). False by default.
+   */
+  public HttpNettyServerBuilder http2(boolean http2)
+  {
+    _http2 = http2;
+    return this;
+  }
+
   public HttpNettyServer build()
   {
     validateParameters();
     final TransportDispatcher filterDispatcher = new FilterChainDispatcher(_transportDispatcher, _filters);
     final HttpDispatcher dispatcher = new HttpDispatcher(filterDispatcher);
-    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _sslContext, _sslParameters);
+    return new HttpNettyServer(_port, _threadPoolSize, dispatcher, _restOverStream, _sslContext, _sslParameters,
+        DEFAULT_STARTUP_TIMEOUT_MILLIS, _transport, _tcpNoDelay, _reusePort, _edgeTriggered,
+        _http2);
   }
 
   private void validateParameters()
@@ -16,46 +16,84 @@
 
 package com.linkedin.r2.transport.http.server;
 
-import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.transport.http.util.SslHandlerUtil;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.AsciiString;
 import io.netty.util.concurrent.EventExecutorGroup;
+import java.util.Arrays;
+import java.util.Collection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLParameters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-public class HttpNettyServerPipelineInitializer extends ChannelInitializer<NioSocketChannel>
+public class HttpNettyServerPipelineInitializer extends ChannelInitializer<SocketChannel>
 {
+  // The maximum size of aggregated request entities, which does not apply to streamed requests
+  private static final int MAX_REQUEST_SIZE = 1048576;
+  private static final boolean IS_CLIENT = false;
+
   private final SSLContext _sslContext;
   private final SSLParameters _sslParameters;
   private final EventExecutorGroup _eventExecutors;
   private final boolean _restOverStream;
   private final HttpDispatcher _dispatcher;
+  private final boolean _http2;
 
 
   HttpNettyServerPipelineInitializer(HttpDispatcher dispatcher, EventExecutorGroup eventExecutors,
                                      SSLContext sslContext, SSLParameters sslParameters,
-                                     boolean restOverStream)
+                                     boolean restOverStream, boolean http2)
   {
     _dispatcher = dispatcher;
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _eventExecutors = eventExecutors;
     _restOverStream = restOverStream;
+    _http2 = http2;
   }
 
   @Override
-  protected void initChannel(NioSocketChannel ch) throws Exception
+  protected void initChannel(SocketChannel ch) throws Exception
   {
     SslHandlerUtil.validateSslParameters(_sslContext, _sslParameters);
+    if (_http2)
+    {
+      // The protocol of the connection is known once ALPN or the clear text protocol detection completes
+      if (_sslContext != null)
+      {
+        ch.pipeline().addLast(SslHandlerUtil.PIPELINE_SSL_HANDLER, createAlpnSslHandler(ch.alloc()));
+        ch.pipeline().addLast(Http2ServerAlpnHandler.PIPELINE_ALPN_HANDLER, new Http2ServerAlpnHandler(this));
+      }
+      else
+      {
+        ch.pipeline().addLast(Http2CleartextHandler.PIPELINE_CLEARTEXT_HANDLER, new Http2CleartextHandler(this));
+      }
+      return;
+    }
+
     // If _sslContext is not NULL, we should first add SSL handler to the pipeline to secure the channel.
     if (_sslContext != null)
     {
@@ -63,13 +101,171 @@ public class HttpNettyServerPipelineInitializer extends ChannelInitializer<NioSo
       ch.pipeline().addLast(SslHandlerUtil.PIPELINE_SSL_HANDLER, sslHandler);
     }
 
-    ch.pipeline().addLast("decoder", new HttpRequestDecoder());
-    ch.pipeline().addLast("aggregator", new HttpObjectAggregator(1048576));
-    ch.pipeline().addLast("encoder", new HttpResponseEncoder());
-    ch.pipeline().addLast("rapi", new RAPServerCodec());
+    configureHttp1Pipeline(ch.pipeline());
+  }
+
+  /**
+   * Sets up the HTTP/1.1 pipeline.
+   */
+  void configureHttp1Pipeline(ChannelPipeline pipeline)
+  {
+    pipeline.addLast("decoder", new HttpRequestDecoder());
+    pipeline.addLast("encoder", new HttpResponseEncoder());
+    configureRequestPipeline(pipeline);
+  }
+
+  /**
+   * Sets up the HTTP/1.1 pipeline of a clear text connection, which upgrades to HTTP/2 (h2c) upon request.
+   */
+  void configureHttp1UpgradePipeline(ChannelPipeline pipeline)
+  {
+    final HttpServerCodec sourceCodec = new HttpServerCodec();
+    final HttpServerUpgradeHandler.UpgradeCodecFactory upgradeCodecFactory = protocol -> {
+      if (AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol))
+      {
+        return new Http2UpgradeCodec(createHttp2Codec());
+      }
+      return null;
+    };
+
+    pipeline.addLast("sourceCodec", sourceCodec);
+    pipeline.addLast("upgradeHandler", new HttpServerUpgradeHandler(sourceCodec, upgradeCodecFactory, MAX_REQUEST_SIZE));
+    configureRequestPipeline(pipeline);
+  }
+
+  /**
+   * Sets up the HTTP/2 pipeline.
+   */
+  void configureHttp2Pipeline(ChannelPipeline pipeline)
+  {
+    pipeline.addLast(Http2ServerCodec.PIPELINE_HTTP2_CODEC_HANDLER, createHttp2Codec());
+    pipeline.addLast(_eventExecutors, "handler", new PipelineHttp2Handler(_dispatcher));
+  }
+
+  /**
+   * Sets up the handlers that decode and dispatch HTTP/1.1 requests. Requests are aggregated into RestRequests,
+   * or streamed into StreamRequests without aggregation if rest is over stream.
+   */
+  private void configureRequestPipeline(ChannelPipeline pipeline)
+  {
+    if (_restOverStream)
+    {
+      pipeline.addLast("streamDecoder", new RAPStreamRequestDecoder());
+      pipeline.addLast("rapi", new RAPServerCodec());
+      pipeline.addLast(_eventExecutors, "handler", new PipelineStreamHandler(_dispatcher));
+    }
+    else
+    {
+      pipeline.addLast("aggregator", new HttpObjectAggregator(MAX_REQUEST_SIZE));
+      pipeline.addLast("rapi", new RAPServerCodec());
+      pipeline.addLast(_eventExecutors, "handler", new PipelineRestHandler(_dispatcher));
+    }
+  }
+
+  private Http2ServerCodec createHttp2Codec()
+  {
+    return new Http2ServerCodecBuilder()
+        .maxRequestSize(MAX_REQUEST_SIZE)
+        .restOverStream(_restOverStream)
+        .build();
+  }
+
+  /**
+   * Creates the SSL handler that negotiates HTTP/2 (h2) or HTTP/1.1 through ALPN.
+   */
+  private SslHandler createAlpnSslHandler(ByteBufAllocator alloc)
+  {
+    return createSslHandler(createAlpnSslContext(), alloc);
+  }
+
+  /**
+   * Creates an SSL handler with an engine of the given context, and sets the SSL parameters that {@link JdkSslContext}
+   * does not take, the protocols and the endpoint identification algorithm, on the engine.
+   */
+  SslHandler createSslHandler(SslContext sslContext, ByteBufAllocator alloc)
+  {
+    final SSLEngine sslEngine = sslContext.newEngine(alloc);
+    if (_sslParameters != null)
+    {
+      final SSLParameters sslParameters = sslEngine.getSSLParameters();
+      if (_sslParameters.getProtocols() != null)
+      {
+        sslParameters.setProtocols(_sslParameters.getProtocols());
+      }
+      sslParameters.setEndpointIdentificationAlgorithm(_sslParameters.getEndpointIdentificationAlgorithm());
+      sslEngine.setSSLParameters(sslParameters);
+    }
+    return new SslHandler(sslEngine);
+  }
+
+  /**
+   * Creates the SSL context that negotiates HTTP/2 (h2) or HTTP/1.1 through ALPN, which requires a JDK or
+   * an ALPN boot library that supports ALPN.
+   */
+  private SslContext createAlpnSslContext()
+  {
+    final String[] cipherSuites = _sslParameters == null ? null : _sslParameters.getCipherSuites();
+    final ClientAuth clientAuth;
+    if (_sslParameters != null && _sslParameters.getNeedClientAuth())
+    {
+      clientAuth = ClientAuth.REQUIRE;
+    }
+    else if (_sslParameters != null && _sslParameters.getWantClientAuth())
+    {
+      clientAuth = ClientAuth.OPTIONAL;
+    }
+    else
+    {
+      clientAuth = ClientAuth.NONE;
+    }
+
+    return new JdkSslContext(
+        _sslContext,
+        IS_CLIENT,
+        cipherSuites == null ? null : Arrays.asList(cipherSuites),
+        IdentityCipherSuiteFilter.INSTANCE,
+        new ApplicationProtocolConfig(
+            ApplicationProtocolConfig.Protocol.ALPN,
+            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+            ApplicationProtocolNames.HTTP_2,
+            ApplicationProtocolNames.HTTP_1_1),
+        clientAuth);
+  }
+
+  /**
+   * Upgrades the HTTP/1.1 pipeline to HTTP/2, replacing the HTTP/1.1 request handlers with the HTTP/2 ones.
+   */
+  private class Http2UpgradeCodec implements HttpServerUpgradeHandler.UpgradeCodec
+  {
+    private final Http2ServerUpgradeCodec _upgradeCodec;
+
+    Http2UpgradeCodec(Http2ServerCodec http2Codec)
+    {
+      _upgradeCodec = new Http2ServerUpgradeCodec(Http2ServerCodec.PIPELINE_HTTP2_CODEC_HANDLER, http2Codec);
+    }
+
+    @Override
+    public Collection<CharSequence> requiredUpgradeHeaders()
+    {
+      return _upgradeCodec.requiredUpgradeHeaders();
+    }
 
-    final SimpleChannelInboundHandler<RestRequest> restHandler = _restOverStream ?
-        new PipelineStreamHandler(_dispatcher) : new PipelineRestHandler(_dispatcher);
-    ch.pipeline().addLast(_eventExecutors, "handler", restHandler);
+    @Override
+    public boolean prepareUpgradeResponse(ChannelHandlerContext ctx, FullHttpRequest upgradeRequest,
+        HttpHeaders upgradeHeaders)
+    {
+      return _upgradeCodec.prepareUpgradeResponse(ctx, upgradeRequest, upgradeHeaders);
+    }
+
+    @Override
+    public void upgradeTo(ChannelHandlerContext ctx, FullHttpRequest upgradeRequest)
+    {
+      ctx.pipeline().remove(_restOverStream ? "streamDecoder" : "aggregator");
+      ctx.pipeline().remove("rapi");
+      ctx.pipeline().remove("handler");
+      _upgradeCodec.upgradeTo(ctx, upgradeRequest);
+      ctx.pipeline().addLast(_eventExecutors, "handler", new PipelineHttp2Handler(_dispatcher));
+    }
   }
 }
@@ -0,0 +1,103 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.r2.message.Request;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
+import com.linkedin.r2.transport.common.bridge.common.TransportResponseImpl;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Dispatches the requests of HTTP/2 streams assembled by {@link Http2ServerFrameListener}.
+ */
+class PipelineHttp2Handler extends SimpleChannelInboundHandler<PipelineHttp2Handler.Http2Request>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(PipelineHttp2Handler.class);
+  private final HttpDispatcher _dispatcher;
+
+  PipelineHttp2Handler(HttpDispatcher dispatcher)
+  {
+    _dispatcher = dispatcher;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void channelRead0(ChannelHandlerContext ctx, Http2Request request) throws Exception
+  {
+    if (request._request instanceof StreamRequest)
+    {
+      final TransportCallback<StreamResponse> callback = (TransportCallback<StreamResponse>) request._callback;
+      try
+      {
+        _dispatcher.handleRequest((StreamRequest) request._request, callback);
+      }
+      catch (Exception ex)
+      {
+        callback.onResponse(TransportResponseImpl.<StreamResponse> error(ex, Collections.<String, String> emptyMap()));
+      }
+    }
+    else
+    {
+      final TransportCallback<RestResponse> callback = (TransportCallback<RestResponse>) request._callback;
+      try
+      {
+        _dispatcher.handleRequest((RestRequest) request._request, callback);
+      }
+      catch (Exception ex)
+      {
+        callback.onResponse(TransportResponseImpl.<RestResponse> error(ex, Collections.<String, String> emptyMap()));
+      }
+    }
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
+  {
+    LOG.error("Exception caught on channel: " + ctx.channel().remoteAddress(), cause);
+    ctx.close();
+  }
+
+  /**
+   * The request of a stream with the callback that writes its response, a {@link TransportCallback} of
+   * {@link StreamResponse} for a {@link StreamRequest} and of {@link RestResponse} for a {@link RestRequest}.
+   */
+  static class Http2Request
+  {
+    private final Request _request;
+    private final TransportCallback<?> _callback;
+
+    Http2Request(Request request, TransportCallback<?> callback)
+    {
+      _request = request;
+      _callback = callback;
+    }
+
+    Request getRequest()
+    {
+      return _request;
+    }
+  }
+}
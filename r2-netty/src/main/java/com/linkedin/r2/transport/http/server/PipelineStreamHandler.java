@@ -18,10 +18,10 @@ package com.linkedin.r2.transport.http.server;
 
 import com.linkedin.common.callback.Callback;
 import com.linkedin.r2.message.Messages;
-import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
 import com.linkedin.r2.message.rest.RestStatus;
+import com.linkedin.r2.message.stream.StreamRequest;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.transport.common.WireAttributeHelper;
 import com.linkedin.r2.transport.common.bridge.common.TransportCallback;
@@ -35,7 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
-class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
+class PipelineStreamHandler extends SimpleChannelInboundHandler<StreamRequest>
 {
   private static final Logger LOG = LoggerFactory.getLogger(PipelineStreamHandler.class);
   private final HttpDispatcher _dispatcher;
@@ -63,7 +63,7 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
   }
 
   @Override
-  protected void channelRead0(ChannelHandlerContext ctx, RestRequest request) throws Exception
+  protected void channelRead0(ChannelHandlerContext ctx, StreamRequest request) throws Exception
   {
     final Channel ch = ctx.channel();
     TransportCallback<StreamResponse> writeResponseCallback = new TransportCallback<StreamResponse>()
@@ -103,7 +103,7 @@ class PipelineStreamHandler extends SimpleChannelInboundHandler<RestRequest>
     };
     try
     {
-      _dispatcher.handleRequest(Messages.toStreamRequest(request), writeResponseCallback);
+      _dispatcher.handleRequest(request, writeResponseCallback);
     }
     catch (Exception ex)
     {
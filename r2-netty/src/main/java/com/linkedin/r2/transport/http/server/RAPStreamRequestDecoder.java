@@ -0,0 +1,302 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.message.stream.StreamRequestBuilder;
+import com.linkedin.r2.message.stream.entitystream.EntityStream;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.WriteHandle;
+import com.linkedin.r2.message.stream.entitystream.Writer;
+import com.linkedin.r2.transport.http.common.HttpConstants;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.ClosedChannelException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * This Decoder decodes chunked Netty requests into StreamRequest. The request is fired as soon as its headers are
+ * decoded, and its entity is written to the {@link EntityStream} as the reader requests data.
+ */
+/* package private */ class RAPStreamRequestDecoder extends SimpleChannelInboundHandler<HttpObject>
+{
+  private static final Logger LOG = LoggerFactory.getLogger(RAPStreamRequestDecoder.class);
+
+  private static final FullHttpResponse CONTINUE =
+      new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE, Unpooled.EMPTY_BUFFER);
+
+  private static final int BUFFER_HIGH_WATER_MARK = 3 * R2Constants.DEFAULT_DATA_CHUNK_SIZE;
+  private static final int BUFFER_LOW_WATER_MARK = R2Constants.DEFAULT_DATA_CHUNK_SIZE;
+
+  private BufferedWriter _chunkedMessageWriter;
+
+  @Override
+  protected void channelRead0(ChannelHandlerContext ctx, HttpObject msg) throws Exception
+  {
+    if (msg instanceof HttpRequest)
+    {
+      HttpRequest m = (HttpRequest) msg;
+      if (!m.decoderResult().isSuccess())
+      {
+        ctx.fireExceptionCaught(m.decoderResult().cause());
+        return;
+      }
+
+      if (HttpUtil.is100ContinueExpected(m))
+      {
+        ctx.writeAndFlush(CONTINUE.retainedDuplicate()).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+      }
+
+      final BufferedWriter writer = new BufferedWriter(ctx, BUFFER_HIGH_WATER_MARK, BUFFER_LOW_WATER_MARK);
+      EntityStream entityStream = EntityStreams.newEntityStream(writer);
+      _chunkedMessageWriter = writer;
+      StreamRequestBuilder builder = new StreamRequestBuilder(new URI(m.uri()));
+      builder.setMethod(m.method().name());
+
+      for (Map.Entry<String, String> e : m.headers())
+      {
+        String key = e.getKey();
+        String value = e.getValue();
+        if (key.equalsIgnoreCase(HttpConstants.REQUEST_COOKIE_HEADER_NAME))
+        {
+          builder.addCookie(value);
+        }
+        else
+        {
+          builder.unsafeAddHeaderValue(key, value);
+        }
+      }
+
+      ctx.fireChannelRead(builder.build(entityStream));
+    }
+
+    if (msg instanceof HttpContent)
+    {
+      HttpContent chunk = (HttpContent) msg;
+      BufferedWriter currentWriter = _chunkedMessageWriter;
+      if (currentWriter == null)
+      {
+        // The content of a request that failed to decode
+        return;
+      }
+
+      if (!chunk.decoderResult().isSuccess())
+      {
+        this.exceptionCaught(ctx, chunk.decoderResult().cause());
+        return;
+      }
+
+      currentWriter.processHttpChunk(chunk);
+
+      if (chunk instanceof LastHttpContent)
+      {
+        _chunkedMessageWriter = null;
+      }
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception
+  {
+    if (_chunkedMessageWriter != null)
+    {
+      _chunkedMessageWriter.fail(new ClosedChannelException());
+      _chunkedMessageWriter = null;
+    }
+    ctx.fireChannelInactive();
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception
+  {
+    if (_chunkedMessageWriter != null)
+    {
+      _chunkedMessageWriter.fail(cause);
+      _chunkedMessageWriter = null;
+    }
+    ctx.fireExceptionCaught(cause);
+  }
+
+  /**
+   * A buffered writer that stops reading from socket if buffered bytes is larger than high water mark
+   * and resumes reading from socket if buffered bytes is smaller than low water mark.
+   */
+  private static class BufferedWriter implements Writer
+  {
+    private final ChannelHandlerContext _ctx;
+    private final int _highWaterMark;
+    private final int _lowWaterMark;
+    private WriteHandle _wh;
+    private boolean _lastChunkReceived;
+    private boolean _aborted;
+    private int _bufferedBytes;
+    private final List<ByteString> _buffer;
+    private volatile Throwable _failureBeforeInit;
+
+    BufferedWriter(ChannelHandlerContext ctx, int highWaterMark, int lowWaterMark)
+    {
+      _ctx = ctx;
+      _highWaterMark = highWaterMark;
+      _lowWaterMark = lowWaterMark;
+      _failureBeforeInit = null;
+      _lastChunkReceived = false;
+      _aborted = false;
+      _bufferedBytes = 0;
+      _buffer = new LinkedList<ByteString>();
+    }
+
+    @Override
+    public void onInit(WriteHandle wh)
+    {
+      _wh = wh;
+    }
+
+    @Override
+    public void onWritePossible()
+    {
+      if (_failureBeforeInit != null)
+      {
+        fail(_failureBeforeInit);
+        return;
+      }
+
+      if (_ctx.executor().inEventLoop())
+      {
+        doWrite();
+      }
+      else
+      {
+        _ctx.executor().execute(this::doWrite);
+      }
+    }
+
+    @Override
+    public void onAbort(Throwable ex)
+    {
+      // The reader is not interested in the rest of the entity, which is discarded as it is received
+      _ctx.executor().execute(() -> {
+        _aborted = true;
+        _buffer.clear();
+        _bufferedBytes = 0;
+        _ctx.channel().config().setAutoRead(true);
+      });
+    }
+
+    public void processHttpChunk(HttpContent chunk)
+    {
+      if (_aborted)
+      {
+        return;
+      }
+
+      if (chunk.content().isReadable())
+      {
+        ByteBuf rawData = chunk.content();
+        final ByteString data;
+        try
+        {
+          data = ByteString.read(new ByteBufInputStream(rawData), rawData.readableBytes());
+        }
+        catch (IOException ex)
+        {
+          fail(ex);
+          return;
+        }
+        _buffer.add(data);
+        _bufferedBytes += data.length();
+        if (_bufferedBytes > _highWaterMark && _ctx.channel().config().isAutoRead())
+        {
+          // stop reading from socket because we buffered too much
+          _ctx.channel().config().setAutoRead(false);
+        }
+      }
+      if (chunk instanceof LastHttpContent)
+      {
+        _lastChunkReceived = true;
+      }
+      if (_wh != null)
+      {
+        doWrite();
+      }
+    }
+
+    public void fail(Throwable ex)
+    {
+      if (_wh != null)
+      {
+        LOG.debug("Failed to receive the request entity", ex);
+        _wh.error(ex);
+      }
+      else
+      {
+        _failureBeforeInit = ex;
+      }
+    }
+
+    private void doWrite()
+    {
+      if (_aborted)
+      {
+        return;
+      }
+
+      while (_wh.remaining() > 0)
+      {
+        if (!_buffer.isEmpty())
+        {
+          ByteString data = _buffer.remove(0);
+          _wh.write(data);
+          _bufferedBytes -= data.length();
+          if (!_ctx.channel().config().isAutoRead() && _bufferedBytes < _lowWaterMark)
+          {
+            // resume reading from socket
+            _ctx.channel().config().setAutoRead(true);
+          }
+        }
+        else
+        {
+          if (_lastChunkReceived)
+          {
+            _wh.done();
+          }
+          break;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.util;
+
+import com.linkedin.r2.util.NamedThreadFactory;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The Netty transports used by R2 clients and servers: the NIO transport, available everywhere, and the
+ * native epoll transport, available on Linux.
+ *
+ * Each transport creates its event loop groups and provides the matching channel classes. A transport that
+ * is not available on the current platform falls back to {@link #NIO}, see {@link #orFallback()}.
+ */
+public enum NettyTransport
+{
+  NIO("Nio")
+  {
+    @Override
+    public boolean isAvailable()
+    {
+      return true;
+    }
+
+    @Override
+    public EventLoopGroup newEventLoopGroup(int threadCount, String threadName)
+    {
+      return new NioEventLoopGroup(threadCount, new NamedThreadFactory(getThreadNamePrefix() + threadName));
+    }
+
+    @Override
+    public Class<? extends SocketChannel> getSocketChannelClass()
+    {
+      return NioSocketChannel.class;
+    }
+
+    @Override
+    public Class<? extends ServerSocketChannel> getServerSocketChannelClass()
+    {
+      return NioServerSocketChannel.class;
+    }
+
+    @Override
+    public void configureServer(ServerBootstrap bootstrap, boolean reusePort, boolean edgeTriggered)
+    {
+      // NIO sockets support neither SO_REUSEPORT nor edge-triggered mode.
+    }
+  },
+
+  EPOLL("Epoll")
+  {
+    @Override
+    public boolean isAvailable()
+    {
+      return Epoll.isAvailable();
+    }
+
+    @Override
+    public EventLoopGroup newEventLoopGroup(int threadCount, String threadName)
+    {
+      return new EpollEventLoopGroup(threadCount, new NamedThreadFactory(getThreadNamePrefix() + threadName));
+    }
+
+    @Override
+    public Class<? extends SocketChannel> getSocketChannelClass()
+    {
+      return EpollSocketChannel.class;
+    }
+
+    @Override
+    public Class<? extends ServerSocketChannel> getServerSocketChannelClass()
+    {
+      return EpollServerSocketChannel.class;
+    }
+
+    @Override
+    public void configureServer(ServerBootstrap bootstrap, boolean reusePort, boolean edgeTriggered)
+    {
+      final EpollMode mode = edgeTriggered ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, mode)
+          .childOption(EpollChannelOption.EPOLL_MODE, mode)
+          .option(EpollChannelOption.SO_REUSEPORT, reusePort);
+    }
+  };
+
+  private static final Logger LOG = LoggerFactory.getLogger(NettyTransport.class);
+
+  private final String _displayName;
+
+  NettyTransport(String displayName)
+  {
+    _displayName = displayName;
+  }
+
+  /**
+   * @return true if the transport can be used on the current platform.
+   */
+  public abstract boolean isAvailable();
+
+  /**
+   * Creates an event loop group of the transport.
+   *
+   * @param threadCount the number of threads, or 0 for Netty's default
+   * @param threadName the name of the threads, prefixed with "R2 " and the name of the transport
+   */
+  public abstract EventLoopGroup newEventLoopGroup(int threadCount, String threadName);
+
+  /**
+   * @return the class of the client channels of the transport.
+   */
+  public abstract Class<? extends SocketChannel> getSocketChannelClass();
+
+  /**
+   * @return the class of the server channels of the transport.
+   */
+  public abstract Class<? extends ServerSocketChannel> getServerSocketChannelClass();
+
+  /**
+   * Sets the options of the transport on a server bootstrap. Options that the transport does not support are ignored.
+   *
+   * @param reusePort if true, several server channels may bind the same port with SO_REUSEPORT, and the kernel
+   *                  balances the incoming connections among them
+   * @param edgeTriggered if true, the channels use edge-triggered notifications, otherwise level-triggered ones
+   */
+  public abstract void configureServer(ServerBootstrap bootstrap, boolean reusePort, boolean edgeTriggered);
+
+  /**
+   * @return this transport if it is available, otherwise {@link #NIO}.
+   */
+  public NettyTransport orFallback()
+  {
+    if (isAvailable())
+    {
+      return this;
+    }
+
+    LOG.warn("Netty transport {} is not available, falling back to {}", this, NIO);
+    return NIO;
+  }
+
+  /**
+   * @return the transport whose channels can be registered with the event loop group.
+   */
+  public static NettyTransport forEventLoopGroup(EventLoopGroup eventLoopGroup)
+  {
+    return eventLoopGroup instanceof EpollEventLoopGroup ? EPOLL : NIO;
+  }
+
+  String getThreadNamePrefix()
+  {
+    return "R2 " + _displayName + " ";
+  }
+}
@@ -0,0 +1,361 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.entitystream.FullEntityReader;
+import com.linkedin.r2.transport.common.RestRequestHandler;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelException;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersEncoder;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2Error;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.JdkSslContext;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestHttp2NettyServer
+{
+  private static final int PORT = 8090;
+  private static final URI ECHO_URI = URI.create("/echo");
+  private static final URI ERROR_URI = URI.create("/error");
+  private static final String HEADER_NAME = "X-Echo";
+  private static final String COOKIE = "cookie=value";
+  private static final int LARGE_ENTITY_SIZE = 512 * 1024;
+  private static final int TOO_LARGE_ENTITY_SIZE = 2 * 1024 * 1024;
+
+  @DataProvider
+  public static Object[][] configurations()
+  {
+    return new Object[][] {
+      { false, HttpProtocolVersion.HTTP_2 },
+      { true, HttpProtocolVersion.HTTP_2 },
+      { false, HttpProtocolVersion.HTTP_1_1 },
+      { true, HttpProtocolVersion.HTTP_1_1 },
+    };
+  }
+
+  @Test(dataProvider = "configurations")
+  public void testRequest(boolean restOverStream, HttpProtocolVersion version)
+      throws Exception
+  {
+    HttpNettyServer server = createServer(restOverStream);
+    HttpClientFactory factory = new HttpClientFactory.Builder().build();
+
+    server.start();
+    TransportClientAdapter client = createClient(factory, version);
+    try
+    {
+      for (int i = 0; i < 10; i++)
+      {
+        RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ECHO_URI))
+            .setMethod("POST")
+            .setHeader(HEADER_NAME, "header " + i)
+            .addCookie(COOKIE)
+            .setEntity(("request " + i).getBytes())
+            .build();
+        RestResponse response = client.restRequest(request).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getStatus(), 200);
+        Assert.assertEquals(response.getEntity().asString("UTF-8"), "request " + i);
+        Assert.assertEquals(response.getHeader(HEADER_NAME), "header " + i);
+        Assert.assertEquals(response.getCookies(), Arrays.asList(COOKIE));
+      }
+
+      // Larger than the initial HTTP/2 stream window, so that both sides wait for window updates
+      byte[] entity = new byte[LARGE_ENTITY_SIZE];
+      for (int i = 0; i < entity.length; i++)
+      {
+        entity[i] = (byte) i;
+      }
+      RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ECHO_URI))
+          .setMethod("PUT")
+          .setEntity(entity)
+          .build();
+      RestResponse response = client.restRequest(request).get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(response.getEntity().copyBytes(), entity);
+    }
+    finally
+    {
+      shutdown(client, factory, server);
+    }
+  }
+
+  @Test(dataProvider = "configurations")
+  public void testError(boolean restOverStream, HttpProtocolVersion version)
+      throws Exception
+  {
+    HttpNettyServer server = createServer(restOverStream);
+    HttpClientFactory factory = new HttpClientFactory.Builder().build();
+
+    server.start();
+    TransportClientAdapter client = createClient(factory, version);
+    try
+    {
+      RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ERROR_URI))
+          .setMethod("GET")
+          .build();
+      try
+      {
+        client.restRequest(request).get(10, TimeUnit.SECONDS);
+        Assert.fail("Request should have failed");
+      }
+      catch (ExecutionException e)
+      {
+        Assert.assertTrue(e.getCause() instanceof RestException, e.getCause().toString());
+        Assert.assertEquals(((RestException) e.getCause()).getResponse().getStatus(), 500);
+      }
+    }
+    finally
+    {
+      shutdown(client, factory, server);
+    }
+  }
+
+  @Test
+  public void testRequestTooLarge() throws Exception
+  {
+    HttpNettyServer server = createServer(false);
+    HttpClientFactory factory = new HttpClientFactory.Builder().build();
+
+    server.start();
+    TransportClientAdapter client = createClient(factory, HttpProtocolVersion.HTTP_2);
+    try
+    {
+      RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ECHO_URI))
+          .setMethod("PUT")
+          .setEntity(new byte[TOO_LARGE_ENTITY_SIZE])
+          .build();
+      try
+      {
+        client.restRequest(request).get(10, TimeUnit.SECONDS);
+        Assert.fail("Request should have failed");
+      }
+      catch (ExecutionException e)
+      {
+        Assert.assertTrue(e.getCause() instanceof RestException, e.getCause().toString());
+        Assert.assertEquals(((RestException) e.getCause()).getResponse().getStatus(), 413);
+      }
+    }
+    finally
+    {
+      shutdown(client, factory, server);
+    }
+  }
+
+  @Test
+  public void testPriorKnowledge() throws Exception
+  {
+    HttpNettyServer server = createServer(true);
+    server.start();
+    try (Socket socket = new Socket("localhost", PORT))
+    {
+      socket.setSoTimeout(10000);
+      OutputStream out = socket.getOutputStream();
+      out.write(ByteBufUtil.getBytes(Http2CodecUtil.connectionPrefaceBuf()));
+      // An empty SETTINGS frame: length, type, flags and stream identifier
+      out.write(new byte[] { 0, 0, 0, 0x4, 0, 0, 0, 0, 0 });
+      out.flush();
+
+      // The server answers the preface with its SETTINGS frame
+      byte[] frameHeader = new byte[9];
+      new DataInputStream(socket.getInputStream()).readFully(frameHeader);
+      Assert.assertEquals(frameHeader[3], 0x4);
+    }
+    finally
+    {
+      server.stop();
+      server.waitForStop();
+    }
+  }
+
+  @Test
+  public void testStreamResetBeforeEntityIsRead() throws Exception
+  {
+    // Requests are dispatched on another executor, so a stream can be reset before a reader is attached to its entity
+    EmbeddedChannel channel = new EmbeddedChannel(
+        new Http2ServerCodecBuilder().maxRequestSize(TOO_LARGE_ENTITY_SIZE).restOverStream(true).build());
+    try
+    {
+      Http2Headers headers = new DefaultHttp2Headers()
+          .method("POST")
+          .path(ECHO_URI.toString())
+          .scheme("http")
+          .authority("localhost:" + PORT);
+      ByteBuf headerBlock = Unpooled.buffer();
+      new DefaultHttp2HeadersEncoder().encodeHeaders(headers, headerBlock);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(ByteBufUtil.getBytes(Http2CodecUtil.connectionPrefaceBuf()));
+      writeFrame(out, 0x4, 0, 0, new byte[0]);
+      // A HEADERS frame without END_STREAM, so that the request has an entity, and a RST_STREAM frame
+      writeFrame(out, 0x1, 0x4, 1, ByteBufUtil.getBytes(headerBlock));
+      writeFrame(out, 0x3, 0, 1, new byte[] { 0, 0, 0, (byte) Http2Error.CANCEL.code() });
+      headerBlock.release();
+      channel.writeInbound(Unpooled.wrappedBuffer(out.toByteArray()));
+
+      PipelineHttp2Handler.Http2Request http2Request = channel.readInbound();
+      StreamRequest request = (StreamRequest) http2Request.getRequest();
+      FutureCallback<ByteString> entityCallback = new FutureCallback<ByteString>();
+      request.getEntityStream().setReader(new FullEntityReader(entityCallback));
+      try
+      {
+        entityCallback.get(10, TimeUnit.SECONDS);
+        Assert.fail("Reading the entity should have failed");
+      }
+      catch (ExecutionException e)
+      {
+        Assert.assertTrue(e.getCause() instanceof ChannelException, e.getCause().toString());
+      }
+    }
+    finally
+    {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  @Test
+  public void testSslHandlerUsesSslParameters() throws Exception
+  {
+    SSLContext sslContext = SSLContext.getInstance("TLS");
+    sslContext.init(null, null, null);
+    SSLParameters sslParameters = new SSLParameters();
+    sslParameters.setProtocols(new String[] { "TLSv1.2" });
+    sslParameters.setEndpointIdentificationAlgorithm("HTTPS");
+
+    // The ALPN SSL context needs ALPN support from the JDK, so a context without ALPN is used instead
+    HttpNettyServerPipelineInitializer initializer =
+        new HttpNettyServerPipelineInitializer(null, null, sslContext, sslParameters, false, true);
+    SSLEngine sslEngine = initializer.createSslHandler(new JdkSslContext(sslContext, false, ClientAuth.REQUIRE),
+        ByteBufAllocator.DEFAULT).engine();
+    Assert.assertEquals(sslEngine.getEnabledProtocols(), new String[] { "TLSv1.2" });
+    Assert.assertEquals(sslEngine.getSSLParameters().getEndpointIdentificationAlgorithm(), "HTTPS");
+    Assert.assertTrue(sslEngine.getNeedClientAuth());
+  }
+
+  private static HttpNettyServer createServer(boolean restOverStream)
+  {
+    return new HttpNettyServerBuilder()
+        .port(PORT)
+        .filters(FilterChains.empty())
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(ECHO_URI, new EchoHandler())
+            .addRestHandler(ERROR_URI, new ErrorHandler())
+            .build())
+        ._restOverStream(restOverStream)
+        .http2(true)
+        .build();
+  }
+
+  /**
+   * Creates a client that sends requests as streams, since the clients of {@link HttpClientFactory} only use
+   * HTTP/2 for stream requests.
+   */
+  private static TransportClientAdapter createClient(HttpClientFactory factory, HttpProtocolVersion version)
+  {
+    Map<String, String> properties = new HashMap<>();
+    properties.put(HttpClientFactory.HTTP_PROTOCOL_VERSION, version.name());
+    return new TransportClientAdapter(factory.getClient(properties), true);
+  }
+
+  private static void shutdown(TransportClientAdapter client, HttpClientFactory factory, HttpNettyServer server)
+      throws Exception
+  {
+    FutureCallback<None> clientShutdown = new FutureCallback<None>();
+    client.shutdown(clientShutdown);
+    clientShutdown.get(10, TimeUnit.SECONDS);
+    FutureCallback<None> factoryShutdown = new FutureCallback<None>();
+    factory.shutdown(factoryShutdown);
+    factoryShutdown.get(10, TimeUnit.SECONDS);
+    server.stop();
+    server.waitForStop();
+  }
+
+  /**
+   * Writes an HTTP/2 frame: length, type, flags, stream identifier and payload.
+   */
+  private static void writeFrame(OutputStream out, int type, int flags, int streamId, byte[] payload)
+      throws IOException
+  {
+    out.write(new byte[] {
+        (byte) (payload.length >>> 16), (byte) (payload.length >>> 8), (byte) payload.length,
+        (byte) type, (byte) flags,
+        (byte) (streamId >>> 24), (byte) (streamId >>> 16), (byte) (streamId >>> 8), (byte) streamId });
+    out.write(payload);
+  }
+
+  private static class EchoHandler implements RestRequestHandler
+  {
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      RestResponseBuilder builder = new RestResponseBuilder().setEntity(request.getEntity());
+      if (request.getHeader(HEADER_NAME) != null)
+      {
+        builder.setHeader(HEADER_NAME, request.getHeader(HEADER_NAME));
+      }
+      builder.setCookies(request.getCookies());
+      callback.onSuccess(builder.build());
+    }
+  }
+
+  private static class ErrorHandler implements RestRequestHandler
+  {
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      callback.onError(new IllegalStateException("Expected error"));
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.data.ByteString;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.message.stream.StreamRequest;
+import com.linkedin.r2.message.stream.StreamResponse;
+import com.linkedin.r2.message.stream.StreamResponseBuilder;
+import com.linkedin.r2.message.stream.entitystream.ByteStringWriter;
+import com.linkedin.r2.message.stream.entitystream.EntityStreams;
+import com.linkedin.r2.message.stream.entitystream.ReadHandle;
+import com.linkedin.r2.message.stream.entitystream.Reader;
+import com.linkedin.r2.transport.common.RestRequestHandler;
+import com.linkedin.r2.transport.common.StreamRequestHandler;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.common.HttpProtocolVersion;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+
+public class TestHttpNettyStreamServer
+{
+  private static final int PORT = 8091;
+  private static final URI ECHO_URI = URI.create("/echo");
+  private static final URI COUNT_URI = URI.create("/count");
+  private static final URI IGNORE_URI = URI.create("/ignore");
+  // Larger than the entities aggregated by the HTTP/1.1 pipeline
+  private static final int LARGE_ENTITY_SIZE = 4 * 1024 * 1024;
+  private static final int MAX_RESPONSE_SIZE = 8 * 1024 * 1024;
+
+  private HttpNettyServer _server;
+  private HttpClientFactory _clientFactory;
+  private TransportClientAdapter _client;
+
+  @BeforeClass
+  public void setUp()
+  {
+    _server = new HttpNettyServerBuilder()
+        .port(PORT)
+        .filters(FilterChains.empty())
+        .transportDispatcher(new TransportDispatcherBuilder()
+            .addRestHandler(ECHO_URI, new EchoHandler())
+            .addStreamHandler(COUNT_URI, new CountHandler())
+            .addStreamHandler(IGNORE_URI, new IgnoreHandler())
+            .build())
+        ._restOverStream(true)
+        .build();
+    _server.start();
+
+    _clientFactory = new HttpClientFactory.Builder().build();
+    Map<String, String> properties = new HashMap<>();
+    properties.put(HttpClientFactory.HTTP_PROTOCOL_VERSION, HttpProtocolVersion.HTTP_1_1.name());
+    properties.put(HttpClientFactory.HTTP_REQUEST_TIMEOUT, "10000");
+    properties.put(HttpClientFactory.HTTP_MAX_RESPONSE_SIZE, Integer.toString(MAX_RESPONSE_SIZE));
+    properties.put(HttpClientFactory.HTTP_POOL_SIZE, "1");
+    _client = new TransportClientAdapter(_clientFactory.getClient(properties), true);
+  }
+
+  @AfterClass
+  public void tearDown() throws Exception
+  {
+    FutureCallback<None> clientShutdown = new FutureCallback<None>();
+    _client.shutdown(clientShutdown);
+    clientShutdown.get(10, TimeUnit.SECONDS);
+
+    FutureCallback<None> factoryShutdown = new FutureCallback<None>();
+    _clientFactory.shutdown(factoryShutdown);
+    factoryShutdown.get(10, TimeUnit.SECONDS);
+
+    _server.stop();
+    _server.waitForStop();
+  }
+
+  @Test
+  public void testLargeRestRequest() throws Exception
+  {
+    byte[] entity = new byte[LARGE_ENTITY_SIZE];
+    for (int i = 0; i < entity.length; i++)
+    {
+      entity[i] = (byte) i;
+    }
+    RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ECHO_URI))
+        .setMethod("PUT")
+        .setEntity(entity)
+        .build();
+    RestResponse response = _client.restRequest(request).get(10, TimeUnit.SECONDS);
+    Assert.assertEquals(response.getEntity().copyBytes(), entity);
+  }
+
+  @Test
+  public void testStreamRequest() throws Exception
+  {
+    RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + COUNT_URI))
+        .setMethod("PUT")
+        .setEntity(new byte[LARGE_ENTITY_SIZE])
+        .build();
+    RestResponse response = _client.restRequest(request).get(10, TimeUnit.SECONDS);
+    Assert.assertEquals(response.getEntity().asString("UTF-8"), Integer.toString(LARGE_ENTITY_SIZE));
+  }
+
+  @Test
+  public void testUnreadStreamRequest() throws Exception
+  {
+    // The unread entity is discarded, so that the connection serves the next request
+    for (int i = 0; i < 3; i++)
+    {
+      RestRequest ignored = new RestRequestBuilder(URI.create("http://localhost:" + PORT + IGNORE_URI))
+          .setMethod("PUT")
+          .setEntity(new byte[LARGE_ENTITY_SIZE])
+          .build();
+      Assert.assertEquals(_client.restRequest(ignored).get(10, TimeUnit.SECONDS).getStatus(), 200);
+
+      RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ECHO_URI))
+          .setMethod("POST")
+          .setEntity(("request " + i).getBytes())
+          .build();
+      RestResponse response = _client.restRequest(request).get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(response.getEntity().asString("UTF-8"), "request " + i);
+    }
+  }
+
+  private static class EchoHandler implements RestRequestHandler
+  {
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      callback.onSuccess(new RestResponseBuilder().setEntity(request.getEntity()).build());
+    }
+  }
+
+  /**
+   * Reads the request entity one chunk at a time and responds with its length.
+   */
+  private static class CountHandler implements StreamRequestHandler
+  {
+    @Override
+    public void handleRequest(StreamRequest request, RequestContext requestContext,
+        final Callback<StreamResponse> callback)
+    {
+      request.getEntityStream().setReader(new Reader()
+      {
+        private ReadHandle _rh;
+        private int _length;
+
+        @Override
+        public void onInit(ReadHandle rh)
+        {
+          _rh = rh;
+          _rh.request(1);
+        }
+
+        @Override
+        public void onDataAvailable(ByteString data)
+        {
+          _length += data.length();
+          _rh.request(1);
+        }
+
+        @Override
+        public void onDone()
+        {
+          callback.onSuccess(new StreamResponseBuilder().build(
+              EntityStreams.newEntityStream(new ByteStringWriter(
+                  ByteString.copyString(Integer.toString(_length), "UTF-8")))));
+        }
+
+        @Override
+        public void onError(Throwable e)
+        {
+          callback.onError(e);
+        }
+      });
+    }
+  }
+
+  /**
+   * Responds without reading the request entity.
+   */
+  private static class IgnoreHandler implements StreamRequestHandler
+  {
+    @Override
+    public void handleRequest(StreamRequest request, RequestContext requestContext, Callback<StreamResponse> callback)
+    {
+      callback.onSuccess(new StreamResponseBuilder().build(EntityStreams.emptyStream()));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.transport.http.server;
+
+import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.util.None;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.transport.common.RestRequestHandler;
+import com.linkedin.r2.transport.common.bridge.client.TransportClientAdapter;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcherBuilder;
+import com.linkedin.r2.transport.http.client.HttpClientFactory;
+import com.linkedin.r2.transport.http.util.NettyTransport;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestNettyTransport
+{
+  private static final int PORT = 8089;
+  private static final URI ECHO_URI = URI.create("/echo");
+
+  @Test
+  public void testNio()
+  {
+    Assert.assertTrue(NettyTransport.NIO.isAvailable());
+    Assert.assertSame(NettyTransport.NIO.orFallback(), NettyTransport.NIO);
+    Assert.assertSame(NettyTransport.NIO.getSocketChannelClass(), NioSocketChannel.class);
+
+    EventLoopGroup eventLoopGroup = NettyTransport.NIO.newEventLoopGroup(1, "Test");
+    try
+    {
+      Assert.assertTrue(eventLoopGroup instanceof NioEventLoopGroup);
+      Assert.assertSame(NettyTransport.forEventLoopGroup(eventLoopGroup), NettyTransport.NIO);
+    }
+    finally
+    {
+      eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testEpoll()
+  {
+    if (!NettyTransport.EPOLL.isAvailable())
+    {
+      Assert.assertSame(NettyTransport.EPOLL.orFallback(), NettyTransport.NIO);
+      throw new SkipException("Epoll is not available");
+    }
+
+    Assert.assertSame(NettyTransport.EPOLL.orFallback(), NettyTransport.EPOLL);
+    Assert.assertSame(NettyTransport.EPOLL.getSocketChannelClass(), EpollSocketChannel.class);
+
+    EventLoopGroup eventLoopGroup = NettyTransport.EPOLL.newEventLoopGroup(1, "Test");
+    try
+    {
+      Assert.assertTrue(eventLoopGroup instanceof EpollEventLoopGroup);
+      Assert.assertSame(NettyTransport.forEventLoopGroup(eventLoopGroup), NettyTransport.EPOLL);
+    }
+    finally
+    {
+      eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+    }
+  }
+
+  @DataProvider
+  public static Object[][] transports()
+  {
+    return new Object[][] {
+      { NettyTransport.NIO, NettyTransport.NIO, false },
+      { NettyTransport.EPOLL, NettyTransport.EPOLL, false },
+      { NettyTransport.EPOLL, NettyTransport.EPOLL, true },
+      { NettyTransport.NIO, NettyTransport.EPOLL, true },
+      { NettyTransport.EPOLL, NettyTransport.NIO, false },
+    };
+  }
+
+  @Test(dataProvider = "transports")
+  public void testRequest(NettyTransport serverTransport, NettyTransport clientTransport, boolean reusePort)
+      throws Exception
+  {
+    HttpNettyServer server = new HttpNettyServerBuilder()
+        .port(PORT)
+        .filters(FilterChains.empty())
+        .transportDispatcher(new TransportDispatcherBuilder().addRestHandler(ECHO_URI, new EchoHandler()).build())
+        .transport(serverTransport)
+        .reusePort(reusePort)
+        .build();
+    HttpClientFactory factory = new HttpClientFactory.Builder().setNettyTransport(clientTransport).build();
+
+    server.start();
+    try
+    {
+      TransportClientAdapter client =
+          new TransportClientAdapter(factory.getClient(Collections.<String, String>emptyMap()));
+      for (int i = 0; i < 10; i++)
+      {
+        RestRequest request = new RestRequestBuilder(URI.create("http://localhost:" + PORT + ECHO_URI))
+            .setMethod("POST")
+            .setEntity(("request " + i).getBytes())
+            .build();
+        RestResponse response = client.restRequest(request).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(response.getEntity().asString("UTF-8"), "request " + i);
+      }
+
+      FutureCallback<None> clientShutdown = new FutureCallback<None>();
+      client.shutdown(clientShutdown);
+      clientShutdown.get(10, TimeUnit.SECONDS);
+    }
+    finally
+    {
+      FutureCallback<None> factoryShutdown = new FutureCallback<None>();
+      factory.shutdown(factoryShutdown);
+      factoryShutdown.get(10, TimeUnit.SECONDS);
+      server.stop();
+      server.waitForStop();
+    }
+  }
+
+  private static class EchoHandler implements RestRequestHandler
+  {
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      callback.onSuccess(new RestResponseBuilder().setEntity(request.getEntity()).build());
+    }
+  }
+}
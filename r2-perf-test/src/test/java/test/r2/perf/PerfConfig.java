@@ -17,6 +17,7 @@
 /* $Id$ */
 package test.r2.perf;
 
+import com.linkedin.r2.transport.http.util.NettyTransport;
 import java.lang.reflect.Field;
 import java.net.URI;
 
@@ -42,6 +43,9 @@ public class PerfConfig
   private static final String PERF_SERVER_NUM_HEADERS = "perf.server.num_headers";
   private static final String PERF_CLIENT_HEADER_SIZE = "perf.client.header_size";
   private static final String PERF_SERVER_HEADER_SIZE = "perf.server.header_size";
+  private static final String PERF_CLIENT_NETTY_TRANSPORT = "perf.client.netty_transport";
+  private static final String PERF_SERVER_NETTY_TRANSPORT = "perf.server.netty_transport";
+  private static final String PERF_SERVER_REUSE_PORT = "perf.server.reuse_port";
 
   // Default property values
   private static final String DEFAULT_HOST = "localhost";
@@ -60,6 +64,9 @@ public class PerfConfig
   private static final int DEFAULT_SERVER_NUM_HEADERS = 0;
   private static final int DEFAULT_SERVER_HEADER_SIZE = 0;
 
+  private static final String DEFAULT_CLIENT_NETTY_TRANSPORT = "nio";
+  private static final String DEFAULT_SERVER_NETTY_TRANSPORT = "nio";
+
   public static int getHttpPort()
   {
     return getInt(PERF_HTTP_PORT);
@@ -140,6 +147,26 @@ public class PerfConfig
     return getBoolean(PERF_SERVER_REST_OVER_STREAM);
   }
 
+  public static NettyTransport getClientNettyTransport()
+  {
+    return getNettyTransport(PERF_CLIENT_NETTY_TRANSPORT);
+  }
+
+  public static NettyTransport getServerNettyTransport()
+  {
+    return getNettyTransport(PERF_SERVER_NETTY_TRANSPORT);
+  }
+
+  public static boolean serverReusePort()
+  {
+    return getBoolean(PERF_SERVER_REUSE_PORT);
+  }
+
+  private static NettyTransport getNettyTransport(String propName)
+  {
+    return NettyTransport.valueOf(getString(propName).toUpperCase());
+  }
+
   private static URI getUri(String propName)
   {
     final String propVal = System.getProperty(propName);
@@ -0,0 +1,43 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.perf.server;
+
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.transport.common.Server;
+import com.linkedin.r2.transport.common.bridge.server.TransportDispatcher;
+import com.linkedin.r2.transport.http.server.HttpNettyServerBuilder;
+import test.r2.perf.PerfConfig;
+
+/**
+ * Creates a Netty {@link Server} with the transport set by {@code perf.server.netty_transport}, so that the
+ * NIO and the native epoll transports can be compared.
+ */
+public class NettyPerfServerFactory extends AbstractPerfServerFactory
+{
+  @Override
+  protected Server createServer(int port, TransportDispatcher dispatcher, boolean restOverStream)
+  {
+    return new HttpNettyServerBuilder()
+        .port(port)
+        .filters(FilterChains.empty())
+        .transportDispatcher(dispatcher)
+        ._restOverStream(restOverStream)
+        .transport(PerfConfig.getServerNettyTransport())
+        .reusePort(PerfConfig.serverReusePort())
+        .build();
+  }
+}
@@ -20,8 +20,10 @@ import com.linkedin.data.codec.DataCodec;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
 import com.linkedin.data.codec.JacksonSmileDataCodec;
+import com.linkedin.data.codec.SchemaPsonDataCodec;
 import com.linkedin.data.codec.entitystream.JacksonStreamDataCodec;
 import com.linkedin.data.codec.entitystream.JacksonSmileStreamDataCodec;
+import com.linkedin.data.codec.entitystream.PsonStreamDataCodec;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.r2.filter.R2Constants;
 
@@ -35,6 +37,11 @@ import javax.activation.MimeTypeParseException;
 /**
  * Rest.Li representation of supported content types. Each content type is associated with a CODEC that will be used
  * to serialize/de-serialize the content.
+ * <p>
+ * PSON version 2 is not a built-in content type, since its encoded values can only be decoded with the same schemas.
+ * Services that control the schemas of their clients and servers can opt in by registering a content type with
+ * {@link #createContentType(String, DataCodec)} and a {@link SchemaPsonDataCodec}, and by changing its header key
+ * whenever a change to the schemas changes the keys they number.
  *
  * @author Karthik Balasubramanian
  */
@@ -43,11 +50,12 @@ public class ContentType
   private static final JacksonDataCodec JACKSON_DATA_CODEC = new JacksonDataCodec();
   private static final JacksonStreamDataCodec JACKSON_STREAM_DATA_CODEC = new JacksonStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE);
   private static final PsonDataCodec PSON_DATA_CODEC = new PsonDataCodec();
+  private static final PsonStreamDataCodec PSON_STREAM_DATA_CODEC = new PsonStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE);
   private static final JacksonSmileDataCodec SMILE_DATA_CODEC = new JacksonSmileDataCodec();
   private static final JacksonSmileStreamDataCodec SMILE_STREAM_DATA_CODEC = new JacksonSmileStreamDataCodec(R2Constants.DEFAULT_DATA_CHUNK_SIZE);
 
   public static final ContentType PSON =
-      new ContentType(RestConstants.HEADER_VALUE_APPLICATION_PSON, PSON_DATA_CODEC, null);
+      new ContentType(RestConstants.HEADER_VALUE_APPLICATION_PSON, PSON_DATA_CODEC, PSON_STREAM_DATA_CODEC);
   public static final ContentType JSON =
       new ContentType(RestConstants.HEADER_VALUE_APPLICATION_JSON, JACKSON_DATA_CODEC, JACKSON_STREAM_DATA_CODEC);
   public static final ContentType SMILE =
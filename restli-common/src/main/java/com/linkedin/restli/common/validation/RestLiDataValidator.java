@@ -32,6 +32,7 @@ import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.schema.validation.RequiredMode;
 import com.linkedin.data.schema.validation.ValidateDataAgainstSchema;
 import com.linkedin.data.schema.validation.ValidationOptions;
+import com.linkedin.data.schema.validation.ValidationPlan;
 import com.linkedin.data.schema.validation.ValidationResult;
 import com.linkedin.data.schema.validator.DataSchemaAnnotationValidator;
 import com.linkedin.data.schema.validator.Validator;
@@ -125,6 +126,10 @@ public class RestLiDataValidator
   private final ResourceMethod _resourceMethod;
   // To be passed into DataSchemaAnnotationValidator.
   private final Map<String, Class<? extends Validator>> _validatorClassMap;
+  // Whether ReadOnly or CreateOnly fields are checked, which requires the DataValidator.
+  private final boolean _hasRestrictedFields;
+  // Plan of validateInputEntity for the schema of the last validated entity.
+  private volatile ValidationPlan _inputPlan;
 
   private static final String INSTANTIATION_ERROR = "InstantiationException while trying to instantiate the record template class";
   private static final String ILLEGAL_ACCESS_ERROR = "IllegalAccessException while trying to instantiate the record template class";
@@ -267,8 +272,9 @@ public class RestLiDataValidator
         }
       }
     }
-    _readOnlyPredicate = Predicates.or(readOnly);
-    _createOnlyPredicate = Predicates.or(createOnly);
+    _readOnlyPredicate = readOnly.isEmpty() ? Predicates.alwaysFalse() : Predicates.or(readOnly);
+    _createOnlyPredicate = createOnly.isEmpty() ? Predicates.alwaysFalse() : Predicates.or(createOnly);
+    _hasRestrictedFields = !readOnly.isEmpty() || !createOnly.isEmpty();
     _readOnlyDescendantPredicate = Predicates.or(readOnlyDescendant);
     _createOnlyDescendantPredicate = Predicates.or(createOnlyDescendant);
     _valueClass = valueClass;
@@ -593,6 +599,22 @@ public class RestLiDataValidator
   }
 
   private ValidationResult validateInputEntity(RecordTemplate entity)
+  {
+    DataSchema schema = entity.schema();
+    if (schema == null)
+    {
+      return ValidateDataAgainstSchema.validate(entity, inputValidationOptions());
+    }
+    ValidationPlan plan = _inputPlan;
+    if (plan == null || plan.getSchema() != schema)
+    {
+      plan = compileInputPlan(schema);
+      _inputPlan = plan;
+    }
+    return plan.validate(entity.data());
+  }
+
+  private ValidationOptions inputValidationOptions()
   {
     ValidationOptions validationOptions = new ValidationOptions();
     if (readOnlyOptional.contains(_resourceMethod))
@@ -600,8 +622,16 @@ public class RestLiDataValidator
       // Even if ReadOnly fields are non-optional, the client cannot supply them in a create request, so they should be treated as optional.
       validationOptions.setTreatOptional(_readOnlyPredicate);
     }
-    ValidationResult result = ValidateDataAgainstSchema.validate(entity, validationOptions, new DataValidator(entity.schema()));
-    return result;
+    return validationOptions;
+  }
+
+  private ValidationPlan compileInputPlan(DataSchema schema)
+  {
+    // Without ReadOnly or CreateOnly fields, the plan only invokes the validators declared in the schema.
+    Validator validator = _hasRestrictedFields
+        ? new DataValidator(schema)
+        : new DataSchemaAnnotationValidator(schema, _validatorClassMap);
+    return ValidationPlan.compile(schema, inputValidationOptions(), validator);
   }
 
   private ValidationResult validateOutputEntity(RecordTemplate entity, DataSchema validatingSchema)
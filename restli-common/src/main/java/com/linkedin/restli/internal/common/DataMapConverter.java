@@ -70,7 +70,7 @@ public class DataMapConverter
     // in commit d149605e4181349b64180bdfe0b4d24a294dc6f6 when this logic is refactored from DataMapUtils.readMapWithExceptions.
     ContentType contentType  = ContentType.getContentType(contentTypeHeaderValue).orElse(ContentType.JSON);
 
-    return ByteString.unsafeWrap(contentType.getCodec().mapToBytes(dataMap));
+    return contentType.getCodec().mapToByteString(dataMap);
   }
 
   /**
@@ -85,7 +85,7 @@ public class DataMapConverter
   {
     ContentType contentType = ContentType.getContentType(contentTypeHeaderValue).orElse(ContentType.JSON);
 
-    return contentType.getCodec().readMap(bytes.asInputStream());
+    return contentType.getCodec().readMap(bytes);
   }
 
   private static String getContentTypeHeader(Map<String, String> headers)
@@ -17,7 +17,12 @@
 package com.linkedin.restli.internal.common;
 
 
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.SchemaPsonDataCodec;
+import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.restli.common.ContentType;
+import com.linkedin.restli.common.ErrorResponse;
+import java.io.IOException;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import javax.activation.MimeTypeParseException;
@@ -45,6 +50,24 @@ public class TestContentType
     Assert.assertEquals(contentTypeWithParameter, ContentType.PSON);
   }
 
+  @Test
+  public void testSchemaPsonContentType() throws MimeTypeParseException, IOException
+  {
+    // PSON version 2 is only available once registered
+    Assert.assertFalse(ContentType.getContentType("application/x-pson2-test").isPresent());
+    ContentType registered = ContentType.createContentType("application/x-pson2-test",
+        new SchemaPsonDataCodec(DataTemplateUtil.getSchema(ErrorResponse.class)));
+    ContentType contentType = ContentType.getContentType("application/x-pson2-test").get();
+    Assert.assertEquals(contentType, registered);
+    Assert.assertNull(contentType.getStreamCodec());
+
+    ErrorResponse errorResponse = new ErrorResponse().setStatus(400).setMessage("error").setExceptionClass("Foo");
+    DataMap data = contentType.getCodec().bytesToMap(contentType.getCodec().mapToBytes(errorResponse.data()));
+    Assert.assertEquals(data, errorResponse.data());
+    Assert.assertTrue(contentType.getCodec().mapToBytes(errorResponse.data()).length
+        < ContentType.PSON.getCodec().mapToBytes(errorResponse.data()).length);
+  }
+
   @Test
   public void testUnknowContentType() throws MimeTypeParseException
   {
@@ -25,6 +25,7 @@ public class RoutingResult
   private final ServerResourceContext          _context;
   private final ResourceMethodDescriptor _methodDescriptor;
   private final ResourceMethodConfig  _methodConfig;
+  private final boolean _useEncoderProjection;
 
   /**
    * Constructor.
@@ -46,10 +47,27 @@ public class RoutingResult
   public RoutingResult(ServerResourceContext context,
                        ResourceMethodDescriptor methodDescriptor,
                        ResourceMethodConfig methodConfig)
+  {
+    this(context, methodDescriptor, methodConfig, false);
+  }
+
+  /**
+   * Constructor
+   * @param context {@link ResourceContext}
+   * @param methodDescriptor {@link ResourceMethodDescriptor}
+   * @param methodConfig {@link ResourceMethodConfig}
+   * @param useEncoderProjection whether the projection mask of the response entities is applied when the response
+   *                             is encoded, see {@link com.linkedin.restli.server.RestLiConfig#setUseEncoderProjection(boolean)}
+   */
+  public RoutingResult(ServerResourceContext context,
+                       ResourceMethodDescriptor methodDescriptor,
+                       ResourceMethodConfig methodConfig,
+                       boolean useEncoderProjection)
   {
     _context = context;
     _methodDescriptor = methodDescriptor;
     _methodConfig = methodConfig;
+    _useEncoderProjection = useEncoderProjection;
   }
 
   public ServerResourceContext getContext()
@@ -67,6 +85,11 @@ public class RoutingResult
     return _methodConfig;
   }
 
+  public boolean isUseEncoderProjection()
+  {
+    return _useEncoderProjection;
+  }
+
   @Override
   public String toString()
   {
@@ -164,6 +164,8 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder<RestLiResp
     }
 
     Map<Object, BatchResponseEntry> batchResult = new HashMap<>(entities.size() + serviceErrors.size());
+    // The entities are projected when the response is encoded if the encoder projection is enabled.
+    final boolean useEncoderProjection = RestUtils.getEncoderProjection(routingResult) != null;
     for (Map.Entry<Object, RecordTemplate> entity : entities.entrySet())
     {
       if (entity.getKey() == null)
@@ -174,9 +176,11 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder<RestLiResp
       }
       Object finalKey = ResponseUtils.translateCanonicalKeyToAlternativeKeyIfNeeded(entity.getKey(), routingResult);
 
-      final DataMap projectedData = RestUtils.projectFields(entity.getValue().data(),
-                                                            routingResult.getContext().getProjectionMode(),
-                                                            routingResult.getContext().getProjectionMask());
+      final DataMap projectedData = useEncoderProjection
+          ? entity.getValue().data()
+          : RestUtils.projectFields(entity.getValue().data(),
+                                    routingResult.getContext().getProjectionMode(),
+                                    routingResult.getContext().getProjectionMask());
       AnyRecord anyRecord = new AnyRecord(projectedData);
       batchResult.put(finalKey, new BatchResponseEntry(statuses.get(entity.getKey()), anyRecord));
     }
@@ -73,8 +73,10 @@ public class GetResponseBuilder implements RestLiResponseBuilder<RestLiResponseD
       status = HttpStatus.S_200_OK;
     }
     final ResourceContext resourceContext = routingResult.getContext();
-    final DataMap data = RestUtils.projectFields(record.data(), resourceContext.getProjectionMode(),
-                                                 resourceContext.getProjectionMask());
+    // The entity is projected when the response is encoded if the encoder projection is enabled.
+    final DataMap data = RestUtils.getEncoderProjection(routingResult) != null
+        ? record.data()
+        : RestUtils.projectFields(record.data(), resourceContext.getProjectionMode(), resourceContext.getProjectionMask());
 
     return new RestLiResponseDataImpl<>(new GetResponseEnvelope(status, new AnyRecord(data)), headers, cookies);
   }
@@ -18,8 +18,17 @@ package com.linkedin.restli.internal.server.response;
 
 
 import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.Name;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.ProjectionPlan;
 import com.linkedin.entitystream.EntityStream;
 import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestResponse;
@@ -28,6 +37,7 @@ import com.linkedin.r2.message.stream.StreamException;
 import com.linkedin.r2.message.stream.StreamResponse;
 import com.linkedin.r2.message.stream.StreamResponseBuilder;
 import com.linkedin.r2.message.stream.entitystream.adapter.EntityStreamAdapters;
+import com.linkedin.restli.common.BatchResponse;
 import com.linkedin.restli.common.ContentType;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.RestConstants;
@@ -35,15 +45,19 @@ import com.linkedin.restli.internal.common.CookieUtil;
 import com.linkedin.restli.internal.server.RestLiInternalException;
 import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
+import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
 import com.linkedin.restli.internal.server.model.ResourceModel;
 import com.linkedin.restli.internal.server.util.AlternativeKeyCoercerException;
 import com.linkedin.restli.internal.server.util.ArgumentUtils;
 import com.linkedin.restli.internal.server.util.DataMapUtils;
+import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.restspec.ResourceEntityType;
 import com.linkedin.restli.server.RestLiServiceException;
 
 import java.io.ByteArrayOutputStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.activation.MimeTypeParseException;
 
 
@@ -52,6 +66,14 @@ import javax.activation.MimeTypeParseException;
  */
 public class ResponseUtils
 {
+  private static final Name BATCH_GET_RESPONSE_NAME = new Name(BatchResponse.class.getSimpleName());
+
+  /**
+   * Schemas of BATCH_GET response envelopes, keyed by the value class of the resource.
+   */
+  private static final ConcurrentHashMap<Class<? extends RecordTemplate>, RecordDataSchema> BATCH_GET_RESPONSE_SCHEMAS =
+      new ConcurrentHashMap<>();
+
   /**
    * If needed, translate a given canonical key to its alternative format.
    *
@@ -97,12 +119,101 @@ public class ResponseUtils
     {
       DataMap dataMap = restLiResponse.getDataMap();
       String mimeType = context.getResponseMimeType();
-      builder = encodeResult(mimeType, builder, dataMap);
+      DataProjection projection = responseProjection(routingResult, restLiResponse);
+      builder = encodeResult(mimeType, builder, dataMap, projection == null ? responseSchema(routingResult, restLiResponse) : null, projection);
     }
     return builder.build();
   }
 
-  private static RestResponseBuilder encodeResult(String mimeType, RestResponseBuilder builder, DataMap dataMap)
+  /**
+   * Returns the projection that the codec applies to the response entity of GET and BATCH_GET requests whose entities
+   * were not projected when the response was built, see {@link RestUtils#getEncoderProjection(RoutingResult)}.
+   * Returns null for other requests and for error responses.
+   */
+  public static DataProjection responseProjection(RoutingResult routingResult, RestLiResponse restLiResponse)
+  {
+    if (restLiResponse.getStatus().getCode() >= 400)
+    {
+      return null;
+    }
+    final ProjectionPlan plan = RestUtils.getEncoderProjection(routingResult);
+    if (plan == null)
+    {
+      return null;
+    }
+
+    switch (routingResult.getResourceMethod().getType())
+    {
+      case GET:
+        return new EntityProjection(plan);
+      case BATCH_GET:
+        return new BatchGetProjection(plan);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Returns the schema of the response entity of GET and BATCH_GET requests, which lets the codec specialize
+   * the encoding of the entity. Returns null for other methods, for error responses, or if the schema is not known.
+   */
+  private static RecordDataSchema responseSchema(RoutingResult routingResult, RestLiResponse restLiResponse)
+  {
+    if (restLiResponse.getStatus().getCode() >= 400)
+    {
+      return null;
+    }
+
+    ResourceMethodDescriptor resourceMethod = routingResult.getResourceMethod();
+    Class<? extends RecordTemplate> valueClass = resourceMethod.getResourceModel().getValueClass();
+    if (valueClass == null)
+    {
+      return null;
+    }
+
+    switch (resourceMethod.getType())
+    {
+      case GET:
+        return valueSchema(valueClass);
+      case BATCH_GET:
+        return BATCH_GET_RESPONSE_SCHEMAS.computeIfAbsent(valueClass, ResponseUtils::batchGetResponseSchema);
+      default:
+        return null;
+    }
+  }
+
+  private static RecordDataSchema valueSchema(Class<? extends RecordTemplate> valueClass)
+  {
+    DataSchema schema = DataTemplateUtil.getSchema(valueClass);
+    return schema instanceof RecordDataSchema ? (RecordDataSchema) schema : null;
+  }
+
+  /**
+   * Builds the schema of a BATCH_GET response envelope. Only the {@link BatchResponse#RESULTS} field is declared,
+   * the statuses and errors of the response are encoded without specialization.
+   */
+  private static RecordDataSchema batchGetResponseSchema(Class<? extends RecordTemplate> valueClass)
+  {
+    RecordDataSchema valueSchema = valueSchema(valueClass);
+    if (valueSchema == null)
+    {
+      return null;
+    }
+
+    StringBuilder errorMessageBuilder = new StringBuilder();
+    RecordDataSchema.Field resultsField = new RecordDataSchema.Field(new MapDataSchema(valueSchema));
+    resultsField.setName(BatchResponse.RESULTS, errorMessageBuilder);
+
+    RecordDataSchema schema = new RecordDataSchema(BATCH_GET_RESPONSE_NAME, RecordDataSchema.RecordType.RECORD);
+    schema.setFields(Collections.singletonList(resultsField), errorMessageBuilder);
+    return schema;
+  }
+
+  private static RestResponseBuilder encodeResult(String mimeType,
+                                                  RestResponseBuilder builder,
+                                                  DataMap dataMap,
+                                                  RecordDataSchema schema,
+                                                  DataProjection projection)
   {
     try
     {
@@ -112,7 +223,18 @@ public class ResponseUtils
       assert type != null;
       builder.setHeader(RestConstants.HEADER_CONTENT_TYPE, type.getHeaderKey());
       // Use unsafe wrap to avoid copying the bytes when request builder creates ByteString.
-      builder.setEntity(ByteString.unsafeWrap(DataMapUtils.mapToBytes(dataMap, type.getCodec())));
+      final byte[] bytes;
+      if (projection != null)
+      {
+        bytes = DataMapUtils.mapToBytes(dataMap, projection, type.getCodec());
+      }
+      else
+      {
+        bytes = schema == null
+            ? DataMapUtils.mapToBytes(dataMap, type.getCodec())
+            : DataMapUtils.mapToBytes(dataMap, schema, type.getCodec());
+      }
+      builder.setEntity(ByteString.unsafeWrap(bytes));
     }
     catch (MimeTypeParseException e)
     {
@@ -122,6 +244,120 @@ public class ResponseUtils
     return builder;
   }
 
+  /**
+   * Projects the entity of a GET response with the projection mask. The response metadata injected in the entity is
+   * not projected.
+   */
+  private static final class EntityProjection implements DataProjection
+  {
+    private final ProjectionPlan _plan;
+
+    EntityProjection(ProjectionPlan plan)
+    {
+      _plan = plan;
+    }
+
+    @Override
+    public DataProjection getFieldProjection(String name, Object value)
+    {
+      return RestConstants.METADATA_RESERVED_FIELD.equals(name) ? DataProjection.ALL : _plan.getFieldProjection(name, value);
+    }
+
+    @Override
+    public int getStart(DataList list)
+    {
+      return _plan.getStart(list);
+    }
+
+    @Override
+    public int getEnd(DataList list)
+    {
+      return _plan.getEnd(list);
+    }
+
+    @Override
+    public DataProjection getItemProjection(Object item)
+    {
+      return _plan.getItemProjection(item);
+    }
+  }
+
+  /**
+   * Projects the entities in the {@link BatchResponse#RESULTS} of a BATCH_GET response with the projection mask. The
+   * other fields of the response are not projected.
+   */
+  private static final class BatchGetProjection implements DataProjection
+  {
+    private final DataProjection _results;
+
+    BatchGetProjection(ProjectionPlan plan)
+    {
+      _results = new BatchGetResultsProjection(plan);
+    }
+
+    @Override
+    public DataProjection getFieldProjection(String name, Object value)
+    {
+      return BatchResponse.RESULTS.equals(name) ? _results : DataProjection.ALL;
+    }
+
+    @Override
+    public int getStart(DataList list)
+    {
+      return 0;
+    }
+
+    @Override
+    public int getEnd(DataList list)
+    {
+      return list.size();
+    }
+
+    @Override
+    public DataProjection getItemProjection(Object item)
+    {
+      return DataProjection.ALL;
+    }
+  }
+
+  /**
+   * Projects every entity of the {@link BatchResponse#RESULTS} of a BATCH_GET response, which are keyed by the
+   * serialized keys of the request.
+   */
+  private static final class BatchGetResultsProjection implements DataProjection
+  {
+    private final ProjectionPlan _plan;
+
+    BatchGetResultsProjection(ProjectionPlan plan)
+    {
+      _plan = plan;
+    }
+
+    @Override
+    public DataProjection getFieldProjection(String name, Object value)
+    {
+      return value instanceof DataMap ? _plan : DataProjection.ALL;
+    }
+
+    @Override
+    public int getStart(DataList list)
+    {
+      return 0;
+    }
+
+    @Override
+    public int getEnd(DataList list)
+    {
+      return list.size();
+    }
+
+    @Override
+    public DataProjection getItemProjection(Object item)
+    {
+      return DataProjection.ALL;
+    }
+  }
+
   public static RestException buildRestException(RestLiResponseException restLiResponseException)
   {
     RestLiResponse restLiResponse = restLiResponseException.getRestLiResponse();
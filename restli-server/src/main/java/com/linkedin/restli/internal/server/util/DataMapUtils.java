@@ -21,10 +21,12 @@ import com.linkedin.data.ByteString;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.codec.DataCodec;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
 import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.DataTemplate;
 import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.JacksonDataTemplateCodec;
@@ -408,4 +410,50 @@ public class DataMapUtils
     }
   }
 
+  /**
+   * Encode {@link DataMap} whose schema is known as a byte array using the provided codec. The codec may use
+   * the schema to specialize the encoding, see {@link DataCodec#mapToBytes(DataMap, RecordDataSchema)}.
+   *
+   * @param dataMap input {@link DataMap}
+   * @param schema the {@link RecordDataSchema} of the input {@link DataMap}
+   * @param customCodec custom CODEC to use for encoding.
+   * @return byte array
+   */
+  public static byte[] mapToBytes(final DataMap dataMap, RecordDataSchema schema, DataCodec customCodec)
+  {
+    try
+    {
+      return customCodec.mapToBytes(dataMap, schema);
+    }
+    catch (IOException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+  }
+
+  /**
+   * Encode the parts of a {@link DataMap} selected by a projection as a byte array using the provided codec, without
+   * copying the projected parts first, see {@link DataCodec#mapToBytes(DataMap, DataProjection)}.
+   *
+   * @param dataMap input {@link DataMap}
+   * @param projection the {@link DataProjection} that selects the parts of the input {@link DataMap} to encode
+   * @param customCodec custom CODEC to use for encoding.
+   * @return byte array
+   */
+  public static byte[] mapToBytes(final DataMap dataMap, DataProjection projection, DataCodec customCodec)
+  {
+    try
+    {
+      return customCodec.mapToBytes(dataMap, projection);
+    }
+    catch (IOException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+    catch (RuntimeException e)
+    {
+      throw new RestLiInternalException("Error projecting fields", e);
+    }
+  }
+
 }
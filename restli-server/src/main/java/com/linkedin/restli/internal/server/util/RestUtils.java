@@ -25,7 +25,7 @@ import com.linkedin.data.it.IterationOrder;
 import com.linkedin.data.it.Predicate;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.RecordTemplate;
-import com.linkedin.data.transform.filter.CopyFilter;
+import com.linkedin.data.transform.filter.ProjectionPlan;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.common.CollectionMetadata;
@@ -34,6 +34,7 @@ import com.linkedin.restli.common.Link;
 import com.linkedin.restli.common.LinkArray;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.server.RestLiInternalException;
+import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.model.Parameter;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
@@ -270,7 +271,7 @@ public class RestUtils
 
     try
     {
-      return (DataMap) new CopyFilter().filter(dataMap, filterMap);
+      return (DataMap) ProjectionPlan.forMask(filterMap).project(dataMap);
     }
     catch (Exception e)
     {
@@ -278,6 +279,41 @@ public class RestUtils
     }
   }
 
+  /**
+   * Returns the projection that the codec applies to the root object entities of the response while it is encoded,
+   * if {@link com.linkedin.restli.server.RestLiConfig#setUseEncoderProjection(boolean)} is enabled and the entities
+   * would otherwise be projected by {@link #projectFields(DataMap, ProjectionMode, MaskTree)}.
+   *
+   * @param routingResult {@link RoutingResult} of the request
+   * @return the {@link ProjectionPlan} of the projection mask, or null if the entities are projected when the response
+   *         is built. Null is also returned for masks that are not valid, so that the error is reported when the
+   *         response is built.
+   */
+  public static ProjectionPlan getEncoderProjection(final RoutingResult routingResult)
+  {
+    if (!routingResult.isUseEncoderProjection())
+    {
+      return null;
+    }
+
+    final ResourceContext context = routingResult.getContext();
+    final MaskTree projectionMask = context.getProjectionMask();
+    if (context.getProjectionMode() != ProjectionMode.AUTOMATIC || projectionMask == null
+        || projectionMask.getDataMap().isEmpty())
+    {
+      return null;
+    }
+
+    try
+    {
+      return ProjectionPlan.forMask(projectionMask.getDataMap());
+    }
+    catch (RuntimeException e)
+    {
+      return null;
+    }
+  }
+
   /**
    * Validate request headers.
    *
@@ -67,6 +67,7 @@ abstract class BaseRestLiServer
   private final List<Filter> _filters;
   private final Set<String> _customContentTypes;
   private final ResourceMethodConfigProvider _methodConfigProvider;
+  private final boolean _useEncoderProjection;
 
   BaseRestLiServer(RestLiConfig config,
       ResourceFactory resourceFactory,
@@ -87,6 +88,9 @@ abstract class BaseRestLiServer
 
     _filters = config.getFilters() != null ? config.getFilters() : new ArrayList<>();
     _methodConfigProvider = ResourceMethodConfigProvider.build(config.getMethodConfig());
+    // Response filters see and may modify the projected entities, so the entities are projected before the filters
+    // run when there are filters.
+    _useEncoderProjection = config.isUseEncoderProjection() && _filters.isEmpty();
   }
 
   private boolean isSupportedProtocolVersion(ProtocolVersion clientProtocolVersion,
@@ -137,7 +141,7 @@ abstract class BaseRestLiServer
       ResourceMethodDescriptor method = _router.process(context);
       ResourceMethodConfig methodConfig = _methodConfigProvider.apply(method);
 
-      return new RoutingResult(context, method, methodConfig);
+      return new RoutingResult(context, method, methodConfig, _useEncoderProjection);
     }
     catch (RestLiSyntaxException e)
     {
@@ -90,6 +90,7 @@ public class RestLiConfig
   private final List<ContentType> _customContentTypes = new LinkedList<>();
   private final List<ResourceDefinitionListener> _resourceDefinitionListeners = new ArrayList<>();
   private boolean _useStreamCodec = false;
+  private boolean _useEncoderProjection = false;
 
   // resource method level configuration
   private RestLiMethodConfig _methodConfig;
@@ -457,6 +458,31 @@ public class RestLiConfig
     _useStreamCodec = useStreamCodec;
   }
 
+  /**
+   * Gets whether or not the projection mask of the entities returned by GET and BATCH_GET requests is applied by
+   * the codec while the response is encoded, instead of being applied to a copy of the entities when the response is
+   * built. See {@link #setUseEncoderProjection(boolean)}.
+   */
+  public boolean isUseEncoderProjection()
+  {
+    return _useEncoderProjection;
+  }
+
+  /**
+   * Sets whether or not the projection mask of the entities returned by GET and BATCH_GET requests is applied by
+   * the codec while the response is encoded, instead of being applied to a copy of the entities when the response is
+   * built. This only applies to resource methods that use {@link ProjectionMode#AUTOMATIC}, and saves copying the
+   * selected parts of the entities.
+   *
+   * <p>This has no effect if any {@link Filter} is configured, because response filters see the projected entities
+   * and the fields they add are not projected out. Projection errors, such as masks that are not valid for the
+   * entities, fail the encoding of the response instead of being returned as an error response.</p>
+   */
+  public void setUseEncoderProjection(boolean useEncoderProjection)
+  {
+    _useEncoderProjection = useEncoderProjection;
+  }
+
   /**
    * Get resource method level configurations.
    * @return Resource method level configurations.
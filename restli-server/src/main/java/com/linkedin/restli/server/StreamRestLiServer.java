@@ -3,6 +3,7 @@ package com.linkedin.restli.server;
 import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.CallbackAdapter;
 import com.linkedin.data.ByteString;
+import com.linkedin.data.DataProjection;
 import com.linkedin.data.codec.entitystream.StreamDataCodec;
 import com.linkedin.entitystream.EntityStream;
 import com.linkedin.entitystream.EntityStreams;
@@ -234,17 +235,21 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       RoutingResult routingResult,
       ContentType contentType)
   {
-    return new StreamToRestLiResponseCallbackAdapter(callback, contentType);
+    return new StreamToRestLiResponseCallbackAdapter(callback, contentType, routingResult);
   }
 
   static class StreamToRestLiResponseCallbackAdapter extends CallbackAdapter<StreamResponse, RestLiResponse>
   {
     private final ContentType _contentType;
+    private final RoutingResult _routingResult;
 
-    StreamToRestLiResponseCallbackAdapter(Callback<StreamResponse> callback, ContentType contentType)
+    StreamToRestLiResponseCallbackAdapter(Callback<StreamResponse> callback,
+                                          ContentType contentType,
+                                          RoutingResult routingResult)
     {
       super(callback);
       _contentType = contentType;
+      _routingResult = routingResult;
     }
 
     @Override
@@ -260,7 +265,10 @@ class StreamRestLiServer extends BaseRestLiServer implements StreamRequestHandle
       if (restLiResponse.hasData())
       {
         responseBuilder.setHeader(RestConstants.HEADER_CONTENT_TYPE, _contentType.getHeaderKey());
-        entityStream = _contentType.getStreamCodec().encodeMap(restLiResponse.getDataMap());
+        DataProjection projection = ResponseUtils.responseProjection(_routingResult, restLiResponse);
+        entityStream = projection == null
+            ? _contentType.getStreamCodec().encodeMap(restLiResponse.getDataMap())
+            : _contentType.getStreamCodec().encodeMap(restLiResponse.getDataMap(), projection);
       }
       else
       {
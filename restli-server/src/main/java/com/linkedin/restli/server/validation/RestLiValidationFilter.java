@@ -47,14 +47,20 @@ import com.linkedin.restli.server.filter.Filter;
 import com.linkedin.restli.server.filter.FilterRequestContext;
 import com.linkedin.restli.server.filter.FilterResponseContext;
 import com.linkedin.restli.server.util.UnstructuredDataUtil;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
  * Rest.li validation filter that automatically validates incoming and outgoing data,
  * and sends an error response back to the client if the data is invalid.
+ * <p>
+ * Request validators are built once per resource class, value class and method, and shared by concurrent requests.
+ * Custom validators of the schema annotations, see {@link com.linkedin.data.schema.validator.DataSchemaAnnotationValidator},
+ * are therefore called concurrently by multiple threads and must be thread-safe.
  *
  * @author Soojung Ha
  */
@@ -65,6 +71,9 @@ public class RestLiValidationFilter implements Filter
 
   private static final String TEMPLATE_RUNTIME_EXCEPTION_MESSAGE = "Could not find schema for entity during validation";
 
+  // Request validators by resource class, value class and method, which keep their compiled validation plans.
+  private final Map<List<Object>, RestLiDataValidator> _requestValidators = new ConcurrentHashMap<>();
+
   @Override
   public CompletableFuture<Void> onRequest(final FilterRequestContext requestContext)
   {
@@ -104,9 +113,9 @@ public class RestLiValidationFilter implements Filter
     }
 
     ResourceMethod method = requestContext.getMethodType();
-    RestLiDataValidator validator = new RestLiDataValidator(resourceClass.getAnnotations(),
-        requestContext.getFilterResourceModel().getValueClass(),
-        method);
+    Class<? extends RecordTemplate> valueClass = requestContext.getFilterResourceModel().getValueClass();
+    RestLiDataValidator validator = _requestValidators.computeIfAbsent(Arrays.asList(resourceClass, valueClass, method),
+        key -> new RestLiDataValidator(resourceClass.getAnnotations(), valueClass, method));
     RestLiRequestData requestData = requestContext.getRequestData();
 
     if (method == ResourceMethod.CREATE || method == ResourceMethod.UPDATE)
@@ -19,6 +19,7 @@ package com.linkedin.restli.server;
 
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
 import com.linkedin.multipart.MultiPartMIMEReader;
@@ -52,6 +53,7 @@ import com.linkedin.restli.internal.common.AttachmentUtils;
 import com.linkedin.restli.internal.common.TestConstants;
 import com.linkedin.restli.internal.server.model.ResourceModel;
 import com.linkedin.restli.internal.server.response.ErrorResponseBuilder;
+import com.linkedin.restli.internal.server.response.RecordResponseEnvelope;
 import com.linkedin.restli.internal.server.util.DataMapUtils;
 import com.linkedin.restli.internal.testutils.RestLiTestAttachmentDataSource;
 import com.linkedin.restli.server.filter.Filter;
@@ -1278,6 +1280,71 @@ public class TestRestLiServer
     }
   }
 
+  @Test(dataProvider = "restOrStream")
+  public void testEncoderProjectionWithFilters(final RestOrStream restOrStream) throws Exception
+  {
+    final Set<String> fieldsSeenByFilter = new HashSet<>();
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setUseEncoderProjection(true);
+    config.addFilter(new Filter()
+    {
+      @Override
+      public CompletableFuture<Void> onResponse(FilterRequestContext requestContext,
+                                                FilterResponseContext responseContext)
+      {
+        RecordResponseEnvelope envelope = (RecordResponseEnvelope) responseContext.getResponseData().getResponseEnvelope();
+        DataMap data = envelope.getRecord().data();
+        fieldsSeenByFilter.addAll(data.keySet());
+        data.put("addedByFilter", "filter value");
+        return CompletableFuture.completedFuture(null);
+      }
+    });
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+
+    DataMap statusData = buildStatusRecord().data();
+    statusData.put("hidden", "not requested");
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    EasyMock.expect(statusResource.get(eq(1L))).andReturn(new Status(statusData)).once();
+    replay(statusResource);
+
+    final FutureCallback<RestResponse> restResponseCallback = new FutureCallback<>();
+    if (restOrStream == RestOrStream.REST)
+    {
+      RestRequest request = new RestRequestBuilder(new URI("/statuses/1?fields=text")).build();
+      server.handleRequest(request, new RequestContext(), restResponseCallback);
+    }
+    else
+    {
+      StreamRequest streamRequest =
+          new StreamRequestBuilder(new URI("/statuses/1?fields=text")).build(EntityStreams.emptyStream());
+      server.handleRequest(streamRequest, new RequestContext(), new Callback<StreamResponse>()
+      {
+        @Override
+        public void onSuccess(StreamResponse streamResponse)
+        {
+          Messages.toRestResponse(streamResponse, restResponseCallback);
+        }
+
+        @Override
+        public void onError(Throwable e)
+        {
+          restResponseCallback.onError(e);
+        }
+      });
+    }
+
+    // The filter sees the projected entity, and the fields it adds are returned.
+    RestResponse restResponse = restResponseCallback.get(5, TimeUnit.SECONDS);
+    assertEquals(restResponse.getStatus(), 200);
+    assertEquals(fieldsSeenByFilter, Collections.singleton("text"));
+    DataMap expected = new DataMap();
+    expected.put("text", "test status");
+    expected.put("addedByFilter", "filter value");
+    assertEquals(DataMapUtils.readMap(restResponse), expected);
+    EasyMock.verify(statusResource);
+  }
+
   @Test
   public void testRestLiConfig()
   {
@@ -1046,6 +1046,44 @@ public class TestRestLiResponseHandler
     assertTrue(status1.data().containsKey("f3"));
   }
 
+  @Test(dataProvider = TestConstants.RESTLI_PROTOCOL_1_2_PREFIX + "basicDataWithBatchUri")
+  public void testEncoderProjection(AcceptTypeData acceptTypeData,
+                                    ProtocolVersion protocolVersion,
+                                    String uri,
+                                    String errorResponseHeaderName) throws Exception
+  {
+    // GET
+    Status status = buildStatusWithFields("f1", "f2", "f3");
+    RestRequest request = buildRequest("/test?fields=f1,f3", acceptTypeData.acceptHeaders, protocolVersion);
+    RoutingResult routingResult =
+        buildRoutingResult(ResourceMethod.GET, request, acceptTypeData.acceptHeaders, Collections.emptySet(), true);
+    RestLiResponse response = buildPartialRestResponse(request, routingResult, status);
+
+    checkResponse(response, 200, 1, true, errorResponseHeaderName);
+    assertSame(response.getDataMap(), status.data());
+    DataMap encoded = acceptTypeData.dataCodec.bytesToMap(
+        ResponseUtils.buildResponse(routingResult, response).getEntity().copyBytes());
+    assertEquals(encoded, buildStatusWithFields("f1", "f3").data());
+
+    // BATCH_GET
+    Map<Integer, Status> statusBatch = buildStatusBatchResponse(10, "f1", "f2", "f3");
+    request = buildRequest(uri, acceptTypeData.acceptHeaders, protocolVersion);
+    routingResult =
+        buildRoutingResult(ResourceMethod.BATCH_GET, request, acceptTypeData.acceptHeaders, Collections.emptySet(), true);
+    response = buildPartialRestResponse(request, routingResult, statusBatch);
+
+    checkResponse(response, 200, 1, true, errorResponseHeaderName);
+    encoded = acceptTypeData.dataCodec.bytesToMap(
+        ResponseUtils.buildResponse(routingResult, response).getEntity().copyBytes());
+    BatchResponse<Status> batchResponse = new BatchResponse<>(encoded, Status.class);
+    assertEquals(batchResponse.getResults().size(), 10);
+    for (Status result : batchResponse.getResults().values())
+    {
+      assertEquals(result.data(), buildStatusWithFields("f1", "f2").data());
+    }
+    assertTrue(statusBatch.get(1).data().containsKey("f3"));
+  }
+
   @Test(dataProvider = TestConstants.RESTLI_PROTOCOL_1_2_PREFIX + "basicData")
   public void testApplicationSpecifiedHeaders(AcceptTypeData acceptTypeData,
                                               ProtocolVersion protocolVersion,
@@ -1318,6 +1356,16 @@ public class TestRestLiResponseHandler
   private RoutingResult buildRoutingResult(
       ResourceMethod resourceMethod, RestRequest request, Map<String, String> acceptHeaders, Set<String> customTypes)
           throws SecurityException, NoSuchMethodException, RestLiSyntaxException
+  {
+    return buildRoutingResult(resourceMethod, request, acceptHeaders, customTypes, false);
+  }
+
+  private RoutingResult buildRoutingResult(ResourceMethod resourceMethod,
+                                           RestRequest request,
+                                           Map<String, String> acceptHeaders,
+                                           Set<String> customTypes,
+                                           boolean useEncoderProjection)
+          throws SecurityException, NoSuchMethodException, RestLiSyntaxException
   {
     Method method = ProjectionTestFixture.class.getMethod("batchGet", Set.class);
     ResourceModel model = RestLiTestHelper.buildResourceModel(StatusCollectionResource.class);
@@ -1327,7 +1375,7 @@ public class TestRestLiResponseHandler
     ServerResourceContext context =  new ResourceContextImpl(new PathKeysImpl(), request,
                             new RequestContext());
     RestUtils.validateRequestHeadersAndUpdateResourceContext(acceptHeaders, customTypes, context);
-    return new RoutingResult(context, methodDescriptor);
+    return new RoutingResult(context, methodDescriptor, null, useEncoderProjection);
   }
 
   private RoutingResult buildUnstructuredDataRoutingResult(RestRequest request)
@@ -0,0 +1,230 @@
+/*
+   Copyright (c) 2018 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.tools.compatibility;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.restli.tools.idlcheck.CompatibilityInfo;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A directory of compatibility check results kept across runs, keyed by a fingerprint of the checked files.
+ * <p>
+ *
+ * Each result is stored as a JSON file named by its key, and is written to a temporary file that is renamed
+ * so that concurrent checks never read partial results. Results that cannot be read are treated as missing.
+ * Deleting the directory resets the cache.
+ * <p>
+ *
+ * The parameters of cached {@link CompatibilityInfo}s are restored as strings, which does not change their
+ * descriptions, summaries or reports.
+ */
+public class CompatibilityCheckCache
+{
+  /**
+   * Changes whenever the checks change, so that results of previous checks are not used.
+   */
+  private static final String VERSION = "1";
+
+  private static final String REST_SPEC_KEY = "restSpec";
+  private static final String MODEL_KEY = "model";
+  private static final String PATH_KEY = "path";
+  private static final String TYPE_KEY = "type";
+  private static final String PARAMETERS_KEY = "parameters";
+
+  private static final JacksonDataCodec CODEC = new JacksonDataCodec();
+  private static final Logger log = LoggerFactory.getLogger(CompatibilityCheckCache.class);
+
+  private final File _directory;
+
+  /**
+   * @param directory provides the directory of the cached results, which is created when the first result is added.
+   */
+  public CompatibilityCheckCache(File directory)
+  {
+    _directory = directory;
+  }
+
+  /**
+   * Computes the key of the result of a check.
+   *
+   * @param description describes how the files are checked, such as their formats and the resolver path.
+   * @param files provides the contents of the checked files, in order.
+   * @return the key of the result.
+   */
+  public static String key(String description, byte[]... files)
+  {
+    final MessageDigest digest;
+    try
+    {
+      digest = MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException(e);
+    }
+
+    digest.update((VERSION + '\n' + description + '\n').getBytes(StandardCharsets.UTF_8));
+    for (byte[] file : files)
+    {
+      digest.update(Integer.toString(file.length).getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) '\n');
+      digest.update(file);
+    }
+
+    final StringBuilder key = new StringBuilder();
+    for (byte b : digest.digest())
+    {
+      key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return key.toString();
+  }
+
+  /**
+   * @param key provides the key computed by {@link #key(String, byte[]...)}.
+   * @return the cached result, or null if there is no readable result for the key.
+   */
+  public CompatibilityInfoMap get(String key)
+  {
+    final File file = getFile(key);
+    if (!file.isFile())
+    {
+      return null;
+    }
+
+    try (InputStream in = new FileInputStream(file))
+    {
+      final DataMap data = CODEC.readMap(in);
+      final CompatibilityInfoMap infoMap = new CompatibilityInfoMap();
+      readInfo(data.getDataList(REST_SPEC_KEY), infoMap, false);
+      readInfo(data.getDataList(MODEL_KEY), infoMap, true);
+      return infoMap;
+    }
+    catch (IOException | RuntimeException e)
+    {
+      log.warn("Ignoring unreadable compatibility check result " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Adds the result of a check, replacing any result with the same key.
+   *
+   * @param key provides the key computed by {@link #key(String, byte[]...)}.
+   * @param infoMap provides the result.
+   */
+  public void put(String key, CompatibilityInfoMap infoMap)
+  {
+    final DataMap data = new DataMap();
+    data.put(REST_SPEC_KEY, writeInfo(infoMap.getRestSpecInfo(CompatibilityInfo.Level.INCOMPATIBLE),
+                                      infoMap.getRestSpecInfo(CompatibilityInfo.Level.COMPATIBLE)));
+    data.put(MODEL_KEY, writeInfo(infoMap.getModelInfo(CompatibilityInfo.Level.INCOMPATIBLE),
+                                  infoMap.getModelInfo(CompatibilityInfo.Level.COMPATIBLE)));
+
+    File temp = null;
+    try
+    {
+      Files.createDirectories(_directory.toPath());
+      temp = File.createTempFile(key, ".tmp", _directory);
+      try (OutputStream out = new FileOutputStream(temp))
+      {
+        CODEC.writeMap(data, out);
+      }
+      Files.move(temp.toPath(), getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    catch (IOException e)
+    {
+      log.warn("Unable to cache compatibility check result in " + _directory, e);
+      if (temp != null && !temp.delete())
+      {
+        temp.deleteOnExit();
+      }
+    }
+  }
+
+  private File getFile(String key)
+  {
+    return new File(_directory, key + ".json");
+  }
+
+  private static DataList writeInfo(Collection<CompatibilityInfo> incompatibles, Collection<CompatibilityInfo> compatibles)
+  {
+    final DataList list = new DataList();
+    writeInfo(incompatibles, list);
+    writeInfo(compatibles, list);
+    return list;
+  }
+
+  private static void writeInfo(Collection<CompatibilityInfo> infos, DataList list)
+  {
+    for (CompatibilityInfo info : infos)
+    {
+      final DataMap infoData = new DataMap();
+      infoData.put(PATH_KEY, info.getPath());
+      infoData.put(TYPE_KEY, info.getType().name());
+      if (info.getParameters() != null)
+      {
+        final DataList parameters = new DataList();
+        for (Object parameter : info.getParameters())
+        {
+          parameters.add(String.valueOf(parameter));
+        }
+        infoData.put(PARAMETERS_KEY, parameters);
+      }
+      list.add(infoData);
+    }
+  }
+
+  private static void readInfo(DataList list, CompatibilityInfoMap infoMap, boolean isModel)
+  {
+    for (Object item : list)
+    {
+      final DataMap infoData = (DataMap) item;
+      final CompatibilityInfo.Type type = CompatibilityInfo.Type.valueOf(infoData.getString(TYPE_KEY));
+      final DataList parameterData = infoData.getDataList(PARAMETERS_KEY);
+      final Object[] parameters = (parameterData == null ? new Object[0] : parameterData.toArray());
+      final CompatibilityInfo info =
+          new CompatibilityInfo(Collections.<Object>singletonList(infoData.getString(PATH_KEY)), type, parameters);
+
+      if (isModel)
+      {
+        infoMap.getModelInfo(type.getLevel()).add(info);
+      }
+      else
+      {
+        infoMap.getRestSpecInfo(type.getLevel()).add(info);
+      }
+    }
+  }
+}
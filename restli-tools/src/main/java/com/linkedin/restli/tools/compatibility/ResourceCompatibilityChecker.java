@@ -63,10 +63,12 @@ import com.linkedin.restli.restspec.RestSpecCodec;
 import com.linkedin.restli.tools.idlcheck.CompatibilityInfo;
 import com.linkedin.restli.tools.idlcheck.CompatibilityLevel;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 
@@ -88,6 +90,7 @@ public class ResourceCompatibilityChecker
   private Stack<Object> _infoPath = new Stack<Object>();
 
   private Set<String> _namedSchemasChecked = new HashSet<String>();
+  private Map<List<String>, TypeCheck> _typeChecks = new HashMap<List<String>, TypeCheck>();
 
   private static final CompatibilityOptions defaultOptions =
     new CompatibilityOptions().setMode(CompatibilityOptions.Mode.SCHEMA).setAllowPromotions(false);
@@ -312,16 +315,26 @@ public class ResourceCompatibilityChecker
 
     try
     {
-      final DataSchema prevSchema = RestSpecCodec.textToSchema(prevType, _prevSchemaResolver);
-      final DataSchema currSchema = RestSpecCodec.textToSchema(currType, _currSchemaResolver);
-
-      CompatibilityResult compatibilityResult = CompatibilityChecker.checkCompatibility(prevSchema,
-                                                                                        currSchema,
-                                                                                        defaultOptions);
+      // The same pair of types is usually referenced by many methods of a resource, such as the entity type,
+      // so the result of the schema check is reused.
+      final List<String> typePair = Arrays.asList(prevType, currType);
+      TypeCheck typeCheck = _typeChecks.get(typePair);
+      if (typeCheck == null)
+      {
+        final DataSchema prevSchema = RestSpecCodec.textToSchema(prevType, _prevSchemaResolver);
+        final DataSchema currSchema = RestSpecCodec.textToSchema(currType, _currSchemaResolver);
+
+        final CompatibilityResult result = CompatibilityChecker.checkCompatibility(prevSchema,
+                                                                                   currSchema,
+                                                                                   defaultOptions);
+        typeCheck = new TypeCheck(result, prevSchema instanceof NamedDataSchema);
+        _typeChecks.put(typePair, typeCheck);
+      }
 
+      final CompatibilityResult compatibilityResult = typeCheck._result;
       if (!compatibilityResult.getMessages().isEmpty())
       {
-        if (prevType.equals(currType) && prevSchema instanceof NamedDataSchema)
+        if (prevType.equals(currType) && typeCheck._isNamed)
         {
           if (!_namedSchemasChecked.contains(prevType))
           {
@@ -1176,4 +1189,15 @@ public class ResourceCompatibilityChecker
     return (isOptional == null ? defaultValue != null : isOptional);
   }
 
+  private static class TypeCheck
+  {
+    private TypeCheck(CompatibilityResult result, boolean isNamed)
+    {
+      _result = result;
+      _isNamed = isNamed;
+    }
+
+    private final CompatibilityResult _result;
+    private final boolean _isNamed;
+  }
 }
@@ -116,6 +116,30 @@ public class CompatibilityInfo
     }
   }
 
+  /**
+   * @return path to the subject node in the idl (JSON) file, delimited by slash "/"
+   */
+  public String getPath()
+  {
+    return _path;
+  }
+
+  /**
+   * @return type of the information
+   */
+  public Type getType()
+  {
+    return _type;
+  }
+
+  /**
+   * @return parameters used to construct the information message, or null if there are none
+   */
+  public Object[] getParameters()
+  {
+    return _parameters;
+  }
+
   @Override
   public int hashCode()
   {
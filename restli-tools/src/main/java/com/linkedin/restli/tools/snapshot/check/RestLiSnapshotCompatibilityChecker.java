@@ -22,6 +22,8 @@ import com.linkedin.data.schema.DataSchemaResolver;
 import com.linkedin.data.schema.Name;
 import com.linkedin.data.schema.NamedDataSchema;
 import com.linkedin.data.schema.generator.AbstractGenerator;
+import com.linkedin.data.schema.resolver.MultiFormatDataSchemaResolver;
+import com.linkedin.restli.tools.compatibility.CompatibilityCheckCache;
 import com.linkedin.restli.tools.compatibility.CompatibilityInfoMap;
 import com.linkedin.restli.tools.compatibility.CompatibilityReport;
 import com.linkedin.restli.tools.compatibility.CompatibilityUtil;
@@ -36,12 +38,24 @@ import org.apache.commons.cli.OptionBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.PosixParser;
+import org.apache.commons.io.IOUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 /**
@@ -52,6 +66,13 @@ import java.util.Stack;
 
 public class RestLiSnapshotCompatibilityChecker
 {
+  /**
+   * System property naming the directory in which {@link #main(String[])} keeps check results across runs.
+   */
+  public static final String CACHE_DIRECTORY_PROPERTY = "com.linkedin.restli.tools.compatibility.cacheDirectory";
+
+  private static final String RESTSPEC_SUFFIX = ".restspec.json";
+
   public static void main(String[] args)
   {
     final Options options = new Options();
@@ -112,14 +133,14 @@ public class RestLiSnapshotCompatibilityChecker
     final String resolverPath = System.getProperty(AbstractGenerator.GENERATOR_RESOLVER_PATH);
     final RestLiSnapshotCompatibilityChecker checker = new RestLiSnapshotCompatibilityChecker();
     checker.setResolverPath(resolverPath);
-
-    for (int i = 1; i < targets.length; i += 2)
+    final String cacheDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+    if (cacheDirectory != null)
     {
-      String prevTarget = targets[i - 1];
-      String currTarget = targets[i];
-      checker.checkCompatibility(prevTarget, currTarget, compat, prevTarget.endsWith(".restspec.json"));
+      checker.setCacheDirectory(new File(cacheDirectory));
     }
 
+    checker.checkAll(Arrays.asList(targets), compat);
+
     String summary = checker.getInfoMap().createSummary();
 
     if (compat != CompatibilityLevel.OFF && summary.length() > 0)
@@ -141,6 +162,25 @@ public class RestLiSnapshotCompatibilityChecker
     _resolverPath = resolverPath;
   }
 
+  /**
+   * Sets the directory in which the results of checks are kept across runs, so that pairs of files that were
+   * already checked are not checked again.
+   *
+   * @param cacheDirectory provides the directory, or null to check all the files.
+   */
+  public void setCacheDirectory(File cacheDirectory)
+  {
+    _cache = (cacheDirectory == null ? null : new CompatibilityCheckCache(cacheDirectory));
+  }
+
+  /**
+   * @param parallelism provides the maximum number of pairs of files checked in parallel by {@link #checkAll(List, CompatibilityLevel)}.
+   */
+  public void setParallelism(int parallelism)
+  {
+    _parallelism = parallelism;
+  }
+
   /**
    * Check backwards compatibility between two snapshot (snapshot.json) files.
    *
@@ -170,9 +210,86 @@ public class RestLiSnapshotCompatibilityChecker
     return checkCompatibility(prevRestSpecPath, currSnapshotPath, compatLevel, true);
   }
 
+  /**
+   * Check backwards compatibility between pairs of files. Each pair is checked like {@link #check(String, String, CompatibilityLevel)},
+   * or like {@link #checkRestSpecVsSnapshot(String, String, CompatibilityLevel)} if the previous file is an idl (restspec.json) file.
+   * Independent pairs are checked in parallel, and their results are added in order.
+   *
+   * @param paths pairs of previous and current files
+   * @param compatLevel compatibility level which affects the return value
+   * @return the results of all the checks of this checker
+   */
+  public CompatibilityInfoMap checkAll(List<String> paths, CompatibilityLevel compatLevel)
+  {
+    if (paths.size() % 2 != 0)
+    {
+      throw new IllegalArgumentException("Expecting pairs of files, but got " + paths.size() + " files");
+    }
+
+    final int pairCount = paths.size() / 2;
+    final int threadCount = Math.min(_parallelism, pairCount);
+    if (threadCount <= 1)
+    {
+      for (int i = 1; i < paths.size(); i += 2)
+      {
+        checkCompatibility(paths.get(i - 1), paths.get(i), compatLevel, paths.get(i - 1).endsWith(RESTSPEC_SUFFIX));
+      }
+      return _infoMap;
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try
+    {
+      final List<Future<CompatibilityInfoMap>> results = new ArrayList<Future<CompatibilityInfoMap>>(pairCount);
+      for (int i = 1; i < paths.size(); i += 2)
+      {
+        final String prevPath = paths.get(i - 1);
+        final String currPath = paths.get(i);
+        results.add(executor.submit(new Callable<CompatibilityInfoMap>()
+        {
+          @Override
+          public CompatibilityInfoMap call()
+          {
+            return checkPair(prevPath, currPath, compatLevel, prevPath.endsWith(RESTSPEC_SUFFIX));
+          }
+        }));
+      }
+
+      for (Future<CompatibilityInfoMap> result : results)
+      {
+        _infoMap.addAll(result.get());
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while checking compatibility", e);
+    }
+    catch (ExecutionException e)
+    {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException)
+      {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+    return _infoMap;
+  }
+
   private CompatibilityInfoMap checkCompatibility(String prevRestModelPath, String currRestModelPath, CompatibilityLevel compatLevel, boolean isAgainstRestSpec)
   {
-    final CompatibilityInfoMap infoMap = _infoMap;
+    _infoMap.addAll(checkPair(prevRestModelPath, currRestModelPath, compatLevel, isAgainstRestSpec));
+    return _infoMap;
+  }
+
+  private CompatibilityInfoMap checkPair(String prevRestModelPath, String currRestModelPath, CompatibilityLevel compatLevel, boolean isAgainstRestSpec)
+  {
+    final CompatibilityInfoMap infoMap = new CompatibilityInfoMap();
     if (compatLevel == CompatibilityLevel.OFF)
     {
       // skip check entirely.
@@ -182,74 +299,114 @@ public class RestLiSnapshotCompatibilityChecker
     final Stack<Object> path = new Stack<Object>();
     path.push("");
 
-    FileInputStream prevSnapshotFile = null;
-    FileInputStream currSnapshotFile = null;
+    byte[] prevSnapshotBytes = null;
+    byte[] currSnapshotBytes = null;
 
     try
     {
-      prevSnapshotFile = new FileInputStream(prevRestModelPath);
+      prevSnapshotBytes = readFile(prevRestModelPath);
     }
     catch (FileNotFoundException e)
     {
       infoMap.addRestSpecInfo(CompatibilityInfo.Type.RESOURCE_NEW, path, currRestModelPath);
     }
+    catch (IOException e)
+    {
+      infoMap.addRestSpecInfo(CompatibilityInfo.Type.OTHER_ERROR, path, e.getMessage());
+    }
 
     try
     {
-      currSnapshotFile = new FileInputStream(currRestModelPath);
+      currSnapshotBytes = readFile(currRestModelPath);
     }
     catch (FileNotFoundException e)
     {
       infoMap.addRestSpecInfo(CompatibilityInfo.Type.RESOURCE_MISSING, path, prevRestModelPath);
     }
+    catch (IOException e)
+    {
+      infoMap.addRestSpecInfo(CompatibilityInfo.Type.OTHER_ERROR, path, e.getMessage());
+    }
 
-    if (prevSnapshotFile == null || currSnapshotFile == null)
+    if (prevSnapshotBytes == null || currSnapshotBytes == null)
     {
       return infoMap;
     }
 
+    // The results only depend on the contents of the files, since snapshots include the models they reference.
+    // Results that depend on models looked up in the resolver path, because they are missing from the files, are
+    // not cached.
+    final String cacheKey;
+    if (_cache != null)
+    {
+      cacheKey = CompatibilityCheckCache.key((isAgainstRestSpec ? "restspec" : "snapshot") + '\n' + _resolverPath,
+                                             prevSnapshotBytes,
+                                             currSnapshotBytes);
+      final CompatibilityInfoMap cachedInfoMap = _cache.get(cacheKey);
+      if (cachedInfoMap != null)
+      {
+        return cachedInfoMap;
+      }
+    }
+    else
+    {
+      cacheKey = null;
+    }
+
     AbstractSnapshot prevSnapshot = null;
     AbstractSnapshot currSnapshot = null;
+    boolean resolverPathUsed = false;
     try
     {
       if (isAgainstRestSpec)
       {
-        prevSnapshot = new RestSpec(prevSnapshotFile);
+        prevSnapshot = new RestSpec(new ByteArrayInputStream(prevSnapshotBytes));
       }
       else
       {
-        prevSnapshot = new Snapshot(prevSnapshotFile);
+        prevSnapshot = new Snapshot(new ByteArrayInputStream(prevSnapshotBytes));
       }
 
-      currSnapshot = new Snapshot(currSnapshotFile);
+      currSnapshot = new Snapshot(new ByteArrayInputStream(currSnapshotBytes));
     }
     catch (IOException e)
     {
       infoMap.addRestSpecInfo(CompatibilityInfo.Type.OTHER_ERROR, path, e.getMessage());
     }
 
-    if (prevSnapshot == null || currSnapshot == null)
+    if (prevSnapshot != null && currSnapshot != null)
     {
-      return infoMap;
+      final DataSchemaResolver currResolver = createResolverFromSnapshot(currSnapshot, _resolverPath);
+      final DataSchemaResolver prevResolver;
+      if (isAgainstRestSpec)
+      {
+        prevResolver = currResolver;
+      }
+      else
+      {
+        prevResolver = createResolverFromSnapshot(prevSnapshot, _resolverPath);
+      }
+
+      final ResourceCompatibilityChecker checker = new ResourceCompatibilityChecker(prevSnapshot.getResourceSchema(), prevResolver,
+                                                                                    currSnapshot.getResourceSchema(), currResolver);
+      checker.check(compatLevel);
+      infoMap.addAll(checker.getInfoMap());
+      resolverPathUsed = isResolverPathUsed(currResolver) || isResolverPathUsed(prevResolver);
     }
 
-    final DataSchemaResolver currResolver = createResolverFromSnapshot(currSnapshot, _resolverPath);
-    final DataSchemaResolver prevResolver;
-    if (isAgainstRestSpec)
+    if (cacheKey != null && !resolverPathUsed)
     {
-      prevResolver = currResolver;
+      _cache.put(cacheKey, infoMap);
     }
-    else
+    return infoMap;
+  }
+
+  private static byte[] readFile(String path) throws IOException
+  {
+    try (InputStream in = new FileInputStream(path))
     {
-      prevResolver = createResolverFromSnapshot(prevSnapshot, _resolverPath);
+      return IOUtils.toByteArray(in);
     }
-
-    final ResourceCompatibilityChecker checker = new ResourceCompatibilityChecker(prevSnapshot.getResourceSchema(), prevResolver,
-                                                                                  currSnapshot.getResourceSchema(), currResolver);
-    checker.check(compatLevel);
-    infoMap.addAll(checker.getInfoMap());
-
-    return infoMap;
   }
 
   private static String listCompatLevelOptions()
@@ -266,7 +423,8 @@ public class RestLiSnapshotCompatibilityChecker
 
   private static DataSchemaResolver createResolverFromSnapshot(AbstractSnapshot snapshot, String resolverPath)
   {
-    final DataSchemaResolver resolver = CompatibilityUtil.getDataSchemaResolver(resolverPath);
+    final DataSchemaResolver resolver =
+        resolverPath == null ? CompatibilityUtil.getDataSchemaResolver(null) : new SnapshotSchemaResolver(resolverPath);
 
     for (Map.Entry<String, NamedDataSchema> entry : snapshot.getModels().entrySet())
     {
@@ -278,11 +436,48 @@ public class RestLiSnapshotCompatibilityChecker
     return resolver;
   }
 
+  private static boolean isResolverPathUsed(DataSchemaResolver resolver)
+  {
+    return resolver instanceof SnapshotSchemaResolver && ((SnapshotSchemaResolver) resolver).isResolverPathUsed();
+  }
+
+  /**
+   * Resolves the models that are missing from a snapshot from the resolver path, and records whether it had to.
+   */
+  private static class SnapshotSchemaResolver extends MultiFormatDataSchemaResolver
+  {
+    private boolean _resolverPathUsed = false;
+
+    SnapshotSchemaResolver(String resolverPath)
+    {
+      super(resolverPath, BUILTIN_FORMAT_PARSER_FACTORIES);
+    }
+
+    @Override
+    public NamedDataSchema findDataSchema(String name, StringBuilder errorMessageBuilder)
+    {
+      final NamedDataSchema schema = existingDataSchema(name);
+      if (schema != null)
+      {
+        return schema;
+      }
+      _resolverPathUsed = true;
+      return super.findDataSchema(name, errorMessageBuilder);
+    }
+
+    boolean isResolverPathUsed()
+    {
+      return _resolverPathUsed;
+    }
+  }
+
   public CompatibilityInfoMap getInfoMap()
   {
     return _infoMap;
   }
 
   private String _resolverPath;
+  private CompatibilityCheckCache _cache;
+  private int _parallelism = Runtime.getRuntime().availableProcessors();
   private final CompatibilityInfoMap _infoMap = new CompatibilityInfoMap();
 }
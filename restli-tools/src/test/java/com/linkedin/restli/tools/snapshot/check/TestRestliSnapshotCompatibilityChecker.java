@@ -17,15 +17,20 @@
 package com.linkedin.restli.tools.snapshot.check;
 
 import com.linkedin.restli.tools.compatibility.CompatibilityInfoMap;
+import com.linkedin.restli.tools.compatibility.CompatibilityReport;
 import com.linkedin.restli.tools.idlcheck.CompatibilityInfo;
 import com.linkedin.restli.tools.idlcheck.CompatibilityLevel;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
 
 /**
  * @author Moira Tagle
@@ -173,6 +178,103 @@ public class TestRestliSnapshotCompatibilityChecker
     }
   }
 
+  @Test
+  public void testCheckAll()
+  {
+    final List<String> paths = Arrays.asList(
+        RESOURCES_DIR + FS + "idls" + FS + "twitter-statuses-incompatible.restspec.json",
+        RESOURCES_DIR + FS + "snapshots" + FS + "twitter-statuses.snapshot.json",
+        RESOURCES_DIR + FS + "snapshots" + FS + "prev-validationdemos.snapshot.json",
+        RESOURCES_DIR + FS + "snapshots" + FS + "curr-validationdemos-fail.snapshot.json",
+        "NonExistentFile1",
+        "NonExistentFile2");
+
+    final RestLiSnapshotCompatibilityChecker sequentialChecker = new RestLiSnapshotCompatibilityChecker();
+    sequentialChecker.checkRestSpecVsSnapshot(paths.get(0), paths.get(1), CompatibilityLevel.BACKWARDS);
+    sequentialChecker.check(paths.get(2), paths.get(3), CompatibilityLevel.BACKWARDS);
+    sequentialChecker.check(paths.get(4), paths.get(5), CompatibilityLevel.BACKWARDS);
+
+    final RestLiSnapshotCompatibilityChecker parallelChecker = new RestLiSnapshotCompatibilityChecker();
+    parallelChecker.setParallelism(3);
+    final CompatibilityInfoMap infoMap = parallelChecker.checkAll(paths, CompatibilityLevel.BACKWARDS);
+
+    Assert.assertEquals(infoMap.getIncompatibles(), sequentialChecker.getInfoMap().getIncompatibles());
+    Assert.assertEquals(infoMap.getCompatibles(), sequentialChecker.getInfoMap().getCompatibles());
+    Assert.assertEquals(infoMap.createSummary(), sequentialChecker.getInfoMap().createSummary());
+  }
+
+  @Test
+  public void testCacheDirectory() throws IOException
+  {
+    final File cacheDirectory = Files.createTempDirectory("compatibilityCache").toFile();
+    try
+    {
+      final String prevPath = RESOURCES_DIR + FS + "idls" + FS + "twitter-statuses-incompatible.restspec.json";
+      final String currPath = RESOURCES_DIR + FS + "snapshots" + FS + "twitter-statuses.snapshot.json";
+
+      final RestLiSnapshotCompatibilityChecker checker = new RestLiSnapshotCompatibilityChecker();
+      checker.setCacheDirectory(cacheDirectory);
+      final CompatibilityInfoMap infoMap = checker.checkRestSpecVsSnapshot(prevPath, currPath, CompatibilityLevel.EQUIVALENT);
+      Assert.assertFalse(infoMap.isRestSpecCompatible(CompatibilityLevel.BACKWARDS));
+      Assert.assertEquals(cacheDirectory.list().length, 1);
+
+      final RestLiSnapshotCompatibilityChecker cachedChecker = new RestLiSnapshotCompatibilityChecker();
+      cachedChecker.setCacheDirectory(cacheDirectory);
+      final CompatibilityInfoMap cachedInfoMap = cachedChecker.checkRestSpecVsSnapshot(prevPath, currPath, CompatibilityLevel.EQUIVALENT);
+      Assert.assertEquals(cachedInfoMap.createSummary(), infoMap.createSummary());
+      Assert.assertEquals(cachedInfoMap.getRestSpecIncompatibles().size(), infoMap.getRestSpecIncompatibles().size());
+      Assert.assertEquals(cachedInfoMap.getRestSpecCompatibles().size(), infoMap.getRestSpecCompatibles().size());
+      Assert.assertEquals(new CompatibilityReport(cachedInfoMap, CompatibilityLevel.BACKWARDS).createReport(),
+                          new CompatibilityReport(infoMap, CompatibilityLevel.BACKWARDS).createReport());
+
+      // Different files are checked instead of using the cached result.
+      final RestLiSnapshotCompatibilityChecker otherChecker = new RestLiSnapshotCompatibilityChecker();
+      otherChecker.setCacheDirectory(cacheDirectory);
+      Assert.assertTrue(otherChecker.check(currPath, currPath, CompatibilityLevel.EQUIVALENT).isEquivalent());
+      Assert.assertEquals(cacheDirectory.list().length, 2);
+    }
+    finally
+    {
+      FileUtils.deleteDirectory(cacheDirectory);
+    }
+  }
+
+  @Test
+  public void testCacheDirectoryWithModelsFromResolverPath() throws IOException
+  {
+    final File directory = Files.createTempDirectory("compatibilityCache").toFile();
+    try
+    {
+      // The snapshot does not include the model of the action parameter, which is resolved from the resolver path.
+      final File snapshotFile = new File(directory, "missing.snapshot.json");
+      FileUtils.writeStringToFile(snapshotFile,
+          "{ \"models\" : [ ], \"schema\" : { \"name\" : \"missing\", \"path\" : \"/missing\", " +
+          "\"actionsSet\" : { \"actions\" : [ { \"name\" : \"test\", \"parameters\" : [ " +
+          "{ \"name\" : \"a\", \"type\" : \"com.linkedin.restli.tools.missing.Missing\" } ] } ] } } }");
+      final File resolverDirectory = new File(directory, "pegasus");
+      FileUtils.writeStringToFile(new File(resolverDirectory, "com" + FS + "linkedin" + FS + "restli" + FS + "tools" + FS +
+                                           "missing" + FS + "Missing.pdsc"),
+          "{ \"type\" : \"record\", \"name\" : \"Missing\", \"namespace\" : \"com.linkedin.restli.tools.missing\", " +
+          "\"fields\" : [ ] }");
+      final File cacheDirectory = new File(directory, "cache");
+
+      final RestLiSnapshotCompatibilityChecker checker = new RestLiSnapshotCompatibilityChecker();
+      checker.setResolverPath(resolverDirectory.getAbsolutePath());
+      checker.setCacheDirectory(cacheDirectory);
+      final CompatibilityInfoMap infoMap = checker.check(snapshotFile.getAbsolutePath(),
+                                                         snapshotFile.getAbsolutePath(),
+                                                         CompatibilityLevel.EQUIVALENT);
+      Assert.assertTrue(infoMap.isEquivalent());
+
+      // The result depends on the models in the resolver path, so it is not cached.
+      Assert.assertFalse(cacheDirectory.exists());
+    }
+    finally
+    {
+      FileUtils.deleteDirectory(directory);
+    }
+  }
+
   private static final String FS = File.separator;
   private static final String RESOURCES_DIR = "src" + FS + "test" + FS + "resources";
 }